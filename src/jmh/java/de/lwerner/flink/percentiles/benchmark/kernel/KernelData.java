@@ -0,0 +1,158 @@
+package de.lwerner.flink.percentiles.benchmark.kernel;
+
+import de.lwerner.flink.percentiles.generation.AbstractGenerator;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.api.common.functions.RichFunction;
+import org.apache.flink.api.common.functions.util.RuntimeUDFContext;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.Collector;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class KernelData
+ *
+ * Provides the inputs of the kernel benchmarks: values of all generator distributions (random, exponential, allequal,
+ * asc, desc) with a fixed seed, and a runtime context with broadcast variables, so rich functions run without a job.
+ *
+ * @author Lukas Werner
+ */
+final class KernelData {
+
+    /**
+     * The seed of all random distributions, so all runs measure the same values
+     */
+    static final long SEED = 42;
+
+    /**
+     * No instances
+     */
+    private KernelData() {
+    }
+
+    /**
+     * Generates values of a distribution
+     *
+     * @param distribution the generator name (random|exponential|allequal|asc|desc)
+     * @param count the number of values
+     *
+     * @return the values
+     */
+    static float[] values(String distribution, int count) {
+        AbstractGenerator generator = AbstractGenerator.factory(distribution, 1, SEED);
+        generator.seek(0, count);
+
+        float[] values = new float[count];
+        generator.generate(values, count);
+
+        return values;
+    }
+
+    /**
+     * Generates sorted values of a distribution, like a sorted partition
+     *
+     * @param distribution the generator name (random|exponential|allequal|asc|desc)
+     * @param count the number of values
+     *
+     * @return the sorted values
+     */
+    static float[] sortedValues(String distribution, int count) {
+        float[] values = values(distribution, count);
+        Arrays.sort(values);
+
+        return values;
+    }
+
+    /**
+     * Wraps values into tuples
+     *
+     * @param values the values
+     *
+     * @return the tuples
+     */
+    static List<Tuple1<Float>> tuples(float[] values) {
+        List<Tuple1<Float>> tuples = new ArrayList<>(values.length);
+        for (float value: values) {
+            tuples.add(new Tuple1<>(value));
+        }
+
+        return tuples;
+    }
+
+    /**
+     * Gets the median of values
+     *
+     * @param values the values
+     *
+     * @return the median
+     */
+    static float median(float[] values) {
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Sets a runtime context with the given broadcast variables and opens a rich function
+     *
+     * @param function the rich function
+     * @param broadcastVariables the broadcast variables by name
+     *
+     * @throws Exception if the function cannot be opened
+     */
+    static void open(RichFunction function, Map<String, List<?>> broadcastVariables) throws Exception {
+        RuntimeUDFContext context = new RuntimeUDFContext(new TaskInfo("kernel", 1, 0, 1, 0),
+                KernelData.class.getClassLoader(), new ExecutionConfig(), new HashMap<>(), new HashMap<>(),
+                new UnregisteredMetricsGroup());
+        for (Map.Entry<String, List<?>> entry: broadcastVariables.entrySet()) {
+            context.setBroadcastVariable(entry.getKey(), entry.getValue());
+        }
+
+        function.setRuntimeContext(context);
+        function.open(new Configuration());
+    }
+
+    /**
+     * Collector, which hands all records to a black hole, so the results aren't optimized away
+     *
+     * @param <T> the record type
+     *
+     * @author Lukas Werner
+     */
+    static final class BlackholeCollector<T> implements Collector<T> {
+
+        /**
+         * The black hole
+         */
+        private final Blackhole blackhole;
+
+        /**
+         * Constructor, sets the black hole
+         *
+         * @param blackhole the black hole
+         */
+        BlackholeCollector(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void collect(T record) {
+            blackhole.consume(record);
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
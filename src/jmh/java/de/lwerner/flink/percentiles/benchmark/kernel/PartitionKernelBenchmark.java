@@ -0,0 +1,210 @@
+package de.lwerner.flink.percentiles.benchmark.kernel;
+
+import de.lwerner.flink.percentiles.functions.join.DiscardValuesFlatMapFunction;
+import de.lwerner.flink.percentiles.functions.redis.CalculateLessEqualAndGreaterMapFunction;
+import de.lwerner.flink.percentiles.functions.redis.DiscardValuesFilterFunction;
+import de.lwerner.flink.percentiles.functions.redis.MedianAndCountMapPartitionFunction;
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per superstep kernels of one partition of the selection: the partition median and count (redis and
+ * join variants), the less/equal/greater counting and the discard filters, each over the whole partition.
+ *
+ * @author Lukas Werner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionKernelBenchmark {
+
+    /**
+     * The generator distribution
+     */
+    @Param({"random", "exponential", "allequal", "asc", "desc"})
+    public String distribution;
+
+    /**
+     * The number of values of the partition
+     */
+    @Param({"100000"})
+    public int size;
+
+    /**
+     * The sorted partition
+     */
+    private List<Tuple1<Float>> sortedValues;
+
+    /**
+     * The sorted partition with k and n
+     */
+    private List<Tuple3<Float, Long, Long>> sortedJoinValues;
+
+    /**
+     * The unsorted partition
+     */
+    private List<Tuple1<Float>> values;
+
+    /**
+     * The unsorted partition with k and n
+     */
+    private List<Tuple3<Float, Long, Long>> joinValues;
+
+    /**
+     * The median and count function (redis)
+     */
+    private MedianAndCountMapPartitionFunction medianAndCount;
+
+    /**
+     * The median and count function (join)
+     */
+    private de.lwerner.flink.percentiles.functions.join.MedianAndCountMapPartitionFunction joinMedianAndCount;
+
+    /**
+     * The less/equal/greater counting (redis)
+     */
+    private CalculateLessEqualAndGreaterMapFunction lessEqualAndGreater;
+
+    /**
+     * The less/equal/greater counting (join)
+     */
+    private de.lwerner.flink.percentiles.functions.join.CalculateLessEqualAndGreaterMapFunction joinLessEqualAndGreater;
+
+    /**
+     * The discard filter (redis), keeps the less values
+     */
+    private DiscardValuesFilterFunction discard;
+
+    /**
+     * The discard function (join), keeps the less values
+     */
+    private DiscardValuesFlatMapFunction joinDiscard;
+
+    /**
+     * Generates the partitions and opens the functions with the partition median as pivot
+     *
+     * @throws Exception if a function cannot be opened
+     */
+    @Setup
+    public void setup() throws Exception {
+        float[] generated = KernelData.values(distribution, size);
+        float pivot = KernelData.median(generated);
+
+        values = KernelData.tuples(generated);
+        sortedValues = KernelData.tuples(KernelData.sortedValues(distribution, size));
+
+        long k = size / 2;
+        joinValues = new ArrayList<>(size);
+        for (Tuple1<Float> t: values) {
+            joinValues.add(new Tuple3<>(t.f0, k, (long)size));
+        }
+        sortedJoinValues = new ArrayList<>(size);
+        for (Tuple1<Float> t: sortedValues) {
+            sortedJoinValues.add(new Tuple3<>(t.f0, k, (long)size));
+        }
+
+        medianAndCount = new MedianAndCountMapPartitionFunction();
+        joinMedianAndCount = new de.lwerner.flink.percentiles.functions.join.MedianAndCountMapPartitionFunction();
+
+        Map<String, List<?>> broadcastVariables = new HashMap<>();
+        broadcastVariables.put("weightedMedian", Collections.singletonList(new Tuple1<>(pivot)));
+        broadcastVariables.put("decisionBase", Collections.singletonList(new DecisionModel(false, true, 0, k, k)));
+
+        lessEqualAndGreater = new CalculateLessEqualAndGreaterMapFunction();
+        KernelData.open(lessEqualAndGreater, broadcastVariables);
+
+        discard = new DiscardValuesFilterFunction();
+        KernelData.open(discard, broadcastVariables);
+
+        joinLessEqualAndGreater = new de.lwerner.flink.percentiles.functions.join.CalculateLessEqualAndGreaterMapFunction();
+        KernelData.open(joinLessEqualAndGreater, broadcastVariables);
+
+        broadcastVariables.put("decisionBase", Collections.singletonList(new Tuple3<>(true, k, k)));
+        joinDiscard = new DiscardValuesFlatMapFunction();
+        KernelData.open(joinDiscard, broadcastVariables);
+    }
+
+    /**
+     * Median and count of a sorted partition (redis)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void medianAndCount(Blackhole blackhole) {
+        medianAndCount.mapPartition(sortedValues, new KernelData.BlackholeCollector<Tuple2<Float, Long>>(blackhole));
+    }
+
+    /**
+     * Median and count of a sorted partition (join)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void joinMedianAndCount(Blackhole blackhole) {
+        joinMedianAndCount.mapPartition(sortedJoinValues, new KernelData.BlackholeCollector<Tuple3<Float, Long, Long>>(blackhole));
+    }
+
+    /**
+     * Less/equal/greater counting of a partition (redis)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void lessEqualAndGreater(Blackhole blackhole) {
+        for (Tuple1<Float> t: values) {
+            blackhole.consume(lessEqualAndGreater.map(t));
+        }
+    }
+
+    /**
+     * Less/equal/greater counting of a partition (join)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void joinLessEqualAndGreater(Blackhole blackhole) {
+        for (Tuple3<Float, Long, Long> t: joinValues) {
+            blackhole.consume(joinLessEqualAndGreater.map(t));
+        }
+    }
+
+    /**
+     * Discard filter of a partition (redis)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void discard(Blackhole blackhole) {
+        for (Tuple1<Float> t: values) {
+            blackhole.consume(discard.filter(t));
+        }
+    }
+
+    /**
+     * Discard function of a partition (join)
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void joinDiscard(Blackhole blackhole) {
+        KernelData.BlackholeCollector<Tuple3<Float, Long, Long>> collector = new KernelData.BlackholeCollector<>(blackhole);
+        for (Tuple3<Float, Long, Long> t: joinValues) {
+            joinDiscard.flatMap(t, collector);
+        }
+    }
+
+}
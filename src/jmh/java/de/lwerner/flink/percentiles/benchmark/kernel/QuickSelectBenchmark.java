@@ -0,0 +1,97 @@
+package de.lwerner.flink.percentiles.benchmark.kernel;
+
+import de.lwerner.flink.percentiles.math.QuickSelect;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures QuickSelect on boxed lists (iterative and recursive) and on primitive arrays. Each invocation selects the
+ * median of a fresh copy, because the selection reorders the values, so the copy is part of all three measurements.
+ * The three-way partition answers all-equal values with a single pass.
+ *
+ * @author Lukas Werner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuickSelectBenchmark {
+
+    /**
+     * The generator distribution
+     */
+    @Param({"random", "exponential", "allequal", "asc", "desc"})
+    public String distribution;
+
+    /**
+     * The number of values
+     */
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * The generated values
+     */
+    private float[] values;
+
+    /**
+     * The boxed values
+     */
+    private List<Float> list;
+
+    /**
+     * The selection algorithm
+     */
+    private QuickSelect quickSelect;
+
+    /**
+     * Generates the values
+     */
+    @Setup
+    public void setup() {
+        values = KernelData.values(distribution, size);
+
+        list = new ArrayList<>(size);
+        for (float value: values) {
+            list.add(value);
+        }
+
+        quickSelect = new QuickSelect();
+    }
+
+    /**
+     * Iterative selection on a boxed list
+     *
+     * @return the median
+     */
+    @Benchmark
+    public float iterative() {
+        return quickSelect.select(new ArrayList<>(list), size / 2, false);
+    }
+
+    /**
+     * Recursive selection on a boxed list
+     *
+     * @return the median
+     */
+    @Benchmark
+    public float recursive() {
+        return quickSelect.select(new ArrayList<>(list), size / 2, true);
+    }
+
+    /**
+     * Iterative selection on a primitive array
+     *
+     * @return the median
+     */
+    @Benchmark
+    public float primitive() {
+        return quickSelect.select(values.clone(), size, size / 2);
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.lwerner.flink.percentiles.benchmark.kernel;
+
+import de.lwerner.flink.percentiles.functions.GetRandomValuesMapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the random sample of one partition, which the approximative selection draws.
+ *
+ * @author Lukas Werner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomSampleBenchmark {
+
+    /**
+     * The generator distribution
+     */
+    @Param({"random", "exponential", "allequal", "asc", "desc"})
+    public String distribution;
+
+    /**
+     * The number of values of the partition
+     */
+    @Param({"100000"})
+    public int size;
+
+    /**
+     * The sample size
+     */
+    @Param({"100", "10000"})
+    public long sampleSize;
+
+    /**
+     * The partition
+     */
+    private List<Tuple1<Float>> values;
+
+    /**
+     * The sample function
+     */
+    private GetRandomValuesMapPartitionFunction sample;
+
+    /**
+     * Generates the partition
+     */
+    @Setup
+    public void setup() {
+        values = KernelData.tuples(KernelData.values(distribution, size));
+        sample = new GetRandomValuesMapPartitionFunction(sampleSize, KernelData.SEED);
+    }
+
+    /**
+     * Random sample of the partition
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void sample(Blackhole blackhole) {
+        sample.mapPartition(values, new KernelData.BlackholeCollector<Tuple1<Float>>(blackhole));
+    }
+
+}
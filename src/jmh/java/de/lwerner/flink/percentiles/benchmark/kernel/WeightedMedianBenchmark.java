@@ -0,0 +1,72 @@
+package de.lwerner.flink.percentiles.benchmark.kernel;
+
+import de.lwerner.flink.percentiles.functions.CalculateWeightedMedianGroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the weighted median of the partition medians, which runs once per superstep on a single task, for 8 to
+ * 100k partitions. The medians are values of the distribution, the weights are uniform like equally sized partitions.
+ *
+ * @author Lukas Werner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeightedMedianBenchmark {
+
+    /**
+     * The generator distribution
+     */
+    @Param({"random", "exponential", "allequal", "asc", "desc"})
+    public String distribution;
+
+    /**
+     * The number of partitions
+     */
+    @Param({"8", "64", "1024", "100000"})
+    public int partitions;
+
+    /**
+     * The (median, weight) pairs
+     */
+    private List<Tuple2<Float, Float>> mediansAndWeights;
+
+    /**
+     * The weighted median function
+     */
+    private CalculateWeightedMedianGroupReduceFunction weightedMedian;
+
+    /**
+     * Generates the medians
+     */
+    @Setup
+    public void setup() {
+        mediansAndWeights = new ArrayList<>(partitions);
+        for (float median: KernelData.values(distribution, partitions)) {
+            mediansAndWeights.add(new Tuple2<>(median, 1f / partitions));
+        }
+
+        weightedMedian = new CalculateWeightedMedianGroupReduceFunction();
+    }
+
+    /**
+     * Weighted median of all partition medians
+     *
+     * @param blackhole the black hole
+     */
+    @Benchmark
+    public void weightedMedian(Blackhole blackhole) {
+        weightedMedian.reduce(mediansAndWeights, new KernelData.BlackholeCollector<Tuple1<Float>>(blackhole));
+    }
+
+}
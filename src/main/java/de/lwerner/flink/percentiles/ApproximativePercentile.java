@@ -1,6 +1,7 @@
 package de.lwerner.flink.percentiles;
 
 import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
 import de.lwerner.flink.percentiles.data.SinkInterface;
 import de.lwerner.flink.percentiles.data.SourceInterface;
 import de.lwerner.flink.percentiles.model.Result;
@@ -30,10 +31,14 @@ public class ApproximativePercentile extends AbstractPercentile {
     public ApproximativePercentile(SourceInterface source, SinkInterface sink, int p, long t) {
         super(source, sink, p, t);
 
-        float np = source.getCount() / 100f;
-        setK((int)Math.ceil(np * p));
+        // An unknown count resolves k in the job
+        boolean countKnown = source.getCount() != SourceInterface.UNKNOWN_COUNT;
+        setK(countKnown ? rankOf(source.getCount(), p) : AbstractSelectionProblem.UNKNOWN_RANK);
 
         approximativeSelectionProblem = new ApproximativeSelectionProblem(source, sink, getK(), t, false);
+        if (!countKnown) {
+            approximativeSelectionProblem.setPercentile(p);
+        }
     }
 
     /**
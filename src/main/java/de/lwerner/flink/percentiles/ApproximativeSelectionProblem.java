@@ -3,18 +3,14 @@ package de.lwerner.flink.percentiles;
 import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
 import de.lwerner.flink.percentiles.data.SinkInterface;
 import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.functions.GetRandomValuesMapPartitionFunction;
 import de.lwerner.flink.percentiles.functions.redis.SolveRemainingMapPartition;
 import de.lwerner.flink.percentiles.model.Result;
-import org.apache.flink.api.common.functions.MapPartitionFunction;
+import de.lwerner.flink.percentiles.util.ResultCollector;
 import org.apache.flink.api.common.operators.Order;
 import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.tuple.Tuple1;
-import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.utils.ParameterTool;
-import org.apache.flink.util.Collector;
-
-import java.util.Random;
-import java.util.TreeMap;
 
 /**
  * Calculates an approximative selection over a huge amount of values.
@@ -94,40 +90,40 @@ public class ApproximativeSelectionProblem extends AbstractSelectionProblem {
 
     @Override
     public void solve() throws Exception {
+        // k is scaled to the sample by k / n, a percentile of an unknown count scales by p / 100 without counting
+        long count = getSource().getCount();
+        long k = getK();
+        if (k == UNKNOWN_RANK) {
+            count = 100;
+            k = getPercentile();
+        } else if (count == SourceInterface.UNKNOWN_COUNT) {
+            count = getSource().getDataSet().count();
+            if (k > count) {
+                throw new IllegalArgumentException("k must be between 1 and the value count, k: " + k + ", count: " + count);
+            }
+        }
+
         DataSet<Tuple1<Float>> solution = getSource()
                 .getDataSet()
                 .partitionByHash(0)
                 .mapPartition(new GetRandomValuesMapPartitionFunction(getSampleSize()))
                 .partitionByHash(0).setParallelism(1)
                 .sortPartition(0, Order.ASCENDING).setParallelism(1)
-                .mapPartition(new SolveRemainingMapPartition(getSource().getCount(), getK())).setParallelism(1);
+                .mapPartition(new SolveRemainingMapPartition(count, k)).setParallelism(1);
 
         result = new Result();
         result.setSolution(solution);
         result.setK(getK());
         result.setT(getSampleSize());
 
+        // A sample isn't cached, it's random
+        ResultCollector.collect(getSource().getEnv(), result, "ApproximativeSelectionProblem (k = " + getK() + ")");
+
         if (useSink) {
             getSink().processResult(result);
         }
     }
 
-    /**
-     * Add value to map if conditions are met
-     *
-     * @param map the map
-     * @param value the value
-     * @param maxMapSize the maximum map size
-     */
-    private static void conditionallyAddToMap(TreeMap<Float, Tuple2<Float, Float>> map, Tuple2<Float, Float> value, long maxMapSize) {
-        if (map.size() < maxMapSize) {
-            map.put(value.f1, value);
-        } else if (map.firstKey() < value.f1) {
-            map.remove(map.firstKey());
-            map.put(value.f1, value);
-        }
-    }
-
     /**
      * The main application method, fetches execution environment, generates random values and executes the main
      * algorithm
@@ -147,47 +143,4 @@ public class ApproximativeSelectionProblem extends AbstractSelectionProblem {
         algorithm.solve();
     }
 
-    /**
-     * Map function to associate each value with a random float number and get top values
-     *
-     * @author Lukas Werner
-     */
-    private static final class GetRandomValuesMapPartitionFunction implements MapPartitionFunction<Tuple1<Float>, Tuple1<Float>> {
-
-        /**
-         * Random object
-         */
-        private final Random random;
-
-        /**
-         * The sample size
-         */
-        private long sampleSize;
-
-        /**
-         * Constructor to initialize random object
-         *
-         * @param sampleSize the sample size
-         */
-        public GetRandomValuesMapPartitionFunction(long sampleSize) {
-            random = new Random();
-
-            this.sampleSize = sampleSize;
-        }
-
-        @Override
-        public void mapPartition(Iterable<Tuple1<Float>> values, Collector<Tuple1<Float>> out) {
-            TreeMap<Float, Tuple2<Float, Float>> sortedMap = new TreeMap<>();
-
-            for (Tuple1<Float> t: values) {
-                Tuple2<Float, Float> newValue = new Tuple2<>(t.f0, (float)(random.nextDouble() * 1234569241));
-
-                conditionallyAddToMap(sortedMap, newValue, sampleSize);
-            }
-
-            for (Tuple2<Float, Float> t: sortedMap.values()) {
-                out.collect(new Tuple1<>(t.f0));
-            }
-        }
-    }
 }
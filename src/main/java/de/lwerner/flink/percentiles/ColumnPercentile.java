@@ -0,0 +1,68 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.data.CsvColumnSource;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/**
+ * Class ColumnPercentile
+ *
+ * Calculates percentiles for several columns of a csv or tsv file in one pass. Only the requested columns are parsed,
+ * each column is a group of the grouped selection, so all columns are resolved independently inside one iteration.
+ *
+ * @author Lukas Werner
+ */
+public class ColumnPercentile {
+
+    /**
+     * The main application method, fetches execution environment and executes the grouped selection
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        String[] columnStrings = params.getRequired("columns").split(",");
+        int[] columns = new int[columnStrings.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Integer.valueOf(columnStrings[i].trim());
+        }
+
+        String[] names;
+        if (params.has("names")) {
+            names = params.get("names").split(",");
+        } else {
+            names = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                names[i] = "column-" + columns[i];
+            }
+        }
+
+        String delimiter = params.get("delimiter", ",");
+        if (delimiter.equals("tab") || delimiter.equals("\\t")) {
+            delimiter = "\t";
+        }
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("Please provide a single character delimiter");
+        }
+
+        CsvColumnSource source = new CsvColumnSource(env, params.getRequired("input-path"), delimiter.charAt(0), columns, names, params.has("header"));
+
+        // Columns are usually large, so they are resolved distributed by default
+        long groupThreshold = Long.valueOf(params.get("group-threshold", "1000"));
+        if (groupThreshold < 1) {
+            throw new IllegalArgumentException("Please provide a group threshold of at least 1");
+        }
+
+        GroupedPercentile algorithm = new GroupedPercentile(source, params.get("output-path"), GroupedPercentile.parsePercentiles(params.getRequired("p")), groupThreshold);
+        algorithm.setMaxIterations(Integer.valueOf(params.get("max-iterations", "100")));
+        algorithm.solve();
+    }
+
+}
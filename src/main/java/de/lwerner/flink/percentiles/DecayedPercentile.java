@@ -0,0 +1,113 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractStreamingPercentile;
+import de.lwerner.flink.percentiles.data.StreamSinkInterface;
+import de.lwerner.flink.percentiles.data.StreamSourceInterface;
+import de.lwerner.flink.percentiles.functions.streaming.DecayedPercentileProcessFunction;
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+/**
+ * Class DecayedPercentile
+ *
+ * Calculates an approximative, time decayed percentile per key for each incoming value. Recent values weigh more
+ * (exponential forward decay), so there are no hard window edges and no window has to be recomputed. A query sorts
+ * the sketch, so the percentile of a key is emitted for every 100th value of the key by default (--emit-every), which
+ * keeps the update cost O(1) amortized.
+ *
+ * @author Lukas Werner
+ */
+public class DecayedPercentile extends AbstractStreamingPercentile {
+
+    /**
+     * Default emit interval, a query costs about as much as (compression) updates
+     */
+    public static final int DEFAULT_EMIT_EVERY = 100;
+
+    /**
+     * The half life in milliseconds
+     */
+    private long halfLife;
+
+    /**
+     * The sketch compression
+     */
+    private int compression = WeightedQuantileSketch.DEFAULT_COMPRESSION;
+
+    /**
+     * DecayedPercentile constructor, sets the required values
+     *
+     * @param source streaming data source
+     * @param sink streaming data sink
+     * @param p percentage value
+     */
+    public DecayedPercentile(StreamSourceInterface source, StreamSinkInterface sink, int p) {
+        super(source, sink, p);
+
+        setEmitEvery(DEFAULT_EMIT_EVERY);
+    }
+
+    /**
+     * Set the half life
+     *
+     * @param halfLife the time in milliseconds, after which a value weighs half as much as a new one
+     */
+    public void setHalfLife(long halfLife) {
+        if (halfLife < 1) {
+            throw new IllegalArgumentException("Please provide a half life of at least 1 millisecond");
+        }
+
+        this.halfLife = halfLife;
+    }
+
+    /**
+     * Set the sketch compression
+     *
+     * @param compression number of centroids per key
+     */
+    public void setCompression(int compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Builds the decayed percentile stream
+     *
+     * @param values (key, timestamp, value) stream
+     *
+     * @return (key, timestamp, percentile) stream
+     */
+    public DataStream<Tuple3<String, Long, Float>> apply(DataStream<Tuple3<String, Long, Float>> values) {
+        return values
+                .keyBy(0)
+                .process(new DecayedPercentileProcessFunction(getP(), halfLife, compression, getEmitEvery()));
+    }
+
+    @Override
+    public void solve() throws Exception {
+        getSink().processStream(apply(getSource().getDataStream()));
+
+        getSource().getEnv().execute("Decayed percentile (p = " + getP() + ")");
+    }
+
+    /**
+     * The main application method, fetches stream execution environment and executes the main algorithm
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        int p = Integer.valueOf(params.getRequired("p"));
+        long halfLife = Long.valueOf(params.getRequired("half-life"));
+
+        DecayedPercentile algorithm = factory(DecayedPercentile.class, params, p);
+        algorithm.setHalfLife(halfLife);
+        algorithm.setCompression(Integer.valueOf(params.get("compression", "" + WeightedQuantileSketch.DEFAULT_COMPRESSION)));
+        algorithm.solve();
+    }
+
+}
@@ -0,0 +1,210 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.Solvable;
+import de.lwerner.flink.percentiles.data.GroupedCsvSource;
+import de.lwerner.flink.percentiles.data.GroupedSourceInterface;
+import de.lwerner.flink.percentiles.functions.grouped.*;
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.operators.DeltaIteration;
+import org.apache.flink.api.java.tuple.*;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.core.fs.FileSystem;
+
+/**
+ * Class GroupedPercentile
+ *
+ * Calculates several percentiles for each group of a (group, value) data set in a single job. A counting pass splits
+ * the groups by a size threshold: small groups are solved inside one reducer with a primitive selection, large groups
+ * are solved together in one distributed selection (delta iteration), where each (group, p) pair is refined
+ * independently until its result is found. The values of the large groups are kept once, each pair only carries its
+ * rank and candidate range, so the shuffled data doesn't grow with the number of percentiles.
+ *
+ * @author Lukas Werner
+ */
+public class GroupedPercentile implements Solvable {
+
+    /**
+     * The data source
+     */
+    private GroupedSourceInterface source;
+
+    /**
+     * The result path, null to print the results
+     */
+    private String outputPath;
+
+    /**
+     * The percentage values
+     */
+    private int[] percentiles;
+
+    /**
+     * Groups with more values are solved distributed
+     */
+    private long groupThreshold;
+
+    /**
+     * Maximum number of iterations for the large groups
+     */
+    private int maxIterations = 100;
+
+    /**
+     * GroupedPercentile constructor, sets the required values
+     *
+     * @param source the data source
+     * @param outputPath the result path, null to print the results
+     * @param percentiles the percentage values
+     * @param groupThreshold groups with more values are solved distributed
+     */
+    public GroupedPercentile(GroupedSourceInterface source, String outputPath, int[] percentiles, long groupThreshold) {
+        this.source = source;
+        this.outputPath = outputPath;
+        this.percentiles = percentiles;
+        this.groupThreshold = groupThreshold;
+    }
+
+    /**
+     * Set the maximum number of iterations for the large groups
+     *
+     * @param maxIterations the maximum number of iterations
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Builds the grouped selection
+     *
+     * @param values (group, value) data set
+     *
+     * @return (group, p, percentile) data set
+     */
+    public DataSet<Tuple3<String, Integer, Float>> apply(DataSet<Tuple2<String, Float>> values) {
+        // Counting pass
+        DataSet<Tuple2<String, Long>> counts = values
+                .map(new GroupCountMapFunction())
+                .groupBy(0)
+                .sum(1);
+
+        DataSet<Tuple3<String, Float, Long>> valuesAndCounts = values
+                .join(counts)
+                .where(0).equalTo(0)
+                .with(new AttachGroupCountJoinFunction());
+
+        // Small groups: solve each group locally
+        DataSet<Tuple3<String, Integer, Float>> smallResults = valuesAndCounts
+                .filter(new GroupSizeFilterFunction(groupThreshold, false))
+                .groupBy(0)
+                .reduceGroup(new SolveGroupLocallyGroupReduceFunction(percentiles));
+
+        // Large groups: distributed selection for each (group, p) pair, the values stay outside of the iteration
+        DataSet<Tuple3<String, Float, Long>> largeValues = valuesAndCounts
+                .filter(new GroupSizeFilterFunction(groupThreshold, true));
+
+        DataSet<GroupDecisionModel> initialState = counts
+                .flatMap(new InitialGroupStateFlatMapFunction(percentiles, groupThreshold));
+
+        // Solution set: all pairs, work set: the unsolved pairs
+        DeltaIteration<GroupDecisionModel, GroupDecisionModel> iteration = initialState
+                .iterateDelta(initialState, maxIterations, 0, 1);
+
+        DataSet<GroupDecisionModel> unsolved = iteration.getWorkset();
+
+        // Candidates of each unsolved pair, formed locally from the broadcast states
+        DataSet<Tuple3<String, Integer, Float>> candidates = largeValues
+                .joinWithTiny(unsolved)
+                .where(0).equalTo(0)
+                .with(new CandidateValuesFlatJoinFunction());
+
+        // Pivot: weighted median of the partition sample medians
+        DataSet<Tuple3<String, Integer, Float>> pivots = candidates
+                .groupBy(0, 1)
+                .combineGroup(new GroupPivotCombineFunction())
+                .groupBy(0, 1)
+                .reduceGroup(new GroupPivotGroupReduceFunction());
+
+        // Count less, equal and greater candidates per (group, p) pair
+        DataSet<Tuple6<String, Integer, Float, Long, Long, Long>> leg = candidates
+                .joinWithTiny(pivots)
+                .where(0, 1).equalTo(0, 1)
+                .with(new GroupLessEqualAndGreaterJoinFunction())
+                .groupBy(0, 1)
+                .reduce(new GroupLessEqualAndGreaterReduceFunction());
+
+        DataSet<GroupDecisionModel> decisions = leg
+                .join(unsolved)
+                .where(0, 1).equalTo(0, 1)
+                .with(new DecideWhatToDoJoinFunction());
+
+        // Found pairs leave the work set, so the iteration ends, when all results are found
+        DataSet<GroupDecisionModel> nextUnsolved = decisions
+                .filter(new UnsolvedGroupFilterFunction());
+
+        DataSet<Tuple3<String, Integer, Float>> largeResults = iteration
+                .closeWith(decisions, nextUnsolved)
+                .map(new GroupResultMapFunction());
+
+        return smallResults.union(largeResults);
+    }
+
+    @Override
+    public void solve() throws Exception {
+        DataSet<Tuple3<String, Integer, Float>> results = apply(source.getDataSet());
+
+        if (outputPath != null) {
+            results.writeAsCsv(outputPath, FileSystem.WriteMode.OVERWRITE);
+            source.getEnv().execute("Grouped percentiles");
+        } else {
+            results.print();
+        }
+    }
+
+    /**
+     * Parses a comma separated list of percentage values
+     *
+     * @param percentiles the list, e.g. "50,99"
+     *
+     * @return the percentage values
+     */
+    public static int[] parsePercentiles(String percentiles) {
+        String[] parts = percentiles.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.valueOf(parts[i].trim());
+            if (result[i] < 1 || result[i] > 100) {
+                throw new IllegalArgumentException("p must be between 1 and 100");
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * The main application method, fetches execution environment and executes the main algorithm
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        GroupedCsvSource source = new GroupedCsvSource(env, params.getRequired("input-path"), params.get("delimiter", ","));
+
+        long groupThreshold = Long.valueOf(params.get("group-threshold", "1000000"));
+        if (groupThreshold < 1) {
+            throw new IllegalArgumentException("Please provide a group threshold of at least 1");
+        }
+
+        GroupedPercentile algorithm = new GroupedPercentile(source, params.get("output-path"), parsePercentiles(params.getRequired("p")), groupThreshold);
+        algorithm.setMaxIterations(Integer.valueOf(params.get("max-iterations", "100")));
+        algorithm.solve();
+    }
+
+}
@@ -1,6 +1,7 @@
 package de.lwerner.flink.percentiles;
 
 import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
 import de.lwerner.flink.percentiles.data.*;
 import de.lwerner.flink.percentiles.model.Result;
 import org.apache.flink.api.java.utils.ParameterTool;
@@ -30,10 +31,14 @@ public class Percentile extends AbstractPercentile {
     public Percentile(SourceInterface source, SinkInterface sink, int p, long t) {
         super(source, sink, p, t);
 
-        float np = source.getCount() / 100f;
-        setK((int)Math.ceil(np * p));
+        // An unknown count resolves k in the job
+        boolean countKnown = source.getCount() != SourceInterface.UNKNOWN_COUNT;
+        setK(countKnown ? rankOf(source.getCount(), p) : AbstractSelectionProblem.UNKNOWN_RANK);
 
         selectionProblem = new SelectionProblem(source, sink, getK(), t, false);
+        if (!countKnown) {
+            selectionProblem.setPercentile(p);
+        }
     }
 
     @Override
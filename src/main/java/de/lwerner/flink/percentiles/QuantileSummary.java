@@ -0,0 +1,172 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractAlgorithm;
+import de.lwerner.flink.percentiles.data.SinkInterface;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.functions.summary.*;
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import de.lwerner.flink.percentiles.model.Result;
+import de.lwerner.flink.percentiles.util.AppProperties;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/**
+ * Calculates all boundaries of an equi-depth histogram in a single job, e.g. every percentile from 1 to 99 for 100
+ * buckets. The exact mode samples splitters, counts the values per splitter bucket, and solves the buckets containing
+ * a boundary locally. The approximate mode merges quantile sketches of all partitions and reads the boundaries.
+ *
+ * @author Lukas Werner
+ */
+public class QuantileSummary extends AbstractAlgorithm {
+
+    /**
+     * Sample values per splitter bucket
+     */
+    private static final int SAMPLE_STEP = 8;
+
+    /**
+     * Splitter buckets per equi-depth bucket, so a boundary bucket holds about n / (4 * buckets) values
+     */
+    private static final int OVERSAMPLING = 4;
+
+    /**
+     * The number of equi-depth buckets
+     */
+    private int buckets;
+
+    /**
+     * Read the boundaries from a sketch?
+     */
+    private boolean approximate;
+
+    /**
+     * The sketch compression (approximate mode)
+     */
+    private int compression = WeightedQuantileSketch.DEFAULT_COMPRESSION;
+
+    /**
+     * QuantileSummary constructor, sets the required values
+     *
+     * @param source the data source
+     * @param sink the data sink
+     * @param buckets the number of equi-depth buckets
+     * @param approximate read the boundaries from a sketch?
+     */
+    public QuantileSummary(SourceInterface source, SinkInterface sink, int buckets, boolean approximate) {
+        super(source, sink);
+
+        if (buckets < 2) {
+            throw new IllegalArgumentException("Please provide at least 2 buckets");
+        }
+
+        this.buckets = buckets;
+        this.approximate = approximate;
+    }
+
+    /**
+     * Set the sketch compression
+     *
+     * @param compression the sketch compression
+     */
+    public void setCompression(int compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public void solve() throws Exception {
+        DataSet<Tuple1<Float>> values = getSource().getDataSet();
+
+        DataSet<Tuple3<Integer, Long, Float>> summary;
+        if (approximate) {
+            summary = values
+                    .mapPartition(new SketchMapPartitionFunction(compression))
+                    .reduceGroup(new SketchBoundariesGroupReduceFunction(buckets, compression));
+        } else {
+            summary = exactSummary(values, buckets, getSource().getEnv().getParallelism());
+        }
+
+        Result result = new Result();
+        result.setSummary(summary);
+        result.setBuckets(buckets);
+
+        ResultCollector.collect(getSource().getEnv(), result, "Quantile summary (" + buckets + " buckets)");
+
+        getSink().processResult(result);
+    }
+
+    /**
+     * Builds the exact summary: samples splitters, counts the values per splitter bucket, answers the boundaries in
+     * splitter buckets from the splitters and solves the remaining boundary buckets locally
+     *
+     * @param values the values
+     * @param buckets the number of equi-depth buckets
+     * @param parallelism the parallelism of the sample
+     *
+     * @return the summary as (boundary, rank, value)
+     */
+    static DataSet<Tuple3<Integer, Long, Float>> exactSummary(DataSet<Tuple1<Float>> values, int buckets, int parallelism) {
+        int sampleSize = (buckets * OVERSAMPLING * SAMPLE_STEP + parallelism - 1) / parallelism;
+
+        DataSet<float[]> splitters = values
+                .mapPartition(new SampleMapPartitionFunction(sampleSize))
+                .reduceGroup(new SplittersGroupReduceFunction(SAMPLE_STEP));
+
+        DataSet<Tuple4<Integer, Long, Integer, Long>> targets = values
+                .mapPartition(new BucketCountMapPartitionFunction())
+                .withBroadcastSet(splitters, Buckets.SPLITTERS)
+                .groupBy(0)
+                .sum(1)
+                .reduceGroup(new TargetRanksGroupReduceFunction(buckets));
+
+        DataSet<Tuple3<Integer, Long, Float>> splitterBoundaries = targets
+                .flatMap(new SplitterTargetsFlatMapFunction())
+                .withBroadcastSet(splitters, Buckets.SPLITTERS);
+
+        return values
+                .mapPartition(new TargetBucketsMapPartitionFunction())
+                .withBroadcastSet(splitters, Buckets.SPLITTERS)
+                .withBroadcastSet(targets, Buckets.TARGETS)
+                .groupBy(0)
+                .reduceGroup(new SolveBucketGroupReduceFunction())
+                .withBroadcastSet(targets, Buckets.TARGETS)
+                .union(splitterBoundaries);
+    }
+
+    /**
+     * The main application method, fetches execution environment and executes the summary
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+        // Optional, the summary counts the values itself
+        long n = Long.valueOf(params.get("count", "" + SourceInterface.UNKNOWN_COUNT));
+
+        SourceInterface source = ParamHelper.getSourceFromParams(params, env, n);
+        SinkInterface sink = ParamHelper.getSinkFromParams(params);
+
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        String propertiesFilePath = params.get("propertiesFilePath");
+        if (null != propertiesFilePath) {
+            AppProperties.setCustomFilePath(propertiesFilePath);
+        }
+
+        QuantileSummary algorithm = new QuantileSummary(source, sink, Integer.valueOf(params.get("buckets", "100")), params.get("mode", "exact").equals("approximate"));
+        algorithm.setCompression(Integer.valueOf(params.get("compression", String.valueOf(WeightedQuantileSketch.DEFAULT_COMPRESSION))));
+        algorithm.solve();
+    }
+
+}
@@ -6,8 +6,13 @@ import de.lwerner.flink.percentiles.functions.CalculateWeightedMedianGroupReduce
 import de.lwerner.flink.percentiles.functions.redis.*;
 import de.lwerner.flink.percentiles.model.DecisionModel;
 import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
 import de.lwerner.flink.percentiles.model.Result;
 import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.redis.AggregatorRedisAdapter;
+import de.lwerner.flink.percentiles.redis.EmbeddedRedisServer;
+import de.lwerner.flink.percentiles.redis.RedisStateAggregator;
+import de.lwerner.flink.percentiles.redis.ResultFoundConvergenceCriterion;
 import de.lwerner.flink.percentiles.util.AppProperties;
 import de.lwerner.flink.percentiles.util.PropertyName;
 import org.apache.flink.api.common.operators.Order;
@@ -16,6 +21,9 @@ import org.apache.flink.api.java.operators.IterativeDataSet;
 import org.apache.flink.api.java.tuple.*;
 import org.apache.flink.api.java.utils.ParameterTool;
 
+import java.io.IOException;
+import java.util.UUID;
+
 /**
  * An algorithm for the selection problem. The ladder is the problem to find the kth smallest element in an unordered
  * set of elements. Sequentially, this is as easy as bringing the elements in order and getting the kth element,
@@ -30,6 +38,11 @@ public class SelectionProblem extends AbstractSelectionProblem {
      */
     private boolean useSink;
 
+    /**
+     * The redis credentials, read from the properties if not set
+     */
+    private RedisCredentials redisCredentials;
+
     /**
      * The result model
      */
@@ -72,35 +85,89 @@ public class SelectionProblem extends AbstractSelectionProblem {
     }
 
     /**
-     * Solves the selection problem
+     * Set the redis credentials, instead of reading them from the properties
      *
-     * @throws Exception if anything goes wrong
+     * @param redisCredentials the redis credentials
      */
-    public void solve() throws Exception {
+    public void setRedisCredentials(RedisCredentials redisCredentials) {
+        this.redisCredentials = redisCredentials;
+    }
+
+    /**
+     * Creates the redis credentials from the properties. The adapter "embedded" starts an in-process redis stand-in
+     * and connects to it with jedis.
+     *
+     * @return the redis credentials
+     *
+     * @throws IOException if the properties couldn't be loaded or the embedded server couldn't be started
+     */
+    private static RedisCredentials createRedisCredentials() throws IOException {
         // Holds important information just as how to connect to redis
         AppProperties properties = AppProperties.getInstance();
 
         RedisCredentials redisCredentials = new RedisCredentials();
         redisCredentials.setAdapter(properties.getProperty(PropertyName.REDIS_ADAPTER));
         redisCredentials.setHost(properties.getProperty(PropertyName.REDIS_HOST));
-        redisCredentials.setPort(Integer.valueOf(properties.getProperty(PropertyName.REDIS_PORT)));
+        redisCredentials.setPort(Integer.valueOf(properties.getProperty(PropertyName.REDIS_PORT, "6379")));
         redisCredentials.setPassword(properties.getProperty(PropertyName.REDIS_PASSWORD));
+        redisCredentials.setPoolSize(Integer.valueOf(properties.getProperty(PropertyName.REDIS_POOL_SIZE, "64")));
+        redisCredentials.setTtl(Integer.valueOf(properties.getProperty(PropertyName.REDIS_TTL, "86400")));
+        // Each job gets its own namespace, so many jobs can share one redis
+        redisCredentials.setNamespace(properties.getProperty(PropertyName.REDIS_NAMESPACE, UUID.randomUUID().toString()));
+
+        if (redisCredentials.getAdapter().equals(AbstractRedisAdapter.REDIS_ADAPTER_EMBEDDED)) {
+            EmbeddedRedisServer server = EmbeddedRedisServer.getInstance();
+            redisCredentials.setAdapter(AbstractRedisAdapter.REDIS_ADAPTER_JEDIS);
+            redisCredentials.setHost(server.getHost());
+            redisCredentials.setPort(server.getPort());
+            redisCredentials.setPassword(null);
+        }
+
+        return redisCredentials;
+    }
+
+    /**
+     * Solves the selection problem
+     *
+     * @throws Exception if anything goes wrong
+     */
+    public void solve() throws Exception {
+        // A repeated query is answered from the result cache without a job
+        Result cachedResult = getCachedResult();
+        if (cachedResult != null) {
+            result = cachedResult;
+            if (useSink) {
+                getSink().processResult(result);
+            }
+
+            return;
+        }
+
+        if (redisCredentials == null) {
+            redisCredentials = createRedisCredentials();
+        }
 
         // Create a redis adapter
         AbstractRedisAdapter redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
         redisAdapter.reset();
 
-        // Initiate the values on redis
-        redisAdapter.setK(getK());
-        redisAdapter.setN(getSource().getCount());
-        redisAdapter.setT(getT());
-        redisAdapter.setNumberOfIterations(0);
+        // Initiate the values on redis, an unknown count (and k of a percentile) is resolved in the first superstep
+        redisAdapter.setState(new RedisState(getK(), getSource().getCount(), getT(), false, 0, 0));
+
+        // The aggregator backend keeps its state inside of the iteration only, so it iterates until the result is
+        // found (convergence criterion) and keeps the values equal to the result
+        boolean iterationLocalState = AbstractRedisAdapter.REDIS_ADAPTER_AGGREGATOR.equals(redisCredentials.getAdapter());
 
         // Start iteration on initial data set
         IterativeDataSet<Tuple1<Float>> initial = getSource()
                 .getDataSet()
                 .iterate(1000);
 
+        if (iterationLocalState) {
+            initial.registerAggregationConvergenceCriterion(AggregatorRedisAdapter.AGGREGATOR_NAME,
+                    new RedisStateAggregator(), new ResultFoundConvergenceCriterion());
+        }
+
         // Create partitions, calculate medians and count values on each partition
         DataSet<Tuple2<Float, Long>> mediansCountsAndN = initial
                 .partitionCustom(new RandomPartitioner(), 0)
@@ -117,7 +184,7 @@ public class SelectionProblem extends AbstractSelectionProblem {
 
         // Count how much values are below (l), equal (e) or higher (g) than the weighted median
         DataSet<Tuple3<Long, Long, Long>> leg = initial
-                .map(new CalculateLessEqualAndGreaterMapFunction(redisCredentials))
+                .map(new CalculateLessEqualAndGreaterMapFunction())
                 .withBroadcastSet(weightedMedian, "weightedMedian")
                 .reduce(new CalculateLessEqualAndGreaterReduceFunction());
 
@@ -126,36 +193,50 @@ public class SelectionProblem extends AbstractSelectionProblem {
         // - k <= |less values|: k must be below weighted median (discard any values, which are equal and greater W)
         // - k > |less values| + |equal values|: k must be higher than weighted median (discard equal and less)
         DataSet<DecisionModel> decisionBase = leg
-                .map(new DecideWhatToDoMapFunction(redisCredentials));
+                .map(new DecideWhatToDoMapFunction(redisCredentials, getPercentile()))
+                .withBroadcastSet(weightedMedian, "weightedMedian");
 
         // Actually discard the values by the decision base
         DataSet<Tuple1<Float>> iteration = initial
-                .filter(new DiscardValuesFilterFunction())
+                .filter(new DiscardValuesFilterFunction(iterationLocalState))
                 .withBroadcastSet(decisionBase, "decisionBase")
                 .withBroadcastSet(weightedMedian, "weightedMedian");
 
-        // Clear data set, if we're finished
+        // Clear data set, if we're finished (the only function writing to redis inside of the iteration)
         DataSet<DecisionModel> terminationCriterion = decisionBase
-                .filter(new TerminationCriterionFilterFunction(redisCredentials));
+                .filter(new TerminationCriterionFilterFunction(redisCredentials, iterationLocalState ? 0 : getT()));
 
         // Iterate, until finish condition is met
         DataSet<Tuple1<Float>> remaining = initial.closeWith(iteration, terminationCriterion);
 
-        DataSet<Tuple1<Float>> solution = remaining
-                .partitionByHash(0).setParallelism(1)
-                .sortPartition(0, Order.ASCENDING).setParallelism(1)
-                .mapPartition(new SolveRemainingMapPartition(redisCredentials)).setParallelism(1);
+        DataSet<Tuple1<Float>> solution;
+        if (iterationLocalState) {
+            // Only values equal to the result are left
+            solution = remaining.first(1);
+        } else {
+            solution = remaining
+                    .partitionByHash(0).setParallelism(1)
+                    .sortPartition(0, Order.ASCENDING).setParallelism(1)
+                    .mapPartition(new SolveRemainingMapPartition(redisCredentials)).setParallelism(1);
+        }
 
         result = new Result();
         result.setSolution(solution);
         result.setK(getK());
         result.setT(getT());
 
+        // The only job execution, the sinks write the populated result. The job state is released afterwards, even if
+        // the job fails
+        try {
+            collectResult(result);
+        } finally {
+            redisAdapter.reset();
+            redisAdapter.close();
+        }
+
         if (useSink) {
             getSink().processResult(result);
         }
-
-        redisAdapter.close();
     }
 
     /**
@@ -70,6 +70,17 @@ public class SelectionProblemWithoutRedis extends AbstractSelectionProblem {
 
     @Override
     public void solve() throws Exception {
+        // A repeated query is answered from the result cache without a job
+        Result cachedResult = getCachedResult();
+        if (cachedResult != null) {
+            result = cachedResult;
+            if (useSink) {
+                getSink().processResult(result);
+            }
+
+            return;
+        }
+
         IterativeDataSet<Tuple3<Float, Long, Long>> initial = getSource().getDataSet()
                 .map(new InputToTupleMapFunction(getK(), getSource().getCount()))
                 .iterate(1000);
@@ -91,7 +102,8 @@ public class SelectionProblemWithoutRedis extends AbstractSelectionProblem {
                 .reduce(new CalculateLessEqualAndGreaterReduceFunction());
 
         DataSet<Tuple3<Boolean, Long, Long>> decisionBase = leg
-                .map(new DecideWhatToDoMapFunction());
+                .map(new DecideWhatToDoMapFunction(getPercentile()))
+                .withBroadcastSet(weightedMedian, "weightedMedian");
 
         DataSet<Tuple3<Float, Long, Long>> iteration = initial
                 .flatMap(new DiscardValuesFlatMapFunction())
@@ -121,6 +133,9 @@ public class SelectionProblemWithoutRedis extends AbstractSelectionProblem {
         result.setK(getK());
         result.setT(getT());
 
+        // The only job execution, the sinks write the populated result
+        collectResult(result);
+
         if (useSink) {
             getSink().processResult(result);
         }
@@ -0,0 +1,114 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractStreamingPercentile;
+import de.lwerner.flink.percentiles.data.StreamSinkInterface;
+import de.lwerner.flink.percentiles.data.StreamSourceInterface;
+import de.lwerner.flink.percentiles.functions.streaming.SlidingWindowPercentileProcessFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.filesystem.FsStateBackend;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+/**
+ * Class SlidingWindowPercentile
+ *
+ * Calculates the exact percentile over a sliding count or time window per key for each incoming value. The window
+ * values are held in an order statistic tree, so each slide costs O(log n) instead of a selection over the window.
+ * Time windows are event time windows, which end at the newest timestamp of a key (see
+ * SlidingWindowPercentileProcessFunction).
+ *
+ * The window of a key is kept as one object in a value state, so only the heap state backends (memory, file system)
+ * are supported: a serializing backend like RocksDB would (de)serialize the whole window for each value. Other
+ * backends are rejected.
+ *
+ * @author Lukas Werner
+ */
+public class SlidingWindowPercentile extends AbstractStreamingPercentile {
+
+    /**
+     * The window size (value count or milliseconds)
+     */
+    private long windowSize;
+
+    /**
+     * Is the window size measured in milliseconds?
+     */
+    private boolean timeWindow;
+
+    /**
+     * SlidingWindowPercentile constructor, sets the required values
+     *
+     * @param source streaming data source
+     * @param sink streaming data sink
+     * @param p percentage value
+     */
+    public SlidingWindowPercentile(StreamSourceInterface source, StreamSinkInterface sink, int p) {
+        super(source, sink, p);
+    }
+
+    /**
+     * Set the window size
+     *
+     * @param windowSize value count or milliseconds
+     * @param timeWindow true, if the window size is measured in milliseconds
+     */
+    public void setWindow(long windowSize, boolean timeWindow) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Please provide a window size of at least 1");
+        }
+
+        this.windowSize = windowSize;
+        this.timeWindow = timeWindow;
+    }
+
+    /**
+     * Builds the sliding window percentile stream
+     *
+     * @param values (key, timestamp, value) stream
+     *
+     * @return (key, timestamp, percentile) stream
+     */
+    public DataStream<Tuple3<String, Long, Float>> apply(DataStream<Tuple3<String, Long, Float>> values) {
+        return values
+                .keyBy(0)
+                .process(new SlidingWindowPercentileProcessFunction(getP(), windowSize, timeWindow, getEmitEvery()));
+    }
+
+    @Override
+    public void solve() throws Exception {
+        StateBackend stateBackend = getSource().getEnv().getStateBackend();
+        if (stateBackend != null && !(stateBackend instanceof MemoryStateBackend) && !(stateBackend instanceof FsStateBackend)) {
+            throw new IllegalArgumentException("The sliding window percentile needs a heap state backend (memory or filesystem), got: " + stateBackend.getClass().getSimpleName());
+        }
+
+        getSink().processStream(apply(getSource().getDataStream()));
+
+        getSource().getEnv().execute("Sliding window percentile (p = " + getP() + ")");
+    }
+
+    /**
+     * The main application method, fetches stream execution environment and executes the main algorithm
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        int p = Integer.valueOf(params.getRequired("p"));
+        long windowSize = Long.valueOf(params.getRequired("window-size"));
+
+        String windowType = params.get("window-type", "count");
+        if (!windowType.equals("count") && !windowType.equals("time")) {
+            throw new IllegalArgumentException("Please provide the window type: --window-type <count|time>");
+        }
+
+        SlidingWindowPercentile algorithm = factory(SlidingWindowPercentile.class, params, p);
+        algorithm.setWindow(windowSize, windowType.equals("time"));
+        algorithm.solve();
+    }
+
+}
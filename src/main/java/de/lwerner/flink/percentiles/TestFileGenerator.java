@@ -1,89 +1,225 @@
 package de.lwerner.flink.percentiles;
 
-import de.lwerner.flink.percentiles.generation.*;
+import de.lwerner.flink.percentiles.data.ValueFileWriter;
+import de.lwerner.flink.percentiles.generation.AbstractGenerator;
+import de.lwerner.flink.percentiles.generation.ValueRing;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * This is a generator application to generate test files for performance tests
+ * This is a generator application to generate test files for performance tests. The values can be written to several
+ * shard files in parallel: each shard generates its own slice of the value sequence (see AbstractGenerator.seek) on
+ * one thread and hands primitive batches through a ring to its own writer thread, so generating and writing overlap.
+ * The shards together hold the same values as a single file.
  *
  * @author Lukas Werner
  */
-public class TestFileGenerator implements FlushListener {
+public class TestFileGenerator {
 
     /**
-     * The default flush count
+     * Number of values per batch
      */
-    private static final int DEFAULT_FLUSH_COUNT = 1000000;
+    private static final int BATCH_SIZE = 1 << 16;
 
     /**
-     * The actual generator
+     * Number of batches per shard ring
      */
-    private final AbstractGenerator generator;
+    private static final int BATCH_COUNT = 4;
+
     /**
-     * The file to generate to
+     * The generator name
      */
-    private final File file;
-
+    private final String type;
+    /**
+     * The random seed, ignored by non random generators
+     */
+    private final long seed;
     /**
-     * The writer
+     * The file format (text, float, double or blocks)
      */
-    private BufferedWriter writer;
+    private final String format;
+    /**
+     * Number of shard files
+     */
+    private final int shards;
 
     /**
-     * Constructor sets generator and file.
+     * Constructor sets generator, format and shard count.
      *
-     * @param generator the generator to use
-     * @param file the file to write to
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param seed the random seed, ignored by non random generators
+     * @param format the file format (text, float, double or blocks)
+     * @param shards number of shard files, 1 for a single file
      */
-    public TestFileGenerator(AbstractGenerator generator, File file) {
-        this.generator = generator;
-        this.file = file;
+    public TestFileGenerator(String type, long seed, String format, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Please provide at least one shard");
+        }
 
-        this.generator.addFlushListener(this);
+        // Fail before any file is created
+        AbstractGenerator.factory(type, 1, seed);
+        ValueFileWriter.extensionOf(format);
+
+        this.type = type;
+        this.seed = seed;
+        this.format = format;
+        this.shards = shards;
     }
 
-    @Override
-    public void onFlush(FlushEvent event) {
-        for (float val: event.getValues()) {
-            try {
-                writer.write("" + val);
-                writer.newLine();
-            } catch (IOException e) {
-                e.printStackTrace();
+    /**
+     * Actually generate the values. A single shard is written to the target file, several shards are written to
+     * part files in the target directory.
+     *
+     * @param target the file or directory to write to
+     * @param count the number of values to generate
+     *
+     * @throws IOException if a file couldn't be written
+     */
+    public void generate(File target, long count) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(shards, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++) {
+                File file = shards == 1 ? target : new File(target, String.format("part-%05d%s", shard, ValueFileWriter.extensionOf(format)));
+                // The same slices as the parallel generator input format
+                long start = AbstractGenerator.sliceStart(count, shard, shards);
+                long length = AbstractGenerator.sliceStart(count, shard + 1, shards) - start;
+
+                futures.add(executor.submit(() -> {
+                    generateShard(file, start, length, count);
+
+                    return null;
+                }));
             }
-        }
 
-        try {
-            writer.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
+            for (Future<?> future: futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException("Failed to generate a shard", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * Actually generate the values
+     * Generates one shard on the calling thread and writes it on a writer thread
      *
-     * @param count the number of values to generate
+     * @param file the shard file
+     * @param start index of the first value of the shard
+     * @param length number of values of the shard
+     * @param count total number of values of all shards
+     *
+     * @throws Exception if generating or writing fails
      */
-    public void generate(long count) {
+    private void generateShard(File file, long start, long length, long count) throws Exception {
+        ValueRing ring = new ValueRing(BATCH_COUNT, BATCH_SIZE);
+        ShardWriter writer = new ShardWriter(ValueFileWriter.factory(format, file), ring);
+        writer.start();
+
+        AbstractGenerator generator = AbstractGenerator.factory(type, 1, seed);
+        generator.seek(start, count);
+
         try {
-            writer = new BufferedWriter(new FileWriter(file));
-            generator.generate(count);
-        } catch (IOException e) {
-            e.printStackTrace();
+            for (long remaining = length; remaining > 0; ) {
+                ValueRing.Batch batch = ring.acquire();
+                int batchLength = (int)Math.min(BATCH_SIZE, remaining);
+                generator.generate(batch.getValues(), batchLength);
+                batch.setLength(batchLength);
+                ring.publish(batch);
+                remaining -= batchLength;
+            }
         } finally {
-            if (writer != null) {
+            // The end mark, the writer discards all batches after an error, so this never blocks for long
+            ValueRing.Batch end = ring.acquire();
+            end.setLength(0);
+            ring.publish(end);
+
+            writer.join();
+        }
+
+        if (writer.error != null) {
+            throw writer.error;
+        }
+    }
+
+    /**
+     * Writer thread of one shard. Takes the filled batches from the ring, writes them and gives them back. After an
+     * error, the batches are only given back, so the generator never blocks.
+     *
+     * @author Lukas Werner
+     */
+    private static class ShardWriter extends Thread {
+
+        /**
+         * The file writer
+         */
+        private final ValueFileWriter fileWriter;
+
+        /**
+         * The ring of the shard
+         */
+        private final ValueRing ring;
+
+        /**
+         * The first error, null if all values were written
+         */
+        private volatile Exception error;
+
+        /**
+         * Constructor, sets file writer and ring
+         *
+         * @param fileWriter the file writer
+         * @param ring the ring of the shard
+         */
+        private ShardWriter(ValueFileWriter fileWriter, ValueRing ring) {
+            super("shard-writer");
+            setDaemon(true);
+
+            this.fileWriter = fileWriter;
+            this.ring = ring;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ValueRing.Batch batch;
+                while ((batch = ring.take()).getLength() > 0) {
+                    if (error == null) {
+                        try {
+                            fileWriter.write(batch.getValues(), batch.getLength());
+                        } catch (IOException e) {
+                            error = e;
+                        }
+                    }
+                    ring.release(batch);
+                }
+            } catch (InterruptedException e) {
+                error = e;
+            } finally {
                 try {
-                    writer.close();
+                    fileWriter.close();
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    if (error == null) {
+                        error = e;
+                    }
                 }
             }
         }
+
     }
 
     /**
@@ -92,43 +228,27 @@ public class TestFileGenerator implements FlushListener {
      * @param args program arguments
      *
      * @throws IllegalArgumentException wrong arguments given
+     * @throws IOException if a file couldn't be written
      */
-    public static void main(String[] args) throws IllegalArgumentException {
+    public static void main(String[] args) throws IllegalArgumentException, IOException {
         if (args.length < 3) {
-            throw new IllegalArgumentException("Usage: java " + TestFileGenerator.class.getCanonicalName() + " <random|exponential|allequal|asc|desc> <saveToPath> <valueCount>");
+            throw new IllegalArgumentException("Usage: java " + TestFileGenerator.class.getCanonicalName() + " <random|exponential|allequal|asc|desc> <saveToPath> <valueCount> [text|float|double|blocks] [shards] [seed]");
         }
 
-        AbstractGenerator generator;
-        switch (args[0]) {
-            case "random":
-                generator = new RandomGenerator(DEFAULT_FLUSH_COUNT);
-                break;
-            case "exponential":
-                generator = new ExponentialGenerator(DEFAULT_FLUSH_COUNT);
-                break;
-            case "allequal":
-                generator = new AllEqualGenerator(DEFAULT_FLUSH_COUNT);
-                break;
-            case "asc":
-                generator = new SortedAscGenerator(DEFAULT_FLUSH_COUNT);
-                break;
-            case "desc":
-                generator = new SortedDescGenerator(DEFAULT_FLUSH_COUNT);
-                break;
-            default:
-                throw new IllegalArgumentException("Please provide the generator as first argument (random|exponential|allequal|asc|desc).");
-        }
+        String format = args.length > 3 ? args[3] : ValueFileWriter.FORMAT_TEXT;
+        int shards = args.length > 4 ? Integer.valueOf(args[4]) : 1;
+        long seed = args.length > 5 ? Long.valueOf(args[5]) : System.currentTimeMillis();
 
-        File file = new File(args[1]);
-        try {
-            if (!file.createNewFile()) {
-                throw new IllegalArgumentException("Won't override files!");
-            }
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Can't write parent on directory!");
+        TestFileGenerator testFileGenerator = new TestFileGenerator(args[0], seed, format, shards);
+
+        File target = new File(args[1]);
+        if (target.exists()) {
+            throw new IllegalArgumentException("Won't override files!");
+        }
+        if (shards > 1 && !target.mkdirs()) {
+            throw new IllegalArgumentException("Can't create the shard directory!");
         }
 
-        TestFileGenerator testFileGenerator = new TestFileGenerator(generator, file);
-        testFileGenerator.generate(Long.valueOf(args[2]));
+        testFileGenerator.generate(target, Long.valueOf(args[2]));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.algorithm.Solvable;
+import de.lwerner.flink.percentiles.data.SinkInterface;
+import de.lwerner.flink.percentiles.data.WeightedCsvSource;
+import de.lwerner.flink.percentiles.data.WeightedSourceInterface;
+import de.lwerner.flink.percentiles.functions.CalculateWeightedMedianGroupReduceFunction;
+import de.lwerner.flink.percentiles.functions.weighted.*;
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.model.Result;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.operators.Order;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.operators.IterativeDataSet;
+import org.apache.flink.api.java.tuple.*;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/**
+ * Class WeightedPercentile
+ *
+ * Calculates the kth value or a percentile of pre-aggregated (value, count) data, as if every value occurred count
+ * times, without expanding the records. The exact mode is the selection problem on weights: the less, equal and
+ * greater counts sum up weights and the partition medians are weighted medians, while the serial threshold still
+ * counts records. The approximate mode merges weighted quantile sketches of all partitions.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedPercentile implements Solvable {
+
+    /**
+     * The exact mode
+     */
+    public static final String MODE_EXACT = "exact";
+    /**
+     * The approximate mode
+     */
+    public static final String MODE_APPROXIMATE = "approximate";
+
+    /**
+     * The data source
+     */
+    private WeightedSourceInterface source;
+
+    /**
+     * The data sink
+     */
+    private SinkInterface sink;
+
+    /**
+     * The searched rank, UNKNOWN_RANK to resolve it from the percentile and the total weight
+     */
+    private long k;
+
+    /**
+     * The percentile, if k is UNKNOWN_RANK
+     */
+    private int percentile;
+
+    /**
+     * Serial computation threshold (remaining records)
+     */
+    private long t;
+
+    /**
+     * Exact or approximate mode
+     */
+    private String mode;
+
+    /**
+     * The sketch compression of the approximate mode
+     */
+    private int compression = WeightedQuantileSketch.DEFAULT_COMPRESSION;
+
+    /**
+     * The result model
+     */
+    private Result result;
+
+    /**
+     * WeightedPercentile constructor, sets the required values
+     *
+     * @param source the data source
+     * @param sink the data sink
+     * @param k the searched rank, UNKNOWN_RANK to resolve it from the percentile
+     * @param percentile the percentile, if k is UNKNOWN_RANK
+     * @param t serial computation threshold
+     * @param mode exact or approximate
+     */
+    public WeightedPercentile(WeightedSourceInterface source, SinkInterface sink, long k, int percentile, long t, String mode) {
+        if (!MODE_EXACT.equals(mode) && !MODE_APPROXIMATE.equals(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode + ", use exact or approximate");
+        }
+
+        this.source = source;
+        this.sink = sink;
+        this.k = k;
+        this.percentile = percentile;
+        this.t = t;
+        this.mode = mode;
+    }
+
+    /**
+     * Set the sketch compression of the approximate mode
+     *
+     * @param compression the sketch compression
+     */
+    public void setCompression(int compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Get the result model
+     *
+     * @return the result model
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * Builds the exact weighted selection
+     *
+     * @param values (value, weight) data set
+     *
+     * @return the kth value
+     */
+    public DataSet<Tuple1<Float>> exact(DataSet<Tuple2<Float, Long>> values) {
+        IterativeDataSet<Tuple3<Float, Long, Long>> initial = values
+                .flatMap(new AttachRankFlatMapFunction(k))
+                .iterate(1000);
+
+        DataSet<Tuple2<Float, Float>> mediansAndWeights = initial
+                .partitionByHash(0)
+                .sortPartition(0, Order.ASCENDING)
+                .mapPartition(new WeightedMedianMapPartitionFunction());
+
+        DataSet<Tuple1<Float>> weightedMedian = mediansAndWeights
+                .reduceGroup(new CalculateWeightedMedianGroupReduceFunction());
+
+        DataSet<Tuple6<Long, Long, Long, Long, Long, Long>> leg = initial
+                .map(new WeightedLessEqualAndGreaterMapFunction())
+                .withBroadcastSet(weightedMedian, "weightedMedian")
+                .reduce(new WeightedLessEqualAndGreaterReduceFunction());
+
+        DataSet<DecisionModel> decisionBase = leg
+                .map(new WeightedDecideWhatToDoMapFunction(percentile))
+                .withBroadcastSet(weightedMedian, "weightedMedian");
+
+        DataSet<Tuple3<Float, Long, Long>> iteration = initial
+                .flatMap(new WeightedDiscardValuesFlatMapFunction())
+                .withBroadcastSet(decisionBase, "decisionBase")
+                .withBroadcastSet(weightedMedian, "weightedMedian");
+
+        // A found result keeps only the records equal to it, which the serial step returns
+        DataSet<DecisionModel> terminationCriterion = decisionBase
+                .filter(new WeightedTerminationFilterFunction(t));
+
+        DataSet<Tuple3<Float, Long, Long>> remaining = initial.closeWith(iteration, terminationCriterion);
+
+        return remaining
+                .reduceGroup(new SolveWeightedRemainingGroupReduceFunction());
+    }
+
+    /**
+     * Builds the approximate weighted selection
+     *
+     * @param values (value, weight) data set
+     *
+     * @return the approximate kth value
+     */
+    public DataSet<Tuple1<Float>> approximate(DataSet<Tuple2<Float, Long>> values) {
+        return values
+                .mapPartition(new WeightedSketchMapPartitionFunction(compression))
+                .reduceGroup(new SketchQuantileGroupReduceFunction(k, percentile, compression));
+    }
+
+    @Override
+    public void solve() throws Exception {
+        DataSet<Tuple2<Float, Long>> values = source.getDataSet();
+
+        result = new Result();
+        result.setSolution(MODE_EXACT.equals(mode) ? exact(values) : approximate(values));
+        result.setK(k);
+        result.setP(percentile);
+        result.setT(t);
+
+        ResultCollector.collect(source.getEnv(), result, "Weighted percentile (" + mode + ")");
+
+        sink.processResult(result);
+    }
+
+    /**
+     * The main application method, fetches execution environment and executes the main algorithm
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        WeightedCsvSource source = new WeightedCsvSource(env, params.getRequired("input-path"), params.get("delimiter", ","));
+
+        long k = AbstractSelectionProblem.UNKNOWN_RANK;
+        int percentile = 0;
+        if (params.has("k")) {
+            k = Long.valueOf(params.get("k"));
+            if (k < 1) {
+                throw new IllegalArgumentException("k must be at least 1");
+            }
+        } else {
+            percentile = Integer.valueOf(params.getRequired("p"));
+            if (percentile < 1 || percentile > 100) {
+                throw new IllegalArgumentException("p must be between 1 and 100");
+            }
+        }
+
+        long t = Long.valueOf(params.get("t", "1000"));
+        if (t < 100) {
+            throw new IllegalArgumentException("Please provide a serial threshold of at least 100");
+        }
+
+        WeightedPercentile algorithm = new WeightedPercentile(source, ParamHelper.getSinkFromParams(params), k,
+                percentile, t, params.get("mode", MODE_EXACT));
+        algorithm.setCompression(Integer.valueOf(params.get("compression", String.valueOf(WeightedQuantileSketch.DEFAULT_COMPRESSION))));
+        algorithm.solve();
+    }
+
+}
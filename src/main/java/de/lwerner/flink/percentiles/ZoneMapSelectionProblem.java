@@ -0,0 +1,161 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.data.BlockSource;
+import de.lwerner.flink.percentiles.data.SinkInterface;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.functions.zonemap.*;
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.model.Result;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.operators.IterativeDataSet;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An algorithm for the selection problem on block files. It works like the selection problem, but on the zone maps
+ * (min, max, count) of the blocks instead of single values: blocks, which lie completely below or above the pivot,
+ * are counted without being read, and blocks without remaining values are dropped, so they are never read again.
+ * The pivot is estimated from the zone maps, so for (nearly) sorted data most blocks are never read at all.
+ *
+ * @author Lukas Werner
+ */
+public class ZoneMapSelectionProblem extends AbstractSelectionProblem {
+
+    /**
+     * The application logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZoneMapSelectionProblem.class);
+
+    /**
+     * Should we use the sink?
+     */
+    private boolean useSink;
+
+    /**
+     * The result model
+     */
+    private Result result;
+
+    /**
+     * ZoneMapSelectionProblem constructor, sets the required values
+     *
+     * @param source the data source, must be a block source
+     * @param sink the data sink
+     * @param k the rank
+     * @param t serial computation threshold
+     */
+    public ZoneMapSelectionProblem(SourceInterface source, SinkInterface sink, long k, long t) {
+        this(source, sink, k, t, true);
+    }
+
+    /**
+     * ZoneMapSelectionProblem constructor, sets the required values
+     *
+     * @param source the data source, must be a block source
+     * @param sink the data sink
+     * @param k the rank
+     * @param t serial computation threshold
+     * @param useSink directly use sink?
+     */
+    public ZoneMapSelectionProblem(SourceInterface source, SinkInterface sink, long k, long t, boolean useSink) {
+        super(source, sink, k, t);
+
+        if (!(source instanceof BlockSource)) {
+            throw new IllegalArgumentException("The zone map selection needs a block file: --source blocks");
+        }
+
+        this.useSink = useSink;
+    }
+
+    /**
+     * Get the result model
+     *
+     * @return the result model
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    @Override
+    public void solve() throws Exception {
+        // A repeated query is answered from the result cache without a job
+        Result cachedResult = getCachedResult();
+        if (cachedResult != null) {
+            result = cachedResult;
+            if (useSink) {
+                getSink().processResult(result);
+            }
+
+            return;
+        }
+
+        IterativeDataSet<ValueBlock> initial = ((BlockSource)getSource())
+                .getBlocks()
+                .map(new AttachRankMapFunction(getK()))
+                .iterate(1000);
+
+        // Estimate the kth value from the zone maps
+        DataSet<Tuple1<Float>> pivot = initial
+                .reduceGroup(new BlockPivotGroupReduceFunction());
+
+        // Count less, equal and greater values per block, only blocks containing the pivot are read
+        DataSet<ValueBlock> countedBlocks = initial
+                .map(new CountBlockMapFunction())
+                .withBroadcastSet(pivot, "pivot");
+
+        DataSet<DecisionModel> decision = countedBlocks
+                .reduceGroup(new DecideBlocksGroupReduceFunction())
+                .withBroadcastSet(pivot, "pivot");
+
+        // Narrow the zone maps to the kept values and drop empty blocks
+        DataSet<ValueBlock> iteration = countedBlocks
+                .flatMap(new DiscardBlocksFlatMapFunction())
+                .withBroadcastSet(decision, "decision");
+
+        DataSet<DecisionModel> terminationCriterion = decision
+                .filter(new BlockTerminationFilterFunction(getT()));
+
+        DataSet<ValueBlock> remaining = initial.closeWith(iteration, terminationCriterion);
+
+        DataSet<Tuple1<Float>> solution = remaining
+                .reduceGroup(new SolveBlocksGroupReduceFunction());
+
+        result = new Result();
+        result.setSolution(solution);
+        result.setK(getK());
+        result.setT(getT());
+
+        // The only job execution, the sinks write the populated result
+        collectResult(result);
+
+        JobExecutionResult jobExecutionResult = getSource().getEnv().getLastJobExecutionResult();
+        Long readBlocks = jobExecutionResult.getAccumulatorResult(CountBlockMapFunction.READ_BLOCKS_ACCUMULATOR);
+        LOGGER.info("Read blocks: {}", readBlocks);
+
+        if (useSink) {
+            getSink().processResult(result);
+        }
+    }
+
+    /**
+     * The main application method, reads the block file and executes the main algorithm
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        long k = Long.valueOf(params.getRequired("k"));
+
+        ZoneMapSelectionProblem algorithm = factory(ZoneMapSelectionProblem.class, params, k);
+        algorithm.solve();
+    }
+
+}
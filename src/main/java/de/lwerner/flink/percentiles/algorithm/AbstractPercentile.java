@@ -29,7 +29,7 @@ public abstract class AbstractPercentile extends AbstractAlgorithm {
     /**
      * k
      */
-    private int k;
+    private long k;
 
     /**
      * Constructor to set the required values;
@@ -69,7 +69,7 @@ public abstract class AbstractPercentile extends AbstractAlgorithm {
      *
      * @return k value
      */
-    public int getK() {
+    public long getK() {
         return k;
     }
 
@@ -78,10 +78,23 @@ public abstract class AbstractPercentile extends AbstractAlgorithm {
      *
      * @param k k value
      */
-    public void setK(int k) {
+    public void setK(long k) {
         this.k = k;
     }
 
+    /**
+     * Get the rank of a percentile, ceil(n * p / 100) in exact integer arithmetic. Split at 100, so n * p cannot
+     * overflow.
+     *
+     * @param n the value count
+     * @param p the percentile (0 to 100)
+     *
+     * @return k
+     */
+    public static long rankOf(long n, int p) {
+        return n / 100 * p + (n % 100 * p + 99) / 100;
+    }
+
     /**
      * Factory method for creating the correct algorithm class
      *
@@ -101,10 +114,8 @@ public abstract class AbstractPercentile extends AbstractAlgorithm {
     public static <T> T factory(Class<T> clazz, ParameterTool params, int p) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
 
-        long n = Long.valueOf(params.getRequired("count"));
-        if (n == 0) {
-            throw new IllegalArgumentException("If you're using the generator data source, please provide a value count: --count <num>");
-        }
+        // Optional, file sources read it from the metadata or the algorithm counts in its first superstep
+        long n = Long.valueOf(params.get("count", "" + SourceInterface.UNKNOWN_COUNT));
 
         SourceInterface source = ParamHelper.getSourceFromParams(params, env, n);
         SinkInterface sink = ParamHelper.getSinkFromParams(params);
@@ -1,8 +1,11 @@
 package de.lwerner.flink.percentiles.algorithm;
 
+import de.lwerner.flink.percentiles.cache.AbstractResultCache;
 import de.lwerner.flink.percentiles.data.*;
+import de.lwerner.flink.percentiles.model.Result;
 import de.lwerner.flink.percentiles.util.AppProperties;
 import de.lwerner.flink.percentiles.util.ParamHelper;
+import de.lwerner.flink.percentiles.util.ResultCollector;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.utils.ParameterTool;
 
@@ -15,16 +18,36 @@ import java.lang.reflect.InvocationTargetException;
  */
 public abstract class AbstractSelectionProblem extends AbstractAlgorithm {
 
+    /**
+     * The rank of a percentile, which is resolved in the job, because the value count is unknown
+     */
+    public static final long UNKNOWN_RANK = -1;
+
     /**
      * The rank of the searched number
      */
     private long k;
 
+    /**
+     * The percentile, which resolves k in the job, if k is UNKNOWN_RANK
+     */
+    private int percentile;
+
     /**
      * A threshold at which we can compute serially
      */
     private long t;
 
+    /**
+     * The result cache, read from the properties if not set
+     */
+    private AbstractResultCache resultCache;
+
+    /**
+     * Was the result cache set or read from the properties already?
+     */
+    private boolean resultCacheInitialized;
+
     /**
      * AbstractSelectionProblem constructor, sets the required values
      *
@@ -58,6 +81,101 @@ public abstract class AbstractSelectionProblem extends AbstractAlgorithm {
         return t;
     }
 
+    /**
+     * Get the percentile, which resolves an unknown k
+     *
+     * @return the percentile, 0 if k is known
+     */
+    public int getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Searches a percentile of an unknown value count: k is resolved from the count in the first superstep
+     *
+     * @param percentile the percentile (1 to 100)
+     */
+    public void setPercentile(int percentile) {
+        this.percentile = percentile;
+        this.k = UNKNOWN_RANK;
+    }
+
+    /**
+     * Set the result cache, instead of reading it from the properties
+     *
+     * @param resultCache the result cache, null disables caching
+     */
+    public void setResultCache(AbstractResultCache resultCache) {
+        this.resultCache = resultCache;
+        this.resultCacheInitialized = true;
+    }
+
+    /**
+     * Builds the cache key of this problem. t isn't part of the key, because it doesn't change the exact result.
+     *
+     * @return the cache key or null, if there is no cache or the source cannot be identified
+     *
+     * @throws Exception if the fingerprint couldn't be built
+     */
+    private String getCacheKey() throws Exception {
+        if (!resultCacheInitialized) {
+            resultCache = AbstractResultCache.factory(AppProperties.getInstance());
+            resultCacheInitialized = true;
+        }
+
+        if (resultCache == null) {
+            return null;
+        }
+
+        String fingerprint = getSource().getFingerprint();
+        if (fingerprint == null) {
+            return null;
+        }
+
+        // An unresolved rank is identified by the percentile
+        String algorithm = getClass().getSimpleName() + (k == UNKNOWN_RANK ? "/p" + percentile : "");
+
+        return AbstractResultCache.createKey(fingerprint, algorithm, getSource().getCount(), k);
+    }
+
+    /**
+     * Looks up the result cache, a hit doesn't need a flink job
+     *
+     * @return the result model with the cached value and without a solution data set or null, if not cached
+     *
+     * @throws Exception if the cache key couldn't be built
+     */
+    protected Result getCachedResult() throws Exception {
+        String key = getCacheKey();
+        Float value = key == null ? null : resultCache.get(key);
+        if (value == null) {
+            return null;
+        }
+
+        Result result = new Result();
+        result.setK(k);
+        result.setT(t);
+        result.setValue(value);
+
+        return result;
+    }
+
+    /**
+     * Runs the job of the result once, populates the result on the driver and puts the value into the result cache
+     *
+     * @param result the result model with the solution data set
+     *
+     * @throws Exception if the job fails or the cache key couldn't be built
+     */
+    protected void collectResult(Result result) throws Exception {
+        ResultCollector.collect(getSource().getEnv(), result, getClass().getSimpleName() + " (k = " + k + ")", getTimer());
+
+        String key = getCacheKey();
+        if (key != null) {
+            resultCache.put(key, result.getValue());
+        }
+    }
+
     /**
      * Factory method for creating the correct algorithm class
      *
@@ -77,17 +195,16 @@ public abstract class AbstractSelectionProblem extends AbstractAlgorithm {
     public static <T extends AbstractSelectionProblem> T factory(Class<T> clazz, ParameterTool params, long k) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
 
-        long n = Long.valueOf(params.getRequired("count"));
-        if (n == 0) {
-            throw new IllegalArgumentException("If you're using the generator data source, please provide a value count: --count <num>");
-        }
+        // Optional, file sources read it from the metadata or the algorithm counts in its first superstep
+        long n = Long.valueOf(params.get("count", "" + SourceInterface.UNKNOWN_COUNT));
 
         SourceInterface source = ParamHelper.getSourceFromParams(params, env, n);
         SinkInterface sink = ParamHelper.getSinkFromParams(params);
 
         ParamHelper.extractParallelismFromParams(params, env);
 
-        if (k < 1 || k > source.getCount()) {
+        // An unknown count is checked in the job
+        if (k < 1 || (source.getCount() != SourceInterface.UNKNOWN_COUNT && k > source.getCount())) {
             throw new IllegalArgumentException("k must be between 1 and the value count");
         }
 
@@ -0,0 +1,143 @@
+package de.lwerner.flink.percentiles.algorithm;
+
+import de.lwerner.flink.percentiles.data.StreamSinkInterface;
+import de.lwerner.flink.percentiles.data.StreamSourceInterface;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Abstract streaming percentile algorithm class to generalize repeated work.
+ *
+ * @author Lukas Werner
+ */
+public abstract class AbstractStreamingPercentile implements Solvable {
+
+    /**
+     * Streaming data source
+     */
+    private StreamSourceInterface source;
+
+    /**
+     * Streaming data sink
+     */
+    private StreamSinkInterface sink;
+
+    /**
+     * Percent value
+     */
+    private int p;
+
+    /**
+     * Emit the percentile of a key for every (emitEvery)th value of the key
+     */
+    private int emitEvery = 1;
+
+    /**
+     * Constructor to set the required values
+     *
+     * @param source streaming data source
+     * @param sink streaming data sink
+     * @param p percentage value
+     */
+    protected AbstractStreamingPercentile(StreamSourceInterface source, StreamSinkInterface sink, int p) {
+        this.source = source;
+        this.sink = sink;
+        this.p = p;
+    }
+
+    /**
+     * Get the streaming data source
+     *
+     * @return the streaming data source
+     */
+    public StreamSourceInterface getSource() {
+        return source;
+    }
+
+    /**
+     * Get the streaming data sink
+     *
+     * @return the streaming data sink
+     */
+    public StreamSinkInterface getSink() {
+        return sink;
+    }
+
+    /**
+     * Get the percentage value
+     *
+     * @return the percentage value
+     */
+    public int getP() {
+        return p;
+    }
+
+    /**
+     * Get the emit interval
+     *
+     * @return the percentile of a key is emitted for every (emitEvery)th value of the key
+     */
+    public int getEmitEvery() {
+        return emitEvery;
+    }
+
+    /**
+     * Set the emit interval. Emitting less often makes the per value cost of operators with an expensive query (e.g.
+     * sorting a sketch) O(1) amortized.
+     *
+     * @param emitEvery the percentile of a key is emitted for every (emitEvery)th value of the key
+     */
+    public void setEmitEvery(int emitEvery) {
+        if (emitEvery < 1) {
+            throw new IllegalArgumentException("Please provide an emit interval of at least 1");
+        }
+
+        this.emitEvery = emitEvery;
+    }
+
+    /**
+     * Factory method for creating the correct algorithm class
+     *
+     * @param clazz the class to initiate
+     * @param params the param tool
+     * @param p the p value
+     *
+     * @param <T> the type of the class to instantiate
+     *
+     * @return the algorithm class object - can execute solve()
+     *
+     * @throws NoSuchMethodException if the constructor wasn't found
+     * @throws IllegalAccessException if we cannot access the constructor
+     * @throws InvocationTargetException if the target isn't able to be invoked
+     * @throws InstantiationException if we couldn't instantiate
+     */
+    public static <T extends AbstractStreamingPercentile> T factory(Class<T> clazz, ParameterTool params, int p) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        if (p < 1 || p > 100) {
+            throw new IllegalArgumentException("p must be between 1 and 100");
+        }
+
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        long checkpointInterval = Long.valueOf(params.get("checkpoint-interval", "0"));
+        if (checkpointInterval > 0) {
+            env.enableCheckpointing(checkpointInterval);
+        }
+
+        StreamSourceInterface source = ParamHelper.getStreamSourceFromParams(params, env);
+        StreamSinkInterface sink = ParamHelper.getStreamSinkFromParams(params);
+
+        T algorithm = clazz.getDeclaredConstructor(StreamSourceInterface.class, StreamSinkInterface.class, int.class)
+                .newInstance(source, sink, p);
+        if (params.has("emit-every")) {
+            algorithm.setEmitEvery(Integer.valueOf(params.get("emit-every")));
+        }
+
+        return algorithm;
+    }
+
+}
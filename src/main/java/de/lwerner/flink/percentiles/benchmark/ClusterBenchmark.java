@@ -0,0 +1,378 @@
+package de.lwerner.flink.percentiles.benchmark;
+
+import de.lwerner.flink.percentiles.ApproximativeSelectionProblem;
+import de.lwerner.flink.percentiles.SelectionProblem;
+import de.lwerner.flink.percentiles.SelectionProblemWithoutRedis;
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.data.GeneratorSource;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.model.Result;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.configuration.ConfigConstants;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MetricOptions;
+import org.apache.flink.runtime.minicluster.LocalFlinkMiniCluster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class ClusterBenchmark
+ *
+ * Runs the selection algorithms end to end on a local cluster with several task managers, so records are shuffled
+ * through the network stack like on a real cluster. It sweeps algorithms, generator sources, n, parallelism and t,
+ * runs untimed warm-up jobs per configuration (JIT), then repeated trials, and reports the wall time, the supersteps,
+ * the bytes shuffled between task managers (numBytesInRemote of all tasks), the GC time and the peak heap of each
+ * trial as csv and json.
+ *
+ * @author Lukas Werner
+ */
+public class ClusterBenchmark {
+
+    /**
+     * The application logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterBenchmark.class);
+
+    /**
+     * The csv header of the report
+     */
+    private static final String CSV_HEADER = "algorithm,source,n,parallelism,t,trial,wall-ms,supersteps,bytes-shuffled,gc-ms,peak-heap-bytes,value";
+
+    /**
+     * The benchmark parameters
+     */
+    private final ParameterTool params;
+
+    /**
+     * The local cluster
+     */
+    private LocalFlinkMiniCluster cluster;
+
+    /**
+     * Constructor, sets the parameters
+     *
+     * @param params the benchmark parameters
+     */
+    public ClusterBenchmark(ParameterTool params) {
+        this.params = params;
+    }
+
+    /**
+     * Starts the local cluster, the shuffled bytes are reported by the ShuffleBytesReporter
+     *
+     * @param taskManagers the number of task managers
+     * @param slots the number of slots per task manager
+     */
+    public void start(int taskManagers, int slots) {
+        Configuration configuration = new Configuration();
+        configuration.setInteger(ConfigConstants.LOCAL_NUMBER_TASK_MANAGER, taskManagers);
+        configuration.setInteger(ConfigConstants.TASK_MANAGER_NUM_TASK_SLOTS, slots);
+        configuration.setString(MetricOptions.REPORTERS_LIST, "shuffle");
+        configuration.setString(ConfigConstants.METRICS_REPORTER_PREFIX + "shuffle." + ConfigConstants.METRICS_REPORTER_CLASS_SUFFIX,
+                ShuffleBytesReporter.class.getName());
+
+        cluster = new LocalFlinkMiniCluster(configuration, true);
+        cluster.start();
+    }
+
+    /**
+     * Stops the local cluster
+     */
+    public void stop() {
+        if (cluster != null) {
+            cluster.stop();
+            cluster = null;
+        }
+    }
+
+    /**
+     * Runs one trial
+     *
+     * @param algorithm the algorithm name (SelectionProblem|SelectionProblemWithoutRedis|ApproximativeSelectionProblem)
+     * @param distribution the generator name (random|exponential|allequal|asc|desc)
+     * @param n the number of values
+     * @param parallelism the job parallelism
+     * @param t serial computation threshold
+     *
+     * @return the measurement
+     *
+     * @throws Exception if the job fails
+     */
+    public Measurement run(String algorithm, String distribution, long n, int parallelism, long t) throws Exception {
+        if (cluster == null) {
+            throw new IllegalStateException("Please start the cluster first");
+        }
+
+        ExecutionEnvironment env = new MiniClusterEnvironment(cluster);
+        env.setParallelism(parallelism);
+        env.getConfig().disableSysoutLogging();
+
+        SourceInterface source = new GeneratorSource(env, distribution, Long.valueOf(params.get("seed", "42")), n);
+        long k = AbstractPercentile.rankOf(n, Integer.valueOf(params.get("p", "50")));
+
+        // Each trial starts with a clean heap
+        System.gc();
+        ShuffleBytesReporter.reset();
+        long gcMillis = getGcMillis();
+        for (MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+
+        long start = System.nanoTime();
+        Result result = solve(algorithm, source, k, t);
+        long wallMillis = (System.nanoTime() - start) / 1000000;
+
+        ShuffleBytesReporter.awaitFinishedTasks(1000);
+
+        Measurement measurement = new Measurement();
+        measurement.wallMillis = wallMillis;
+        measurement.supersteps = result.getSupersteps();
+        measurement.bytesShuffled = ShuffleBytesReporter.getBytes();
+        measurement.gcMillis = getGcMillis() - gcMillis;
+        measurement.peakHeapBytes = getPeakHeapBytes();
+        measurement.value = result.getValue();
+
+        return measurement;
+    }
+
+    /**
+     * Solves the selection with an algorithm, without the result cache
+     *
+     * @param algorithm the algorithm name
+     * @param source the data source
+     * @param k the rank
+     * @param t serial computation threshold
+     *
+     * @return the populated result
+     *
+     * @throws Exception if the job fails
+     */
+    private Result solve(String algorithm, SourceInterface source, long k, long t) throws Exception {
+        switch (algorithm) {
+            case "SelectionProblem":
+                SelectionProblem selectionProblem = new SelectionProblem(source, null, k, t, false);
+                selectionProblem.setRedisCredentials(CoordinationBenchmark.createRedisCredentials(params.get("redis-backend", "embedded")));
+                selectionProblem.setResultCache(null);
+                selectionProblem.solve();
+
+                return selectionProblem.getResult();
+            case "SelectionProblemWithoutRedis":
+                SelectionProblemWithoutRedis selectionProblemWithoutRedis = new SelectionProblemWithoutRedis(source, null, k, t, false);
+                selectionProblemWithoutRedis.setResultCache(null);
+                selectionProblemWithoutRedis.solve();
+
+                return selectionProblemWithoutRedis.getResult();
+            case "ApproximativeSelectionProblem":
+                ApproximativeSelectionProblem approximativeSelectionProblem = new ApproximativeSelectionProblem(source, null, k, t, false);
+                approximativeSelectionProblem.setSampleSize(Long.valueOf(params.get("sample-size", "10000")));
+                approximativeSelectionProblem.solve();
+
+                return approximativeSelectionProblem.getResult();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm + " (SelectionProblem|SelectionProblemWithoutRedis|ApproximativeSelectionProblem)");
+        }
+    }
+
+    /**
+     * Get the accumulated collection time of all garbage collectors
+     *
+     * @return the collection time in milliseconds
+     */
+    private static long getGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+
+        return millis;
+    }
+
+    /**
+     * Get the peak usage of all heap pools since their last reset
+     *
+     * @return the peak heap in bytes
+     */
+    private static long getPeakHeapBytes() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                bytes += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * The measurement of one trial
+     *
+     * @author Lukas Werner
+     */
+    public static class Measurement {
+
+        /**
+         * The wall time in milliseconds
+         */
+        private long wallMillis;
+
+        /**
+         * The number of supersteps
+         */
+        private int supersteps;
+
+        /**
+         * The bytes shuffled between task managers
+         */
+        private long bytesShuffled;
+
+        /**
+         * The GC time in milliseconds
+         */
+        private long gcMillis;
+
+        /**
+         * The peak heap in bytes
+         */
+        private long peakHeapBytes;
+
+        /**
+         * The result value
+         */
+        private float value;
+
+    }
+
+    /**
+     * Parses a comma separated list of numbers
+     *
+     * @param list the list, e.g. "1000,100000"
+     *
+     * @return the numbers
+     */
+    private static List<Long> parseNumbers(String list) {
+        List<Long> numbers = new ArrayList<>();
+        for (String part: list.split(",")) {
+            numbers.add(Long.valueOf(part.trim()));
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Formats a value as json number, json has no NaN or infinity
+     *
+     * @param value the value
+     *
+     * @return the number or null, if the value isn't finite
+     */
+    private static String jsonNumber(float value) {
+        return Float.isNaN(value) || Float.isInfinite(value) ? "null" : Float.toString(value);
+    }
+
+    /**
+     * Writes a report file
+     *
+     * @param path the file path
+     * @param content the report
+     */
+    private static void writeReport(String path, String content) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path))) {
+            writer.write(content);
+        } catch (IOException e) {
+            LOGGER.error("Couldn't write the report", e);
+        }
+    }
+
+    /**
+     * The main application method, starts the cluster, runs the sweep and writes the reports
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        String[] algorithms = params.get("algorithms", "SelectionProblem,SelectionProblemWithoutRedis,ApproximativeSelectionProblem").split(",");
+        String[] sources = params.get("sources", "random,exponential,allequal,asc,desc").split(",");
+        List<Long> counts = parseNumbers(params.get("counts", "1000000"));
+        List<Long> parallelisms = parseNumbers(params.get("parallelisms", "1,2,4"));
+        List<Long> thresholds = parseNumbers(params.get("thresholds", "1000"));
+        int warmups = Integer.valueOf(params.get("warmups", "1"));
+        int trials = Integer.valueOf(params.get("trials", "3"));
+        if (trials < 1 || warmups < 0) {
+            throw new IllegalArgumentException("Please provide at least one trial and no negative warm-ups");
+        }
+
+        int taskManagers = Integer.valueOf(params.get("taskmanagers", "2"));
+        long maxParallelism = 1;
+        for (long parallelism: parallelisms) {
+            maxParallelism = Math.max(maxParallelism, parallelism);
+        }
+        int slots = Integer.valueOf(params.get("slots", "" + (maxParallelism + taskManagers - 1) / taskManagers));
+        if (taskManagers < 1 || (long)taskManagers * slots < maxParallelism) {
+            throw new IllegalArgumentException("The task managers need at least as many slots as the maximum parallelism");
+        }
+
+        ClusterBenchmark benchmark = new ClusterBenchmark(params);
+        benchmark.start(taskManagers, slots);
+
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        StringBuilder json = new StringBuilder("[");
+        try {
+            for (String algorithm: algorithms) {
+                for (String source: sources) {
+                    for (long n: counts) {
+                        for (long parallelism: parallelisms) {
+                            for (long t: thresholds) {
+                                for (int warmup = 0; warmup < warmups; warmup++) {
+                                    benchmark.run(algorithm, source, n, (int)parallelism, t);
+                                }
+
+                                for (int trial = 1; trial <= trials; trial++) {
+                                    Measurement m = benchmark.run(algorithm, source, n, (int)parallelism, t);
+
+                                    LOGGER.info("{} {} n={} parallelism={} t={} (trial {}): {} ms, {} supersteps, {} bytes shuffled",
+                                            algorithm, source, n, parallelism, t, trial, m.wallMillis, m.supersteps, m.bytesShuffled);
+
+                                    csv.append(String.format("%s,%s,%d,%d,%d,%d,%d,%d,%d,%d,%d,%s%n", algorithm, source, n,
+                                            parallelism, t, trial, m.wallMillis, m.supersteps, m.bytesShuffled, m.gcMillis,
+                                            m.peakHeapBytes, m.value));
+                                    json.append(json.length() > 1 ? ",\n" : "\n").append(String.format(
+                                            "  {\"algorithm\": \"%s\", \"source\": \"%s\", \"n\": %d, \"parallelism\": %d, \"t\": %d, \"trial\": %d, "
+                                                    + "\"wallMillis\": %d, \"supersteps\": %d, \"bytesShuffled\": %d, \"gcMillis\": %d, "
+                                                    + "\"peakHeapBytes\": %d, \"value\": %s}",
+                                            algorithm, source, n, parallelism, t, trial, m.wallMillis, m.supersteps, m.bytesShuffled,
+                                            m.gcMillis, m.peakHeapBytes, jsonNumber(m.value)));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            benchmark.stop();
+        }
+        json.append("\n]\n");
+
+        System.out.print(csv);
+
+        String outputPath = params.get("output-path");
+        if (outputPath != null) {
+            writeReport(outputPath + ".csv", csv.toString());
+            writeReport(outputPath + ".json", json.toString());
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package de.lwerner.flink.percentiles.benchmark;
+
+import de.lwerner.flink.percentiles.SelectionProblem;
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
+import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.redis.EmbeddedRedisServer;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Class CoordinationBenchmark
+ *
+ * Runs the redis selection with each coordination backend (fake: in-process singleton, embedded: jedis over loopback
+ * to the embedded redis stand-in, aggregator: flink iteration aggregators) on the same input and reports the runtime,
+ * the number of supersteps and the mean time per superstep of each iteration phase, as measured by the PhaseTimer.
+ * The aggregator backend iterates until the result is found (threshold 0), the others stop at the threshold t and
+ * solve the rest serially, so their supersteps and runtimes aren't comparable under the same t. The report has the
+ * effective threshold of each run, compare the phase times across backends. The input seed defaults to 42, so all
+ * backends and trials see the same values.
+ *
+ * @author Lukas Werner
+ */
+public class CoordinationBenchmark {
+
+    /**
+     * The application logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoordinationBenchmark.class);
+
+    /**
+     * The phases timed in every superstep, the final solve runs once after the iteration
+     */
+    private static final String[] ITERATION_PHASES = {PhaseTimer.PARTITION_MEDIANS, PhaseTimer.COUNTING, PhaseTimer.DISCARD};
+
+    /**
+     * The benchmark parameters
+     */
+    private final ParameterTool params;
+
+    /**
+     * Constructor, sets the parameters, the seed defaults to 42
+     *
+     * @param params the benchmark parameters
+     */
+    public CoordinationBenchmark(ParameterTool params) {
+        this.params = ParameterTool.fromMap(Collections.singletonMap("seed", "42")).mergeWith(params);
+    }
+
+    /**
+     * Runs the selection with one backend
+     *
+     * @param backend the backend name (fake|embedded|aggregator)
+     *
+     * @return (runtime in milliseconds, supersteps, mean milliseconds per superstep of each iteration phase, effective
+     *         threshold)
+     *
+     * @throws Exception if the job fails
+     */
+    public Tuple4<Long, Integer, double[], Long> run(String backend) throws Exception {
+        ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        long n = Long.valueOf(params.get("count", "10000000"));
+        int p = Integer.valueOf(params.get("p", "50"));
+        long t = Long.valueOf(params.get("t", "1000"));
+
+        SourceInterface source = ParamHelper.getSourceFromParams(params, env, n);
+
+        SelectionProblem selectionProblem = new SelectionProblem(source, null, AbstractPercentile.rankOf(n, p), t, false);
+        selectionProblem.setRedisCredentials(createRedisCredentials(backend));
+        // Every trial has to run the job
+        selectionProblem.setResultCache(null);
+
+        long start = System.nanoTime();
+        selectionProblem.solve();
+        long runtime = (System.nanoTime() - start) / 1000000;
+
+        int supersteps = selectionProblem.getResult().getSupersteps();
+
+        // The aggregator backend iterates until the result is found, see SelectionProblem
+        long effectiveT = AbstractRedisAdapter.REDIS_ADAPTER_AGGREGATOR.equals(backend) ? 0 : t;
+
+        return new Tuple4<>(runtime, supersteps, meanPhaseMillis(selectionProblem.getResult().getSuperstepStatistics()), effectiveT);
+    }
+
+    /**
+     * Calculates the mean time per superstep of each iteration phase
+     *
+     * @param superstepStatistics the statistics of all supersteps
+     *
+     * @return the mean milliseconds per superstep, in the order of ITERATION_PHASES
+     */
+    static double[] meanPhaseMillis(List<SuperstepStatistics> superstepStatistics) {
+        double[] millis = new double[ITERATION_PHASES.length];
+        if (superstepStatistics == null || superstepStatistics.isEmpty()) {
+            return millis;
+        }
+
+        for (SuperstepStatistics superstep: superstepStatistics) {
+            for (int i = 0; i < ITERATION_PHASES.length; i++) {
+                millis[i] += superstep.getPhaseNanos().getOrDefault(ITERATION_PHASES[i], 0L) / 1000000.0;
+            }
+        }
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] /= superstepStatistics.size();
+        }
+
+        return millis;
+    }
+
+    /**
+     * Creates the credentials for a backend, each run gets its own namespace
+     *
+     * @param backend the backend name (fake|embedded|aggregator)
+     *
+     * @return the redis credentials
+     *
+     * @throws IOException if the embedded server couldn't be started
+     */
+    static RedisCredentials createRedisCredentials(String backend) throws IOException {
+        RedisCredentials redisCredentials = new RedisCredentials();
+        redisCredentials.setNamespace(UUID.randomUUID().toString());
+
+        switch (backend) {
+            case AbstractRedisAdapter.REDIS_ADAPTER_FAKE:
+                redisCredentials.setAdapter(AbstractRedisAdapter.REDIS_ADAPTER_FAKE);
+                break;
+            case AbstractRedisAdapter.REDIS_ADAPTER_EMBEDDED:
+                EmbeddedRedisServer server = EmbeddedRedisServer.getInstance();
+                redisCredentials.setAdapter(AbstractRedisAdapter.REDIS_ADAPTER_JEDIS);
+                redisCredentials.setHost(server.getHost());
+                redisCredentials.setPort(server.getPort());
+                break;
+            case AbstractRedisAdapter.REDIS_ADAPTER_AGGREGATOR:
+                redisCredentials.setAdapter(AbstractRedisAdapter.REDIS_ADAPTER_AGGREGATOR);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend + " (fake|embedded|aggregator)");
+        }
+
+        return redisCredentials;
+    }
+
+    /**
+     * The main application method, runs all requested backends and writes the report
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        CoordinationBenchmark benchmark = new CoordinationBenchmark(params);
+        int trials = Integer.valueOf(params.get("trials", "3"));
+
+        StringBuilder report = new StringBuilder("backend,trial,effective-t,runtime-ms,supersteps");
+        for (String phase: ITERATION_PHASES) {
+            report.append(",").append(phase.replace(' ', '-')).append("-ms-per-superstep");
+        }
+        report.append("\n");
+        for (String backend: params.get("backends", "fake,embedded,aggregator").split(",")) {
+            for (int trial = 1; trial <= trials; trial++) {
+                Tuple4<Long, Integer, double[], Long> result = benchmark.run(backend);
+
+                LOGGER.info("{} (trial {}, t {}): {} ms, {} supersteps", backend, trial, result.f3, result.f0, result.f1);
+                report.append(String.format("%s,%d,%d,%d,%d", backend, trial, result.f3, result.f0, result.f1));
+                for (int i = 0; i < ITERATION_PHASES.length; i++) {
+                    LOGGER.info("  {}: {} ms per superstep", ITERATION_PHASES[i], String.format("%.1f", result.f2[i]));
+                    report.append(String.format(",%.1f", result.f2[i]));
+                }
+                report.append("\n");
+            }
+        }
+
+        System.out.print(report);
+
+        String outputPath = params.get("output-path");
+        if (outputPath != null) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath))) {
+                writer.write(report.toString());
+            } catch (IOException e) {
+                LOGGER.error("Couldn't write the report", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.lwerner.flink.percentiles.benchmark;
+
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.optimizer.DataStatistics;
+import org.apache.flink.optimizer.Optimizer;
+import org.apache.flink.optimizer.plan.OptimizedPlan;
+import org.apache.flink.optimizer.plandump.PlanJSONDumpGenerator;
+import org.apache.flink.optimizer.plantranslate.JobGraphGenerator;
+import org.apache.flink.runtime.minicluster.LocalFlinkMiniCluster;
+
+/**
+ * Class MiniClusterEnvironment
+ *
+ * Defines an execution environment, which submits its jobs to an already running local cluster. Unlike the local
+ * environment, the cluster is started once and can have several task managers.
+ *
+ * @author Lukas Werner
+ */
+public class MiniClusterEnvironment extends ExecutionEnvironment {
+
+    /**
+     * The running cluster
+     */
+    private final LocalFlinkMiniCluster cluster;
+
+    /**
+     * Constructor, sets the cluster
+     *
+     * @param cluster the running cluster
+     */
+    public MiniClusterEnvironment(LocalFlinkMiniCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public JobExecutionResult execute(String jobName) throws Exception {
+        OptimizedPlan plan = compile(jobName);
+
+        lastJobExecutionResult = cluster.submitJobAndWait(new JobGraphGenerator().compileJobGraph(plan), false);
+
+        return lastJobExecutionResult;
+    }
+
+    @Override
+    public String getExecutionPlan() throws Exception {
+        return new PlanJSONDumpGenerator().getOptimizerPlanAsJSON(compile("unnamed job"));
+    }
+
+    @Override
+    public void startNewSession() throws Exception {
+    }
+
+    /**
+     * Creates and optimizes the plan of the job
+     *
+     * @param jobName the job name
+     *
+     * @return the optimized plan
+     */
+    private OptimizedPlan compile(String jobName) {
+        Plan plan = createProgramPlan(jobName);
+
+        return new Optimizer(new DataStatistics(), cluster.configuration()).compile(plan);
+    }
+
+}
@@ -0,0 +1,99 @@
+package de.lwerner.flink.percentiles.benchmark;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.MetricConfig;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.reporter.MetricReporter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class ShuffleBytesReporter
+ *
+ * Defines a metric reporter, which sums up the numBytesInRemote counters of all tasks, so the benchmark knows how many
+ * bytes a job shuffled between task managers. numBytesOut isn't used, it counts every written buffer, also the ones of
+ * forward and chained local channels, which never leave the task manager. Each remote byte is counted once, on the
+ * receiving side. A task removes its counters, when it finishes, so their final counts are kept. The reporter runs
+ * inside of the local cluster, so the totals are static.
+ *
+ * @author Lukas Werner
+ */
+public class ShuffleBytesReporter implements MetricReporter {
+
+    /**
+     * Name of the task metric, which counts the bytes read from remote input channels
+     */
+    public static final String REMOTE_BYTES_IN_METRIC = "numBytesInRemote";
+
+    /**
+     * The counters of the running tasks
+     */
+    private static final Set<Counter> COUNTERS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The final counts of the finished tasks
+     */
+    private static final AtomicLong FINISHED_BYTES = new AtomicLong();
+
+    /**
+     * Get the bytes shuffled between task managers since the last reset
+     *
+     * @return the shuffled bytes
+     */
+    public static long getBytes() {
+        long bytes = FINISHED_BYTES.get();
+        for (Counter counter: COUNTERS) {
+            bytes += counter.getCount();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Waits, until all tasks removed their counters, the tasks are cleaned up shortly after the job finished
+     *
+     * @param timeoutMillis the maximum waiting time in milliseconds
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void awaitFinishedTasks(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!COUNTERS.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Resets the bytes, before a job is started
+     */
+    public static void reset() {
+        COUNTERS.clear();
+        FINISHED_BYTES.set(0);
+    }
+
+    @Override
+    public void open(MetricConfig config) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void notifyOfAddedMetric(Metric metric, String metricName, MetricGroup group) {
+        if (REMOTE_BYTES_IN_METRIC.equals(metricName) && metric instanceof Counter) {
+            COUNTERS.add((Counter)metric);
+        }
+    }
+
+    @Override
+    public void notifyOfRemovedMetric(Metric metric, String metricName, MetricGroup group) {
+        if (metric instanceof Counter && COUNTERS.remove(metric)) {
+            FINISHED_BYTES.addAndGet(((Counter)metric).getCount());
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package de.lwerner.flink.percentiles.benchmark;
+
+import de.lwerner.flink.percentiles.DecayedPercentile;
+import de.lwerner.flink.percentiles.SlidingWindowPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.data.GeneratorStreamSource;
+import de.lwerner.flink.percentiles.functions.streaming.LatencyHistogramSinkFunction;
+import de.lwerner.flink.percentiles.util.ParamHelper;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class StreamingBenchmark
+ *
+ * Runs each streaming percentile operator on a parallel generator source and reports the sustained throughput and
+ * the end to end latency percentiles (creation of a value until its result reaches the sink).
+ *
+ * @author Lukas Werner
+ */
+public class StreamingBenchmark {
+
+    /**
+     * The application logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingBenchmark.class);
+
+    /**
+     * The benchmark parameters
+     */
+    private final ParameterTool params;
+
+    /**
+     * Constructor, sets the parameters
+     *
+     * @param params the benchmark parameters
+     */
+    public StreamingBenchmark(ParameterTool params) {
+        this.params = params;
+    }
+
+    /**
+     * Runs one streaming operator
+     *
+     * @param operator the operator name (sliding-count|sliding-time|decayed)
+     *
+     * @return (throughput in values per second, p50 latency, p99 latency)
+     *
+     * @throws Exception if the job fails
+     */
+    public Tuple3<Double, Integer, Integer> run(String operator) throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        ParamHelper.extractParallelismFromParams(params, env);
+
+        long count = Long.valueOf(params.get("count", "10000000"));
+        int p = Integer.valueOf(params.get("p", "99"));
+
+        GeneratorStreamSource source = new GeneratorStreamSource(env, params.get("source", "random"),
+                Long.valueOf(params.get("seed", "42")),
+                Long.valueOf(params.get("rate", "0")),
+                Integer.valueOf(params.get("keys", "100")),
+                count);
+
+        DataStream<Tuple3<String, Long, Float>> results;
+        switch (operator) {
+            case "sliding-count":
+            case "sliding-time":
+                SlidingWindowPercentile sliding = new SlidingWindowPercentile(source, null, p);
+                sliding.setWindow(Long.valueOf(params.get("window-size", "100000")), operator.equals("sliding-time"));
+                sliding.setEmitEvery(Integer.valueOf(params.get("emit-every", "" + sliding.getEmitEvery())));
+                results = sliding.apply(source.getDataStream());
+                break;
+            case "decayed":
+                DecayedPercentile decayed = new DecayedPercentile(source, null, p);
+                decayed.setHalfLife(Long.valueOf(params.get("half-life", "60000")));
+                decayed.setEmitEvery(Integer.valueOf(params.get("emit-every", "" + decayed.getEmitEvery())));
+                results = decayed.apply(source.getDataStream());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + operator + " (sliding-count|sliding-time|decayed)");
+        }
+
+        results.addSink(new LatencyHistogramSinkFunction());
+
+        JobExecutionResult jobExecutionResult = env.execute("Streaming benchmark (" + operator + ")");
+
+        TreeMap<Integer, Integer> histogram = jobExecutionResult.getAccumulatorResult(LatencyHistogramSinkFunction.ACCUMULATOR_NAME);
+        double throughput = count / (jobExecutionResult.getNetRuntime() / 1000.0);
+
+        return new Tuple3<>(throughput, percentile(histogram, 50), percentile(histogram, 99));
+    }
+
+    /**
+     * Get the p percentile of a latency histogram
+     *
+     * @param histogram latency to number of occurrences
+     * @param p the percentage value
+     *
+     * @return the latency percentile
+     */
+    private static int percentile(TreeMap<Integer, Integer> histogram, int p) {
+        long total = 0;
+        for (int occurrences: histogram.values()) {
+            total += occurrences;
+        }
+
+        long k = AbstractPercentile.rankOf(total, p);
+        long cumulative = 0;
+        for (Map.Entry<Integer, Integer> entry: histogram.entrySet()) {
+            cumulative += entry.getValue();
+            if (cumulative >= k) {
+                return entry.getKey();
+            }
+        }
+
+        return histogram.isEmpty() ? 0 : histogram.lastKey();
+    }
+
+    /**
+     * The main application method, runs all requested operators and writes the report
+     *
+     * @param args the command line arguments
+     *
+     * @throws Exception if something goes wrong
+     */
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+
+        StreamingBenchmark benchmark = new StreamingBenchmark(params);
+
+        StringBuilder report = new StringBuilder("operator,throughput,latency-p50-ms,latency-p99-ms\n");
+        for (String operator: params.get("operators", "sliding-count,sliding-time,decayed").split(",")) {
+            Tuple3<Double, Integer, Integer> result = benchmark.run(operator);
+
+            LOGGER.info("{}: {} values/s, latency p50 {} ms, p99 {} ms", operator, String.format("%.0f", result.f0), result.f1, result.f2);
+            report.append(String.format("%s,%.0f,%d,%d%n", operator, result.f0, result.f1, result.f2));
+        }
+
+        System.out.print(report);
+
+        String outputPath = params.get("output-path");
+        if (outputPath != null) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath))) {
+                writer.write(report.toString());
+            } catch (IOException e) {
+                LOGGER.error("Couldn't write the report", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package de.lwerner.flink.percentiles.cache;
+
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.util.AppProperties;
+import de.lwerner.flink.percentiles.util.PropertyName;
+
+import java.io.File;
+import java.io.Serializable;
+
+/**
+ * Class AbstractResultCache
+ *
+ * Holds the abstract methods of a cache for solved selection problems and provides a factory method. A key is built
+ * from the source fingerprint, the algorithm and the rank, so a repeated query doesn't need a flink job.
+ *
+ * @author Lukas Werner
+ */
+public abstract class AbstractResultCache implements Serializable {
+
+    /**
+     * The cache type for no caching
+     */
+    public static final String CACHE_TYPE_NONE = "none";
+    /**
+     * The cache type for a local directory
+     */
+    public static final String CACHE_TYPE_DISK = "disk";
+    /**
+     * The cache type for the configured redis
+     */
+    public static final String CACHE_TYPE_REDIS = "redis";
+
+    /**
+     * Gets a cached result
+     *
+     * @param key the cache key
+     *
+     * @return the result or null, if not cached
+     */
+    public abstract Float get(String key);
+
+    /**
+     * Caches a result
+     *
+     * @param key the cache key
+     * @param value the result
+     */
+    public abstract void put(String key, float value);
+
+    /**
+     * Builds a cache key
+     *
+     * @param fingerprint the source fingerprint
+     * @param algorithm the algorithm name
+     * @param n the value count
+     * @param k the rank
+     *
+     * @return the cache key
+     */
+    public static String createKey(String fingerprint, String algorithm, long n, long k) {
+        return Fingerprint.of(fingerprint, algorithm, n, k);
+    }
+
+    /**
+     * Factory method, initiates the cache by the properties, which hold the cache type
+     *
+     * @param properties the app properties
+     *
+     * @return the cache or null, if caching is disabled
+     */
+    public static AbstractResultCache factory(AppProperties properties) {
+        String type = properties.getProperty(PropertyName.CACHE_TYPE, CACHE_TYPE_NONE);
+        switch (type) {
+            case CACHE_TYPE_DISK:
+                String path = properties.getProperty(PropertyName.CACHE_PATH,
+                        System.getProperty("java.io.tmpdir") + File.separator + "flink-percentiles-cache");
+                int maxEntries = Integer.valueOf(properties.getProperty(PropertyName.CACHE_MAX_ENTRIES, "1000"));
+
+                return new DiskResultCache(path, maxEntries);
+            case CACHE_TYPE_REDIS:
+                RedisCredentials redisCredentials = new RedisCredentials();
+                redisCredentials.setHost(properties.getProperty(PropertyName.REDIS_HOST));
+                redisCredentials.setPort(Integer.valueOf(properties.getProperty(PropertyName.REDIS_PORT, "6379")));
+                redisCredentials.setPassword(properties.getProperty(PropertyName.REDIS_PASSWORD));
+                redisCredentials.setPoolSize(Integer.valueOf(properties.getProperty(PropertyName.REDIS_POOL_SIZE, "64")));
+                int ttl = Integer.valueOf(properties.getProperty(PropertyName.CACHE_TTL, "86400"));
+
+                return new RedisResultCache(redisCredentials, ttl);
+            case CACHE_TYPE_NONE:
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown cache type: " + type + ", use none, disk or redis");
+        }
+    }
+
+}
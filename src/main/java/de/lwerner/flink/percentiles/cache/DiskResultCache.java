@@ -0,0 +1,106 @@
+package de.lwerner.flink.percentiles.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Class DiskResultCache
+ *
+ * Keeps one small file per result in a local directory. A hit touches the file, so if there are more than
+ * (maxEntries) files, the least recently used ones are deleted. Suits local and single machine runs, on a cluster
+ * the directory should be shared.
+ *
+ * @author Lukas Werner
+ */
+public class DiskResultCache extends AbstractResultCache {
+
+    /**
+     * The cache directory
+     */
+    private final String directory;
+
+    /**
+     * Maximum number of cached results
+     */
+    private final int maxEntries;
+
+    /**
+     * Constructor, sets directory and maximum number of entries
+     *
+     * @param directory the cache directory
+     * @param maxEntries maximum number of cached results
+     */
+    public DiskResultCache(String directory, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Please provide a maximum number of cache entries of at least 1");
+        }
+
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Float get(String key) {
+        File file = getFile(key);
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            file.setLastModified(System.currentTimeMillis());
+
+            return Float.valueOf(content.trim());
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, float value) {
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+
+            // Write to a temporary file first, so readers never see a partial entry
+            Path temporary = Files.createTempFile(dir, key, ".tmp");
+            Files.write(temporary, Float.toString(value).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the cache entry to " + directory, e);
+        }
+
+        evict();
+    }
+
+    /**
+     * Deletes the least recently used entries, if there are more than (maxEntries)
+     */
+    private void evict() {
+        File[] files = new File(directory).listFiles((dir, name) -> !name.endsWith(".tmp"));
+        if (files == null || files.length <= maxEntries) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - maxEntries; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * Get the file of a cache entry
+     *
+     * @param key the cache key
+     *
+     * @return the file
+     */
+    private File getFile(String key) {
+        return new File(directory, key);
+    }
+
+}
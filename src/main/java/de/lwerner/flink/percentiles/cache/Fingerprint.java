@@ -0,0 +1,101 @@
+package de.lwerner.flink.percentiles.cache;
+
+import de.lwerner.flink.percentiles.data.FilePaths;
+import org.apache.flink.core.fs.FileStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Class Fingerprint
+ *
+ * Builds SHA-256 fingerprints (hex strings) of key parts or of files, used to identify a data set in the result
+ * cache.
+ *
+ * @author Lukas Werner
+ */
+public final class Fingerprint {
+
+    /**
+     * Hex digits
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * No instances
+     */
+    private Fingerprint() {
+    }
+
+    /**
+     * Fingerprint of some key parts, the parts are separated, so ("ab", "c") and ("a", "bc") differ
+     *
+     * @param parts the key parts
+     *
+     * @return the hex fingerprint
+     */
+    public static String of(Object... parts) {
+        MessageDigest digest = createDigest();
+        for (Object part: parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Fingerprint of files from path, length and modification time, without reading them. The path specification is
+     * resolved like the file sources do, all files of directories are taken into account.
+     *
+     * @param specification comma separated paths, directories or glob patterns
+     *
+     * @return the hex fingerprint
+     *
+     * @throws IOException if the file status couldn't be read
+     */
+    public static String ofPath(String specification) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (FileStatus status: FilePaths.listFiles(FilePaths.resolve(specification))) {
+            builder.append(status.getPath())
+                    .append('|').append(status.getLen())
+                    .append('|').append(status.getModificationTime())
+                    .append('\n');
+        }
+
+        return of(builder.toString());
+    }
+
+    /**
+     * Creates a SHA-256 digest
+     *
+     * @return the digest
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Converts bytes to a hex string
+     *
+     * @param bytes the bytes
+     *
+     * @return the hex string
+     */
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >>> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+
+        return new String(chars);
+    }
+
+}
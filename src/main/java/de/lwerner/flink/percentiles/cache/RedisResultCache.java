@@ -0,0 +1,68 @@
+package de.lwerner.flink.percentiles.cache;
+
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.redis.JedisPoolRegistry;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+/**
+ * Class RedisResultCache
+ *
+ * Keeps the results in the configured redis. Each entry expires after (ttl) seconds, the configured maxmemory policy
+ * of redis may evict entries earlier.
+ *
+ * @author Lukas Werner
+ */
+public class RedisResultCache extends AbstractResultCache {
+
+    /**
+     * Prefix of all cache keys
+     */
+    private static final String KEY_PREFIX = "flink-percentiles-cache:";
+
+    /**
+     * The redis connection info
+     */
+    private final RedisCredentials redisCredentials;
+
+    /**
+     * Seconds until an entry expires
+     */
+    private final int ttl;
+
+    /**
+     * Constructor, sets credentials and ttl
+     *
+     * @param redisCredentials the redis connection info
+     * @param ttl seconds until an entry expires
+     */
+    public RedisResultCache(RedisCredentials redisCredentials, int ttl) {
+        if (ttl < 1) {
+            throw new IllegalArgumentException("Please provide a cache ttl of at least 1 second");
+        }
+
+        this.redisCredentials = redisCredentials;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Float get(String key) {
+        try (Jedis jedis = JedisPoolRegistry.getResource(redisCredentials)) {
+            String value = jedis.get(KEY_PREFIX + key);
+
+            return value == null ? null : Float.valueOf(value);
+        }
+    }
+
+    @Override
+    public void put(String key, float value) {
+        try (Jedis jedis = JedisPoolRegistry.getResource(redisCredentials)) {
+            // SET and EXPIRE in one round trip
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.set(KEY_PREFIX + key, Float.toString(value));
+            pipeline.expire(KEY_PREFIX + key, ttl);
+            pipeline.sync();
+        }
+    }
+
+}
@@ -1,15 +1,27 @@
 package de.lwerner.flink.percentiles.data;
 
 import de.lwerner.flink.percentiles.model.Result;
-import org.apache.flink.api.common.functions.MapFunction;
-import org.apache.flink.api.java.DataSet;
-import org.apache.flink.api.java.tuple.Tuple1;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
+import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
- * Abstract sink to provide methods to all sinks
+ * Abstract sink to provide methods to all sinks. The result is populated on the driver already (see
+ * ResultCollector), so the sinks never run a job. Besides the value, the sinks write the instrumentation of the job:
+ * the statistics of each superstep and the timer results.
  *
  * @author Lukas Werner
  */
@@ -28,54 +40,200 @@ public abstract class AbstractSink implements SinkInterface {
     }
 
     /**
-     * Map solution data set to a tuple data set with all information
+     * Get all information of a result
+     *
+     * @param result the result model
+     *
+     * @return the (k, p, t, value) tuple
+     */
+    protected Tuple4<Long, Integer, Long, Float> valueToTuple(Result result) {
+        return new Tuple4<>(result.getK(), result.getP(), result.getT(), result.getValue());
+    }
+
+    /**
+     * Map the collected summary to (quantile, rank, value) tuples, sorted by quantile
+     *
+     * @param result the result model
+     *
+     * @return sorted summary tuples
+     */
+    protected List<Tuple3<Double, Long, Float>> summaryToTuples(Result result) {
+        List<Tuple3<Integer, Long, Float>> boundaries = new ArrayList<>(result.getSummaryValues());
+        boundaries.sort((a, b) -> Integer.compare(a.f0, b.f0));
+
+        List<Tuple3<Double, Long, Float>> tuples = new ArrayList<>();
+        for (Tuple3<Integer, Long, Float> boundary: boundaries) {
+            tuples.add(new Tuple3<>((double)boundary.f0 / result.getBuckets(), boundary.f1, boundary.f2));
+        }
+
+        return tuples;
+    }
+
+    /**
+     * Writes the value of a result as one csv line
+     *
+     * @param path the file path
+     * @param result the result model
+     *
+     * @throws IOException if the file couldn't be written
+     */
+    protected void writeValue(String path, Result result) throws IOException {
+        Tuple4<Long, Integer, Long, Float> tuple = valueToTuple(result);
+
+        writeLines(path, tuple.f0 + "," + tuple.f1 + "," + tuple.f2 + "," + tuple.f3 + "\n");
+    }
+
+    /**
+     * Writes the collected summary as csv lines (quantile, rank, value)
+     *
+     * @param path the file path
+     * @param result the result model
+     *
+     * @throws IOException if the file couldn't be written
+     */
+    protected void writeSummary(String path, Result result) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Tuple3<Double, Long, Float> tuple: summaryToTuples(result)) {
+            lines.append(tuple.f0).append(',').append(tuple.f1).append(',').append(tuple.f2).append('\n');
+        }
+
+        writeLines(path, lines.toString());
+    }
+
+    /**
+     * Map the superstep statistics to csv lines, with a header (phase times in milliseconds)
+     *
+     * @param result the result model
+     *
+     * @return the csv lines
+     */
+    protected String superstepStatisticsToCsv(Result result) {
+        StringBuilder lines = new StringBuilder("superstep,n,k,pivot,less,equal,greater,decision");
+        for (String phase: PhaseTimer.PHASES) {
+            if (!phase.equals(PhaseTimer.FINAL_SOLVE)) {
+                lines.append(',').append(phase).append(" ms");
+            }
+        }
+        lines.append('\n');
+
+        for (SuperstepStatistics statistics: result.getSuperstepStatistics()) {
+            lines.append(statistics.getSuperstep()).append(',').append(statistics.getN()).append(',')
+                    .append(statistics.getK()).append(',').append(statistics.getPivot()).append(',')
+                    .append(statistics.getLess()).append(',').append(statistics.getEqual()).append(',')
+                    .append(statistics.getGreater()).append(',').append(statistics.getDecision());
+            for (String phase: PhaseTimer.PHASES) {
+                if (!phase.equals(PhaseTimer.FINAL_SOLVE)) {
+                    Long nanos = statistics.getPhaseNanos().get(phase);
+                    lines.append(',').append(nanos == null ? "" : toMillis(nanos));
+                }
+            }
+            lines.append('\n');
+        }
+
+        return lines.toString();
+    }
+
+    /**
+     * Map the timer results to csv lines (timer path, milliseconds), with a header
+     *
+     * @param result the result model
+     *
+     * @return the csv lines
+     */
+    protected String timerResultsToCsv(Result result) {
+        StringBuilder lines = new StringBuilder("timer,ms\n");
+        for (Map.Entry<String, Long> timerResult: result.getTimerResults().entrySet()) {
+            lines.append(timerResult.getKey()).append(',').append(toMillis(timerResult.getValue())).append('\n');
+        }
+
+        return lines.toString();
+    }
+
+    /**
+     * Writes the instrumentation next to the result file: the superstep statistics to (path).supersteps.csv and the
+     * timer results to (path).timers.csv. Nothing is written for results without job (e.g. cached).
      *
+     * @param path the result file path
      * @param result the result model
      *
-     * @return data set with all information
+     * @throws IOException if a file couldn't be written
      */
-    protected DataSet<Tuple4<Long, Integer, Long, Float>> solutionDataSetToTuple(Result result) {
-        return result.getSolution().map(new SolutionToTupleMap(result.getK(), result.getP(), result.getT()));
+    protected void writeStatistics(String path, Result result) throws IOException {
+        if (result.getSuperstepStatistics() != null && !result.getSuperstepStatistics().isEmpty()) {
+            writeLines(path + ".supersteps.csv", superstepStatisticsToCsv(result));
+        }
+        if (result.getTimerResults() != null && !result.getTimerResults().isEmpty()) {
+            writeLines(path + ".timers.csv", timerResultsToCsv(result));
+        }
     }
 
     /**
-     * Inner class because it is only used here for sure
+     * Logs the statistics of the job, which populated the result
      *
-     * @author Lukas Werner
+     * @param result the result model
      */
-    private static class SolutionToTupleMap implements MapFunction<Tuple1<Float>, Tuple4<Long, Integer, Long, Float>> {
-
-        /**
-         * k
-         */
-        private long k;
-        /**
-         * p
-         */
-        private int p;
-        /**
-         * t
-         */
-        private long t;
-
-        /**
-         * Constructor to set all values
-         *
-         * @param k k to set
-         * @param p p to set
-         * @param t t to set
-         */
-        public SolutionToTupleMap(long k, int p, long t) {
-            this.k = k;
-            this.p = p;
-            this.t = t;
+    protected void logStatistics(Result result) {
+        if (result.getNetRuntime() > 0) {
+            logger.info("Execution time: {} milliseconds, supersteps: {}", result.getNetRuntime(), result.getSupersteps());
+        }
+
+        if (result.getSuperstepStatistics() != null) {
+            for (SuperstepStatistics statistics: result.getSuperstepStatistics()) {
+                logger.info("Superstep {}: n = {}, k = {}, pivot = {}, less/equal/greater = {}/{}/{}, {}, phases (ms): {}",
+                        statistics.getSuperstep(), statistics.getN(), statistics.getK(), statistics.getPivot(),
+                        statistics.getLess(), statistics.getEqual(), statistics.getGreater(), statistics.getDecision(),
+                        phasesToString(statistics.getPhaseNanos()));
+            }
         }
 
-        @Override
-        public Tuple4<Long, Integer, Long, Float> map(Tuple1<Float> value) {
-            return new Tuple4<>(k, p, t, value.f0);
+        if (result.getTimerResults() != null && !result.getTimerResults().isEmpty()) {
+            logger.info("Timers (ms): {}", phasesToString(result.getTimerResults()));
         }
+    }
+
+    /**
+     * Formats times by name in milliseconds
+     *
+     * @param nanos nanoseconds by name
+     *
+     * @return the formatted times
+     */
+    private static String phasesToString(Map<String, Long> nanos) {
+        StringBuilder string = new StringBuilder("{");
+        for (Map.Entry<String, Long> entry: nanos.entrySet()) {
+            if (string.length() > 1) {
+                string.append(", ");
+            }
+            string.append(entry.getKey()).append('=').append(toMillis(entry.getValue()));
+        }
+
+        return string.append('}').toString();
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds with three decimals
+     *
+     * @param nanos the nanoseconds
+     *
+     * @return the milliseconds
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
 
+    /**
+     * Writes (overwrites) a file
+     *
+     * @param path the file path
+     * @param lines the file content
+     *
+     * @throws IOException if the file couldn't be written
+     */
+    private void writeLines(String path, String lines) throws IOException {
+        Path filePath = new Path(path);
+        try (FSDataOutputStream out = filePath.getFileSystem().create(filePath, FileSystem.WriteMode.OVERWRITE)) {
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.common.accumulators.ListAccumulator;
+import org.apache.flink.api.common.io.RichOutputFormat;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * Class AccumulatorOutputFormat
+ *
+ * Defines an output format, which adds all records to a list accumulator, so small results (a solution or a summary)
+ * reach the driver with the job execution result, without a separate collect() job.
+ *
+ * @param <T> the tuple type
+ *
+ * @author Lukas Werner
+ */
+public class AccumulatorOutputFormat<T extends Tuple> extends RichOutputFormat<T> {
+
+    /**
+     * The accumulator name
+     */
+    private final String name;
+
+    /**
+     * The records of this task
+     */
+    private transient ListAccumulator<T> records;
+
+    /**
+     * Constructor, sets the accumulator name
+     *
+     * @param name the accumulator name
+     */
+    public AccumulatorOutputFormat(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void configure(Configuration parameters) {
+    }
+
+    @Override
+    public void open(int taskNumber, int numTasks) {
+        records = new ListAccumulator<>();
+        getRuntimeContext().addAccumulator(name, records);
+    }
+
+    @Override
+    public void writeRecord(T record) {
+        // The record may be reused by the runtime
+        records.add(record.copy());
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.lwerner.flink.percentiles.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class BinaryFileWriter
+ *
+ * Writes little-endian floats or doubles without separators (see BinaryFloatInputFormat).
+ *
+ * @author Lukas Werner
+ */
+public class BinaryFileWriter extends ValueFileWriter {
+
+    /**
+     * Size of the write buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The little-endian write buffer
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Bytes per value
+     */
+    private final int width;
+
+    /**
+     * Constructor, creates the file
+     *
+     * @param file the file to write to
+     * @param type the value type (float or double)
+     *
+     * @throws IOException if the file couldn't be created
+     */
+    public BinaryFileWriter(File file, String type) throws IOException {
+        width = BinaryFloatInputFormat.widthOf(type);
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void write(float[] values, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int chunk = Math.min(length - offset, buffer.remaining() / width);
+            if (chunk == 0) {
+                drain();
+                continue;
+            }
+
+            if (width == 4) {
+                // Bulk copy through a float view, the view doesn't move the buffer position
+                buffer.asFloatBuffer().put(values, offset, chunk);
+                buffer.position(buffer.position() + chunk * 4);
+            } else {
+                for (int i = offset; i < offset + chunk; i++) {
+                    buffer.putDouble(values[i]);
+                }
+            }
+            offset += chunk;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel
+     *
+     * @throws IOException if writing fails
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,230 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class BinaryFloatInputFormat
+ *
+ * Reads a file of little-endian floats (4 bytes) or doubles (8 bytes, narrowed to float) without any separators.
+ * Split boundaries are rounded up to the next value, so each value is read by exactly one split. Local files are
+ * memory-mapped, other file systems are read in large blocks into a buffer. Several files are read as one input
+ * (see FilePaths). Compressed files can't be split at value boundaries, so they are rejected.
+ *
+ * @author Lukas Werner
+ */
+public class BinaryFloatInputFormat extends FileInputFormat<Tuple1<Float>> {
+
+    /**
+     * The value type for 4 byte floats
+     */
+    public static final String TYPE_FLOAT = "float";
+    /**
+     * The value type for 8 byte doubles
+     */
+    public static final String TYPE_DOUBLE = "double";
+
+    /**
+     * Bytes per read from a stream
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Maximum bytes per mapping of a local file (a multiple of all value widths)
+     */
+    private static final long MAX_MAPPING_SIZE = 1L << 30;
+
+    /**
+     * Bytes per value
+     */
+    private final int width;
+
+    /**
+     * The resolved input paths
+     */
+    private final Path[] filePaths;
+
+    /**
+     * Should local files be memory-mapped?
+     */
+    private boolean memoryMapped = true;
+
+    /**
+     * The current mapping or read buffer
+     */
+    private transient ByteBuffer buffer;
+
+    /**
+     * The channel of a memory-mapped local file, null for streams
+     */
+    private transient FileChannel channel;
+
+    /**
+     * File offset of the next byte, which is not in the buffer yet
+     */
+    private transient long position;
+
+    /**
+     * File offset after the last value of the split
+     */
+    private transient long end;
+
+    /**
+     * Constructor, sets paths and value type
+     *
+     * @param type the value type (float or double)
+     * @param filePaths the resolved input paths (see FilePaths)
+     */
+    public BinaryFloatInputFormat(String type, Path... filePaths) {
+        super(filePaths[0]);
+
+        this.width = widthOf(type);
+        this.filePaths = filePaths;
+    }
+
+    /**
+     * Get the number of bytes per value of a value type
+     *
+     * @param type the value type (float or double)
+     *
+     * @return bytes per value
+     */
+    public static int widthOf(String type) {
+        switch (type) {
+            case TYPE_FLOAT:
+                return 4;
+            case TYPE_DOUBLE:
+                return 8;
+            default:
+                throw new IllegalArgumentException("Unknown binary value type: " + type + ", use float or double");
+        }
+    }
+
+    /**
+     * Set if local files are memory-mapped, otherwise they are read like other file systems
+     *
+     * @param memoryMapped true to map local files (default)
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    @Override
+    public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+        FileInputSplit[] splits = FilePaths.createInputSplits(this, filePaths, minNumSplits, super::createInputSplits);
+
+        // Compressed files are read as one split of unknown length
+        for (FileInputSplit split: splits) {
+            if (split.getLength() == READ_WHOLE_SPLIT_FLAG) {
+                throw new IllegalArgumentException("Compressed binary files are not supported: " + split.getPath());
+            }
+        }
+
+        return splits;
+    }
+
+    @Override
+    public void open(FileInputSplit split) throws IOException {
+        super.open(split);
+
+        FileSystem fileSystem = split.getPath().getFileSystem();
+        long fileLength = fileSystem.getFileStatus(split.getPath()).getLen();
+
+        // An incomplete value at the end of the file is ignored
+        long start = align(splitStart);
+        end = Math.min(align(splitStart + splitLength), fileLength - fileLength % width);
+        position = start;
+
+        if (memoryMapped && "file".equals(fileSystem.getUri().getScheme())) {
+            channel = FileChannel.open(new File(split.getPath().toUri().getPath()).toPath(), StandardOpenOption.READ);
+            buffer = ByteBuffer.allocate(0);
+        } else {
+            stream.seek(start);
+            buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+        }
+    }
+
+    @Override
+    public boolean reachedEnd() throws IOException {
+        return !ensureValue();
+    }
+
+    @Override
+    public Tuple1<Float> nextRecord(Tuple1<Float> reuse) throws IOException {
+        if (!ensureValue()) {
+            return null;
+        }
+
+        reuse.f0 = width == 4 ? buffer.getFloat() : (float)buffer.getDouble();
+
+        return reuse;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        buffer = null;
+    }
+
+    /**
+     * Makes sure, the buffer holds at least one complete value
+     *
+     * @return false, if the split has no more values
+     *
+     * @throws IOException if reading fails
+     */
+    private boolean ensureValue() throws IOException {
+        while (buffer.remaining() < width) {
+            if (position >= end) {
+                return false;
+            }
+
+            if (channel != null) {
+                long size = Math.min(MAX_MAPPING_SIZE, end - position);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+                position += size;
+            } else {
+                // Keep a partially read value and append the next block
+                buffer.compact();
+                int length = (int)Math.min(buffer.remaining(), end - position);
+                int read = stream.read(buffer.array(), buffer.position(), length);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at offset " + position);
+                }
+                buffer.position(buffer.position() + read);
+                buffer.flip();
+                position += read;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Rounds a file offset up to the next value boundary
+     *
+     * @param offset the file offset
+     *
+     * @return the aligned offset
+     */
+    private long align(long offset) {
+        return (offset + width - 1) / width * width;
+    }
+
+}
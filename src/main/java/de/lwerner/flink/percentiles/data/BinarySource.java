@@ -0,0 +1,115 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.cache.Fingerprint;
+import de.lwerner.flink.percentiles.functions.redis.RemainingValuesMapFunction;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.core.fs.FileStatus;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Class BinarySource
+ *
+ * Defines a data source which reads a binary file of little-endian floats or doubles (see TestFileGenerator).
+ *
+ * @author Lukas Werner
+ */
+public class BinarySource implements SourceInterface {
+
+    /**
+     * The flink env
+     */
+    private final ExecutionEnvironment env;
+
+    /**
+     * The file path
+     */
+    private final String path;
+
+    /**
+     * The value type (float or double)
+     */
+    private final String type;
+
+    /**
+     * The value count, given or UNKNOWN_COUNT
+     */
+    private final long count;
+
+    /**
+     * The value count from the file metadata, UNKNOWN_COUNT if not read yet
+     */
+    private long metadataCount = UNKNOWN_COUNT;
+
+    /**
+     * The resulting data set (cached for multiple accesses)
+     */
+    private DataSet<Tuple1<Float>> dataSet;
+
+    /**
+     * Constructor, sets env, path, value type and count
+     *
+     * @param env the flink env
+     * @param path the file path
+     * @param type the value type (float or double)
+     * @param count number of values or UNKNOWN_COUNT, checked against the file metadata
+     */
+    public BinarySource(ExecutionEnvironment env, String path, String type, long count) {
+        BinaryFloatInputFormat.widthOf(type);
+
+        this.env = env;
+        this.path = path;
+        this.type = type;
+        this.count = count;
+    }
+
+    @Override
+    public long getCount() {
+        if (metadataCount == UNKNOWN_COUNT) {
+            try {
+                long total = 0;
+                for (FileStatus status: FilePaths.listFiles(FilePaths.resolve(path))) {
+                    total += status.getLen() / BinaryFloatInputFormat.widthOf(type);
+                }
+                metadataCount = total;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the file metadata of the path: " + path, e);
+            }
+
+            // A wrong count would silently give a wrong result
+            if (count != UNKNOWN_COUNT && count != metadataCount) {
+                throw new IllegalArgumentException("The value count " + count + " doesn't match the file lengths: " + metadataCount);
+            }
+        }
+
+        return metadataCount;
+    }
+
+    @Override
+    public DataSet<Tuple1<Float>> getDataSet() {
+        if (dataSet == null) {
+            dataSet = env.createInput(new BinaryFloatInputFormat(type, FilePaths.resolve(path)));
+        }
+
+        return dataSet;
+    }
+
+    @Override
+    public List<Float> getValues() throws Exception {
+        return getDataSet().map(new RemainingValuesMapFunction()).collect();
+    }
+
+    @Override
+    public ExecutionEnvironment getEnv() {
+        return env;
+    }
+
+    @Override
+    public String getFingerprint() throws IOException {
+        return Fingerprint.of(type, Fingerprint.ofPath(path));
+    }
+
+}
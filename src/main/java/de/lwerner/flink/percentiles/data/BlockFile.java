@@ -0,0 +1,156 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Class BlockFile
+ *
+ * Defines the layout of a block file: a file header (magic number, block capacity) and blocks of a fixed size. Each
+ * block has a header (min, max, value count) and (capacity) slots for little-endian floats, unused slots of the last
+ * block are zero. So the zone maps can be read without the values and each block can be read on its own.
+ *
+ * @author Lukas Werner
+ */
+public final class BlockFile {
+
+    /**
+     * The magic number at the start of a block file ("FPB1")
+     */
+    public static final int MAGIC = 0x31425046;
+
+    /**
+     * Size of the file header (magic number, block capacity)
+     */
+    public static final int FILE_HEADER_SIZE = 8;
+
+    /**
+     * Size of the block header (min, max, value count)
+     */
+    public static final int BLOCK_HEADER_SIZE = 12;
+
+    /**
+     * Default number of values per block
+     */
+    public static final int DEFAULT_BLOCK_CAPACITY = 4096;
+
+    /**
+     * No instances
+     */
+    private BlockFile() {
+    }
+
+    /**
+     * Get the size of a block in bytes
+     *
+     * @param capacity number of values per block
+     *
+     * @return the block size
+     */
+    public static int blockSize(int capacity) {
+        return BLOCK_HEADER_SIZE + capacity * 4;
+    }
+
+    /**
+     * Reads the file header from the start of the stream
+     *
+     * @param in the stream, positioned at the file start
+     *
+     * @return the block capacity
+     *
+     * @throws IOException if the header couldn't be read or is no block file header
+     */
+    public static int readCapacity(InputStream in) throws IOException {
+        byte[] header = new byte[FILE_HEADER_SIZE];
+        readFully(in, header, FILE_HEADER_SIZE);
+
+        ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a block file, the magic number is missing");
+        }
+
+        int capacity = buffer.getInt();
+        if (capacity < 1) {
+            throw new IOException("Invalid block capacity: " + capacity);
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Counts the values of a block file from the file header and the last block header, without reading the other
+     * blocks. All blocks but the last one are full (see BlockFileWriter).
+     *
+     * @param fileSystem the file system
+     * @param status the file status
+     *
+     * @return the value count
+     *
+     * @throws IOException if the headers couldn't be read
+     */
+    public static long countValues(FileSystem fileSystem, FileStatus status) throws IOException {
+        try (FSDataInputStream in = fileSystem.open(status.getPath())) {
+            int capacity = readCapacity(in);
+            long blocks = (status.getLen() - FILE_HEADER_SIZE) / blockSize(capacity);
+            if (blocks == 0) {
+                return 0;
+            }
+
+            byte[] header = new byte[BLOCK_HEADER_SIZE];
+            in.seek(FILE_HEADER_SIZE + (blocks - 1) * blockSize(capacity));
+            readFully(in, header, BLOCK_HEADER_SIZE);
+            int lastCount = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt(8);
+
+            return (blocks - 1) * capacity + lastCount;
+        }
+    }
+
+    /**
+     * Reads the stored values of a block
+     *
+     * @param in the stream, positioned at the block values (after the block header)
+     * @param block the block
+     * @param bytes a buffer of at least (size * 4) bytes
+     * @param values receives the values, at least (size) entries
+     *
+     * @throws IOException if the values couldn't be read
+     */
+    public static void readValues(InputStream in, ValueBlock block, byte[] bytes, float[] values) throws IOException {
+        int length = block.getSize() * 4;
+        readFully(in, bytes, length);
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < block.getSize(); i++) {
+            values[i] = buffer.getFloat();
+        }
+    }
+
+    /**
+     * Reads exactly (length) bytes
+     *
+     * @param in the stream
+     * @param bytes the buffer
+     * @param length number of bytes to read
+     *
+     * @throws IOException if the stream ends before
+     */
+    public static void readFully(InputStream in, byte[] bytes, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = in.read(bytes, read, length - read);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of block file");
+            }
+            read += count;
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package de.lwerner.flink.percentiles.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class BlockFileWriter
+ *
+ * Writes values to a local block file (see BlockFile), block by block. The zone map of a block is collected while
+ * the values are added. NaN is rejected: it has no place in the order of the values, and a block holding it couldn't
+ * be described by min and max, so zone map pruning would miscount it.
+ *
+ * @author Lukas Werner
+ */
+public class BlockFileWriter extends ValueFileWriter {
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The current block (header and values)
+     */
+    private final ByteBuffer block;
+
+    /**
+     * Number of values per block
+     */
+    private final int capacity;
+
+    /**
+     * Number of values in the current block
+     */
+    private int size;
+
+    /**
+     * Minimum of the current block
+     */
+    private float min;
+
+    /**
+     * Maximum of the current block
+     */
+    private float max;
+
+    /**
+     * Constructor, creates the file and writes the file header
+     *
+     * @param file the file to write to
+     * @param capacity number of values per block
+     *
+     * @throws IOException if the file couldn't be written
+     */
+    public BlockFileWriter(File file, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Please provide a block capacity of at least 1");
+        }
+
+        this.capacity = capacity;
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        block = ByteBuffer.allocateDirect(BlockFile.blockSize(capacity)).order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer header = ByteBuffer.allocate(BlockFile.FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(BlockFile.MAGIC).putInt(capacity).flip();
+        write(header);
+
+        startBlock();
+    }
+
+    /**
+     * Adds a value, writes the block if it is full
+     *
+     * @param value the value
+     *
+     * @throws IOException if the block couldn't be written
+     * @throws IllegalArgumentException if the value is NaN
+     */
+    public void add(float value) throws IOException {
+        if (Float.isNaN(value)) {
+            throw new IllegalArgumentException("NaN can't be written to a block file");
+        }
+
+        block.putFloat(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        size++;
+
+        if (size == capacity) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(float[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            add(values[i]);
+        }
+    }
+
+    /**
+     * Writes the last block and closes the file
+     *
+     * @throws IOException if the block couldn't be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (size > 0) {
+                writeBlock();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Resets the current block, the header is written, when the block is complete
+     */
+    private void startBlock() {
+        block.clear();
+        block.position(BlockFile.BLOCK_HEADER_SIZE);
+        size = 0;
+        min = Float.POSITIVE_INFINITY;
+        max = Float.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Writes the current block with its header, unused slots are zero
+     *
+     * @throws IOException if the block couldn't be written
+     */
+    private void writeBlock() throws IOException {
+        while (block.hasRemaining()) {
+            block.putFloat(0f);
+        }
+
+        block.putFloat(0, min).putFloat(4, max).putInt(8, size);
+        block.flip();
+        write(block);
+
+        startBlock();
+    }
+
+    /**
+     * Writes a buffer completely
+     *
+     * @param buffer the buffer
+     *
+     * @throws IOException if writing fails
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+}
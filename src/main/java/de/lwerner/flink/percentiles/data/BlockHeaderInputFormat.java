@@ -0,0 +1,117 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Class BlockHeaderInputFormat
+ *
+ * Reads only the zone maps (block headers) of a block file, the values are skipped. A block belongs to the split,
+ * which contains its first byte. Empty blocks are left out. Several files are read as one input (see FilePaths).
+ *
+ * @author Lukas Werner
+ */
+public class BlockHeaderInputFormat extends FileInputFormat<ValueBlock> {
+
+    /**
+     * The resolved input paths
+     */
+    private final Path[] filePaths;
+
+    /**
+     * The block header buffer
+     */
+    private transient byte[] header;
+
+    /**
+     * Size of a block in bytes
+     */
+    private transient long blockSize;
+
+    /**
+     * Index of the next block
+     */
+    private transient long nextBlock;
+
+    /**
+     * Index after the last block of the split
+     */
+    private transient long endBlock;
+
+    /**
+     * Constructor, sets the paths
+     *
+     * @param filePaths the resolved input paths (see FilePaths)
+     */
+    public BlockHeaderInputFormat(Path... filePaths) {
+        super(filePaths[0]);
+
+        this.filePaths = filePaths;
+    }
+
+    @Override
+    public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+        return FilePaths.createInputSplits(this, filePaths, minNumSplits, super::createInputSplits);
+    }
+
+    @Override
+    public void open(FileInputSplit split) throws IOException {
+        super.open(split);
+
+        stream.seek(0);
+        blockSize = BlockFile.blockSize(BlockFile.readCapacity(stream));
+        header = new byte[BlockFile.BLOCK_HEADER_SIZE];
+
+        long fileLength = split.getPath().getFileSystem().getFileStatus(split.getPath()).getLen();
+        long blocks = (fileLength - BlockFile.FILE_HEADER_SIZE) / blockSize;
+
+        nextBlock = firstBlockAt(splitStart);
+        endBlock = Math.min(blocks, firstBlockAt(splitStart + splitLength));
+    }
+
+    @Override
+    public boolean reachedEnd() {
+        return nextBlock >= endBlock;
+    }
+
+    @Override
+    public ValueBlock nextRecord(ValueBlock reuse) throws IOException {
+        while (nextBlock < endBlock) {
+            long offset = BlockFile.FILE_HEADER_SIZE + nextBlock * blockSize;
+            nextBlock++;
+
+            stream.seek(offset);
+            BlockFile.readFully(stream, header, BlockFile.BLOCK_HEADER_SIZE);
+
+            ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            float min = buffer.getFloat();
+            float max = buffer.getFloat();
+            int size = buffer.getInt();
+            if (size > 0) {
+                return new ValueBlock(currentSplit.getPath().toString(), offset, size, min, max);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the index of the first block, which starts at or after the given file offset
+     *
+     * @param offset the file offset
+     *
+     * @return the block index
+     */
+    private long firstBlockAt(long offset) {
+        long blockOffset = Math.max(0, offset - BlockFile.FILE_HEADER_SIZE);
+
+        return (blockOffset + blockSize - 1) / blockSize;
+    }
+
+}
@@ -0,0 +1,88 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class BlockReader
+ *
+ * Reads the values of single blocks of block files. One stream per file is kept open, until the reader is closed.
+ * Used by functions, which only read the blocks their zone maps don't answer.
+ *
+ * @author Lukas Werner
+ */
+public class BlockReader implements Closeable {
+
+    /**
+     * Open streams by file path
+     */
+    private final Map<String, FSDataInputStream> streams = new HashMap<>();
+
+    /**
+     * The byte buffer
+     */
+    private byte[] bytes = new byte[0];
+
+    /**
+     * The value buffer
+     */
+    private float[] values = new float[0];
+
+    /**
+     * Number of blocks read
+     */
+    private long blocksRead;
+
+    /**
+     * Reads the stored values of a block, the returned array is reused by the next call
+     *
+     * @param block the block
+     *
+     * @return the values, valid up to the block size
+     *
+     * @throws IOException if the block couldn't be read
+     */
+    public float[] read(ValueBlock block) throws IOException {
+        FSDataInputStream stream = streams.get(block.getPath());
+        if (stream == null) {
+            Path path = new Path(block.getPath());
+            stream = path.getFileSystem().open(path);
+            streams.put(block.getPath(), stream);
+        }
+
+        if (values.length < block.getSize()) {
+            bytes = new byte[block.getSize() * 4];
+            values = new float[block.getSize()];
+        }
+
+        stream.seek(block.getOffset() + BlockFile.BLOCK_HEADER_SIZE);
+        BlockFile.readValues(stream, block, bytes, values);
+        blocksRead++;
+
+        return values;
+    }
+
+    /**
+     * Get the number of blocks read
+     *
+     * @return number of blocks read
+     */
+    public long getBlocksRead() {
+        return blocksRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FSDataInputStream stream: streams.values()) {
+            stream.close();
+        }
+        streams.clear();
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.cache.Fingerprint;
+import de.lwerner.flink.percentiles.functions.redis.RemainingValuesMapFunction;
+import de.lwerner.flink.percentiles.functions.zonemap.DecodeBlockFlatMapFunction;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.core.fs.FileStatus;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Class BlockSource
+ *
+ * Defines a data source which reads a block file (see BlockFile). The zone maps are available as a data set of
+ * blocks, so algorithms can skip blocks, the values are read on demand.
+ *
+ * @author Lukas Werner
+ */
+public class BlockSource implements SourceInterface {
+
+    /**
+     * The flink env
+     */
+    private final ExecutionEnvironment env;
+
+    /**
+     * The file path
+     */
+    private final String path;
+
+    /**
+     * The value count, given or UNKNOWN_COUNT
+     */
+    private final long count;
+
+    /**
+     * The value count from the file metadata, UNKNOWN_COUNT if not read yet
+     */
+    private long metadataCount = UNKNOWN_COUNT;
+
+    /**
+     * Constructor, sets env, path and count
+     *
+     * @param env the flink env
+     * @param path the file path
+     * @param count number of values or UNKNOWN_COUNT, checked against the file metadata
+     */
+    public BlockSource(ExecutionEnvironment env, String path, long count) {
+        this.env = env;
+        this.path = path;
+        this.count = count;
+    }
+
+    @Override
+    public long getCount() {
+        if (metadataCount == UNKNOWN_COUNT) {
+            try {
+                long total = 0;
+                for (FileStatus status: FilePaths.listFiles(FilePaths.resolve(path))) {
+                    total += BlockFile.countValues(status.getPath().getFileSystem(), status);
+                }
+                metadataCount = total;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the file metadata of the path: " + path, e);
+            }
+
+            // A wrong count would silently give a wrong result
+            if (count != UNKNOWN_COUNT && count != metadataCount) {
+                throw new IllegalArgumentException("The value count " + count + " doesn't match the block headers: " + metadataCount);
+            }
+        }
+
+        return metadataCount;
+    }
+
+    /**
+     * Get the zone maps of all blocks, without reading the values
+     *
+     * @return the blocks data set
+     */
+    public DataSet<ValueBlock> getBlocks() {
+        return env.createInput(new BlockHeaderInputFormat(FilePaths.resolve(path)));
+    }
+
+    @Override
+    public DataSet<Tuple1<Float>> getDataSet() {
+        return getBlocks().flatMap(new DecodeBlockFlatMapFunction());
+    }
+
+    @Override
+    public List<Float> getValues() throws Exception {
+        return getDataSet().map(new RemainingValuesMapFunction()).collect();
+    }
+
+    @Override
+    public ExecutionEnvironment getEnv() {
+        return env;
+    }
+
+    @Override
+    public String getFingerprint() throws IOException {
+        return Fingerprint.of("blocks", Fingerprint.ofPath(path));
+    }
+
+}
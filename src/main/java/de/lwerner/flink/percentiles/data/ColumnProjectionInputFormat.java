@@ -0,0 +1,129 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.math.DecimalFloatParser;
+import org.apache.flink.api.common.io.DelimitedInputFormat;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Class ColumnProjectionInputFormat
+ *
+ * Reads delimited text lines (csv, tsv) and parses only the requested columns into a float array. Fields, which are
+ * not requested, are skipped by scanning for the field delimiter in the line bytes, no strings are created for them.
+ * The array holds the values in the order of the requested columns, empty fields become NaN. Quoted fields are not
+ * supported.
+ *
+ * @author Lukas Werner
+ */
+public class ColumnProjectionInputFormat extends DelimitedInputFormat<float[]> {
+
+    /**
+     * The field delimiter
+     */
+    private final byte fieldDelimiter;
+
+    /**
+     * Requested column indices, ascending
+     */
+    private final int[] sortedColumns;
+
+    /**
+     * Output position for each entry of sortedColumns
+     */
+    private final int[] outputPositions;
+
+    /**
+     * Skip the first line of the file?
+     */
+    private final boolean skipHeader;
+
+    /**
+     * Is the next record the first line of the file?
+     */
+    private transient boolean atFileStart;
+
+    /**
+     * Constructor, sets path, field delimiter and the requested columns
+     *
+     * @param path the file path
+     * @param fieldDelimiter the field delimiter
+     * @param columns the requested column indices (counting from 0 on)
+     * @param skipHeader true, if the first line of the file is a header
+     */
+    public ColumnProjectionInputFormat(Path path, char fieldDelimiter, int[] columns, boolean skipHeader) {
+        super(path, null);
+
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("Please provide at least one column");
+        }
+
+        this.fieldDelimiter = (byte)fieldDelimiter;
+        this.skipHeader = skipHeader;
+
+        sortedColumns = columns.clone();
+        Arrays.sort(sortedColumns);
+        outputPositions = new int[columns.length];
+        for (int i = 0; i < sortedColumns.length; i++) {
+            if (sortedColumns[i] < 0 || (i > 0 && sortedColumns[i] == sortedColumns[i - 1])) {
+                throw new IllegalArgumentException("Columns must be distinct and not negative");
+            }
+            for (int j = 0; j < columns.length; j++) {
+                if (columns[j] == sortedColumns[i]) {
+                    outputPositions[i] = j;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void open(FileInputSplit split) throws IOException {
+        super.open(split);
+
+        atFileStart = split.getStart() == 0;
+    }
+
+    @Override
+    public float[] readRecord(float[] reuse, byte[] bytes, int offset, int numBytes) throws IOException {
+        if (atFileStart) {
+            atFileStart = false;
+            if (skipHeader) {
+                return null;
+            }
+        }
+
+        int limit = offset + numBytes;
+        // Windows line endings
+        if (numBytes > 0 && bytes[limit - 1] == '\r') {
+            limit--;
+        }
+
+        float[] record = reuse != null && reuse.length == outputPositions.length ? reuse : new float[outputPositions.length];
+
+        int column = 0;
+        int next = 0;
+        int fieldStart = offset;
+        for (int i = offset; i <= limit && next < sortedColumns.length; i++) {
+            if (i < limit && bytes[i] != fieldDelimiter) {
+                continue;
+            }
+
+            if (column == sortedColumns[next]) {
+                record[outputPositions[next]] = i == fieldStart ? Float.NaN : DecimalFloatParser.parse(bytes, fieldStart, i - fieldStart);
+                next++;
+            }
+
+            column++;
+            fieldStart = i + 1;
+        }
+
+        if (next < sortedColumns.length) {
+            throw new IOException("Line has only " + column + " fields, requested column: " + sortedColumns[next]);
+        }
+
+        return record;
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.model.Result;
+
+import java.util.List;
+
+/**
+ * Class CompositeSink
+ *
+ * Defines a sink, which hands the result to several sinks. The result is populated by one job execution, so each
+ * sink only writes it.
+ *
+ * @author Lukas Werner
+ */
+public class CompositeSink implements SinkInterface {
+
+    /**
+     * The sinks
+     */
+    private final List<SinkInterface> sinks;
+
+    /**
+     * Constructor, sets the sinks
+     *
+     * @param sinks the sinks
+     */
+    public CompositeSink(List<SinkInterface> sinks) {
+        if (sinks.isEmpty()) {
+            throw new IllegalArgumentException("Please provide at least one sink");
+        }
+
+        this.sinks = sinks;
+    }
+
+    @Override
+    public void processResult(Result result) throws Exception {
+        for (SinkInterface sink: sinks) {
+            sink.processResult(result);
+        }
+    }
+
+}
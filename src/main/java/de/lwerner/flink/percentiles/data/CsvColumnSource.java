@@ -0,0 +1,84 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.functions.grouped.ColumnValuesFlatMapFunction;
+import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.core.fs.Path;
+
+/**
+ * Class CsvColumnSource
+ *
+ * Defines a data source which reads several columns of a csv or tsv file and provides them as (column name, value)
+ * pairs, so all columns are resolved in one job.
+ *
+ * @author Lukas Werner
+ */
+public class CsvColumnSource implements GroupedSourceInterface {
+
+    /**
+     * The flink env
+     */
+    private final ExecutionEnvironment env;
+
+    /**
+     * The file path
+     */
+    private final String path;
+
+    /**
+     * The field delimiter
+     */
+    private final char delimiter;
+
+    /**
+     * The requested column indices
+     */
+    private final int[] columns;
+
+    /**
+     * The column names
+     */
+    private final String[] names;
+
+    /**
+     * Skip the first line?
+     */
+    private final boolean skipHeader;
+
+    /**
+     * Constructor, sets all required values
+     *
+     * @param env the flink env
+     * @param path the file path
+     * @param delimiter the field delimiter
+     * @param columns the requested column indices (counting from 0 on)
+     * @param names the column names
+     * @param skipHeader true, if the first line is a header
+     */
+    public CsvColumnSource(ExecutionEnvironment env, String path, char delimiter, int[] columns, String[] names, boolean skipHeader) {
+        if (columns.length != names.length) {
+            throw new IllegalArgumentException("Please provide one name per column");
+        }
+
+        this.env = env;
+        this.path = path;
+        this.delimiter = delimiter;
+        this.columns = columns;
+        this.names = names;
+        this.skipHeader = skipHeader;
+    }
+
+    @Override
+    public DataSet<Tuple2<String, Float>> getDataSet() {
+        return env.createInput(new ColumnProjectionInputFormat(new Path(path), delimiter, columns, skipHeader), PrimitiveArrayTypeInfo.FLOAT_PRIMITIVE_ARRAY_TYPE_INFO)
+                .flatMap(new ColumnValuesFlatMapFunction(names));
+    }
+
+    @Override
+    public ExecutionEnvironment getEnv() {
+        return env;
+    }
+
+}
@@ -0,0 +1,303 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class FilePaths
+ *
+ * Resolves input path specifications for the file sources: a comma separated list of hdfs:// or file:// paths, each
+ * a file, a directory (read with all nested files) or a glob pattern ("file:///data/2018-*&#47;part-*", commas inside
+ * of braces belong to the pattern: "file:///data/{a,b}.csv"). Hidden files ("_" or "." prefix) are skipped in
+ * directories and glob matches, but can be named explicitly. File input formats read all resolved paths as one
+ * input, so the splits of all files are distributed over all slots by the locatable split assigner, which prefers
+ * local splits.
+ *
+ * @author Lukas Werner
+ */
+public final class FilePaths {
+
+    /**
+     * Characters, which make a path segment a glob pattern
+     */
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    /**
+     * No instances
+     */
+    private FilePaths() {
+    }
+
+    /**
+     * Splits function, which creates the splits of the current path of a format (usually super.createInputSplits)
+     *
+     * @author Lukas Werner
+     */
+    @FunctionalInterface
+    public interface SplitsFunction {
+
+        /**
+         * Creates the splits of the current path
+         *
+         * @param minNumSplits the minimum number of splits
+         *
+         * @return the splits
+         *
+         * @throws IOException if the files couldn't be listed
+         */
+        FileInputSplit[] createInputSplits(int minNumSplits) throws IOException;
+
+    }
+
+    /**
+     * Resolves a path specification
+     *
+     * @param specification comma separated paths, directories or glob patterns
+     *
+     * @return the resolved paths
+     *
+     * @throws IllegalArgumentException if a path is invalid, matches no file or couldn't be listed
+     */
+    public static Path[] resolve(String specification) {
+        List<Path> paths = new ArrayList<>();
+        for (String part: split(specification)) {
+            String path = part.trim();
+            if (!path.startsWith("hdfs://") && !path.startsWith("file://")) {
+                throw new IllegalArgumentException("Path must start with hdfs:// or file://, path: " + path);
+            }
+
+            List<Path> matches = new ArrayList<>();
+            try {
+                expand(new Path(path), matches);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot resolve the path: " + path, e);
+            }
+            if (matches.isEmpty()) {
+                throw new IllegalArgumentException("No file matches the path: " + path);
+            }
+            paths.addAll(matches);
+        }
+
+        return paths.toArray(new Path[paths.size()]);
+    }
+
+    /**
+     * Splits a path specification at the commas outside of glob braces
+     *
+     * @param specification comma separated paths, directories or glob patterns
+     *
+     * @return the paths
+     */
+    private static List<String> split(String specification) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < specification.length(); i++) {
+            char c = specification.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(specification.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(specification.substring(start));
+
+        return parts;
+    }
+
+    /**
+     * Creates the splits of all paths as one input and numbers them consecutively. Nested files of directories are
+     * included.
+     *
+     * @param format the input format
+     * @param paths the resolved paths
+     * @param minNumSplits the minimum number of splits of the whole input
+     * @param splitsFunction creates the splits of the current path of the format
+     *
+     * @return the splits of all paths
+     *
+     * @throws IOException if the files couldn't be listed
+     */
+    public static FileInputSplit[] createInputSplits(FileInputFormat<?> format, Path[] paths, int minNumSplits, SplitsFunction splitsFunction) throws IOException {
+        format.setNestedFileEnumeration(true);
+
+        int minNumSplitsPerPath = Math.max(1, (minNumSplits + paths.length - 1) / paths.length);
+
+        List<FileInputSplit> splits = new ArrayList<>();
+        for (Path path: paths) {
+            format.setFilePath(path);
+            for (FileInputSplit split: splitsFunction.createInputSplits(minNumSplitsPerPath)) {
+                splits.add(new FileInputSplit(splits.size(), split.getPath(), split.getStart(), split.getLength(),
+                        split.getHostnames()));
+            }
+        }
+        format.setFilePath(paths[0]);
+
+        return splits.toArray(new FileInputSplit[splits.size()]);
+    }
+
+    /**
+     * Lists all files of the given paths, directories recursively, without hidden files ("_" or "." prefix)
+     *
+     * @param paths the resolved paths
+     *
+     * @return the file statuses
+     *
+     * @throws IOException if a file system couldn't be listed
+     */
+    public static List<FileStatus> listFiles(Path[] paths) throws IOException {
+        List<FileStatus> files = new ArrayList<>();
+        for (Path path: paths) {
+            FileSystem fileSystem = path.getFileSystem();
+            listFiles(fileSystem, fileSystem.getFileStatus(path), files);
+        }
+
+        return files;
+    }
+
+    /**
+     * Recursively lists the files of a file status
+     *
+     * @param fileSystem the file system
+     * @param status the file or directory status
+     * @param files receives the files
+     *
+     * @throws IOException if the directory couldn't be listed
+     */
+    private static void listFiles(FileSystem fileSystem, FileStatus status, List<FileStatus> files) throws IOException {
+        if (!status.isDir()) {
+            files.add(status);
+
+            return;
+        }
+
+        FileStatus[] children = fileSystem.listStatus(status.getPath());
+        Arrays.sort(children, (a, b) -> a.getPath().getName().compareTo(b.getPath().getName()));
+        for (FileStatus child: children) {
+            if (!isHidden(child.getPath())) {
+                listFiles(fileSystem, child, files);
+            }
+        }
+    }
+
+    /**
+     * Expands the glob patterns of a path, segment by segment
+     *
+     * @param path the path
+     * @param matches receives the existing paths
+     *
+     * @throws IOException if a directory couldn't be listed
+     */
+    private static void expand(Path path, List<Path> matches) throws IOException {
+        FileSystem fileSystem = path.getFileSystem();
+        String[] segments = path.toUri().getPath().split("/");
+
+        int firstGlob = 0;
+        while (firstGlob < segments.length && !isGlob(segments[firstGlob])) {
+            firstGlob++;
+        }
+
+        if (firstGlob == segments.length) {
+            if (fileSystem.exists(path)) {
+                matches.add(path);
+            }
+
+            return;
+        }
+
+        // The path up to the first glob segment, with scheme and authority
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < firstGlob; i++) {
+            base.append(segments[i]).append('/');
+        }
+        Path basePath = new Path(path.toUri().getScheme(), path.toUri().getAuthority(), base.toString());
+
+        expand(fileSystem, basePath, segments, firstGlob, matches);
+
+        matches.sort((a, b) -> a.toString().compareTo(b.toString()));
+    }
+
+    /**
+     * Matches the remaining segments below a directory
+     *
+     * @param fileSystem the file system
+     * @param directory the directory
+     * @param segments all path segments
+     * @param index index of the next segment
+     * @param matches receives the existing paths
+     *
+     * @throws IOException if a directory couldn't be listed
+     */
+    private static void expand(FileSystem fileSystem, Path directory, String[] segments, int index, List<Path> matches) throws IOException {
+        if (index == segments.length) {
+            matches.add(directory);
+
+            return;
+        }
+
+        if (!isGlob(segments[index])) {
+            Path child = new Path(directory, segments[index]);
+            if (fileSystem.exists(child)) {
+                expand(fileSystem, child, segments, index + 1, matches);
+            }
+
+            return;
+        }
+
+        if (!fileSystem.exists(directory) || !fileSystem.getFileStatus(directory).isDir()) {
+            return;
+        }
+
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + segments[index]);
+        for (FileStatus child: fileSystem.listStatus(directory)) {
+            if (!isHidden(child.getPath()) && matcher.matches(Paths.get(child.getPath().getName()))) {
+                expand(fileSystem, child.getPath(), segments, index + 1, matches);
+            }
+        }
+    }
+
+    /**
+     * Check if a file is hidden, like flink's file input format does it
+     *
+     * @param path the file path
+     *
+     * @return true, if the name starts with "_" or "."
+     */
+    private static boolean isHidden(Path path) {
+        String name = path.getName();
+
+        return name.startsWith("_") || name.startsWith(".");
+    }
+
+    /**
+     * Check if a path segment is a glob pattern
+     *
+     * @param segment the path segment
+     *
+     * @return true, if it contains glob characters
+     */
+    private static boolean isGlob(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(segment.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+/**
+ * Class FileStreamSink
+ *
+ * Defines a streaming sink for writing the results as csv to a file system (hdfs or local)
+ *
+ * @author Lukas Werner
+ */
+public class FileStreamSink implements StreamSinkInterface {
+
+    /**
+     * The result path
+     */
+    private final String path;
+
+    /**
+     * Constructor, sets path
+     *
+     * @param path the result path
+     */
+    public FileStreamSink(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public void processStream(DataStream<Tuple3<String, Long, Float>> results) {
+        results.writeAsCsv(path, FileSystem.WriteMode.OVERWRITE);
+    }
+
+}
@@ -0,0 +1,59 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.math.DecimalFloatParser;
+import org.apache.flink.api.common.io.DelimitedInputFormat;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+
+import java.io.IOException;
+
+/**
+ * Class FloatTextInputFormat
+ *
+ * Reads one decimal float per line. The lines are read in large blocks by the delimited input format and parsed
+ * directly from the read buffer, so there is no String and no parsing object per value. Empty lines are skipped.
+ * Several files are read as one input (see FilePaths).
+ *
+ * @author Lukas Werner
+ */
+public class FloatTextInputFormat extends DelimitedInputFormat<Tuple1<Float>> {
+
+    /**
+     * The resolved input paths
+     */
+    private final Path[] filePaths;
+
+    /**
+     * Constructor, sets the paths, lines are separated by newlines
+     *
+     * @param filePaths the resolved input paths (see FilePaths)
+     */
+    public FloatTextInputFormat(Path... filePaths) {
+        super(filePaths[0], null);
+
+        this.filePaths = filePaths;
+    }
+
+    @Override
+    public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+        return FilePaths.createInputSplits(this, filePaths, minNumSplits, super::createInputSplits);
+    }
+
+    @Override
+    public Tuple1<Float> readRecord(Tuple1<Float> reuse, byte[] bytes, int offset, int numBytes) {
+        // Windows line endings and blank lines, only ASCII control characters and space are whitespace
+        int length = numBytes;
+        while (length > 0 && (bytes[offset + length - 1] & 0xFF) <= ' ') {
+            length--;
+        }
+        if (length == 0) {
+            return null;
+        }
+
+        reuse.f0 = DecimalFloatParser.parse(bytes, offset, length);
+
+        return reuse;
+    }
+
+}
@@ -0,0 +1,95 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.generation.AbstractGenerator;
+import org.apache.flink.api.common.io.GenericInputFormat;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.core.io.GenericInputSplit;
+
+import java.io.IOException;
+
+/**
+ * Class GeneratorInputFormat
+ *
+ * Generates a sequence of values in parallel: each split generates its own contiguous slice of the sequence with a
+ * generator positioned at the slice start (see AbstractGenerator.seek). Nothing is generated on the client and the
+ * values don't depend on the parallelism.
+ *
+ * @author Lukas Werner
+ */
+public class GeneratorInputFormat extends GenericInputFormat<Tuple1<Float>> {
+
+    /**
+     * The generator name
+     */
+    private final String type;
+
+    /**
+     * Number of values over all splits
+     */
+    private final long count;
+
+    /**
+     * The random seed, ignored by non random generators
+     */
+    private final long seed;
+
+    /**
+     * The generator of the current split
+     */
+    private transient AbstractGenerator generator;
+
+    /**
+     * Number of values left in the current split
+     */
+    private transient long remaining;
+
+    /**
+     * Constructor, sets the generator definition
+     *
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param count number of values over all splits
+     * @param seed the random seed, ignored by non random generators
+     */
+    public GeneratorInputFormat(String type, long count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Please provide a non negative value count");
+        }
+
+        // Fail on the client for unknown generators
+        AbstractGenerator.factory(type, 1, seed);
+
+        this.type = type;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    @Override
+    public void open(GenericInputSplit split) throws IOException {
+        super.open(split);
+
+        int total = split.getTotalNumberOfSplits();
+        long start = AbstractGenerator.sliceStart(count, partitionNumber, total);
+        remaining = AbstractGenerator.sliceStart(count, partitionNumber + 1, total) - start;
+
+        generator = AbstractGenerator.factory(type, 1, seed);
+        generator.seek(start, count);
+    }
+
+    @Override
+    public boolean reachedEnd() {
+        return remaining == 0;
+    }
+
+    @Override
+    public Tuple1<Float> nextRecord(Tuple1<Float> reuse) {
+        if (remaining == 0) {
+            return null;
+        }
+
+        remaining--;
+        reuse.f0 = generator.generateValue();
+
+        return reuse;
+    }
+
+}
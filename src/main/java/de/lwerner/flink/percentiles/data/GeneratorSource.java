@@ -0,0 +1,86 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.cache.Fingerprint;
+import de.lwerner.flink.percentiles.functions.redis.RemainingValuesMapFunction;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+
+import java.util.List;
+
+/**
+ * Class GeneratorSource
+ *
+ * Defines a data source, which generates values with one of the generators. The values are generated in parallel
+ * by the task managers (see GeneratorInputFormat), the same seed gives the same values.
+ *
+ * @author Lukas Werner
+ */
+public class GeneratorSource implements SourceInterface {
+
+    /**
+     * The flink execution environment
+     */
+    private final ExecutionEnvironment env;
+
+    /**
+     * The generator name
+     */
+    private final String type;
+
+    /**
+     * The random seed, ignored by non random generators
+     */
+    private final long seed;
+
+    /**
+     * Number of elements to generate
+     */
+    private final long n;
+
+    /**
+     * Constructor, sets the generator definition
+     *
+     * @param env the flink env
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param seed the random seed, ignored by non random generators
+     * @param n the value count
+     */
+    public GeneratorSource(ExecutionEnvironment env, String type, long seed, long n) {
+        this.env = env;
+        this.type = type;
+        this.seed = seed;
+        this.n = n;
+    }
+
+    @Override
+    public long getCount() {
+        return n;
+    }
+
+    @Override
+    public DataSet<Tuple1<Float>> getDataSet() {
+        return env.createInput(new GeneratorInputFormat(type, n, seed)).name("Generator (" + type + ")");
+    }
+
+    @Override
+    public List<Float> getValues() throws Exception {
+        return getDataSet().map(new RemainingValuesMapFunction()).collect();
+    }
+
+    @Override
+    public ExecutionEnvironment getEnv() {
+        return env;
+    }
+
+    @Override
+    public String getFingerprint() {
+        // The generated values only depend on the definition, the seed only matters for random generators
+        if ("random".equals(type) || "exponential".equals(type)) {
+            return Fingerprint.of(type, n, seed);
+        }
+
+        return Fingerprint.of(type, n);
+    }
+
+}
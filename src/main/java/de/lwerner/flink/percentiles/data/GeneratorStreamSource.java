@@ -0,0 +1,80 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.functions.streaming.GeneratorSourceFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+/**
+ * Class GeneratorStreamSource
+ *
+ * Defines a parallel streaming data source, which generates values with one of the generators at a target rate.
+ *
+ * @author Lukas Werner
+ */
+public class GeneratorStreamSource implements StreamSourceInterface {
+
+    /**
+     * The flink stream env
+     */
+    private final StreamExecutionEnvironment env;
+
+    /**
+     * The generator name
+     */
+    private final String type;
+
+    /**
+     * The base seed
+     */
+    private final long seed;
+
+    /**
+     * Target events per second, 0 for unthrottled
+     */
+    private final long eventsPerSecond;
+
+    /**
+     * Number of distinct keys
+     */
+    private final int keyCount;
+
+    /**
+     * Number of values, 0 for an unbounded stream
+     */
+    private final long count;
+
+    /**
+     * Constructor, sets all values
+     *
+     * @param env the flink stream env
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param seed the base seed
+     * @param eventsPerSecond target events per second, 0 for unthrottled
+     * @param keyCount number of distinct keys
+     * @param count number of values, 0 for an unbounded stream
+     */
+    public GeneratorStreamSource(StreamExecutionEnvironment env, String type, long seed, long eventsPerSecond, int keyCount, long count) {
+        if (keyCount < 1) {
+            throw new IllegalArgumentException("Please provide at least one key");
+        }
+
+        this.env = env;
+        this.type = type;
+        this.seed = seed;
+        this.eventsPerSecond = eventsPerSecond;
+        this.keyCount = keyCount;
+        this.count = count;
+    }
+
+    @Override
+    public DataStream<Tuple3<String, Long, Float>> getDataStream() {
+        return env.addSource(new GeneratorSourceFunction(type, seed, eventsPerSecond, keyCount, count), "Generator (" + type + ")");
+    }
+
+    @Override
+    public StreamExecutionEnvironment getEnv() {
+        return env;
+    }
+
+}
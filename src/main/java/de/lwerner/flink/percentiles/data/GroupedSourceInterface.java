@@ -0,0 +1,30 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * Interface GroupedSourceInterface
+ *
+ * Simple interface to provide methods, required for a grouped data source in this application
+ *
+ * @author Lukas Werner
+ */
+public interface GroupedSourceInterface {
+
+    /**
+     * Returns the data set in the proper format
+     *
+     * @return (group, value) data set
+     */
+    DataSet<Tuple2<String, Float>> getDataSet();
+
+    /**
+     * Get the execution environment
+     *
+     * @return the execution environment
+     */
+    ExecutionEnvironment getEnv();
+
+}
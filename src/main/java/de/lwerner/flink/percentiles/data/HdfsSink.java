@@ -1,9 +1,6 @@
 package de.lwerner.flink.percentiles.data;
 
 import de.lwerner.flink.percentiles.model.Result;
-import org.apache.flink.api.common.JobExecutionResult;
-import org.apache.flink.api.java.DataSet;
-import org.apache.flink.api.java.tuple.Tuple4;
 
 /**
  * Class HdfsSink
@@ -32,16 +29,14 @@ public class HdfsSink extends AbstractSink {
 
     @Override
     public void processResult(Result result) throws Exception {
-        JobExecutionResult jobExecutionResult = null;
-        if (result.getSolution() != null) {
-            DataSet<Tuple4<Long, Integer, Long, Float>> resultInformation = solutionDataSetToTuple(result);
-            resultInformation.writeAsCsv(path, org.apache.flink.core.fs.FileSystem.WriteMode.OVERWRITE);
-            jobExecutionResult = resultInformation.getExecutionEnvironment().execute();
+        if (result.getSummaryValues() != null) {
+            writeSummary(path, result);
+        } else {
+            writeValue(path, result);
         }
+        writeStatistics(path, result);
 
-        if (jobExecutionResult != null) {
-            logger.info("Execution time: {} milliseconds!", jobExecutionResult.getNetRuntime());
-        }
+        logStatistics(result);
     }
 
-}
\ No newline at end of file
+}
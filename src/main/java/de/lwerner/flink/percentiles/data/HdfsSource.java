@@ -1,10 +1,12 @@
 package de.lwerner.flink.percentiles.data;
 
-import de.lwerner.flink.percentiles.functions.redis.InputToTupleMapFunction;
+import de.lwerner.flink.percentiles.cache.Fingerprint;
 import de.lwerner.flink.percentiles.functions.redis.RemainingValuesMapFunction;
 import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.tuple.Tuple1;
+
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -41,7 +43,7 @@ public class HdfsSource implements SourceInterface {
      *
      * @param env the flink env
      * @param path the hdfs path
-     * @param count number of values
+     * @param count number of values or UNKNOWN_COUNT
      */
     public HdfsSource(ExecutionEnvironment env, String path, long count) {
         this.env = env;
@@ -57,8 +59,7 @@ public class HdfsSource implements SourceInterface {
     @Override
     public DataSet<Tuple1<Float>> getDataSet() {
         if (dataSet == null) {
-            dataSet = env.readFileOfPrimitives(path, Float.class)
-                    .map(new InputToTupleMapFunction());
+            dataSet = env.createInput(new FloatTextInputFormat(FilePaths.resolve(path)));
         }
 
         return dataSet;
@@ -74,4 +75,9 @@ public class HdfsSource implements SourceInterface {
         return env;
     }
 
+    @Override
+    public String getFingerprint() throws IOException {
+        return Fingerprint.ofPath(path);
+    }
+
 }
\ No newline at end of file
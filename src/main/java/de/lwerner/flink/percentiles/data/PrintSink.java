@@ -1,9 +1,7 @@
 package de.lwerner.flink.percentiles.data;
 
 import de.lwerner.flink.percentiles.model.Result;
-import de.lwerner.flink.percentiles.timeMeasurement.Timer;
-import org.apache.flink.api.java.DataSet;
-import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.api.java.tuple.Tuple3;
 
 /**
  * Class PrintSink
@@ -20,17 +18,15 @@ public class PrintSink extends AbstractSink {
 
     @Override
     public void processResult(Result result) throws Exception {
-        if (result.getSolution() != null) {
-            DataSet<Tuple4<Long, Integer, Long, Float>> resultInformation = solutionDataSetToTuple(result);
-            // Here we just print the result
-            resultInformation.print();
+        if (result.getSummaryValues() != null) {
+            for (Tuple3<Double, Long, Float> tuple: summaryToTuples(result)) {
+                System.out.println(tuple);
+            }
         } else {
-            System.out.println(result);
+            System.out.println(valueToTuple(result));
         }
 
-        if (result.getTimerResults() != null && result.getTimerResults().containsKey(Timer.DEFAULT_TIMER_NAME)) {
-            logger.info("Execution time: {} milliseconds!", result.getTimerResults().get(Timer.DEFAULT_TIMER_NAME));
-        }
+        logStatistics(result);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+/**
+ * Class PrintStreamSink
+ *
+ * Defines a simple streaming sink for just printing out the results
+ *
+ * @author Lukas Werner
+ */
+public class PrintStreamSink implements StreamSinkInterface {
+
+    @Override
+    public void processStream(DataStream<Tuple3<String, Long, Float>> results) {
+        results.print();
+    }
+
+}
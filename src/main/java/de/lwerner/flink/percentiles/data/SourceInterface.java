@@ -16,9 +16,14 @@ import java.util.List;
 public interface SourceInterface {
 
     /**
-     * Returns a value count for this source
+     * The value count of a source, which only can be counted by reading the values
+     */
+    long UNKNOWN_COUNT = -1;
+
+    /**
+     * Returns a value count for this source, taken from the file metadata where possible
      *
-     * @return the value count
+     * @return the value count or UNKNOWN_COUNT
      */
     long getCount();
 
@@ -47,4 +52,13 @@ public interface SourceInterface {
      */
     ExecutionEnvironment getEnv();
 
+    /**
+     * Get a fingerprint, which identifies the data of this source, used as result cache key
+     *
+     * @return the fingerprint or null, if the data cannot be identified
+     *
+     * @throws Exception if something goes wrong
+     */
+    String getFingerprint() throws Exception;
+
 }
\ No newline at end of file
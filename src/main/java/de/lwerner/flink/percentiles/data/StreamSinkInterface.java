@@ -0,0 +1,22 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+/**
+ * Interface StreamSinkInterface
+ *
+ * Simple interface to provide methods, required for a streaming data sink in this application
+ *
+ * @author Lukas Werner
+ */
+public interface StreamSinkInterface {
+
+    /**
+     * Attaches the sink to the stream of (key, timestamp, percentile) results
+     *
+     * @param results the result stream
+     */
+    void processStream(DataStream<Tuple3<String, Long, Float>> results);
+
+}
@@ -0,0 +1,30 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+/**
+ * Interface StreamSourceInterface
+ *
+ * Simple interface to provide methods, required for a streaming data source in this application
+ *
+ * @author Lukas Werner
+ */
+public interface StreamSourceInterface {
+
+    /**
+     * Returns the data stream of (key, timestamp, value) tuples
+     *
+     * @return the data stream
+     */
+    DataStream<Tuple3<String, Long, Float>> getDataStream();
+
+    /**
+     * Get the stream execution environment
+     *
+     * @return the stream execution environment
+     */
+    StreamExecutionEnvironment getEnv();
+
+}
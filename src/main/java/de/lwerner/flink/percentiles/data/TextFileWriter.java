@@ -0,0 +1,94 @@
+package de.lwerner.flink.percentiles.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class TextFileWriter
+ *
+ * Writes one value per line (Float.toString), the characters are copied directly into a byte buffer, so there is no
+ * string concatenation and no character encoder per value.
+ *
+ * @author Lukas Werner
+ */
+public class TextFileWriter extends ValueFileWriter {
+
+    /**
+     * Size of the write buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Maximum length of a line (Float.toString has at most 15 characters)
+     */
+    private static final int MAX_LINE_LENGTH = 32;
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The write buffer
+     */
+    private final byte[] bytes;
+
+    /**
+     * Number of bytes in the write buffer
+     */
+    private int size;
+
+    /**
+     * Constructor, creates the file
+     *
+     * @param file the file to write to
+     *
+     * @throws IOException if the file couldn't be created
+     */
+    public TextFileWriter(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        bytes = new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(float[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            if (size > BUFFER_SIZE - MAX_LINE_LENGTH) {
+                drain();
+            }
+
+            String value = Float.toString(values[i]);
+            for (int j = 0; j < value.length(); j++) {
+                bytes[size++] = (byte)value.charAt(j);
+            }
+            bytes[size++] = '\n';
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel
+     *
+     * @throws IOException if writing fails
+     */
+    private void drain() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        size = 0;
+    }
+
+}
@@ -0,0 +1,81 @@
+package de.lwerner.flink.percentiles.data;
+
+import de.lwerner.flink.percentiles.functions.streaming.ParseKeyedValueMapFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+/**
+ * Class TextStreamSource
+ *
+ * Defines a streaming data source, which reads text lines from a socket or a file.
+ *
+ * @author Lukas Werner
+ */
+public class TextStreamSource implements StreamSourceInterface {
+
+    /**
+     * The flink stream env
+     */
+    private final StreamExecutionEnvironment env;
+
+    /**
+     * The file path, null if reading from socket
+     */
+    private final String path;
+
+    /**
+     * The socket host
+     */
+    private final String host;
+
+    /**
+     * The socket port
+     */
+    private final int port;
+
+    /**
+     * Constructor for reading from a file
+     *
+     * @param env the flink stream env
+     * @param path the file path
+     */
+    public TextStreamSource(StreamExecutionEnvironment env, String path) {
+        this.env = env;
+        this.path = path;
+        this.host = null;
+        this.port = 0;
+    }
+
+    /**
+     * Constructor for reading from a socket
+     *
+     * @param env the flink stream env
+     * @param host the socket host
+     * @param port the socket port
+     */
+    public TextStreamSource(StreamExecutionEnvironment env, String host, int port) {
+        this.env = env;
+        this.path = null;
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public DataStream<Tuple3<String, Long, Float>> getDataStream() {
+        DataStream<String> lines;
+        if (path != null) {
+            lines = env.readTextFile(path);
+        } else {
+            lines = env.socketTextStream(host, port);
+        }
+
+        return lines.map(new ParseKeyedValueMapFunction());
+    }
+
+    @Override
+    public StreamExecutionEnvironment getEnv() {
+        return env;
+    }
+
+}
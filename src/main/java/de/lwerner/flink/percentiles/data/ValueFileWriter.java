@@ -0,0 +1,78 @@
+package de.lwerner.flink.percentiles.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class ValueFileWriter
+ *
+ * Defines a writer for a local value file in one of the input formats of the file sources. Values are written in
+ * batches from primitive arrays.
+ *
+ * @author Lukas Werner
+ */
+public abstract class ValueFileWriter implements Closeable {
+
+    /**
+     * The format for one value per text line
+     */
+    public static final String FORMAT_TEXT = "text";
+
+    /**
+     * The format for block files with zone maps
+     */
+    public static final String FORMAT_BLOCKS = "blocks";
+
+    /**
+     * Writes a batch of values
+     *
+     * @param values the values
+     * @param length number of values to write
+     *
+     * @throws IOException if writing fails
+     */
+    public abstract void write(float[] values, int length) throws IOException;
+
+    /**
+     * Get the file name extension of a format
+     *
+     * @param format the file format (text, float, double or blocks)
+     *
+     * @return the extension with a leading dot
+     */
+    public static String extensionOf(String format) {
+        switch (format) {
+            case FORMAT_TEXT:
+                return ".txt";
+            case FORMAT_BLOCKS:
+                return ".blk";
+            default:
+                BinaryFloatInputFormat.widthOf(format);
+
+                return ".bin";
+        }
+    }
+
+    /**
+     * Factory method, creates a writer for a format
+     *
+     * @param format the file format (text, float, double or blocks)
+     * @param file the file to write to, an existing file is overwritten
+     *
+     * @return the writer
+     *
+     * @throws IOException if the file couldn't be created
+     */
+    public static ValueFileWriter factory(String format, File file) throws IOException {
+        switch (format) {
+            case FORMAT_TEXT:
+                return new TextFileWriter(file);
+            case FORMAT_BLOCKS:
+                return new BlockFileWriter(file, BlockFile.DEFAULT_BLOCK_CAPACITY);
+            default:
+                return new BinaryFileWriter(file, format);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * Class WeightedCsvSource
+ *
+ * Defines a data source which reads pre-aggregated (value, count) lines from a csv file.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedCsvSource implements WeightedSourceInterface {
+
+    /**
+     * The flink env
+     */
+    private final ExecutionEnvironment env;
+
+    /**
+     * The file path
+     */
+    private final String path;
+
+    /**
+     * The field delimiter
+     */
+    private final String delimiter;
+
+    /**
+     * Constructor, sets env, path and delimiter
+     *
+     * @param env the flink env
+     * @param path the file path
+     * @param delimiter the field delimiter
+     */
+    public WeightedCsvSource(ExecutionEnvironment env, String path, String delimiter) {
+        this.env = env;
+        this.path = path;
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public DataSet<Tuple2<Float, Long>> getDataSet() {
+        return env.readCsvFile(path)
+                .fieldDelimiter(delimiter)
+                .types(Float.class, Long.class);
+    }
+
+    @Override
+    public ExecutionEnvironment getEnv() {
+        return env;
+    }
+
+}
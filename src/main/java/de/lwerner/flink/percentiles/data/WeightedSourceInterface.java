@@ -0,0 +1,30 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * Interface WeightedSourceInterface
+ *
+ * Simple interface to provide methods, required for a weighted data source in this application
+ *
+ * @author Lukas Werner
+ */
+public interface WeightedSourceInterface {
+
+    /**
+     * Returns the data set in the proper format
+     *
+     * @return (value, weight) data set
+     */
+    DataSet<Tuple2<Float, Long>> getDataSet();
+
+    /**
+     * Get the execution environment
+     *
+     * @return the execution environment
+     */
+    ExecutionEnvironment getEnv();
+
+}
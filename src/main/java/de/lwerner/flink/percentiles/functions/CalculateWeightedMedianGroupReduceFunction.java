@@ -19,11 +19,16 @@ public class CalculateWeightedMedianGroupReduceFunction implements GroupReduceFu
     public void reduce(Iterable<Tuple2<Float, Float>> iterable, Collector<Tuple1<Float>> collector) {
         List<Float> medians = new ArrayList<>();
         List<Float> weights = new ArrayList<>();
+        float total = 0;
         for (Tuple2<Float, Float> t: iterable) {
             medians.add(t.f0);
             weights.add(t.f1);
+            total += t.f1;
         }
 
+        // Weights don't need to sum up to 1, e.g. plain counts, if the total count is unknown yet
+        float half = total / 2;
+
         for (float mk: medians) {
             float sumLower = 0;
             float sumHigher = 0;
@@ -38,7 +43,7 @@ public class CalculateWeightedMedianGroupReduceFunction implements GroupReduceFu
                 }
             }
 
-            if (sumLower <= 0.5 && sumHigher <= 0.5) {
+            if (sumLower <= half && sumHigher <= half) {
                 collector.collect(new Tuple1<>(mk));
                 break;
             }
@@ -0,0 +1,90 @@
+package de.lwerner.flink.percentiles.functions;
+
+import org.apache.flink.api.common.functions.MapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Map function to associate each value with a random float number and get top values, so each partition emits a
+ * uniform random sample of (sample size) values.
+ *
+ * @author Lukas Werner
+ */
+public class GetRandomValuesMapPartitionFunction implements MapPartitionFunction<Tuple1<Float>, Tuple1<Float>> {
+
+    /**
+     * Random object
+     */
+    private final Random random;
+
+    /**
+     * The sample size
+     */
+    private long sampleSize;
+
+    /**
+     * Constructor to initialize random object
+     *
+     * @param sampleSize the sample size
+     */
+    public GetRandomValuesMapPartitionFunction(long sampleSize) {
+        this(sampleSize, new Random());
+    }
+
+    /**
+     * Constructor to initialize a seeded random object, for reproducible samples
+     *
+     * @param sampleSize the sample size
+     * @param seed the random seed
+     */
+    public GetRandomValuesMapPartitionFunction(long sampleSize, long seed) {
+        this(sampleSize, new Random(seed));
+    }
+
+    /**
+     * Constructor, sets sample size and random object
+     *
+     * @param sampleSize the sample size
+     * @param random the random object
+     */
+    private GetRandomValuesMapPartitionFunction(long sampleSize, Random random) {
+        this.random = random;
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple1<Float>> values, Collector<Tuple1<Float>> out) {
+        TreeMap<Float, Tuple2<Float, Float>> sortedMap = new TreeMap<>();
+
+        for (Tuple1<Float> t: values) {
+            Tuple2<Float, Float> newValue = new Tuple2<>(t.f0, (float)(random.nextDouble() * 1234569241));
+
+            conditionallyAddToMap(sortedMap, newValue, sampleSize);
+        }
+
+        for (Tuple2<Float, Float> t: sortedMap.values()) {
+            out.collect(new Tuple1<>(t.f0));
+        }
+    }
+
+    /**
+     * Add value to map if conditions are met
+     *
+     * @param map the map
+     * @param value the value
+     * @param maxMapSize the maximum map size
+     */
+    private static void conditionallyAddToMap(TreeMap<Float, Tuple2<Float, Float>> map, Tuple2<Float, Float> value, long maxMapSize) {
+        if (map.size() < maxMapSize) {
+            map.put(value.f1, value);
+        } else if (map.firstKey() < value.f1) {
+            map.remove(map.firstKey());
+            map.put(value.f1, value);
+        }
+    }
+
+}
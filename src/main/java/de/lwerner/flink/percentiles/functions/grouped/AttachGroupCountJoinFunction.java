@@ -0,0 +1,19 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.JoinFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * Function, which attaches the group size to each (group, value) tuple
+ *
+ * @author Lukas Werner
+ */
+public class AttachGroupCountJoinFunction implements JoinFunction<Tuple2<String, Float>, Tuple2<String, Long>, Tuple3<String, Float, Long>> {
+
+    @Override
+    public Tuple3<String, Float, Long> join(Tuple2<String, Float> value, Tuple2<String, Long> count) {
+        return new Tuple3<>(value.f0, value.f1, count.f1);
+    }
+
+}
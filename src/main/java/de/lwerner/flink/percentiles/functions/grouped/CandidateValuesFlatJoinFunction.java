@@ -0,0 +1,23 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which emits a value of a large group as (group, p, value) for each unsolved (group, p) pair, whose
+ * candidate range holds the value. The values themselves are kept once, the pairs are only formed on the fly.
+ *
+ * @author Lukas Werner
+ */
+public class CandidateValuesFlatJoinFunction implements FlatJoinFunction<Tuple3<String, Float, Long>, GroupDecisionModel, Tuple3<String, Integer, Float>> {
+
+    @Override
+    public void join(Tuple3<String, Float, Long> t, GroupDecisionModel state, Collector<Tuple3<String, Integer, Float>> out) {
+        if (state.isCandidate(t.f1)) {
+            out.collect(new Tuple3<>(t.f0, state.getP(), t.f1));
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which turns the projected columns of a line into (column name, value) pairs, so each column is a group.
+ * Missing values (NaN) are dropped.
+ *
+ * @author Lukas Werner
+ */
+public class ColumnValuesFlatMapFunction implements FlatMapFunction<float[], Tuple2<String, Float>> {
+
+    /**
+     * The column names
+     */
+    private String[] names;
+
+    /**
+     * Constructor, sets the column names
+     *
+     * @param names the column names, in the order of the projected columns
+     */
+    public ColumnValuesFlatMapFunction(String[] names) {
+        this.names = names;
+    }
+
+    @Override
+    public void flatMap(float[] values, Collector<Tuple2<String, Float>> out) {
+        for (int i = 0; i < values.length; i++) {
+            if (!Float.isNaN(values[i])) {
+                out.collect(new Tuple2<>(names[i], values[i]));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import org.apache.flink.api.common.functions.JoinFunction;
+import org.apache.flink.api.java.tuple.Tuple6;
+
+/**
+ * Function, which gets the number of less, equal and greater candidates than the pivot of a (group, p) pair and its
+ * current state, and decides, what to do. The decisions are:
+ *   - Stop, because we found a result
+ *   - Keep the less candidates, the pivot becomes the upper bound
+ *   - Keep the greater candidates, the pivot becomes the lower bound and k is subtracted by |less| + |equal|
+ *
+ * @author Lukas Werner
+ */
+public class DecideWhatToDoJoinFunction implements JoinFunction<Tuple6<String, Integer, Float, Long, Long, Long>, GroupDecisionModel, GroupDecisionModel> {
+
+    @Override
+    public GroupDecisionModel join(Tuple6<String, Integer, Float, Long, Long, Long> leg, GroupDecisionModel state) {
+        long k = state.getK();
+        long less = leg.f3;
+        long equal = leg.f4;
+
+        if (less < k && k <= less + equal) {
+            return new GroupDecisionModel(leg.f0, leg.f1, k, true, state.getLower(), state.getUpper(), leg.f2);
+        } else if (k <= less) {
+            return new GroupDecisionModel(leg.f0, leg.f1, k, false, state.getLower(), leg.f2, leg.f2);
+        }
+
+        return new GroupDecisionModel(leg.f0, leg.f1, k - less - equal, false, leg.f2, state.getUpper(), leg.f2);
+    }
+
+}
@@ -0,0 +1,18 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * Function, which maps each (group, value) tuple to (group, 1), so the group sizes can be summed up
+ *
+ * @author Lukas Werner
+ */
+public class GroupCountMapFunction implements MapFunction<Tuple2<String, Float>, Tuple2<String, Long>> {
+
+    @Override
+    public Tuple2<String, Long> map(Tuple2<String, Float> t) {
+        return new Tuple2<>(t.f0, 1L);
+    }
+
+}
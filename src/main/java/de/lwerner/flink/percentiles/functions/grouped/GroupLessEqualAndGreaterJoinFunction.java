@@ -0,0 +1,20 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.JoinFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple6;
+
+/**
+ * Function, which maps each value to (group, p, pivot, less, equal, greater), where less, equal and greater say,
+ * if the value is less (1, 0, 0), equal (0, 1, 0) or greater (0, 0, 1) than the pivot of its (group, p) pair
+ *
+ * @author Lukas Werner
+ */
+public class GroupLessEqualAndGreaterJoinFunction implements JoinFunction<Tuple3<String, Integer, Float>, Tuple3<String, Integer, Float>, Tuple6<String, Integer, Float, Long, Long, Long>> {
+
+    @Override
+    public Tuple6<String, Integer, Float, Long, Long, Long> join(Tuple3<String, Integer, Float> t, Tuple3<String, Integer, Float> pivot) {
+        return new Tuple6<>(t.f0, t.f1, pivot.f2, t.f2 < pivot.f2 ? 1L : 0L, t.f2.floatValue() == pivot.f2.floatValue() ? 1L : 0L, t.f2 > pivot.f2 ? 1L : 0L);
+    }
+
+}
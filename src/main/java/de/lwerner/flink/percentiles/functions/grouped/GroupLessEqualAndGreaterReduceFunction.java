@@ -0,0 +1,18 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple6;
+
+/**
+ * Function, which sums up the less, equal and greater counts of a (group, p) pair
+ *
+ * @author Lukas Werner
+ */
+public class GroupLessEqualAndGreaterReduceFunction implements ReduceFunction<Tuple6<String, Integer, Float, Long, Long, Long>> {
+
+    @Override
+    public Tuple6<String, Integer, Float, Long, Long, Long> reduce(Tuple6<String, Integer, Float, Long, Long, Long> t1, Tuple6<String, Integer, Float, Long, Long, Long> t2) {
+        return new Tuple6<>(t1.f0, t1.f1, t1.f2, t1.f3 + t2.f3, t1.f4 + t2.f4, t1.f5 + t2.f5);
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.GroupCombineFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.util.Collector;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Function, which draws a small random sample of each (group, p) pair on each partition and emits the (lower)
+ * median of the sample together with the number of values it represents
+ *
+ * @author Lukas Werner
+ */
+public class GroupPivotCombineFunction implements GroupCombineFunction<Tuple3<String, Integer, Float>, Tuple4<String, Integer, Float, Long>> {
+
+    /**
+     * The sample size per group and partition
+     */
+    private static final int SAMPLE_SIZE = 63;
+
+    /**
+     * Random object
+     */
+    private final Random random = new Random();
+
+    @Override
+    public void combine(Iterable<Tuple3<String, Integer, Float>> iterable, Collector<Tuple4<String, Integer, Float, Long>> out) {
+        float[] sample = new float[SAMPLE_SIZE];
+        String group = null;
+        int p = 0;
+        long count = 0;
+
+        // Reservoir sampling
+        for (Tuple3<String, Integer, Float> t: iterable) {
+            if (count < SAMPLE_SIZE) {
+                group = t.f0;
+                p = t.f1;
+                sample[(int)count] = t.f2;
+            } else {
+                long index = (long)(random.nextDouble() * (count + 1));
+                if (index < SAMPLE_SIZE) {
+                    sample[(int)index] = t.f2;
+                }
+            }
+            count++;
+        }
+
+        int size = (int)Math.min(count, SAMPLE_SIZE);
+        Arrays.sort(sample, 0, size);
+
+        out.collect(new Tuple4<>(group, p, sample[(size - 1) / 2], count));
+    }
+
+}
@@ -0,0 +1,40 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Function, which calculates the weighted median of the sample medians of a (group, p) pair. The result is always
+ * one of the values, so each iteration discards at least one value.
+ *
+ * @author Lukas Werner
+ */
+public class GroupPivotGroupReduceFunction implements GroupReduceFunction<Tuple4<String, Integer, Float, Long>, Tuple3<String, Integer, Float>> {
+
+    @Override
+    public void reduce(Iterable<Tuple4<String, Integer, Float, Long>> iterable, Collector<Tuple3<String, Integer, Float>> out) {
+        List<Tuple4<String, Integer, Float, Long>> candidates = new ArrayList<>();
+        long total = 0;
+        for (Tuple4<String, Integer, Float, Long> t: iterable) {
+            candidates.add(t);
+            total += t.f3;
+        }
+
+        candidates.sort((t1, t2) -> Float.compare(t1.f2, t2.f2));
+
+        long cumulative = 0;
+        for (Tuple4<String, Integer, Float, Long> t: candidates) {
+            cumulative += t.f3;
+            if (cumulative * 2 >= total) {
+                out.collect(new Tuple3<>(t.f0, t.f1, t.f2));
+                break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * Function, which maps a final selection state to its (group, p, result) tuple
+ *
+ * @author Lukas Werner
+ */
+public class GroupResultMapFunction implements MapFunction<GroupDecisionModel, Tuple3<String, Integer, Float>> {
+
+    @Override
+    public Tuple3<String, Integer, Float> map(GroupDecisionModel state) {
+        if (!state.isFoundResult()) {
+            throw new IllegalStateException("No result found for group " + state.getGroup() + ", p " + state.getP() + ". Please raise the maximum number of iterations!");
+        }
+
+        return new Tuple3<>(state.getGroup(), state.getP(), state.getPivot());
+    }
+
+}
@@ -0,0 +1,39 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * Function, which keeps either the values of small groups (size less or equal the threshold) or of large groups
+ *
+ * @author Lukas Werner
+ */
+public class GroupSizeFilterFunction implements FilterFunction<Tuple3<String, Float, Long>> {
+
+    /**
+     * The group size threshold
+     */
+    private long threshold;
+
+    /**
+     * Keep the large groups?
+     */
+    private boolean large;
+
+    /**
+     * Constructor, sets threshold and side
+     *
+     * @param threshold the group size threshold
+     * @param large true to keep large groups, false to keep small groups
+     */
+    public GroupSizeFilterFunction(long threshold, boolean large) {
+        this.threshold = threshold;
+        this.large = large;
+    }
+
+    @Override
+    public boolean filter(Tuple3<String, Float, Long> t) {
+        return large == (t.f2 > threshold);
+    }
+
+}
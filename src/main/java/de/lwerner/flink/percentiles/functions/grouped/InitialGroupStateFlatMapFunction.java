@@ -0,0 +1,51 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which creates the initial selection state (k from the group size, unbounded candidate range) for each
+ * (group, p) pair of a large group
+ *
+ * @author Lukas Werner
+ */
+public class InitialGroupStateFlatMapFunction implements FlatMapFunction<Tuple2<String, Long>, GroupDecisionModel> {
+
+    /**
+     * The percentage values
+     */
+    private int[] percentiles;
+
+    /**
+     * Groups with more values are large
+     */
+    private long groupThreshold;
+
+    /**
+     * Constructor, sets the percentage values and the group size threshold
+     *
+     * @param percentiles the percentage values
+     * @param groupThreshold groups with more values are large
+     */
+    public InitialGroupStateFlatMapFunction(int[] percentiles, long groupThreshold) {
+        this.percentiles = percentiles;
+        this.groupThreshold = groupThreshold;
+    }
+
+    @Override
+    public void flatMap(Tuple2<String, Long> count, Collector<GroupDecisionModel> out) {
+        if (count.f1 <= groupThreshold) {
+            return;
+        }
+
+        for (int p: percentiles) {
+            long k = Math.max(1, AbstractPercentile.rankOf(count.f1, p));
+
+            out.collect(new GroupDecisionModel(count.f0, p, k, false, Float.NaN, Float.NaN, 0));
+        }
+    }
+
+}
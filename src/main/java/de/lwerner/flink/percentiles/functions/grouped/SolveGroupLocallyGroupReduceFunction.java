@@ -0,0 +1,62 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.math.QuickSelect;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+import java.util.Arrays;
+
+/**
+ * Function, which solves all requested percentiles of a small group inside one reducer with a primitive selection
+ *
+ * @author Lukas Werner
+ */
+public class SolveGroupLocallyGroupReduceFunction implements GroupReduceFunction<Tuple3<String, Float, Long>, Tuple3<String, Integer, Float>> {
+
+    /**
+     * The percentage values
+     */
+    private int[] percentiles;
+
+    /**
+     * Constructor, sets the percentage values
+     *
+     * @param percentiles the percentage values
+     */
+    public SolveGroupLocallyGroupReduceFunction(int[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    @Override
+    public void reduce(Iterable<Tuple3<String, Float, Long>> iterable, Collector<Tuple3<String, Integer, Float>> out) {
+        String group = null;
+        float[] values = null;
+        int size = 0;
+
+        for (Tuple3<String, Float, Long> t: iterable) {
+            if (values == null) {
+                if (t.f2 > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("The group " + t.f0 + " is too big to be solved locally, count: " + t.f2);
+                }
+
+                group = t.f0;
+                values = new float[(int)(long)t.f2];
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = t.f1;
+        }
+
+        QuickSelect quickSelect = new QuickSelect();
+        for (int p: percentiles) {
+            int k = (int)Math.max(1, AbstractPercentile.rankOf(size, p));
+
+            out.collect(new Tuple3<>(group, p, quickSelect.select(values, size, k - 1)));
+        }
+    }
+
+}
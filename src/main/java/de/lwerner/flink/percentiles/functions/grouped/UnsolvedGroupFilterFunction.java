@@ -0,0 +1,18 @@
+package de.lwerner.flink.percentiles.functions.grouped;
+
+import de.lwerner.flink.percentiles.model.GroupDecisionModel;
+import org.apache.flink.api.common.functions.FilterFunction;
+
+/**
+ * Function, which keeps the (group, p) pairs, whose result wasn't found yet
+ *
+ * @author Lukas Werner
+ */
+public class UnsolvedGroupFilterFunction implements FilterFunction<GroupDecisionModel> {
+
+    @Override
+    public boolean filter(GroupDecisionModel state) {
+        return !state.isFoundResult();
+    }
+
+}
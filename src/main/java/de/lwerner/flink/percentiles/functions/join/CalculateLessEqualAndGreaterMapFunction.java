@@ -1,5 +1,6 @@
 package de.lwerner.flink.percentiles.functions.join;
 
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichMapFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple3;
@@ -16,6 +17,11 @@ import java.util.Collection;
  */
 public class CalculateLessEqualAndGreaterMapFunction extends RichMapFunction<Tuple3<Float, Long, Long>, Tuple5<Long, Long, Long, Long, Long>> {
 
+    /**
+     * Times the counting phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.COUNTING);
+
     /**
      * The weighted median
      */
@@ -28,11 +34,22 @@ public class CalculateLessEqualAndGreaterMapFunction extends RichMapFunction<Tup
         for (Tuple1<Float> t: weightedMedian) {
             this.weightedMedian = t.f0;
         }
+
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
     }
 
     @Override
     public Tuple5<Long, Long, Long, Long, Long> map(Tuple3<Float, Long, Long> t) {
-        return new Tuple5<>(t.f0 < weightedMedian ? 1L : 0L, t.f0 == weightedMedian ? 1L : 0L, t.f0 > weightedMedian ? 1L : 0L, t.f1, t.f2);
+        phaseTimer.start();
+        Tuple5<Long, Long, Long, Long, Long> counts = new Tuple5<>(t.f0 < weightedMedian ? 1L : 0L, t.f0 == weightedMedian ? 1L : 0L, t.f0 > weightedMedian ? 1L : 0L, t.f1, t.f2);
+        phaseTimer.stop();
+
+        return counts;
     }
 
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package de.lwerner.flink.percentiles.functions.join;
 
+import de.lwerner.flink.percentiles.data.SourceInterface;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.tuple.Tuple3;
 
 /**
- * Function, which calculates the weights for each partition
+ * Function, which calculates the weights for each partition. If the total count is unknown (first superstep), the
+ * partition counts are the weights.
  *
  * @author Lukas Werner
  */
@@ -13,6 +15,10 @@ public class CalculateWeightsMapFunction implements MapFunction<Tuple3<Float, Lo
 
     @Override
     public Tuple2<Float, Float> map(Tuple3<Float, Long, Long> medianCountAndN) {
+        if (medianCountAndN.f2 == SourceInterface.UNKNOWN_COUNT) {
+            return new Tuple2<>(medianCountAndN.f0, (float)medianCountAndN.f1);
+        }
+
         return new Tuple2<>(medianCountAndN.f0, medianCountAndN.f1 / (float)medianCountAndN.f2);
     }
 
@@ -1,8 +1,20 @@
 package de.lwerner.flink.percentiles.functions.join;
 
-import org.apache.flink.api.common.functions.MapFunction;
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.LongMaximum;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.tuple.Tuple5;
+import org.apache.flink.configuration.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
 
 /**
  * Function, which gets the number of less, equal and greater elements than the weighted median, and decides, what
@@ -10,10 +22,55 @@ import org.apache.flink.api.java.tuple.Tuple5;
  *   - Stop, because we found a result
  *   - Discard greater and equal values and set n to the number of less values
  *   - Discard less and equal values and set n to the number of greater values and subtract k by |less| + |equal|
+ * If the value count is unknown, the first superstep takes it from |less| + |equal| + |greater| and resolves an
+ * unknown k from the percentile, so counting needs no extra pass. The statistics of each superstep are added to an
+ * accumulator, the pivot is read from the weighted median broadcast set.
  *
  * @author Lukas Werner
  */
-public class DecideWhatToDoMapFunction implements MapFunction<Tuple5<Long, Long, Long, Long, Long>, Tuple3<Boolean, Long, Long>> {
+public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple5<Long, Long, Long, Long, Long>, Tuple3<Boolean, Long, Long>> {
+
+    /**
+     * The percentile, which resolves an unknown k (0 for none)
+     */
+    private int percentile;
+
+    /**
+     * The weighted median
+     */
+    private float weightedMedian;
+
+    /**
+     * The superstep statistics
+     */
+    private Accumulator<SuperstepStatistics, ArrayList<SuperstepStatistics>> superstepStatistics;
+
+    /**
+     * Default constructor, k is known
+     */
+    public DecideWhatToDoMapFunction() {
+        this(0);
+    }
+
+    /**
+     * Constructor, sets the percentile, which resolves an unknown k
+     *
+     * @param percentile the percentile
+     */
+    public DecideWhatToDoMapFunction(int percentile) {
+        this.percentile = percentile;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        superstepStatistics = ResultCollector.getSuperstepStatisticsAccumulator(getRuntimeContext());
+
+        Collection<Tuple1<Float>> weightedMedian = getRuntimeContext().getBroadcastVariable("weightedMedian");
+
+        for (Tuple1<Float> t: weightedMedian) {
+            this.weightedMedian = t.f0;
+        }
+    }
 
     @Override
     public Tuple3<Boolean, Long, Long> map(Tuple5<Long, Long, Long, Long, Long> t) {
@@ -22,7 +79,25 @@ public class DecideWhatToDoMapFunction implements MapFunction<Tuple5<Long, Long,
         long n = t.f4;
         long k = t.f3;
 
-        if (t.f3 <= t.f0) {
+        if (n == SourceInterface.UNKNOWN_COUNT) {
+            n = t.f0 + t.f1 + t.f2;
+            if (k == AbstractSelectionProblem.UNKNOWN_RANK) {
+                k = AbstractPercentile.rankOf(n, percentile);
+
+                // Resolved once, in the first superstep
+                LongMaximum rank = new LongMaximum();
+                rank.add(k);
+                getRuntimeContext().addAccumulator(ResultCollector.RANK_ACCUMULATOR, rank);
+            }
+            if (k < 1 || k > n) {
+                throw new IllegalArgumentException("k must be between 1 and the value count, k: " + k + ", count: " + n);
+            }
+        }
+
+        superstepStatistics.add(new SuperstepStatistics(getIterationRuntimeContext().getSuperstepNumber(), k,
+                weightedMedian, t.f0, t.f1, t.f2));
+
+        if (k <= t.f0) {
             keepLess = true;
             n = t.f0;
         } else if (k > t.f0 + t.f1) {
@@ -1,5 +1,6 @@
 package de.lwerner.flink.percentiles.functions.join;
 
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichFilterFunction;
 import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
@@ -16,6 +17,11 @@ import java.util.Collection;
  */
 public class DiscardValuesFlatMapFunction extends RichFlatMapFunction<Tuple3<Float, Long, Long>, Tuple3<Float, Long, Long>> {
 
+    /**
+     * Times the discard phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.DISCARD);
+
     /**
      * Decision, if we keep the less or the greater elements
      */
@@ -51,11 +57,22 @@ public class DiscardValuesFlatMapFunction extends RichFlatMapFunction<Tuple3<Flo
         for (Tuple1<Float> t: weightedMedianCollection) {
             this.weightedMedian = t.f0;
         }
+
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
     }
 
     @Override
     public void flatMap(Tuple3<Float, Long, Long> t, Collector<Tuple3<Float, Long, Long>> out) {
-        if ((keepLess && t.f0 < weightedMedian) || (!keepLess && t.f0 > weightedMedian)) {
+        phaseTimer.start();
+        boolean keep = (keepLess && t.f0 < weightedMedian) || (!keepLess && t.f0 > weightedMedian);
+        phaseTimer.stop();
+
+        if (keep) {
             out.collect(new Tuple3<>(t.f0, k, n));
         }
     }
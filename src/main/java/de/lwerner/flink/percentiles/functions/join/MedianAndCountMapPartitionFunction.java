@@ -1,7 +1,9 @@
 package de.lwerner.flink.percentiles.functions.join;
 
-import org.apache.flink.api.common.functions.MapPartitionFunction;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
+import org.apache.flink.api.common.functions.RichMapPartitionFunction;
 import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.util.Collector;
 
 import java.util.ArrayList;
@@ -12,7 +14,22 @@ import java.util.List;
  *
  * @author Lukas Werner
  */
-public class MedianAndCountMapPartitionFunction implements MapPartitionFunction<Tuple3<Float, Long, Long>, Tuple3<Float, Long, Long>> {
+public class MedianAndCountMapPartitionFunction extends RichMapPartitionFunction<Tuple3<Float, Long, Long>, Tuple3<Float, Long, Long>> {
+
+    /**
+     * Times the partition medians phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.PARTITION_MEDIANS);
+
+    @Override
+    public void open(Configuration parameters) {
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
+    }
 
     @Override
     public void mapPartition(Iterable<Tuple3<Float, Long, Long>> iterable, Collector<Tuple3<Float, Long, Long>> collector) {
@@ -23,12 +40,15 @@ public class MedianAndCountMapPartitionFunction implements MapPartitionFunction<
             n = t.f2;
         }
 
+        // Reading the input waits for the sorted partition, so only the median is timed
+        phaseTimer.start();
         float median;
         if (list.size() % 2 == 0) {
             median = (list.get(list.size() / 2) + list.get(list.size() / 2 - 1)) / 2;
         } else {
             median = list.get(list.size() / 2);
         }
+        phaseTimer.stop();
 
         collector.collect(new Tuple3<>(median, (long)list.size(), n));
     }
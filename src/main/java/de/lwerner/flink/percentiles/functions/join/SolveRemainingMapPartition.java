@@ -1,7 +1,9 @@
 package de.lwerner.flink.percentiles.functions.join;
 
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichMapPartitionFunction;
 import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.util.Collector;
 
 import java.util.ArrayList;
@@ -14,12 +16,30 @@ import java.util.List;
  */
 public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple3<Float, Long, Long>, Tuple3<Float, Long, Long>> {
 
+    /**
+     * Times the final solve phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.FINAL_SOLVE);
+
+    @Override
+    public void open(Configuration parameters) {
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
+    }
+
     @Override
     public void mapPartition(Iterable<Tuple3<Float, Long, Long>> values, Collector<Tuple3<Float, Long, Long>> out) {
         List<Tuple3<Float, Long, Long>> valuesList = new ArrayList<>();
 
         values.forEach(valuesList::add);
 
+        // Reading the input waits for the last superstep, so only the selection is timed
+        phaseTimer.start();
+
         if (valuesList.isEmpty()) {
             throw new IllegalStateException("The remaining elements should never be empty! Please check the code!");
         }
@@ -30,7 +50,10 @@ public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple3<
             throw new IllegalStateException("The remaining elements are less than k. This should never happen! Please check the code! Remaining size: " + valuesList.size() + ", k: " + k);
         }
 
-        out.collect(valuesList.get((int)k - 1));
+        Tuple3<Float, Long, Long> result = valuesList.get((int)k - 1);
+        phaseTimer.stop();
+
+        out.collect(result);
     }
 
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package de.lwerner.flink.percentiles.functions.join;
 
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.IntMaximum;
 import org.apache.flink.api.common.functions.RichFilterFunction;
 import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
 
 /**
  * Function for filtering out the decision base, if we have found a solution or we have less or equal elements as
@@ -13,6 +16,11 @@ public class TerminationCriterionFilterFunction extends RichFilterFunction<Tuple
 
     private long countThreshold;
 
+    /**
+     * The number of supersteps
+     */
+    private IntMaximum supersteps;
+
     /**
      * Constructor to set count threshold
      *
@@ -22,9 +30,21 @@ public class TerminationCriterionFilterFunction extends RichFilterFunction<Tuple
         this.countThreshold = countThreshold;
     }
 
+    @Override
+    public void open(Configuration parameters) {
+        // Opened again in each superstep, but the accumulator lives for the whole job
+        supersteps = (IntMaximum)getRuntimeContext().<Integer, Integer>getAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR);
+        if (supersteps == null) {
+            supersteps = new IntMaximum();
+            getRuntimeContext().addAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR, supersteps);
+        }
+    }
+
     @Override
     public boolean filter(Tuple3<Boolean, Long, Long> t) {
+        supersteps.add(getIterationRuntimeContext().getSuperstepNumber());
+
         return t.f2 > countThreshold;
     }
 
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
-import de.lwerner.flink.percentiles.model.RedisCredentials;
-import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichMapFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple3;
@@ -18,23 +17,14 @@ import java.util.Collection;
 public class CalculateLessEqualAndGreaterMapFunction extends RichMapFunction<Tuple1<Float>, Tuple3<Long, Long, Long>> {
 
     /**
-     * The weighted median
-     */
-    private float weightedMedian;
-
-    /**
-     * Redis connection info
+     * Times the counting phase
      */
-    private RedisCredentials redisCredentials;
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.COUNTING);
 
     /**
-     * Constructor to set the redis credentials
-     *
-     * @param redisCredentials the redis credentials
+     * The weighted median
      */
-    public CalculateLessEqualAndGreaterMapFunction(RedisCredentials redisCredentials) {
-        this.redisCredentials = redisCredentials;
-    }
+    private float weightedMedian;
 
     @Override
     public void open(Configuration parameters) {
@@ -44,14 +34,21 @@ public class CalculateLessEqualAndGreaterMapFunction extends RichMapFunction<Tup
             this.weightedMedian = t.f0;
         }
 
-        AbstractRedisAdapter redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
-        redisAdapter.setResult(this.weightedMedian);
-        redisAdapter.close();
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
     }
 
     @Override
     public Tuple3<Long, Long, Long> map(Tuple1<Float> t) {
-        return new Tuple3<>(t.f0 < weightedMedian ? 1L : 0L, t.f0 == weightedMedian ? 1L : 0L, t.f0 > weightedMedian ? 1L : 0L);
+        phaseTimer.start();
+        Tuple3<Long, Long, Long> counts = new Tuple3<>(t.f0 < weightedMedian ? 1L : 0L, t.f0 == weightedMedian ? 1L : 0L, t.f0 > weightedMedian ? 1L : 0L);
+        phaseTimer.stop();
+
+        return counts;
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
+import de.lwerner.flink.percentiles.data.SourceInterface;
 import de.lwerner.flink.percentiles.model.RedisCredentials;
 import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
 import org.apache.flink.api.common.functions.RichMapFunction;
@@ -7,7 +8,8 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.configuration.Configuration;
 
 /**
- * Function, which calculates the weights for each partition
+ * Function, which calculates the weights for each partition. If the total count is unknown (first superstep), the
+ * partition counts are the weights.
  *
  * @author Lukas Werner
  */
@@ -34,13 +36,17 @@ public class CalculateWeightsMapFunction extends RichMapFunction<Tuple2<Float, L
 
     @Override
     public void open(Configuration parameters) {
-        AbstractRedisAdapter redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
+        AbstractRedisAdapter redisAdapter = AbstractRedisAdapter.factory(redisCredentials, getRuntimeContext());
         n = redisAdapter.getN();
         redisAdapter.close();
     }
 
     @Override
     public Tuple2<Float, Float> map(Tuple2<Float, Long> medianCountAndN) {
+        if (n == SourceInterface.UNKNOWN_COUNT) {
+            return new Tuple2<>(medianCountAndN.f0, (float)medianCountAndN.f1);
+        }
+
         return new Tuple2<>(medianCountAndN.f0, medianCountAndN.f1 / (float)n);
     }
 
@@ -1,12 +1,24 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.data.SourceInterface;
 import de.lwerner.flink.percentiles.model.DecisionModel;
 import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
 import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.LongMaximum;
 import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.configuration.Configuration;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 /**
  * Function, which gets the number of less, equal and greater elements than the weighted median, and decides, what
  * to do. The decisions are:
@@ -14,6 +26,10 @@ import org.apache.flink.configuration.Configuration;
  *   - Discard greater and equal values and set n to the number of less values
  *   - Discard less and equal values and set n to the number of greater values and subtract k by |less| + |equal|
  *
+ * k and n are read with one round trip, the decision (and the result) is written by the termination criterion. If the
+ * value count is unknown, the first superstep takes it from |less| + |equal| + |greater| and resolves an unknown k
+ * from the percentile, so counting needs no extra pass. The statistics of each superstep are added to an accumulator.
+ *
  * @author Lukas Werner
  */
 public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple3<Long, Long, Long>, DecisionModel> {
@@ -28,18 +44,51 @@ public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple3<Long, Long
      */
     private RedisCredentials redisCredentials;
 
+    /**
+     * The weighted median
+     */
+    private float weightedMedian;
+
+    /**
+     * The percentile, which resolves an unknown k (0 for none)
+     */
+    private int percentile;
+
+    /**
+     * The superstep statistics
+     */
+    private Accumulator<SuperstepStatistics, ArrayList<SuperstepStatistics>> superstepStatistics;
+
     /**
      * Constructor to set the redis credentials
      *
      * @param redisCredentials the redis credentials
      */
     public DecideWhatToDoMapFunction(RedisCredentials redisCredentials) {
+        this(redisCredentials, 0);
+    }
+
+    /**
+     * Constructor to set the redis credentials and the percentile, which resolves an unknown k
+     *
+     * @param redisCredentials the redis credentials
+     * @param percentile the percentile
+     */
+    public DecideWhatToDoMapFunction(RedisCredentials redisCredentials, int percentile) {
         this.redisCredentials = redisCredentials;
+        this.percentile = percentile;
     }
 
     @Override
     public void open(Configuration parameters) {
-        redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
+        superstepStatistics = ResultCollector.getSuperstepStatisticsAccumulator(getRuntimeContext());
+
+        redisAdapter = AbstractRedisAdapter.factory(redisCredentials, getRuntimeContext());
+
+        Collection<Tuple1<Float>> weightedMedian = getRuntimeContext().getBroadcastVariable("weightedMedian");
+        for (Tuple1<Float> t: weightedMedian) {
+            this.weightedMedian = t.f0;
+        }
     }
 
     @Override
@@ -49,8 +98,27 @@ public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple3<Long, Long
 
     @Override
     public DecisionModel map(Tuple3<Long, Long, Long> t) {
-        long k = redisAdapter.getK();
-        long n = redisAdapter.getN();
+        RedisState state = redisAdapter.getState();
+        long k = state.getK();
+        long n = state.getN();
+
+        if (n == SourceInterface.UNKNOWN_COUNT) {
+            n = t.f0 + t.f1 + t.f2;
+            if (k == AbstractSelectionProblem.UNKNOWN_RANK) {
+                k = AbstractPercentile.rankOf(n, percentile);
+
+                // Resolved once, in the first superstep
+                LongMaximum rank = new LongMaximum();
+                rank.add(k);
+                getRuntimeContext().addAccumulator(ResultCollector.RANK_ACCUMULATOR, rank);
+            }
+            if (k < 1 || k > n) {
+                throw new IllegalArgumentException("k must be between 1 and the value count, k: " + k + ", count: " + n);
+            }
+        }
+
+        superstepStatistics.add(new SuperstepStatistics(getIterationRuntimeContext().getSuperstepNumber(), k,
+                weightedMedian, t.f0, t.f1, t.f2));
 
         boolean foundResult = false;
         boolean keepLess = false;
@@ -58,6 +126,7 @@ public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple3<Long, Long
 
         if (t.f0 < k && k <= t.f0 + t.f1) {
             foundResult = true;
+            result = weightedMedian;
         } else if (k <= t.f0) {
             keepLess = true;
             n = t.f0;
@@ -66,8 +135,6 @@ public class DecideWhatToDoMapFunction extends RichMapFunction<Tuple3<Long, Long
             k -= (t.f0 + t.f1);
         }
 
-        redisAdapter.setResultFound(foundResult);
-
         return new DecisionModel(foundResult, keepLess, result, k, n);
     }
 
@@ -1,6 +1,7 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
 import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichFilterFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.configuration.Configuration;
@@ -14,6 +15,11 @@ import java.util.Collection;
  */
 public class DiscardValuesFilterFunction extends RichFilterFunction<Tuple1<Float>> {
 
+    /**
+     * Times the discard phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.DISCARD);
+
     /**
      * Indicates, if we already found a result
      */
@@ -28,6 +34,28 @@ public class DiscardValuesFilterFunction extends RichFilterFunction<Tuple1<Float
      */
     private float weightedMedian;
 
+    /**
+     * Keep the values equal to the result, when it was found?
+     */
+    private boolean keepResult;
+
+    /**
+     * Default constructor, discards all values, when the result was found
+     */
+    public DiscardValuesFilterFunction() {
+        this(false);
+    }
+
+    /**
+     * Constructor, sets if the values equal to the result are kept, when it was found. So the result is part of the
+     * remaining values, if it isn't published elsewhere.
+     *
+     * @param keepResult keep the values equal to the result?
+     */
+    public DiscardValuesFilterFunction(boolean keepResult) {
+        this.keepResult = keepResult;
+    }
+
     @Override
     public void open(Configuration parameters) {
         Collection<DecisionModel> decisionBase = getRuntimeContext().getBroadcastVariable("decisionBase");
@@ -42,10 +70,26 @@ public class DiscardValuesFilterFunction extends RichFilterFunction<Tuple1<Float
         for (Tuple1<Float> t: weightedMedianCollection) {
             weightedMedian = t.f0;
         }
+
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
     }
 
     @Override
     public boolean filter(Tuple1<Float> t) {
-        return !foundResult && ((keepLess && t.f0 < weightedMedian) || (!keepLess && t.f0 > weightedMedian));
+        phaseTimer.start();
+        boolean keep;
+        if (foundResult) {
+            keep = keepResult && t.f0 == weightedMedian;
+        } else {
+            keep = (keepLess && t.f0 < weightedMedian) || (!keepLess && t.f0 > weightedMedian);
+        }
+        phaseTimer.stop();
+
+        return keep;
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
-import org.apache.flink.api.common.functions.MapPartitionFunction;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
+import org.apache.flink.api.common.functions.RichMapPartitionFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.util.Collector;
 
 import java.util.ArrayList;
@@ -13,7 +15,22 @@ import java.util.List;
  *
  * @author Lukas Werner
  */
-public class MedianAndCountMapPartitionFunction implements MapPartitionFunction<Tuple1<Float>, Tuple2<Float, Long>> {
+public class MedianAndCountMapPartitionFunction extends RichMapPartitionFunction<Tuple1<Float>, Tuple2<Float, Long>> {
+
+    /**
+     * Times the partition medians phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.PARTITION_MEDIANS);
+
+    @Override
+    public void open(Configuration parameters) {
+        phaseTimer.open(getRuntimeContext());
+    }
+
+    @Override
+    public void close() {
+        phaseTimer.close();
+    }
 
     @Override
     public void mapPartition(Iterable<Tuple1<Float>> iterable, Collector<Tuple2<Float, Long>> collector) {
@@ -22,12 +39,21 @@ public class MedianAndCountMapPartitionFunction implements MapPartitionFunction<
             list.add(t.f0);
         }
 
+        // Partitions can run empty in late supersteps
+        if (list.isEmpty()) {
+            return;
+        }
+
+        // Reading the input waits for the sorted partition, so only the median is timed
+        phaseTimer.start();
+
         float median;
         if (list.size() % 2 == 0) {
             median = (list.get(list.size() / 2) + list.get(list.size() / 2 - 1)) / 2;
         } else {
             median = list.get(list.size() / 2);
         }
+        phaseTimer.stop();
 
         collector.collect(new Tuple2<>(median, (long)list.size()));
     }
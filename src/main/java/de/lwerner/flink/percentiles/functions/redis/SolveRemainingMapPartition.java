@@ -1,7 +1,9 @@
 package de.lwerner.flink.percentiles.functions.redis;
 
 import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
 import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
 import org.apache.flink.api.common.functions.RichMapPartitionFunction;
 import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.configuration.Configuration;
@@ -17,6 +19,11 @@ import java.util.List;
  */
 public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple1<Float>, Tuple1<Float>> {
 
+    /**
+     * Times the final solve phase
+     */
+    private final PhaseTimer phaseTimer = new PhaseTimer(PhaseTimer.FINAL_SOLVE);
+
     /**
      * Redis adapter for accessing redis values
      */
@@ -58,6 +65,8 @@ public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple1<
 
     @Override
     public void open(Configuration parameters) {
+        phaseTimer.open(getRuntimeContext());
+
         if (redisCredentials != null) {
             redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
         }
@@ -65,6 +74,8 @@ public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple1<
 
     @Override
     public void close() {
+        phaseTimer.close();
+
         if (redisCredentials != null) {
             redisAdapter.close();
         }
@@ -76,17 +87,23 @@ public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple1<
 
         values.forEach(valuesList::add);
 
-        if (redisCredentials != null && redisAdapter.getResultFound()) {
-            // Result was found already, just put it into the collector
-            out.collect(new Tuple1<>(redisAdapter.getResult()));
+        // Reading the input waits for the last superstep, so only the selection is timed
+        phaseTimer.start();
+
+        RedisState state = redisCredentials != null ? redisAdapter.getState() : null;
+
+        Tuple1<Float> result;
+        if (state != null && state.isResultFound()) {
+            // Result was found already
+            result = new Tuple1<>(state.getResult());
         } else {
             if (valuesList.isEmpty()) {
                 throw new IllegalStateException("The remaining elements should never be empty! Please check the code!");
             }
 
             long k;
-            if (redisCredentials != null) {
-                k = redisAdapter.getK();
+            if (state != null) {
+                k = state.getK();
             } else {
                 k = (long)Math.ceil((valuesList.size() / (double)count) * this.k);
             }
@@ -95,8 +112,11 @@ public class SolveRemainingMapPartition extends RichMapPartitionFunction<Tuple1<
                 throw new IllegalStateException("The remaining elements are less than k. This should never happen! Please check the code! Remaining size: " + valuesList.size() + ", k: " + k);
             }
 
-            out.collect(valuesList.get((int)k - 1));
+            result = valuesList.get((int)k - 1);
         }
+        phaseTimer.stop();
+
+        out.collect(result);
     }
 
 }
\ No newline at end of file
@@ -2,13 +2,17 @@ package de.lwerner.flink.percentiles.functions.redis;
 
 import de.lwerner.flink.percentiles.model.DecisionModel;
 import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
 import de.lwerner.flink.percentiles.redis.AbstractRedisAdapter;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.IntMaximum;
 import org.apache.flink.api.common.functions.RichFilterFunction;
 import org.apache.flink.configuration.Configuration;
 
 /**
  * Function for filtering out the decision base, if we have found a solution or we have less or equal elements as
- * the given threshold.
+ * the given threshold. This is the only writer of the redis state inside of the iteration, it publishes k, n, the
+ * result and the iteration count with one round trip.
  *
  * @author Lukas Werner
  */
@@ -19,6 +23,11 @@ public class TerminationCriterionFilterFunction extends RichFilterFunction<Decis
      */
     private AbstractRedisAdapter redisAdapter;
 
+    /**
+     * The number of supersteps
+     */
+    private IntMaximum supersteps;
+
     /**
      * The given threshold
      */
@@ -30,18 +39,26 @@ public class TerminationCriterionFilterFunction extends RichFilterFunction<Decis
     private RedisCredentials redisCredentials;
 
     /**
-     * Constructor to set the redis credentials
+     * Constructor to set the redis credentials and the threshold
      *
      * @param redisCredentials the redis credentials
+     * @param threshold the serial computation threshold
      */
-    public TerminationCriterionFilterFunction(RedisCredentials redisCredentials) {
+    public TerminationCriterionFilterFunction(RedisCredentials redisCredentials, long threshold) {
         this.redisCredentials = redisCredentials;
+        this.threshold = threshold;
     }
 
     @Override
     public void open(Configuration parameters) {
-        redisAdapter = AbstractRedisAdapter.factory(redisCredentials);
-        threshold = redisAdapter.getT();
+        redisAdapter = AbstractRedisAdapter.factory(redisCredentials, getRuntimeContext());
+
+        // Opened again in each superstep, but the accumulator lives for the whole job
+        supersteps = (IntMaximum)getRuntimeContext().<Integer, Integer>getAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR);
+        if (supersteps == null) {
+            supersteps = new IntMaximum();
+            getRuntimeContext().addAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR, supersteps);
+        }
     }
 
     @Override
@@ -54,9 +71,10 @@ public class TerminationCriterionFilterFunction extends RichFilterFunction<Decis
         long k = decisionModel.getK();
         long n = decisionModel.getN();
 
-        redisAdapter.setK(k);
-        redisAdapter.setN(n);
-        redisAdapter.setNumberOfIterations(getIterationRuntimeContext().getSuperstepNumber());
+        supersteps.add(getIterationRuntimeContext().getSuperstepNumber());
+
+        redisAdapter.setState(new RedisState(k, n, threshold, decisionModel.isFoundResult(), decisionModel.getResult(),
+                getIterationRuntimeContext().getSuperstepNumber()));
 
         return !decisionModel.isFoundResult() && n > threshold;
     }
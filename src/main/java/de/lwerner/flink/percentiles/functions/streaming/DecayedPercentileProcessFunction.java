@@ -0,0 +1,80 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import de.lwerner.flink.percentiles.model.ForwardDecayState;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which keeps a forward decayed sketch per key and emits the decayed percentile for each incoming
+ * (key, timestamp, value) record.
+ *
+ * @author Lukas Werner
+ */
+public class DecayedPercentileProcessFunction extends ProcessFunction<Tuple3<String, Long, Float>, Tuple3<String, Long, Float>> {
+
+    /**
+     * The percentage value
+     */
+    private int p;
+
+    /**
+     * The decay rate per millisecond
+     */
+    private double alpha;
+
+    /**
+     * The sketch compression
+     */
+    private int compression;
+
+    /**
+     * Emit the percentile for every (emitEvery)th value of a key
+     */
+    private int emitEvery;
+
+    /**
+     * The decay state per key
+     */
+    private transient ValueState<ForwardDecayState> decayState;
+
+    /**
+     * Constructor, sets the decay definition
+     *
+     * @param p the percentage value
+     * @param halfLife the time in milliseconds, after which a value weighs half as much as a new one
+     * @param compression the sketch compression
+     * @param emitEvery emit the percentile for every (emitEvery)th value of a key
+     */
+    public DecayedPercentileProcessFunction(int p, long halfLife, int compression, int emitEvery) {
+        this.p = p;
+        this.alpha = Math.log(2) / halfLife;
+        this.compression = compression;
+        this.emitEvery = emitEvery;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        decayState = getRuntimeContext().getState(new ValueStateDescriptor<>("forward-decay", ForwardDecayState.class));
+    }
+
+    @Override
+    public void processElement(Tuple3<String, Long, Float> t, Context ctx, Collector<Tuple3<String, Long, Float>> out) throws Exception {
+        ForwardDecayState state = decayState.value();
+        if (state == null) {
+            state = new ForwardDecayState(compression);
+        }
+
+        state.add(t.f1, t.f2, alpha);
+        decayState.update(state);
+
+        // The query sorts the sketch, so it only runs for every (emitEvery)th value
+        if (state.getCount() % emitEvery == 0) {
+            out.collect(new Tuple3<>(t.f0, t.f1, state.percentile(p)));
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import de.lwerner.flink.percentiles.generation.AbstractGenerator;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+
+/**
+ * Parallel source, which wraps a value generator. Each subtask generates its own slice of the value sequence (see
+ * AbstractGenerator.seek) and emits (key, creation time, value) tuples at a target rate. So all subtasks together emit
+ * the same values as the batch generator source, e.g. each ascending value exactly once. An unbounded stream is a
+ * sequence of Long.MAX_VALUE values.
+ *
+ * @author Lukas Werner
+ */
+public class GeneratorSourceFunction extends RichParallelSourceFunction<Tuple3<String, Long, Float>> {
+
+    /**
+     * The generator name
+     */
+    private String type;
+
+    /**
+     * The base seed
+     */
+    private long seed;
+
+    /**
+     * Target events per second over all subtasks, 0 for unthrottled
+     */
+    private long eventsPerSecond;
+
+    /**
+     * Number of distinct keys
+     */
+    private int keyCount;
+
+    /**
+     * Number of values over all subtasks, 0 for an unbounded stream
+     */
+    private long count;
+
+    /**
+     * Is the source still running?
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor, sets the generator definition
+     *
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param seed the base seed
+     * @param eventsPerSecond target events per second over all subtasks, 0 for unthrottled
+     * @param keyCount number of distinct keys
+     * @param count number of values over all subtasks, 0 for an unbounded stream
+     */
+    public GeneratorSourceFunction(String type, long seed, long eventsPerSecond, int keyCount, long count) {
+        this.type = type;
+        this.seed = seed;
+        this.eventsPerSecond = eventsPerSecond;
+        this.keyCount = keyCount;
+        this.count = count;
+    }
+
+    @Override
+    public void run(SourceContext<Tuple3<String, Long, Float>> ctx) throws Exception {
+        int subtask = getRuntimeContext().getIndexOfThisSubtask();
+        int parallelism = getRuntimeContext().getNumberOfParallelSubtasks();
+
+        // Position the generator at the slice of this subtask
+        long total = count == 0 ? Long.MAX_VALUE : count;
+        long sliceStart = AbstractGenerator.sliceStart(total, subtask, parallelism);
+        long limit = AbstractGenerator.sliceStart(total, subtask + 1, parallelism) - sliceStart;
+
+        AbstractGenerator generator = AbstractGenerator.factory(type, 1, seed);
+        generator.seek(sliceStart, total);
+
+        String[] keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "key-" + i;
+        }
+
+        // Split the rate evenly
+        double rate = eventsPerSecond / (double)parallelism;
+
+        long start = System.nanoTime();
+        long emitted = 0;
+        while (running && emitted < limit) {
+            if (rate > 0) {
+                long waitNanos = start + (long)(emitted * 1e9 / rate) - System.nanoTime();
+                if (waitNanos > 1000000) {
+                    Thread.sleep(waitNanos / 1000000);
+                }
+            }
+
+            Tuple3<String, Long, Float> t = new Tuple3<>(keys[(int)(emitted % keyCount)], System.currentTimeMillis(), generator.generateValue());
+            synchronized (ctx.getCheckpointLock()) {
+                ctx.collect(t);
+            }
+
+            emitted++;
+        }
+    }
+
+    @Override
+    public void cancel() {
+        running = false;
+    }
+
+}
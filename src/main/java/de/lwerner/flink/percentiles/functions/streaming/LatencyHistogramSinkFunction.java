@@ -0,0 +1,37 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import org.apache.flink.api.common.accumulators.Histogram;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+
+/**
+ * Sink, which measures the end to end latency (now - creation time of the triggering value) of each result in
+ * milliseconds and collects it in a histogram accumulator.
+ *
+ * @author Lukas Werner
+ */
+public class LatencyHistogramSinkFunction extends RichSinkFunction<Tuple3<String, Long, Float>> {
+
+    /**
+     * The accumulator name
+     */
+    public static final String ACCUMULATOR_NAME = "latency-histogram";
+
+    /**
+     * The latency histogram
+     */
+    private transient Histogram histogram;
+
+    @Override
+    public void open(Configuration parameters) {
+        histogram = new Histogram();
+        getRuntimeContext().addAccumulator(ACCUMULATOR_NAME, histogram);
+    }
+
+    @Override
+    public void invoke(Tuple3<String, Long, Float> t, Context context) {
+        histogram.add((int)(System.currentTimeMillis() - t.f1));
+    }
+
+}
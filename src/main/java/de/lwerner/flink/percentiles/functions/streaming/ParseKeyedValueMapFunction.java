@@ -0,0 +1,36 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * Function, which parses text lines to (key, timestamp, value) tuples. Supported line formats are "value",
+ * "key,value" and "key,timestamp,value". Missing keys are replaced by a default key, missing timestamps by the
+ * current time.
+ *
+ * @author Lukas Werner
+ */
+public class ParseKeyedValueMapFunction implements MapFunction<String, Tuple3<String, Long, Float>> {
+
+    /**
+     * The key for lines without key
+     */
+    public static final String DEFAULT_KEY = "default";
+
+    @Override
+    public Tuple3<String, Long, Float> map(String line) {
+        String[] fields = line.split(",");
+
+        switch (fields.length) {
+            case 1:
+                return new Tuple3<>(DEFAULT_KEY, System.currentTimeMillis(), Float.valueOf(fields[0].trim()));
+            case 2:
+                return new Tuple3<>(fields[0].trim(), System.currentTimeMillis(), Float.valueOf(fields[1].trim()));
+            case 3:
+                return new Tuple3<>(fields[0].trim(), Long.valueOf(fields[1].trim()), Float.valueOf(fields[2].trim()));
+            default:
+                throw new IllegalArgumentException("Cannot parse line: " + line);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import de.lwerner.flink.percentiles.model.SlidingWindowState;
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which keeps an exact sliding window per key and emits the percentile of the window for each incoming
+ * (key, timestamp, value) record. The window either holds the last (size) values or the values of the last (size)
+ * milliseconds.
+ *
+ * Time windows are event time windows, which end at the newest timestamp of the key: out-of-order values are
+ * inserted at their timestamp and the emitted percentile is the one of the window ending at the newest timestamp.
+ * Values, which are older than that window, are dropped and counted in the late values accumulator.
+ *
+ * The window of a key is one value state, which is only cheap on a heap state backend (memory or file system): a
+ * serializing backend like RocksDB would copy the whole window for each value. See SlidingWindowPercentile.
+ *
+ * @author Lukas Werner
+ */
+public class SlidingWindowPercentileProcessFunction extends ProcessFunction<Tuple3<String, Long, Float>, Tuple3<String, Long, Float>> {
+
+    /**
+     * Name of the accumulator, which counts the values dropped for being older than their time window
+     */
+    public static final String LATE_VALUES_ACCUMULATOR = "late-values";
+
+    /**
+     * The percentage value
+     */
+    private int p;
+
+    /**
+     * The window size (value count or milliseconds)
+     */
+    private long size;
+
+    /**
+     * Is the window size measured in milliseconds?
+     */
+    private boolean timeWindow;
+
+    /**
+     * Emit the percentile for every (emitEvery)th value of a key
+     */
+    private int emitEvery;
+
+    /**
+     * The window state per key
+     */
+    private transient ValueState<SlidingWindowState> window;
+
+    /**
+     * Counts the dropped late values
+     */
+    private transient LongCounter lateValues;
+
+    /**
+     * Constructor, sets the window definition
+     *
+     * @param p the percentage value
+     * @param size the window size
+     * @param timeWindow true, if size is measured in milliseconds, false for a count window
+     * @param emitEvery emit the percentile for every (emitEvery)th value of a key
+     */
+    public SlidingWindowPercentileProcessFunction(int p, long size, boolean timeWindow, int emitEvery) {
+        this.p = p;
+        this.size = size;
+        this.timeWindow = timeWindow;
+        this.emitEvery = emitEvery;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        window = getRuntimeContext().getState(new ValueStateDescriptor<>("sliding-window", SlidingWindowState.class));
+
+        lateValues = getRuntimeContext().getLongCounter(LATE_VALUES_ACCUMULATOR);
+    }
+
+    @Override
+    public void processElement(Tuple3<String, Long, Float> t, Context ctx, Collector<Tuple3<String, Long, Float>> out) throws Exception {
+        SlidingWindowState state = window.value();
+        if (state == null) {
+            state = new SlidingWindowState();
+        }
+
+        long end = t.f1;
+        if (timeWindow) {
+            // The window ends at the newest timestamp, values before its start are too late
+            end = Math.max(t.f1, state.getNewestTimestamp());
+            if (t.f1 <= end - size) {
+                lateValues.add(1L);
+
+                return;
+            }
+
+            state.insert(t.f1, t.f2);
+            state.evictBefore(end - size + 1);
+        } else {
+            state.add(t.f1, t.f2);
+            if (state.size() > size) {
+                state.evictOldest();
+            }
+        }
+
+        window.update(state);
+
+        if (state.getCount() % emitEvery == 0) {
+            out.collect(new Tuple3<>(t.f0, end, state.percentile(p)));
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.RichMapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which counts the values of each bucket on a partition. The splitters are a broadcast set.
+ *
+ * @author Lukas Werner
+ */
+public class BucketCountMapPartitionFunction extends RichMapPartitionFunction<Tuple1<Float>, Tuple2<Integer, Long>> {
+
+    /**
+     * The sorted splitters
+     */
+    private float[] splitters;
+
+    @Override
+    public void open(Configuration parameters) {
+        splitters = getRuntimeContext().<float[]>getBroadcastVariable(Buckets.SPLITTERS).get(0);
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple1<Float>> iterable, Collector<Tuple2<Integer, Long>> out) {
+        long[] counts = new long[Buckets.bucketCount(splitters)];
+        for (Tuple1<Float> t: iterable) {
+            counts[Buckets.bucketOf(splitters, t.f0)]++;
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                out.collect(new Tuple2<>(i, counts[i]));
+            }
+        }
+    }
+
+}
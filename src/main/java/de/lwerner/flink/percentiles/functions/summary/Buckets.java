@@ -0,0 +1,91 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+/**
+ * Bucket lookup, shared by the bucket functions. Splitters s_0 <= ... <= s_m-1 define 2m + 1 buckets: the even bucket
+ * 2i holds the values strictly between s_i-1 and s_i, the odd bucket 2i + 1 holds the values equal to s_i. An odd
+ * bucket holds a single value, so its boundaries are answered from the splitter without collecting its values, and
+ * heavy duplicates never end up in one reducer.
+ *
+ * @author Lukas Werner
+ */
+public final class Buckets {
+
+    /**
+     * Name of the splitters broadcast set
+     */
+    public static final String SPLITTERS = "splitters";
+
+    /**
+     * Name of the targets broadcast set
+     */
+    public static final String TARGETS = "targets";
+
+    /**
+     * No instances
+     */
+    private Buckets() {
+    }
+
+    /**
+     * Get the number of buckets for the splitters
+     *
+     * @param splitters the sorted splitters
+     *
+     * @return the bucket count
+     */
+    public static int bucketCount(float[] splitters) {
+        return 2 * splitters.length + 1;
+    }
+
+    /**
+     * Does the bucket hold only the values equal to a splitter?
+     *
+     * @param bucket the bucket index
+     *
+     * @return true, if it is a splitter bucket
+     */
+    public static boolean isSplitterBucket(int bucket) {
+        return bucket % 2 == 1;
+    }
+
+    /**
+     * Get the value of a splitter bucket
+     *
+     * @param splitters the sorted splitters
+     * @param bucket the splitter bucket index
+     *
+     * @return the splitter value
+     */
+    public static float splitterOf(float[] splitters, int bucket) {
+        return splitters[bucket / 2];
+    }
+
+    /**
+     * Get the bucket of a value (binary search). A value equal to a splitter goes to the bucket of the first equal
+     * splitter, so the buckets between equal splitters stay empty.
+     *
+     * @param splitters the sorted splitters
+     * @param value the value
+     *
+     * @return the bucket index
+     */
+    public static int bucketOf(float[] splitters, float value) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (splitters[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        if (low < splitters.length && splitters[low] == value) {
+            return 2 * low + 1;
+        }
+
+        return 2 * low;
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.MapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.util.Collector;
+
+import java.util.Random;
+
+/**
+ * Function, which draws a uniform random sample (reservoir sampling) of each partition
+ *
+ * @author Lukas Werner
+ */
+public class SampleMapPartitionFunction implements MapPartitionFunction<Tuple1<Float>, Float> {
+
+    /**
+     * The sample size per partition
+     */
+    private int sampleSize;
+
+    /**
+     * Random object
+     */
+    private final Random random = new Random();
+
+    /**
+     * Constructor, sets the sample size
+     *
+     * @param sampleSize the sample size per partition
+     */
+    public SampleMapPartitionFunction(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple1<Float>> iterable, Collector<Float> out) {
+        float[] sample = new float[sampleSize];
+        long count = 0;
+
+        for (Tuple1<Float> t: iterable) {
+            if (count < sampleSize) {
+                sample[(int)count] = t.f0;
+            } else {
+                long index = (long)(random.nextDouble() * (count + 1));
+                if (index < sampleSize) {
+                    sample[(int)index] = t.f0;
+                }
+            }
+            count++;
+        }
+
+        for (int i = 0; i < Math.min(count, sampleSize); i++) {
+            out.collect(sample[i]);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which merges the partition sketches and reads all boundaries from the merged sketch. Emits
+ * (boundary, rank, value).
+ *
+ * @author Lukas Werner
+ */
+public class SketchBoundariesGroupReduceFunction implements GroupReduceFunction<WeightedQuantileSketch, Tuple3<Integer, Long, Float>> {
+
+    /**
+     * The number of equi-depth buckets
+     */
+    private int buckets;
+
+    /**
+     * The sketch compression
+     */
+    private int compression;
+
+    /**
+     * Constructor, sets the number of buckets and the compression
+     *
+     * @param buckets the number of equi-depth buckets
+     * @param compression the sketch compression
+     */
+    public SketchBoundariesGroupReduceFunction(int buckets, int compression) {
+        this.buckets = buckets;
+        this.compression = compression;
+    }
+
+    @Override
+    public void reduce(Iterable<WeightedQuantileSketch> iterable, Collector<Tuple3<Integer, Long, Float>> out) {
+        WeightedQuantileSketch merged = new WeightedQuantileSketch(compression);
+        for (WeightedQuantileSketch sketch: iterable) {
+            merged.merge(sketch);
+        }
+
+        long n = Math.round(merged.getTotalWeight());
+        for (int i = 1; i < buckets; i++) {
+            long k = Math.max(1, (long)Math.ceil((double)n * i / buckets));
+
+            out.collect(new Tuple3<>(i, k, merged.quantile((double)i / buckets)));
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import org.apache.flink.api.common.functions.MapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which builds a quantile sketch of each partition
+ *
+ * @author Lukas Werner
+ */
+public class SketchMapPartitionFunction implements MapPartitionFunction<Tuple1<Float>, WeightedQuantileSketch> {
+
+    /**
+     * The sketch compression
+     */
+    private int compression;
+
+    /**
+     * Constructor, sets the compression
+     *
+     * @param compression the sketch compression
+     */
+    public SketchMapPartitionFunction(int compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple1<Float>> iterable, Collector<WeightedQuantileSketch> out) {
+        WeightedQuantileSketch sketch = new WeightedQuantileSketch(compression);
+        for (Tuple1<Float> t: iterable) {
+            sketch.add(t.f0, 1);
+        }
+
+        if (sketch.size() > 0) {
+            sketch.compact();
+            out.collect(sketch);
+        }
+    }
+
+}
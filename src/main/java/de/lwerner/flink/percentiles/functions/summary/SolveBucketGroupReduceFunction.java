@@ -0,0 +1,68 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import de.lwerner.flink.percentiles.math.QuickSelect;
+import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Function, which selects all requested boundaries of one bucket with a primitive selection. The targets are a
+ * broadcast set. Emits (boundary, rank, value).
+ *
+ * @author Lukas Werner
+ */
+public class SolveBucketGroupReduceFunction extends RichGroupReduceFunction<Tuple2<Integer, Float>, Tuple3<Integer, Long, Float>> {
+
+    /**
+     * The targets
+     */
+    private List<Tuple4<Integer, Long, Integer, Long>> targets;
+
+    @Override
+    public void open(Configuration parameters) {
+        targets = getRuntimeContext().getBroadcastVariable(Buckets.TARGETS);
+    }
+
+    @Override
+    public void reduce(Iterable<Tuple2<Integer, Float>> iterable, Collector<Tuple3<Integer, Long, Float>> out) {
+        int bucket = -1;
+        float[] values = new float[1024];
+        int size = 0;
+
+        for (Tuple2<Integer, Float> t: iterable) {
+            bucket = t.f0;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = t.f1;
+        }
+
+        List<Tuple4<Integer, Long, Integer, Long>> bucketTargets = new ArrayList<>();
+        for (Tuple4<Integer, Long, Integer, Long> target: targets) {
+            if (target.f2 == bucket) {
+                bucketTargets.add(target);
+            }
+        }
+
+        // Many boundaries in one bucket: sorting once is cheaper than repeated selection
+        if (bucketTargets.size() > 8) {
+            Arrays.sort(values, 0, size);
+            for (Tuple4<Integer, Long, Integer, Long> target: bucketTargets) {
+                out.collect(new Tuple3<>(target.f0, target.f1, values[(int)(target.f3 - 1)]));
+            }
+        } else {
+            QuickSelect quickSelect = new QuickSelect();
+            for (Tuple4<Integer, Long, Integer, Long> target: bucketTargets) {
+                out.collect(new Tuple3<>(target.f0, target.f1, quickSelect.select(values, size, (int)(target.f3 - 1))));
+            }
+        }
+    }
+
+}
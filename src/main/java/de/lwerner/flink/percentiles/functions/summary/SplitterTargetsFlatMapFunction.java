@@ -0,0 +1,34 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which answers the boundaries of splitter buckets directly from the splitter value, as all values of such a
+ * bucket are equal. The splitters are a broadcast set. Emits (boundary, rank, value).
+ *
+ * @author Lukas Werner
+ */
+public class SplitterTargetsFlatMapFunction extends RichFlatMapFunction<Tuple4<Integer, Long, Integer, Long>, Tuple3<Integer, Long, Float>> {
+
+    /**
+     * The sorted splitters
+     */
+    private float[] splitters;
+
+    @Override
+    public void open(Configuration parameters) {
+        splitters = getRuntimeContext().<float[]>getBroadcastVariable(Buckets.SPLITTERS).get(0);
+    }
+
+    @Override
+    public void flatMap(Tuple4<Integer, Long, Integer, Long> target, Collector<Tuple3<Integer, Long, Float>> out) {
+        if (Buckets.isSplitterBucket(target.f2)) {
+            out.collect(new Tuple3<>(target.f0, target.f1, Buckets.splitterOf(splitters, target.f2)));
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.util.Collector;
+
+import java.util.Arrays;
+
+/**
+ * Function, which sorts the sample and emits every (step)th value as bucket splitter
+ *
+ * @author Lukas Werner
+ */
+public class SplittersGroupReduceFunction implements GroupReduceFunction<Float, float[]> {
+
+    /**
+     * Sample values per bucket
+     */
+    private int step;
+
+    /**
+     * Constructor, sets the step
+     *
+     * @param step sample values per bucket
+     */
+    public SplittersGroupReduceFunction(int step) {
+        this.step = step;
+    }
+
+    @Override
+    public void reduce(Iterable<Float> iterable, Collector<float[]> out) {
+        float[] sample = new float[1024];
+        int size = 0;
+        for (Float value: iterable) {
+            if (size == sample.length) {
+                sample = Arrays.copyOf(sample, size * 2);
+            }
+            sample[size++] = value;
+        }
+
+        Arrays.sort(sample, 0, size);
+
+        float[] splitters = new float[Math.max(0, (size - 1) / step)];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * step];
+        }
+
+        out.collect(splitters);
+    }
+
+}
@@ -0,0 +1,51 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.RichMapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.List;
+
+/**
+ * Function, which keeps only the values of buckets containing a requested boundary and emits them as (bucket, value).
+ * Splitter buckets are skipped, their boundaries are the splitter values. Splitters and targets are broadcast sets.
+ *
+ * @author Lukas Werner
+ */
+public class TargetBucketsMapPartitionFunction extends RichMapPartitionFunction<Tuple1<Float>, Tuple2<Integer, Float>> {
+
+    /**
+     * The sorted splitters
+     */
+    private float[] splitters;
+
+    /**
+     * Is the bucket a target bucket?
+     */
+    private boolean[] targetBuckets;
+
+    @Override
+    public void open(Configuration parameters) {
+        splitters = getRuntimeContext().<float[]>getBroadcastVariable(Buckets.SPLITTERS).get(0);
+
+        List<Tuple4<Integer, Long, Integer, Long>> targets = getRuntimeContext().getBroadcastVariable(Buckets.TARGETS);
+        targetBuckets = new boolean[Buckets.bucketCount(splitters)];
+        for (Tuple4<Integer, Long, Integer, Long> target: targets) {
+            targetBuckets[target.f2] = !Buckets.isSplitterBucket(target.f2);
+        }
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple1<Float>> iterable, Collector<Tuple2<Integer, Float>> out) {
+        for (Tuple1<Float> t: iterable) {
+            int bucket = Buckets.bucketOf(splitters, t.f0);
+            if (targetBuckets[bucket]) {
+                out.collect(new Tuple2<>(bucket, t.f0));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.lwerner.flink.percentiles.functions.summary;
+
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.util.Collector;
+
+import java.util.Arrays;
+
+/**
+ * Function, which gets all bucket counts and finds the bucket and the rank inside of the bucket for each requested
+ * boundary. Boundary i of b buckets has the rank ceil(n * i / b). Emits (boundary, rank, bucket, local rank).
+ *
+ * @author Lukas Werner
+ */
+public class TargetRanksGroupReduceFunction implements GroupReduceFunction<Tuple2<Integer, Long>, Tuple4<Integer, Long, Integer, Long>> {
+
+    /**
+     * The number of equi-depth buckets
+     */
+    private int buckets;
+
+    /**
+     * Constructor, sets the number of buckets
+     *
+     * @param buckets the number of equi-depth buckets
+     */
+    public TargetRanksGroupReduceFunction(int buckets) {
+        this.buckets = buckets;
+    }
+
+    @Override
+    public void reduce(Iterable<Tuple2<Integer, Long>> iterable, Collector<Tuple4<Integer, Long, Integer, Long>> out) {
+        long[] counts = new long[16];
+        long n = 0;
+        for (Tuple2<Integer, Long> t: iterable) {
+            if (t.f0 >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, t.f0 + 1));
+            }
+            counts[t.f0] += t.f1;
+            n += t.f1;
+        }
+
+        int bucket = 0;
+        long before = 0;
+        for (int i = 1; i < buckets; i++) {
+            long k = Math.max(1, (long)Math.ceil((double)n * i / buckets));
+            while (before + counts[bucket] < k) {
+                before += counts[bucket];
+                bucket++;
+            }
+
+            out.collect(new Tuple4<>(i, k, bucket, k - before));
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which attaches the searched rank to each (value, weight) record before the first iteration. Records
+ * without weight are dropped.
+ *
+ * @author Lukas Werner
+ */
+public class AttachRankFlatMapFunction implements FlatMapFunction<Tuple2<Float, Long>, Tuple3<Float, Long, Long>> {
+
+    /**
+     * The searched rank, UNKNOWN_RANK to resolve it from the percentile
+     */
+    private final long k;
+
+    /**
+     * Constructor, sets k
+     *
+     * @param k the searched rank
+     */
+    public AttachRankFlatMapFunction(long k) {
+        this.k = k;
+    }
+
+    @Override
+    public void flatMap(Tuple2<Float, Long> t, Collector<Tuple3<Float, Long, Long>> out) {
+        if (t.f1 < 0) {
+            throw new IllegalArgumentException("Weights must not be negative, value: " + t.f0 + ", weight: " + t.f1);
+        }
+
+        if (t.f1 > 0) {
+            out.collect(new Tuple3<>(t.f0, t.f1, k));
+        }
+    }
+
+}
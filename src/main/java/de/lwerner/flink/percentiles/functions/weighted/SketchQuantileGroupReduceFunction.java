@@ -0,0 +1,60 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which merges the partition sketches and returns the approximate kth value or percentile
+ *
+ * @author Lukas Werner
+ */
+public class SketchQuantileGroupReduceFunction implements GroupReduceFunction<WeightedQuantileSketch, Tuple1<Float>> {
+
+    /**
+     * The searched rank, UNKNOWN_RANK for the percentile
+     */
+    private long k;
+
+    /**
+     * The percentile, if k is UNKNOWN_RANK
+     */
+    private int percentile;
+
+    /**
+     * The sketch compression
+     */
+    private int compression;
+
+    /**
+     * Constructor, sets rank, percentile and compression
+     *
+     * @param k the searched rank, UNKNOWN_RANK for the percentile
+     * @param percentile the percentile, if k is UNKNOWN_RANK
+     * @param compression the sketch compression
+     */
+    public SketchQuantileGroupReduceFunction(long k, int percentile, int compression) {
+        this.k = k;
+        this.percentile = percentile;
+        this.compression = compression;
+    }
+
+    @Override
+    public void reduce(Iterable<WeightedQuantileSketch> iterable, Collector<Tuple1<Float>> out) {
+        WeightedQuantileSketch merged = new WeightedQuantileSketch(compression);
+        for (WeightedQuantileSketch sketch: iterable) {
+            merged.merge(sketch);
+        }
+
+        double total = merged.getTotalWeight();
+        double q = k == AbstractSelectionProblem.UNKNOWN_RANK ? percentile / 100.0 : k / total;
+        if (q <= 0 || q > 1) {
+            throw new IllegalArgumentException("k must be between 1 and the total weight, k: " + k + ", total weight: " + (long)total);
+        }
+
+        out.collect(new Tuple1<>(merged.quantile(q)));
+    }
+
+}
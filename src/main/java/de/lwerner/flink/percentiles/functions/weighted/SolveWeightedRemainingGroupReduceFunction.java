@@ -0,0 +1,46 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Function, which solves the remaining records serially: sorts them by value and returns the value, where the
+ * cumulative weight reaches k
+ *
+ * @author Lukas Werner
+ */
+public class SolveWeightedRemainingGroupReduceFunction implements GroupReduceFunction<Tuple3<Float, Long, Long>, Tuple1<Float>> {
+
+    @Override
+    public void reduce(Iterable<Tuple3<Float, Long, Long>> iterable, Collector<Tuple1<Float>> out) {
+        List<Tuple3<Float, Long, Long>> records = new ArrayList<>();
+        for (Tuple3<Float, Long, Long> t: iterable) {
+            records.add(t);
+        }
+
+        if (records.isEmpty()) {
+            throw new IllegalStateException("The remaining records should never be empty! Please check the code!");
+        }
+
+        records.sort((a, b) -> Float.compare(a.f0, b.f0));
+
+        long k = records.get(0).f2;
+        long cumulative = 0;
+        for (Tuple3<Float, Long, Long> t: records) {
+            cumulative += t.f1;
+            if (cumulative >= k) {
+                out.collect(new Tuple1<>(t.f0));
+
+                return;
+            }
+        }
+
+        throw new IllegalStateException("The remaining weight is less than k. This should never happen! Please check the code! Remaining weight: " + cumulative + ", k: " + k);
+    }
+
+}
@@ -0,0 +1,96 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.LongMaximum;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple6;
+import org.apache.flink.configuration.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Function, which gets the less, equal and greater weights of the weighted median, and decides, what to do. The
+ * decisions are:
+ *   - Stop, because the kth value has the weighted median's value
+ *   - Discard greater and equal records
+ *   - Discard less and equal records and subtract k by the less and equal weights
+ * n of the decision is the number of remaining records, which decides about the serial solution. An unknown k is
+ * resolved from the total weight in the first superstep. The statistics of each superstep are added to an accumulator,
+ * with weights instead of value counts.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedDecideWhatToDoMapFunction extends RichMapFunction<Tuple6<Long, Long, Long, Long, Long, Long>, DecisionModel> {
+
+    /**
+     * The percentile, which resolves an unknown k (0 for none)
+     */
+    private int percentile;
+
+    /**
+     * The weighted median
+     */
+    private float weightedMedian;
+
+    /**
+     * The superstep statistics
+     */
+    private Accumulator<SuperstepStatistics, ArrayList<SuperstepStatistics>> superstepStatistics;
+
+    /**
+     * Constructor, sets the percentile, which resolves an unknown k
+     *
+     * @param percentile the percentile
+     */
+    public WeightedDecideWhatToDoMapFunction(int percentile) {
+        this.percentile = percentile;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        superstepStatistics = ResultCollector.getSuperstepStatisticsAccumulator(getRuntimeContext());
+
+        Collection<Tuple1<Float>> weightedMedian = getRuntimeContext().getBroadcastVariable("weightedMedian");
+
+        for (Tuple1<Float> t: weightedMedian) {
+            this.weightedMedian = t.f0;
+        }
+    }
+
+    @Override
+    public DecisionModel map(Tuple6<Long, Long, Long, Long, Long, Long> t) {
+        long total = Math.addExact(Math.addExact(t.f0, t.f1), t.f2);
+        long k = t.f5;
+        if (k == AbstractSelectionProblem.UNKNOWN_RANK) {
+            // Exact integer rank, the total weight easily exceeds the float precision
+            k = AbstractPercentile.rankOf(total, percentile);
+
+            // Resolved once, in the first superstep
+            LongMaximum rank = new LongMaximum();
+            rank.add(k);
+            getRuntimeContext().addAccumulator(ResultCollector.RANK_ACCUMULATOR, rank);
+        }
+        if (k < 1 || k > total) {
+            throw new IllegalArgumentException("k must be between 1 and the total weight, k: " + k + ", total weight: " + total);
+        }
+
+        superstepStatistics.add(new SuperstepStatistics(getIterationRuntimeContext().getSuperstepNumber(), k,
+                weightedMedian, t.f0, t.f1, t.f2));
+
+        if (t.f0 < k && k <= t.f0 + t.f1) {
+            return new DecisionModel(true, false, weightedMedian, 1, 0);
+        } else if (k <= t.f0) {
+            return new DecisionModel(false, true, 0, k, t.f3);
+        }
+
+        return new DecisionModel(false, false, 0, k - t.f0 - t.f1, t.f4);
+    }
+
+}
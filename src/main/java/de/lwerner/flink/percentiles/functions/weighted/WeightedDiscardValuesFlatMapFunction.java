@@ -0,0 +1,61 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.Collection;
+
+/**
+ * Function, which keeps the records on the side of the weighted median, which contains the kth value, with the new k.
+ * If the result was found, only the records equal to it are kept (with k 1), so they are the solution.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedDiscardValuesFlatMapFunction extends RichFlatMapFunction<Tuple3<Float, Long, Long>, Tuple3<Float, Long, Long>> {
+
+    /**
+     * The decision of this superstep
+     */
+    private DecisionModel decision;
+
+    /**
+     * The weighted median
+     */
+    private float weightedMedian;
+
+    @Override
+    public void open(Configuration parameters) {
+        Collection<DecisionModel> decisionBase = getRuntimeContext().getBroadcastVariable("decisionBase");
+
+        for (DecisionModel decisionModel: decisionBase) {
+            decision = decisionModel;
+        }
+
+        Collection<Tuple1<Float>> weightedMedianCollection = getRuntimeContext().getBroadcastVariable("weightedMedian");
+
+        for (Tuple1<Float> t: weightedMedianCollection) {
+            weightedMedian = t.f0;
+        }
+    }
+
+    @Override
+    public void flatMap(Tuple3<Float, Long, Long> t, Collector<Tuple3<Float, Long, Long>> out) {
+        boolean keep;
+        if (decision.isFoundResult()) {
+            keep = t.f0 == weightedMedian;
+        } else if (decision.isKeepLess()) {
+            keep = t.f0 < weightedMedian;
+        } else {
+            keep = t.f0 > weightedMedian;
+        }
+
+        if (keep) {
+            out.collect(new Tuple3<>(t.f0, t.f1, decision.getK()));
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple6;
+import org.apache.flink.configuration.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Function, which maps a record to (less weight, equal weight, greater weight, less records, greater records, k)
+ * compared to the weighted median
+ *
+ * @author Lukas Werner
+ */
+public class WeightedLessEqualAndGreaterMapFunction extends RichMapFunction<Tuple3<Float, Long, Long>, Tuple6<Long, Long, Long, Long, Long, Long>> {
+
+    /**
+     * The weighted median
+     */
+    private float weightedMedian;
+
+    @Override
+    public void open(Configuration parameters) {
+        Collection<Tuple1<Float>> weightedMedian = getRuntimeContext().getBroadcastVariable("weightedMedian");
+
+        for (Tuple1<Float> t: weightedMedian) {
+            this.weightedMedian = t.f0;
+        }
+    }
+
+    @Override
+    public Tuple6<Long, Long, Long, Long, Long, Long> map(Tuple3<Float, Long, Long> t) {
+        boolean less = t.f0 < weightedMedian;
+        boolean greater = t.f0 > weightedMedian;
+
+        return new Tuple6<>(less ? t.f1 : 0L, !less && !greater ? t.f1 : 0L, greater ? t.f1 : 0L, less ? 1L : 0L,
+                greater ? 1L : 0L, t.f2);
+    }
+
+}
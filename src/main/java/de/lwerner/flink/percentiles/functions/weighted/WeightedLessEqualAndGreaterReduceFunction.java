@@ -0,0 +1,19 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple6;
+
+/**
+ * Function, which sums up the less, equal and greater weights and record counts. The weight sums fail on overflow
+ * instead of wrapping around, as the rank is derived from them.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedLessEqualAndGreaterReduceFunction implements ReduceFunction<Tuple6<Long, Long, Long, Long, Long, Long>> {
+
+    @Override
+    public Tuple6<Long, Long, Long, Long, Long, Long> reduce(Tuple6<Long, Long, Long, Long, Long, Long> t1, Tuple6<Long, Long, Long, Long, Long, Long> t2) {
+        return new Tuple6<>(Math.addExact(t1.f0, t2.f0), Math.addExact(t1.f1, t2.f1), Math.addExact(t1.f2, t2.f2), t1.f3 + t2.f3, t1.f4 + t2.f4, t1.f5);
+    }
+
+}
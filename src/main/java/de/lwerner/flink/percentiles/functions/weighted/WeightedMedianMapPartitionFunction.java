@@ -0,0 +1,47 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import org.apache.flink.api.common.functions.MapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Function, which calculates the weighted median of a sorted partition, the value where the cumulative weight reaches
+ * half of the partition weight. The partition weight is the weight of the median for the weighted median of medians.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedMedianMapPartitionFunction implements MapPartitionFunction<Tuple3<Float, Long, Long>, Tuple2<Float, Float>> {
+
+    @Override
+    public void mapPartition(Iterable<Tuple3<Float, Long, Long>> iterable, Collector<Tuple2<Float, Float>> collector) {
+        List<Float> values = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        long total = 0;
+        for (Tuple3<Float, Long, Long> t: iterable) {
+            values.add(t.f0);
+            weights.add(t.f1);
+            total += t.f1;
+        }
+
+        // Partitions can run empty in late supersteps
+        if (values.isEmpty()) {
+            return;
+        }
+
+        long half = (total + 1) / 2;
+        long cumulative = 0;
+        for (int i = 0; i < values.size(); i++) {
+            cumulative += weights.get(i);
+            if (cumulative >= half) {
+                collector.collect(new Tuple2<>(values.get(i), (float)total));
+
+                return;
+            }
+        }
+    }
+
+}
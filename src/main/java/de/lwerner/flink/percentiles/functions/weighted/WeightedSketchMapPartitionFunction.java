@@ -0,0 +1,47 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+import org.apache.flink.api.common.functions.MapPartitionFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+/**
+ * Function, which builds a quantile sketch of the (value, weight) records of a partition
+ *
+ * @author Lukas Werner
+ */
+public class WeightedSketchMapPartitionFunction implements MapPartitionFunction<Tuple2<Float, Long>, WeightedQuantileSketch> {
+
+    /**
+     * The sketch compression
+     */
+    private int compression;
+
+    /**
+     * Constructor, sets the compression
+     *
+     * @param compression the sketch compression
+     */
+    public WeightedSketchMapPartitionFunction(int compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public void mapPartition(Iterable<Tuple2<Float, Long>> iterable, Collector<WeightedQuantileSketch> out) {
+        WeightedQuantileSketch sketch = new WeightedQuantileSketch(compression);
+        for (Tuple2<Float, Long> t: iterable) {
+            if (t.f1 < 0) {
+                throw new IllegalArgumentException("Weights must not be negative, value: " + t.f0 + ", weight: " + t.f1);
+            }
+            if (t.f1 > 0) {
+                sketch.add(t.f0, t.f1);
+            }
+        }
+
+        if (sketch.size() > 0) {
+            sketch.compact();
+            out.collect(sketch);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package de.lwerner.flink.percentiles.functions.weighted;
+
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.util.ResultCollector;
+import org.apache.flink.api.common.accumulators.IntMaximum;
+import org.apache.flink.api.common.functions.RichFilterFunction;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * Function for filtering out the decision, if we have found the result or there are less or equal records left than
+ * the given threshold.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedTerminationFilterFunction extends RichFilterFunction<DecisionModel> {
+
+    /**
+     * The record count threshold
+     */
+    private final long countThreshold;
+
+    /**
+     * The number of supersteps
+     */
+    private IntMaximum supersteps;
+
+    /**
+     * Constructor to set count threshold
+     *
+     * @param countThreshold the record count threshold to set
+     */
+    public WeightedTerminationFilterFunction(long countThreshold) {
+        this.countThreshold = countThreshold;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        // Opened again in each superstep, but the accumulator lives for the whole job
+        supersteps = (IntMaximum)getRuntimeContext().<Integer, Integer>getAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR);
+        if (supersteps == null) {
+            supersteps = new IntMaximum();
+            getRuntimeContext().addAccumulator(ResultCollector.SUPERSTEPS_ACCUMULATOR, supersteps);
+        }
+    }
+
+    @Override
+    public boolean filter(DecisionModel decision) {
+        supersteps.add(getIterationRuntimeContext().getSuperstepNumber());
+
+        return !decision.isFoundResult() && decision.getN() > countThreshold;
+    }
+
+}
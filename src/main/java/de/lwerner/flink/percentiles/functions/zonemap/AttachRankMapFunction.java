@@ -0,0 +1,34 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.MapFunction;
+
+/**
+ * Function, which attaches the searched rank to each block before the first iteration
+ *
+ * @author Lukas Werner
+ */
+public class AttachRankMapFunction implements MapFunction<ValueBlock, ValueBlock> {
+
+    /**
+     * The searched rank
+     */
+    private final long k;
+
+    /**
+     * Constructor, sets k
+     *
+     * @param k the searched rank
+     */
+    public AttachRankMapFunction(long k) {
+        this.k = k;
+    }
+
+    @Override
+    public ValueBlock map(ValueBlock block) {
+        block.setK(k);
+
+        return block;
+    }
+
+}
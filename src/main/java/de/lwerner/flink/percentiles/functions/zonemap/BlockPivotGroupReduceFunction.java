@@ -0,0 +1,80 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Function, which estimates the kth smallest value from the zone maps only. Each block is assumed to be uniformly
+ * distributed over [min, max], the pivot is the value, where the estimated number of values up to it reaches k. So
+ * for sorted data, the pivot lies next to the result inside of the one block, which holds it.
+ *
+ * @author Lukas Werner
+ */
+public class BlockPivotGroupReduceFunction implements GroupReduceFunction<ValueBlock, Tuple1<Float>> {
+
+    /**
+     * Number of bisection steps
+     */
+    private static final int STEPS = 64;
+
+    @Override
+    public void reduce(Iterable<ValueBlock> blocks, Collector<Tuple1<Float>> out) {
+        List<ValueBlock> blockList = new ArrayList<>();
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        long k = 0;
+        for (ValueBlock block: blocks) {
+            blockList.add(block);
+            lo = Math.min(lo, block.getMin());
+            hi = Math.max(hi, block.getMax());
+            k = block.getK();
+        }
+
+        if (blockList.isEmpty()) {
+            throw new IllegalStateException("There are no blocks left. This should never happen! Please check the code!");
+        }
+
+        // Smallest value, where the estimated count reaches k
+        for (int i = 0; i < STEPS && lo < hi; i++) {
+            double middle = lo + (hi - lo) / 2;
+            if (middle <= lo || middle >= hi) {
+                break;
+            }
+
+            if (estimateCount(blockList, middle) >= k) {
+                hi = middle;
+            } else {
+                lo = middle;
+            }
+        }
+
+        out.collect(new Tuple1<>((float)hi));
+    }
+
+    /**
+     * Estimates the number of values less than or equal to the given value
+     *
+     * @param blocks the blocks
+     * @param value the value
+     *
+     * @return the estimated count
+     */
+    private static double estimateCount(List<ValueBlock> blocks, double value) {
+        double count = 0;
+        for (ValueBlock block: blocks) {
+            if (value >= block.getMax()) {
+                count += block.getCount();
+            } else if (value > block.getMin()) {
+                count += block.getCount() * (value - block.getMin()) / ((double)block.getMax() - block.getMin());
+            }
+        }
+
+        return count;
+    }
+
+}
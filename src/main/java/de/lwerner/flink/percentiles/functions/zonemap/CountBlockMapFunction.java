@@ -0,0 +1,103 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.data.BlockReader;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Function, which counts the values of a block, which are less, equal or greater than the pivot. Blocks, which lie
+ * completely below or above the pivot, are answered by their zone map, only the others are read.
+ *
+ * @author Lukas Werner
+ */
+public class CountBlockMapFunction extends RichMapFunction<ValueBlock, ValueBlock> {
+
+    /**
+     * Name of the accumulator, which counts the read blocks over all supersteps
+     */
+    public static final String READ_BLOCKS_ACCUMULATOR = "read-blocks";
+
+    /**
+     * The pivot
+     */
+    private float pivot;
+
+    /**
+     * Reads the blocks
+     */
+    private transient BlockReader reader;
+
+    /**
+     * Counts the read blocks
+     */
+    private transient LongCounter readBlocks;
+
+    @Override
+    public void open(Configuration parameters) {
+        List<Tuple1<Float>> pivotList = getRuntimeContext().getBroadcastVariable("pivot");
+        pivot = pivotList.get(0).f0;
+
+        reader = new BlockReader();
+
+        readBlocks = getRuntimeContext().getLongCounter(READ_BLOCKS_ACCUMULATOR);
+    }
+
+    @Override
+    public ValueBlock map(ValueBlock block) throws IOException {
+        int less = 0;
+        int equal = 0;
+        int greater = 0;
+        float lessMax = Float.NEGATIVE_INFINITY;
+        float greaterMin = Float.POSITIVE_INFINITY;
+
+        if (block.getMax() < pivot) {
+            less = block.getCount();
+            lessMax = block.getMax();
+        } else if (block.getMin() > pivot) {
+            greater = block.getCount();
+            greaterMin = block.getMin();
+        } else if (block.isConstant()) {
+            equal = block.getCount();
+        } else {
+            float[] values = reader.read(block);
+            readBlocks.add(1L);
+
+            for (int i = 0; i < block.getSize(); i++) {
+                float value = values[i];
+                if (value < block.getMin() || value > block.getMax()) {
+                    continue;
+                }
+
+                if (value < pivot) {
+                    less++;
+                    lessMax = Math.max(lessMax, value);
+                } else if (value > pivot) {
+                    greater++;
+                    greaterMin = Math.min(greaterMin, value);
+                } else {
+                    equal++;
+                }
+            }
+        }
+
+        block.setLess(less);
+        block.setEqual(equal);
+        block.setGreater(greater);
+        block.setLessMax(lessMax);
+        block.setGreaterMin(greaterMin);
+
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
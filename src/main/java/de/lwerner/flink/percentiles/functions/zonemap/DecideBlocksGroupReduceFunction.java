@@ -0,0 +1,55 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.List;
+
+/**
+ * Function, which sums up the less, equal and greater counts of all blocks and decides, what to do. The decisions are:
+ *   - Stop, because we found a result (keep the values equal to the pivot)
+ *   - Keep the less values and set n to their number
+ *   - Keep the greater values, set n to their number and subtract |less| + |equal| from k
+ *
+ * @author Lukas Werner
+ */
+public class DecideBlocksGroupReduceFunction extends RichGroupReduceFunction<ValueBlock, DecisionModel> {
+
+    /**
+     * The pivot
+     */
+    private float pivot;
+
+    @Override
+    public void open(Configuration parameters) {
+        List<Tuple1<Float>> pivotList = getRuntimeContext().getBroadcastVariable("pivot");
+        pivot = pivotList.get(0).f0;
+    }
+
+    @Override
+    public void reduce(Iterable<ValueBlock> blocks, Collector<DecisionModel> out) {
+        long less = 0;
+        long equal = 0;
+        long greater = 0;
+        long k = 0;
+        for (ValueBlock block: blocks) {
+            less += block.getLess();
+            equal += block.getEqual();
+            greater += block.getGreater();
+            k = block.getK();
+        }
+
+        if (k <= less) {
+            out.collect(new DecisionModel(false, true, pivot, k, less));
+        } else if (k <= less + equal) {
+            out.collect(new DecisionModel(true, false, pivot, k - less, equal));
+        } else {
+            out.collect(new DecisionModel(false, false, pivot, k - less - equal, greater));
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.data.BlockReader;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.io.IOException;
+
+/**
+ * Function, which reads the remaining values of a block, so block files can be used by all algorithms
+ *
+ * @author Lukas Werner
+ */
+public class DecodeBlockFlatMapFunction extends RichFlatMapFunction<ValueBlock, Tuple1<Float>> {
+
+    /**
+     * Reads the blocks
+     */
+    private transient BlockReader reader;
+
+    @Override
+    public void open(Configuration parameters) {
+        reader = new BlockReader();
+    }
+
+    @Override
+    public void flatMap(ValueBlock block, Collector<Tuple1<Float>> out) throws IOException {
+        float[] values = reader.read(block);
+        for (int i = 0; i < block.getSize(); i++) {
+            if (values[i] >= block.getMin() && values[i] <= block.getMax()) {
+                out.collect(new Tuple1<>(values[i]));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,61 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.model.DecisionModel;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.List;
+
+/**
+ * Function, which narrows the zone map of each block to the kept values and drops blocks without kept values. The
+ * dropped blocks are never read again.
+ *
+ * @author Lukas Werner
+ */
+public class DiscardBlocksFlatMapFunction extends RichFlatMapFunction<ValueBlock, ValueBlock> {
+
+    /**
+     * The decision
+     */
+    private DecisionModel decision;
+
+    @Override
+    public void open(Configuration parameters) {
+        List<DecisionModel> decisionList = getRuntimeContext().getBroadcastVariable("decision");
+        decision = decisionList.get(0);
+    }
+
+    @Override
+    public void flatMap(ValueBlock block, Collector<ValueBlock> out) {
+        if (decision.isFoundResult()) {
+            if (block.getEqual() == 0) {
+                return;
+            }
+            block.setMin(decision.getResult());
+            block.setMax(decision.getResult());
+            block.setCount(block.getEqual());
+        } else if (decision.isKeepLess()) {
+            if (block.getLess() == 0) {
+                return;
+            }
+            block.setMax(block.getLessMax());
+            block.setCount(block.getLess());
+        } else {
+            if (block.getGreater() == 0) {
+                return;
+            }
+            block.setMin(block.getGreaterMin());
+            block.setCount(block.getGreater());
+        }
+
+        block.setK(decision.getK());
+        block.setLess(0);
+        block.setEqual(0);
+        block.setGreater(0);
+
+        out.collect(block);
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.lwerner.flink.percentiles.functions.zonemap;
+
+import de.lwerner.flink.percentiles.data.BlockReader;
+import de.lwerner.flink.percentiles.model.ValueBlock;
+import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.util.Collector;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Function for solving the remaining problem. Blocks with equal remaining values are counted by their zone map, the
+ * others are read.
+ *
+ * @author Lukas Werner
+ */
+public class SolveBlocksGroupReduceFunction extends RichGroupReduceFunction<ValueBlock, Tuple1<Float>> {
+
+    @Override
+    public void reduce(Iterable<ValueBlock> blocks, Collector<Tuple1<Float>> out) throws IOException {
+        TreeMap<Float, Long> counts = new TreeMap<>();
+        long k = 0;
+
+        try (BlockReader reader = new BlockReader()) {
+            for (ValueBlock block: blocks) {
+                k = block.getK();
+
+                if (block.isConstant()) {
+                    counts.merge(block.getMin(), (long)block.getCount(), Long::sum);
+                    continue;
+                }
+
+                float[] values = reader.read(block);
+                for (int i = 0; i < block.getSize(); i++) {
+                    if (values[i] >= block.getMin() && values[i] <= block.getMax()) {
+                        counts.merge(values[i], 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        long cumulative = 0;
+        for (Map.Entry<Float, Long> entry: counts.entrySet()) {
+            cumulative += entry.getValue();
+            if (cumulative >= k) {
+                out.collect(new Tuple1<>(entry.getKey()));
+
+                return;
+            }
+        }
+
+        throw new IllegalStateException("The remaining values are less than k. This should never happen! Please check the code! Remaining size: " + cumulative + ", k: " + k);
+    }
+
+}
@@ -49,35 +49,102 @@ public abstract class AbstractGenerator {
     }
 
     /**
-     * Main generate method, generates values and periodically fires flush events after all (flushCount) values
+     * Main generate method, generates values and periodically fires flush events after all (flushCount) values. The
+     * remaining values are flushed at the end.
      *
      * @param count the total value count to generate
      */
     public void generate(long count) {
-        ArrayList<Float> tempValues = new ArrayList<>(flushCount);
+        ArrayList<Float> tempValues = new ArrayList<>((int)Math.min(flushCount, count));
         for (long i = 0; i < count; i++) {
             tempValues.add(generateValue());
 
-            if ((i + 1) % flushCount == 0) {
+            if (tempValues.size() == flushCount) {
                 flush(tempValues);
-                tempValues.clear();
+                tempValues = new ArrayList<>((int)Math.min(flushCount, count - i - 1));
             }
         }
+
+        if (!tempValues.isEmpty()) {
+            flush(tempValues);
+        }
+    }
+
+    /**
+     * Generates the next values into a primitive array, without flush events
+     *
+     * @param values the array to fill
+     * @param length the number of values to generate
+     */
+    public void generate(float[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            values[i] = generateValue();
+        }
+    }
+
+    /**
+     * Get the index of the first value of a slice of a sequence, the slices differ by at most one value and the
+     * first slices take the remainder
+     *
+     * @param count the total value count of the sequence
+     * @param slice the slice number
+     * @param total the number of slices
+     *
+     * @return the start index
+     */
+    public static long sliceStart(long count, int slice, int total) {
+        return count / total * slice + Math.min(slice, count % total);
     }
 
     /**
-     * Internal flush method: Creates flush event and fires the listener methods
+     * Positions the generator at a value of a sequence, so a slice of the sequence can be generated on its own. The
+     * default does nothing, which is right for generators without state.
+     *
+     * @param index the index of the next value to generate
+     * @param count the total value count of the sequence
+     */
+    public void seek(long index, long count) {
+    }
+
+    /**
+     * Internal flush method: Creates flush event and fires the listener methods. The listeners get the list itself,
+     * a new list is used for the next values.
      *
      * @param values the values generated since start or last flush
      */
     private void flush(ArrayList<Float> values) {
-        ArrayList<Float> newValues = new ArrayList<>(values);
-        FlushEvent flushEvent = new FlushEvent(newValues);
+        FlushEvent flushEvent = new FlushEvent(values);
         for (FlushListener flushListener: flushListeners) {
             flushListener.onFlush(flushEvent);
         }
     }
 
+    /**
+     * Factory method, creates a generator by its name
+     *
+     * @param type the generator name (random|exponential|allequal|asc|desc)
+     * @param flushCount the flush count
+     * @param seed the random seed, ignored by non random generators
+     *
+     * @return the generator
+     */
+    public static AbstractGenerator factory(String type, int flushCount, long seed) {
+        switch (type) {
+            case "random":
+                return new RandomGenerator(flushCount, seed);
+            case "exponential":
+                return new ExponentialGenerator(flushCount, seed);
+            case "allequal":
+                return new AllEqualGenerator(flushCount);
+            case "asc":
+                return new SortedAscGenerator(flushCount);
+            case "desc":
+                return new SortedDescGenerator(flushCount);
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + type + " (random|exponential|allequal|asc|desc)");
+        }
+    }
+
     /**
      * Method to generate a single value. Is implemented by concrete generator classes.
      *
@@ -1,7 +1,5 @@
 package de.lwerner.flink.percentiles.generation;
 
-import java.util.Random;
-
 /**
  * Concrete random value generator. Generates pseudo random values.
  *
@@ -10,24 +8,44 @@ import java.util.Random;
 public class RandomGenerator extends AbstractGenerator {
 
     /**
-     * The java random object
+     * The random seed
+     */
+    private final long seed;
+
+    /**
+     * Index of the next value in the random sequence
      */
-    private final Random random;
+    private long index;
 
     /**
-     * Constructor to call parent constructor and to initialize random object.
+     * Constructor to call parent constructor and to initialize the seed.
      *
      * @param flushCount the flush count
      */
     public RandomGenerator(int flushCount) {
+        this(flushCount, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor to call parent constructor and to set the seed.
+     *
+     * @param flushCount the flush count
+     * @param seed the random seed
+     */
+    public RandomGenerator(int flushCount, long seed) {
         super(flushCount);
 
-        random = new Random(System.currentTimeMillis());
+        this.seed = seed;
     }
 
     @Override
     public float generateValue() {
-        return random.nextFloat();
+        return SplitMix.floatAt(seed, index++);
+    }
+
+    @Override
+    public void seek(long index, long count) {
+        this.index = index;
     }
 
 }
\ No newline at end of file
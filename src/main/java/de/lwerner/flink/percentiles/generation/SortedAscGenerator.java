@@ -28,4 +28,9 @@ public class SortedAscGenerator extends AbstractGenerator {
         return (iterator++ * 0.00001f);
     }
 
+    @Override
+    public void seek(long index, long count) {
+        iterator = index + 1;
+    }
+
 }
\ No newline at end of file
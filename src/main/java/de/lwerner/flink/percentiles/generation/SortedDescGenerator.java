@@ -26,9 +26,14 @@ public class SortedDescGenerator extends AbstractGenerator {
         return (iterator-- * 0.00001f);
     }
 
+    @Override
+    public void seek(long index, long count) {
+        iterator = count - index;
+    }
+
     @Override
     public void generate(long count) {
-        this.iterator = count;
+        seek(0, count);
 
         super.generate(count);
     }
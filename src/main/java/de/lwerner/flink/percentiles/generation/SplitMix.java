@@ -0,0 +1,51 @@
+package de.lwerner.flink.percentiles.generation;
+
+/**
+ * SplitMix is a counter based pseudo random number generator (the SplitMix64 mixing function, as used by
+ * java.util.SplittableRandom). The value with index i only depends on seed and i, so any slice of a random sequence
+ * can be generated independently, the sequence doesn't depend on the parallelism.
+ *
+ * @author Lukas Werner
+ */
+public final class SplitMix {
+
+    /**
+     * The golden gamma, added to the state per value
+     */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * No instances
+     */
+    private SplitMix() {
+    }
+
+    /**
+     * Get the random long with the given index
+     *
+     * @param seed the seed
+     * @param index the index in the sequence
+     *
+     * @return the random long
+     */
+    public static long longAt(long seed, long index) {
+        long z = seed + (index + 1) * GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the random float in [0, 1) with the given index, uses 24 random bits like Random.nextFloat
+     *
+     * @param seed the seed
+     * @param index the index in the sequence
+     *
+     * @return the random float
+     */
+    public static float floatAt(long seed, long index) {
+        return (longAt(seed, index) >>> 40) * 0x1.0p-24f;
+    }
+
+}
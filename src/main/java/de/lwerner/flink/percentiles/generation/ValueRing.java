@@ -0,0 +1,142 @@
+package de.lwerner.flink.percentiles.generation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A ring of primitive value batches between one producer and one consumer thread. The batches are allocated once
+ * and cycle between the free and the full queue, so the producer can fill the next batch, while the consumer still
+ * writes the previous one. An empty batch marks the end of the values.
+ *
+ * @author Lukas Werner
+ */
+public class ValueRing {
+
+    /**
+     * A batch of values
+     *
+     * @author Lukas Werner
+     */
+    public static class Batch {
+
+        /**
+         * The values
+         */
+        private final float[] values;
+
+        /**
+         * Number of valid values
+         */
+        private int length;
+
+        /**
+         * Constructor, allocates the values
+         *
+         * @param capacity number of values
+         */
+        private Batch(int capacity) {
+            values = new float[capacity];
+        }
+
+        /**
+         * Get the values, only the first (length) are valid
+         *
+         * @return the values
+         */
+        public float[] getValues() {
+            return values;
+        }
+
+        /**
+         * Get the number of valid values
+         *
+         * @return the length
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Set the number of valid values
+         *
+         * @param length the length
+         */
+        public void setLength(int length) {
+            this.length = length;
+        }
+
+    }
+
+    /**
+     * Batches, which can be filled by the producer
+     */
+    private final BlockingQueue<Batch> free;
+
+    /**
+     * Filled batches in order for the consumer
+     */
+    private final BlockingQueue<Batch> full;
+
+    /**
+     * Constructor, allocates the batches
+     *
+     * @param batchCount number of batches in the ring, at least 2
+     * @param batchSize number of values per batch
+     */
+    public ValueRing(int batchCount, int batchSize) {
+        if (batchCount < 2 || batchSize < 1) {
+            throw new IllegalArgumentException("Please provide at least 2 batches with at least 1 value");
+        }
+
+        free = new ArrayBlockingQueue<>(batchCount);
+        full = new ArrayBlockingQueue<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            free.add(new Batch(batchSize));
+        }
+    }
+
+    /**
+     * Get the next free batch, waits until the consumer released one
+     *
+     * @return the free batch
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Batch acquire() throws InterruptedException {
+        return free.take();
+    }
+
+    /**
+     * Hands a filled batch to the consumer, a length of 0 marks the end
+     *
+     * @param batch the filled batch
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void publish(Batch batch) throws InterruptedException {
+        full.put(batch);
+    }
+
+    /**
+     * Get the next filled batch, waits until the producer published one
+     *
+     * @return the filled batch, the length is 0 at the end
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Batch take() throws InterruptedException {
+        return full.take();
+    }
+
+    /**
+     * Gives a consumed batch back to the producer
+     *
+     * @param batch the consumed batch
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void release(Batch batch) throws InterruptedException {
+        free.put(batch);
+    }
+
+}
@@ -0,0 +1,170 @@
+package de.lwerner.flink.percentiles.math;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * DecimalFloatParser parses decimal floats ("-12.5", "3e-4") directly from bytes, without creating a String. The
+ * digits are collected into a long mantissa m and a decimal exponent e. If m &lt; 2^53 and |e| &lt;= 22, m and 10^e
+ * are exact doubles, so one multiplication or division gives the correctly rounded double. Rounding that double to
+ * float is correct as well, unless it lies exactly between two floats. Such values, and all inputs the fast path
+ * doesn't cover (more digits, big exponents, NaN, Infinity, hex), fall back to Float.parseFloat, so the result always
+ * equals Float.parseFloat.
+ *
+ * @author Lukas Werner
+ */
+public final class DecimalFloatParser {
+
+    /**
+     * Biggest mantissa, which is an exact double
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Biggest power of ten, which is an exact double
+     */
+    private static final int MAX_EXACT_EXPONENT = 22;
+
+    /**
+     * Maximum number of significant digits, which fit into a long
+     */
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * The exact powers of ten
+     */
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_EXPONENT + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * No instances
+     */
+    private DecimalFloatParser() {
+    }
+
+    /**
+     * Parses a float from the given bytes, leading and trailing whitespace (ASCII control characters and space) is
+     * ignored
+     *
+     * @param bytes the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     *
+     * @return the parsed float, equal to Float.parseFloat
+     *
+     * @throws NumberFormatException if the bytes are no float
+     */
+    public static float parse(byte[] bytes, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean afterPoint = false;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    // Leading zeros aren't significant
+                    if (afterPoint) {
+                        exponent--;
+                    }
+                    continue;
+                }
+                if (++digits > MAX_DIGITS) {
+                    return fallback(bytes, offset, length);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (afterPoint) {
+                    exponent--;
+                }
+            } else if (b == '.' && !afterPoint) {
+                afterPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        if (!anyDigit) {
+            return fallback(bytes, offset, length);
+        }
+
+        if (i < end) {
+            if (bytes[i] != 'e' && bytes[i] != 'E') {
+                return fallback(bytes, offset, length);
+            }
+            i++;
+
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            if (i == end) {
+                return fallback(bytes, offset, length);
+            }
+
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                byte b = bytes[i];
+                if (b < '0' || b > '9' || explicitExponent > 1000) {
+                    return fallback(bytes, offset, length);
+                }
+                explicitExponent = explicitExponent * 10 + (b - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0f : 0f;
+        }
+
+        if (mantissa >= MAX_EXACT_MANTISSA || exponent > MAX_EXACT_EXPONENT || exponent < -MAX_EXACT_EXPONENT) {
+            return fallback(bytes, offset, length);
+        }
+
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+
+        // The 29 bits, which a float drops, are exactly one half: the double lies between two floats
+        if ((Double.doubleToRawLongBits(value) & 0x1FFFFFFFL) == 0x10000000L) {
+            return fallback(bytes, offset, length);
+        }
+
+        return negative ? -(float)value : (float)value;
+    }
+
+    /**
+     * Parses with Float.parseFloat
+     *
+     * @param bytes the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     *
+     * @return the parsed float
+     */
+    private static float fallback(byte[] bytes, int offset, int length) {
+        return Float.parseFloat(new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+    }
+
+}
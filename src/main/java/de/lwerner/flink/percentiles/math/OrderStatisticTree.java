@@ -0,0 +1,319 @@
+package de.lwerner.flink.percentiles.math;
+
+/**
+ * OrderStatisticTree is a randomized balanced search tree (treap), where each node knows the number of values in its
+ * subtree. Insert, remove, select and rank all run in expected O(log n). Equal values share one node. Values are
+ * ordered by {@link Float#compare(float, float)}, so NaN is the greatest value and can be removed again.
+ *
+ * @author Lukas Werner
+ */
+public class OrderStatisticTree {
+
+    /**
+     * The root node
+     */
+    private Node root;
+
+    /**
+     * Seed for the node priorities (xorshift)
+     */
+    private int seed = 0x2545F491;
+
+    /**
+     * Get the number of values in the tree
+     *
+     * @return the value count
+     */
+    public long size() {
+        return size(root);
+    }
+
+    /**
+     * Check if the tree holds no values
+     *
+     * @return true, if empty
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Removes all values
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Inserts a value
+     *
+     * @param value the value to insert
+     */
+    public void insert(float value) {
+        root = insert(root, value);
+    }
+
+    /**
+     * Removes one occurrence of a value
+     *
+     * @param value the value to remove
+     *
+     * @return true, if the value was present
+     */
+    public boolean remove(float value) {
+        long sizeBefore = size(root);
+        root = remove(root, value);
+
+        return size(root) < sizeBefore;
+    }
+
+    /**
+     * Selects the kth smallest value
+     *
+     * @param k the rank, counting from 1 on
+     *
+     * @return the kth smallest value
+     */
+    public float select(long k) {
+        if (k < 1 || k > size(root)) {
+            throw new IllegalArgumentException("k must be between 1 and the value count, k: " + k + ", size: " + size(root));
+        }
+
+        Node node = root;
+        while (true) {
+            long leftSize = size(node.left);
+            if (k <= leftSize) {
+                node = node.left;
+            } else if (k <= leftSize + node.count) {
+                return node.value;
+            } else {
+                k -= leftSize + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Get the number of values, which are less than the given value
+     *
+     * @param value the value
+     *
+     * @return the number of less values
+     */
+    public long rank(float value) {
+        long rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (Float.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Recursive insert
+     *
+     * @param node the subtree root
+     * @param value the value to insert
+     *
+     * @return the new subtree root
+     */
+    private Node insert(Node node, float value) {
+        if (node == null) {
+            return new Node(value, nextPriority());
+        }
+
+        int cmp = Float.compare(value, node.value);
+        if (cmp == 0) {
+            node.count++;
+        } else if (cmp < 0) {
+            node.left = insert(node.left, value);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, value);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+
+        node.update();
+
+        return node;
+    }
+
+    /**
+     * Recursive remove
+     *
+     * @param node the subtree root
+     * @param value the value to remove
+     *
+     * @return the new subtree root
+     */
+    private Node remove(Node node, float value) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = Float.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = remove(node.left, value);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, value);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+
+        node.update();
+
+        return node;
+    }
+
+    /**
+     * Merges two subtrees, where all values of left are less than all values of right
+     *
+     * @param left the left subtree
+     * @param right the right subtree
+     *
+     * @return the merged subtree
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.update();
+
+        return right;
+    }
+
+    /**
+     * Right rotation
+     *
+     * @param node the subtree root
+     *
+     * @return the new subtree root
+     */
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+
+        return left;
+    }
+
+    /**
+     * Left rotation
+     *
+     * @param node the subtree root
+     *
+     * @return the new subtree root
+     */
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+
+        return right;
+    }
+
+    /**
+     * Generates the next node priority
+     *
+     * @return a pseudo random priority
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+
+        return seed;
+    }
+
+    /**
+     * Null safe subtree size
+     *
+     * @param node the subtree root
+     *
+     * @return the subtree size
+     */
+    private static long size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A tree node, holds a distinct value and its number of occurrences
+     *
+     * @author Lukas Werner
+     */
+    private static final class Node {
+
+        /**
+         * The value
+         */
+        private final float value;
+        /**
+         * The heap priority
+         */
+        private final int priority;
+        /**
+         * Occurrences of the value
+         */
+        private int count;
+        /**
+         * Number of values in this subtree
+         */
+        private long size;
+        /**
+         * Left child
+         */
+        private Node left;
+        /**
+         * Right child
+         */
+        private Node right;
+
+        /**
+         * Constructor, sets value and priority
+         *
+         * @param value the value
+         * @param priority the priority
+         */
+        private Node(float value, int priority) {
+            this.value = value;
+            this.priority = priority;
+
+            count = 1;
+            size = 1;
+        }
+
+        /**
+         * Recalculates the subtree size
+         */
+        private void update() {
+            size = count + size(left) + size(right);
+        }
+    }
+
+}
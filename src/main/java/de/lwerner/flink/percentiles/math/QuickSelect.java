@@ -38,6 +38,34 @@ public class QuickSelect {
         return select(list, list.size() - 1, k);
     }
 
+    /**
+     * Entry point for primitive arrays, avoids boxing. Reorders the first (length) values of the array.
+     *
+     * @param values the values array
+     * @param length the number of used values
+     * @param k the rank
+     *
+     * @return the actual value
+     */
+    public float select(float[] values, int length, int k) {
+        int left = 0;
+        int right = length - 1;
+        while (left < right) {
+            float pivotValue = values[left + (right - left + 1) / 2];
+            int[] equalBand = partition(values, left, right, pivotValue);
+
+            if (k < equalBand[0]) {
+                right = equalBand[0] - 1;
+            } else if (k > equalBand[1]) {
+                left = equalBand[1] + 1;
+            } else {
+                return pivotValue;
+            }
+        }
+
+        return values[left];
+    }
+
     /**
      * Quicksort like selection algorithm (recursive variant).
      *
@@ -49,20 +77,20 @@ public class QuickSelect {
      * @return the result
      */
     private float selectRecursive(List<Float> list, int left, int right, int k) {
-        if (left == right) {
+        if (left >= right) {
             return list.get(left);
         }
 
-        int pivotIndex = left + (int) Math.floor((right - left + 1) / 2.0);
-        pivotIndex = partition(list, left, right, pivotIndex);
+        float pivotValue = list.get(left + (right - left + 1) / 2);
+        int[] equalBand = partition(list, left, right, pivotValue);
 
-        if (k == pivotIndex) {
-            return list.get(k);
-        } else if (k < pivotIndex) {
-            return selectRecursive(list, left, pivotIndex - 1, k);
-        } else {
-            return selectRecursive(list, pivotIndex + 1, right, k);
+        if (k < equalBand[0]) {
+            return selectRecursive(list, left, equalBand[0] - 1, k);
+        } else if (k > equalBand[1]) {
+            return selectRecursive(list, equalBand[1] + 1, right, k);
         }
+
+        return pivotValue;
     }
 
     /**
@@ -76,49 +104,91 @@ public class QuickSelect {
      */
     private float select(List<Float> list, int right, int k) {
         int left = 0;
-        while (true) {
-            if (left == right) {
-                return list.get(left);
+        while (left < right) {
+            float pivotValue = list.get(left + (right - left + 1) / 2);
+            int[] equalBand = partition(list, left, right, pivotValue);
+
+            if (k < equalBand[0]) {
+                right = equalBand[0] - 1;
+            } else if (k > equalBand[1]) {
+                left = equalBand[1] + 1;
+            } else {
+                return pivotValue;
             }
+        }
 
-            int pivotIndex = left + (int) Math.floor((right - left + 1) / 2.0);
-            pivotIndex = partition(list, left, right, pivotIndex);
+        return list.get(left);
+    }
 
-            if (k == pivotIndex) {
-                return list.get(k);
-            } else if (k < pivotIndex) {
-                right = pivotIndex - 1;
+    /**
+     * Three-way partition of the list (Dutch national flag): less values first, then the values equal to the pivot,
+     * then the greater values. So repeated values don't make the selection quadratic, a rank in the equal band is
+     * found at once.
+     *
+     * @param list the values list
+     * @param left the left bound
+     * @param right the right bound
+     * @param pivotValue the pivot value
+     *
+     * @return first and last index of the values equal to the pivot
+     */
+    private int[] partition(List<Float> list, int left, int right, float pivotValue) {
+        int less = left;
+        int greater = right;
+        int i = left;
+        while (i <= greater) {
+            float value = list.get(i);
+            if (value < pivotValue) {
+                swap(list, less++, i++);
+            } else if (value > pivotValue) {
+                swap(list, i, greater--);
             } else {
-                left = pivotIndex + 1;
+                i++;
             }
         }
+
+        return new int[] {less, greater};
     }
 
     /**
-     * Method to partition the list
+     * Three-way partition of a primitive array (Dutch national flag), see the list variant
      *
-     * @param list the values list
+     * @param values the values array
      * @param left the left bound
      * @param right the right bound
-     * @param pivotIndex the current pivot index
+     * @param pivotValue the pivot value
      *
-     * @return the new pivot index
+     * @return first and last index of the values equal to the pivot
      */
-    private int partition(List<Float> list, int left, int right, int pivotIndex) {
-        float pivotValue = list.get(pivotIndex);
-        swap(list, pivotIndex, right);
-        int storeIndex = left;
-
-        for (int i = left; i < right; i++) {
-            if (list.get(i) < pivotValue) {
-                swap(list, storeIndex, i);
-                storeIndex++;
+    private int[] partition(float[] values, int left, int right, float pivotValue) {
+        int less = left;
+        int greater = right;
+        int i = left;
+        while (i <= greater) {
+            float value = values[i];
+            if (value < pivotValue) {
+                swap(values, less++, i++);
+            } else if (value > pivotValue) {
+                swap(values, i, greater--);
+            } else {
+                i++;
             }
         }
 
-        swap(list, right, storeIndex);
+        return new int[] {less, greater};
+    }
 
-        return storeIndex;
+    /**
+     * Swap method to exchange two values in a primitive array by their indexes
+     *
+     * @param values the values array
+     * @param index1 the first index
+     * @param index2 the second index
+     */
+    private void swap(float[] values, int index1, int index2) {
+        float temp = values[index1];
+        values[index1] = values[index2];
+        values[index2] = temp;
     }
 
     /**
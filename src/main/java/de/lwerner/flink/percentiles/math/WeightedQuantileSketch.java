@@ -0,0 +1,271 @@
+package de.lwerner.flink.percentiles.math;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.Serializable;
+
+/**
+ * WeightedQuantileSketch holds (value, weight) pairs in a buffer of fixed size. If the buffer is full, it is sorted
+ * and neighboured entries are merged into centroids (weighted mean), until at most (compression) centroids are left.
+ * So the memory is bounded and adding a value is O(1) amortized for a fixed compression.
+ *
+ * @author Lukas Werner
+ */
+public class WeightedQuantileSketch implements Serializable, KryoSerializable {
+
+    /**
+     * Default number of centroids after compaction
+     */
+    public static final int DEFAULT_COMPRESSION = 200;
+
+    /**
+     * Number of centroids after compaction
+     */
+    private int compression;
+    /**
+     * Centroid values
+     */
+    private float[] values;
+    /**
+     * Centroid weights
+     */
+    private double[] weights;
+    /**
+     * Number of used entries
+     */
+    private int size;
+    /**
+     * Are the entries sorted by value?
+     */
+    private boolean sorted;
+
+    /**
+     * Default constructor, uses the default compression
+     */
+    public WeightedQuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor, sets compression and initializes the buffer (twice the compression)
+     *
+     * @param compression number of centroids after compaction
+     */
+    public WeightedQuantileSketch(int compression) {
+        if (compression < 2) {
+            throw new IllegalArgumentException("Please provide a compression of at least 2");
+        }
+
+        this.compression = compression;
+
+        values = new float[compression * 2];
+        weights = new double[compression * 2];
+        sorted = true;
+    }
+
+    /**
+     * Get the number of entries (centroids and not yet compacted values)
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value with a weight
+     *
+     * @param value the value
+     * @param weight the weight
+     */
+    public void add(float value, double weight) {
+        if (size == values.length) {
+            compact();
+        }
+
+        values[size] = value;
+        weights[size] = weight;
+        size++;
+        sorted = false;
+    }
+
+    /**
+     * Adds all entries of another sketch
+     *
+     * @param other the other sketch
+     */
+    public void merge(WeightedQuantileSketch other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.values[i], other.weights[i]);
+        }
+    }
+
+    /**
+     * Multiplies all weights with a factor. Entries with a weight of zero are removed on next compaction.
+     *
+     * @param factor the factor
+     */
+    public void scale(double factor) {
+        for (int i = 0; i < size; i++) {
+            weights[i] *= factor;
+        }
+    }
+
+    /**
+     * Get the sum of all weights
+     *
+     * @return total weight
+     */
+    public double getTotalWeight() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weights[i];
+        }
+
+        return total;
+    }
+
+    /**
+     * Get the value, where the cumulative weight reaches the given fraction of the total weight
+     *
+     * @param q the fraction (0 to 1)
+     *
+     * @return the quantile value
+     */
+    public float quantile(double q) {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot get a quantile of an empty sketch");
+        }
+
+        sort();
+
+        double target = q * getTotalWeight();
+        double cumulative = 0;
+        for (int i = 0; i < size; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+
+        return values[size - 1];
+    }
+
+    /**
+     * Sorts the entries and merges neighboured entries, until at most (compression) centroids are left
+     */
+    public void compact() {
+        sort();
+
+        // Two neighboured centroids always weigh more than the limit, so there are at most (compression) left
+        double limit = 2 * getTotalWeight() / compression;
+
+        int target = -1;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] <= 0) {
+                continue;
+            }
+
+            if (target >= 0 && (values[target] == values[i] || weights[target] + weights[i] <= limit)) {
+                double weight = weights[target] + weights[i];
+                values[target] = (float)((values[target] * weights[target] + values[i] * weights[i]) / weight);
+                weights[target] = weight;
+            } else {
+                target++;
+                values[target] = values[i];
+                weights[target] = weights[i];
+            }
+        }
+
+        size = target + 1;
+    }
+
+    /**
+     * Sorts the entries by value, if not already sorted
+     */
+    private void sort() {
+        if (!sorted) {
+            sort(0, size - 1);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Quicksort on the parallel value and weight arrays
+     *
+     * @param left the left bound
+     * @param right the right bound
+     */
+    private void sort(int left, int right) {
+        while (left < right) {
+            float pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Recurse into the smaller part, loop on the bigger one
+            if (j - left < right - i) {
+                sort(left, j);
+                left = i;
+            } else {
+                sort(i, right);
+                right = j;
+            }
+        }
+    }
+
+    /**
+     * Swaps two entries
+     *
+     * @param index1 the first index
+     * @param index2 the second index
+     */
+    private void swap(int index1, int index2) {
+        float value = values[index1];
+        values[index1] = values[index2];
+        values[index2] = value;
+
+        double weight = weights[index1];
+        weights[index1] = weights[index2];
+        weights[index2] = weight;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output) {
+        output.writeInt(compression);
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            output.writeFloat(values[i]);
+            output.writeDouble(weights[i]);
+        }
+    }
+
+    @Override
+    public void read(Kryo kryo, Input input) {
+        compression = input.readInt();
+        size = input.readInt();
+
+        values = new float[Math.max(compression * 2, size)];
+        weights = new double[values.length];
+        for (int i = 0; i < size; i++) {
+            values[i] = input.readFloat();
+            weights[i] = input.readDouble();
+        }
+
+        sorted = false;
+    }
+
+}
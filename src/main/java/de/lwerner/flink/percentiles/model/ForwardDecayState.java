@@ -0,0 +1,123 @@
+package de.lwerner.flink.percentiles.model;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import de.lwerner.flink.percentiles.math.WeightedQuantileSketch;
+
+/**
+ * Class ForwardDecayState
+ *
+ * Holds a weighted quantile sketch with exponential forward decay: a value with timestamp t gets the weight
+ * exp(alpha * (t - landmark)), so newer values weigh more and old weights never have to be touched. If the weights
+ * grow too big, the landmark is moved forward and the sketch is rescaled once.
+ *
+ * @author Lukas Werner
+ */
+public class ForwardDecayState implements KryoSerializable {
+
+    /**
+     * Maximum exponent before rescaling (weights stay below e^64)
+     */
+    private static final double MAX_EXPONENT = 64;
+
+    /**
+     * The sketch with decayed weights
+     */
+    private WeightedQuantileSketch sketch;
+
+    /**
+     * The landmark timestamp
+     */
+    private long landmark;
+
+    /**
+     * Has the landmark been set?
+     */
+    private boolean initialized;
+
+    /**
+     * Number of values added so far
+     */
+    private long count;
+
+    /**
+     * Default constructor, uses the default compression
+     */
+    public ForwardDecayState() {
+        this(WeightedQuantileSketch.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor, sets the sketch compression
+     *
+     * @param compression the sketch compression
+     */
+    public ForwardDecayState(int compression) {
+        sketch = new WeightedQuantileSketch(compression);
+    }
+
+    /**
+     * Adds a value with its timestamp
+     *
+     * @param timestamp the timestamp
+     * @param value the value
+     * @param alpha the decay rate per millisecond
+     */
+    public void add(long timestamp, float value, double alpha) {
+        if (!initialized) {
+            landmark = timestamp;
+            initialized = true;
+        }
+
+        double exponent = alpha * (timestamp - landmark);
+        if (exponent > MAX_EXPONENT) {
+            sketch.scale(Math.exp(-exponent));
+            sketch.compact();
+            landmark = timestamp;
+            exponent = 0;
+        }
+
+        sketch.add(value, Math.exp(exponent));
+        count++;
+    }
+
+    /**
+     * Get the number of values added so far (including evicted or decayed ones)
+     *
+     * @return the value count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Calculates the decayed p percentile
+     *
+     * @param p the percentage value
+     *
+     * @return the percentile
+     */
+    public float percentile(int p) {
+        return sketch.quantile(p / 100.0);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output) {
+        output.writeLong(landmark);
+        output.writeBoolean(initialized);
+        output.writeLong(count);
+        sketch.write(kryo, output);
+    }
+
+    @Override
+    public void read(Kryo kryo, Input input) {
+        landmark = input.readLong();
+        initialized = input.readBoolean();
+        count = input.readLong();
+        sketch = new WeightedQuantileSketch();
+        sketch.read(kryo, input);
+    }
+
+}
@@ -0,0 +1,113 @@
+package de.lwerner.flink.percentiles.model;
+
+import org.apache.flink.api.java.tuple.Tuple7;
+
+/**
+ * Class GroupDecisionModel
+ *
+ * Selection state of one (group, p) pair in the grouped selection: the remaining k, if the result was found, the
+ * value range (lower, upper), which still holds the candidates, and the last pivot (which is the result, if found).
+ * The values of a group are kept once, a value is a candidate of a pair, if it lies in its range. NaN stands for an
+ * unbounded side of the range.
+ *
+ * @author Lukas Werner
+ */
+public class GroupDecisionModel extends Tuple7<String, Integer, Long, Boolean, Float, Float, Float> {
+
+    /**
+     * Default constructor
+     */
+    public GroupDecisionModel() {
+        super();
+    }
+
+    /**
+     * Constructor, sets values
+     *
+     * @param group the group key
+     * @param p the percentage value
+     * @param k the remaining k, counting from the lower bound on
+     * @param foundResult if we found one
+     * @param lower the exclusive lower bound of the candidates, NaN for none
+     * @param upper the exclusive upper bound of the candidates, NaN for none
+     * @param pivot the pivot or result
+     */
+    public GroupDecisionModel(String group, int p, long k, boolean foundResult, float lower, float upper, float pivot) {
+        super(group, p, k, foundResult, lower, upper, pivot);
+    }
+
+    /**
+     * Get the group key
+     *
+     * @return the group key
+     */
+    public String getGroup() {
+        return f0;
+    }
+
+    /**
+     * Get the percentage value
+     *
+     * @return the percentage value
+     */
+    public int getP() {
+        return f1;
+    }
+
+    /**
+     * Get the remaining k
+     *
+     * @return the remaining k
+     */
+    public long getK() {
+        return f2;
+    }
+
+    /**
+     * Check if we found result
+     *
+     * @return true, if we found one
+     */
+    public boolean isFoundResult() {
+        return f3;
+    }
+
+    /**
+     * Get the exclusive lower bound of the candidates
+     *
+     * @return the lower bound, NaN for none
+     */
+    public float getLower() {
+        return f4;
+    }
+
+    /**
+     * Get the exclusive upper bound of the candidates
+     *
+     * @return the upper bound, NaN for none
+     */
+    public float getUpper() {
+        return f5;
+    }
+
+    /**
+     * Get the pivot, which is the result, if found
+     *
+     * @return the pivot
+     */
+    public float getPivot() {
+        return f6;
+    }
+
+    /**
+     * Check if a value is still a candidate of this pair
+     *
+     * @param value the value
+     *
+     * @return true, if the value lies in the candidate range
+     */
+    public boolean isCandidate(float value) {
+        return (Float.isNaN(f4) || value > f4) && (Float.isNaN(f5) || value < f5);
+    }
+
+}
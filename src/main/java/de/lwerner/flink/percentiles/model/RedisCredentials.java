@@ -1,6 +1,7 @@
 package de.lwerner.flink.percentiles.model;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Holder for redis connection information
@@ -25,6 +26,22 @@ public class RedisCredentials implements Serializable {
      * Redis password for auth
      */
     private String password;
+    /**
+     * Maximum number of pooled connections
+     */
+    private int poolSize = 64;
+    /**
+     * The key namespace of the job
+     */
+    private String namespace = "default";
+    /**
+     * Seconds until the state of the job expires
+     */
+    private int ttl = 86400;
+    /**
+     * The initial state, only used by backends without an external service
+     */
+    private RedisState initialState;
 
     /**
      * Get the adapter
@@ -97,4 +114,105 @@ public class RedisCredentials implements Serializable {
     public void setPassword(String password) {
         this.password = password;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the maximum number of pooled connections
+     *
+     * @return the pool size
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Set the maximum number of pooled connections
+     *
+     * @param poolSize the pool size to set
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Get the key namespace
+     *
+     * @return the namespace
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Set the key namespace
+     *
+     * @param namespace the namespace to set
+     */
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * Get the seconds until the state expires
+     *
+     * @return the ttl in seconds
+     */
+    public int getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Set the seconds until the state expires
+     *
+     * @param ttl the ttl in seconds to set
+     */
+    public void setTtl(int ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get the initial state
+     *
+     * @return the initial state
+     */
+    public RedisState getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Set the initial state
+     *
+     * @param initialState the initial state to set
+     */
+    public void setInitialState(RedisState initialState) {
+        this.initialState = initialState;
+    }
+
+    /**
+     * Two credentials are equal, if they connect to the same redis in the same way. Namespace, ttl and initial state
+     * aren't part of it, so all jobs share the connection pool.
+     *
+     * @param o the other object
+     *
+     * @return true, if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        RedisCredentials that = (RedisCredentials)o;
+
+        return port == that.port && poolSize == that.poolSize && Objects.equals(adapter, that.adapter)
+                && Objects.equals(host, that.host) && Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(adapter, host, port, password, poolSize);
+    }
+
+}
@@ -0,0 +1,211 @@
+package de.lwerner.flink.percentiles.model;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.types.Value;
+
+import java.io.IOException;
+
+/**
+ * Class RedisState
+ *
+ * Holds all coordination values of the redis selection, so they can be read and written in one round trip. It is a
+ * flink value, so it can be an iteration aggregate as well.
+ *
+ * @author Lukas Werner
+ */
+public class RedisState implements Value {
+
+    /**
+     * k
+     */
+    private long k;
+    /**
+     * n
+     */
+    private long n;
+    /**
+     * t
+     */
+    private long t;
+    /**
+     * resultFound
+     */
+    private boolean resultFound;
+    /**
+     * result
+     */
+    private float result;
+    /**
+     * iteration count
+     */
+    private int numberOfIterations;
+
+    /**
+     * Default constructor
+     */
+    public RedisState() {
+    }
+
+    /**
+     * Constructor, sets all values
+     *
+     * @param k the value for k
+     * @param n the value for n
+     * @param t the value for t
+     * @param resultFound if we found the result
+     * @param result the result
+     * @param numberOfIterations the iteration count
+     */
+    public RedisState(long k, long n, long t, boolean resultFound, float result, int numberOfIterations) {
+        this.k = k;
+        this.n = n;
+        this.t = t;
+        this.resultFound = resultFound;
+        this.result = result;
+        this.numberOfIterations = numberOfIterations;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other the state to copy
+     */
+    public RedisState(RedisState other) {
+        this(other.k, other.n, other.t, other.resultFound, other.result, other.numberOfIterations);
+    }
+
+    /**
+     * Get k value
+     *
+     * @return k value
+     */
+    public long getK() {
+        return k;
+    }
+
+    /**
+     * Set k value
+     *
+     * @param k k value
+     */
+    public void setK(long k) {
+        this.k = k;
+    }
+
+    /**
+     * Get n value
+     *
+     * @return n value
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Set n value
+     *
+     * @param n n value
+     */
+    public void setN(long n) {
+        this.n = n;
+    }
+
+    /**
+     * Get t value
+     *
+     * @return t value
+     */
+    public long getT() {
+        return t;
+    }
+
+    /**
+     * Set t value
+     *
+     * @param t t value
+     */
+    public void setT(long t) {
+        this.t = t;
+    }
+
+    /**
+     * Check if we found the result
+     *
+     * @return true, if we found it
+     */
+    public boolean isResultFound() {
+        return resultFound;
+    }
+
+    /**
+     * Set resultFound value
+     *
+     * @param resultFound true, if we found the result
+     */
+    public void setResultFound(boolean resultFound) {
+        this.resultFound = resultFound;
+    }
+
+    /**
+     * Get the result
+     *
+     * @return the result
+     */
+    public float getResult() {
+        return result;
+    }
+
+    /**
+     * Set the result
+     *
+     * @param result the result
+     */
+    public void setResult(float result) {
+        this.result = result;
+    }
+
+    /**
+     * Get the iteration count
+     *
+     * @return the iteration count
+     */
+    public int getNumberOfIterations() {
+        return numberOfIterations;
+    }
+
+    /**
+     * Set the iteration count
+     *
+     * @param numberOfIterations the iteration count
+     */
+    public void setNumberOfIterations(int numberOfIterations) {
+        this.numberOfIterations = numberOfIterations;
+    }
+
+    @Override
+    public void write(DataOutputView out) throws IOException {
+        out.writeLong(k);
+        out.writeLong(n);
+        out.writeLong(t);
+        out.writeBoolean(resultFound);
+        out.writeFloat(result);
+        out.writeInt(numberOfIterations);
+    }
+
+    @Override
+    public void read(DataInputView in) throws IOException {
+        k = in.readLong();
+        n = in.readLong();
+        t = in.readLong();
+        resultFound = in.readBoolean();
+        result = in.readFloat();
+        numberOfIterations = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(k: %d, n: %d, t: %d, found: %b, result: %f, iterations: %d)", k, n, t, resultFound, result, numberOfIterations);
+    }
+
+}
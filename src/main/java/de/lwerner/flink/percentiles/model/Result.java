@@ -2,8 +2,10 @@ package de.lwerner.flink.percentiles.model;
 
 import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
 
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Class Result
@@ -39,8 +41,41 @@ public class Result {
      */
     private float value;
 
+    /**
+     * The running times of the driver and of the phases outside of the iteration, nanoseconds by timer path
+     */
     private HashMap<String, Long> timerResults;
 
+    /**
+     * The statistics of each superstep, empty without iteration
+     */
+    private List<SuperstepStatistics> superstepStatistics;
+
+    /**
+     * The quantile summary, (boundary, rank, value) data set
+     */
+    private DataSet<Tuple3<Integer, Long, Float>> summary;
+
+    /**
+     * The collected quantile summary, sorted by boundary
+     */
+    private List<Tuple3<Integer, Long, Float>> summaryValues;
+
+    /**
+     * The number of equi-depth buckets of the summary
+     */
+    private int buckets;
+
+    /**
+     * The number of supersteps of the iteration, 0 without iteration
+     */
+    private int supersteps;
+
+    /**
+     * The net runtime of the job in milliseconds, 0 without job (e.g. cached)
+     */
+    private long netRuntime;
+
     /**
      * Get the t value
      *
@@ -149,6 +184,114 @@ public class Result {
         this.timerResults = timerResults;
     }
 
+    /**
+     * Get the statistics of each superstep
+     *
+     * @return the superstep statistics, sorted by superstep
+     */
+    public List<SuperstepStatistics> getSuperstepStatistics() {
+        return superstepStatistics;
+    }
+
+    /**
+     * Set the statistics of each superstep
+     *
+     * @param superstepStatistics the superstep statistics, sorted by superstep
+     */
+    public void setSuperstepStatistics(List<SuperstepStatistics> superstepStatistics) {
+        this.superstepStatistics = superstepStatistics;
+    }
+
+    /**
+     * Get the quantile summary
+     *
+     * @return (boundary, rank, value) data set
+     */
+    public DataSet<Tuple3<Integer, Long, Float>> getSummary() {
+        return summary;
+    }
+
+    /**
+     * Set the quantile summary
+     *
+     * @param summary (boundary, rank, value) data set to set
+     */
+    public void setSummary(DataSet<Tuple3<Integer, Long, Float>> summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * Get the number of equi-depth buckets of the summary
+     *
+     * @return the number of buckets
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Set the number of equi-depth buckets of the summary
+     *
+     * @param buckets the number of buckets to set
+     */
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    /**
+     * Get the collected quantile summary
+     *
+     * @return (boundary, rank, value) list, sorted by boundary
+     */
+    public List<Tuple3<Integer, Long, Float>> getSummaryValues() {
+        return summaryValues;
+    }
+
+    /**
+     * Set the collected quantile summary
+     *
+     * @param summaryValues (boundary, rank, value) list, sorted by boundary
+     */
+    public void setSummaryValues(List<Tuple3<Integer, Long, Float>> summaryValues) {
+        this.summaryValues = summaryValues;
+    }
+
+    /**
+     * Get the number of supersteps
+     *
+     * @return the number of supersteps
+     */
+    public int getSupersteps() {
+        return supersteps;
+    }
+
+    /**
+     * Set the number of supersteps
+     *
+     * @param supersteps the number of supersteps to set
+     */
+    public void setSupersteps(int supersteps) {
+        this.supersteps = supersteps;
+    }
+
+    /**
+     * Get the net runtime of the job
+     *
+     * @return the net runtime in milliseconds
+     */
+    public long getNetRuntime() {
+        return netRuntime;
+    }
+
+    /**
+     * Set the net runtime of the job
+     *
+     * @param netRuntime the net runtime in milliseconds to set
+     */
+    public void setNetRuntime(long netRuntime) {
+        this.netRuntime = netRuntime;
+    }
+
     @Override
     public String toString() {
         return String.format("(%d, %d, %d, %f)", p, k, t, value);
@@ -0,0 +1,230 @@
+package de.lwerner.flink.percentiles.model;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.math.OrderStatisticTree;
+
+/**
+ * Class SlidingWindowState
+ *
+ * Holds the values of a sliding window in window order (ring buffer) and in value order (order statistic tree). The
+ * window order is the arrival order for count windows (add) and the timestamp order for time windows (insert), so
+ * the oldest element is always at the head. Checkpoints only contain the ring buffer, the tree is rebuilt on restore.
+ *
+ * @author Lukas Werner
+ */
+public class SlidingWindowState implements KryoSerializable {
+
+    /**
+     * Initial ring buffer capacity
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Values in arrival order
+     */
+    private float[] values;
+    /**
+     * Timestamps in arrival order
+     */
+    private long[] timestamps;
+    /**
+     * Index of the oldest element
+     */
+    private int head;
+    /**
+     * Number of elements in the window
+     */
+    private int size;
+    /**
+     * Values in value order
+     */
+    private OrderStatisticTree tree;
+
+    /**
+     * Number of values added so far
+     */
+    private long count;
+
+    /**
+     * Default constructor
+     */
+    public SlidingWindowState() {
+        values = new float[INITIAL_CAPACITY];
+        timestamps = new long[INITIAL_CAPACITY];
+        tree = new OrderStatisticTree();
+    }
+
+    /**
+     * Get the number of values in the window
+     *
+     * @return the value count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value as the newest element
+     *
+     * @param timestamp the timestamp of the value
+     * @param value the value
+     */
+    public void add(long timestamp, float value) {
+        if (size == values.length) {
+            grow();
+        }
+
+        int index = (head + size) % values.length;
+        values[index] = value;
+        timestamps[index] = timestamp;
+        size++;
+
+        tree.insert(value);
+        count++;
+    }
+
+    /**
+     * Inserts a value in timestamp order. Values are usually in order, so they are appended, an out-of-order value is
+     * moved behind the last value with a timestamp less or equal to its own.
+     *
+     * @param timestamp the timestamp of the value
+     * @param value the value
+     */
+    public void insert(long timestamp, float value) {
+        add(timestamp, value);
+
+        // Move the new element back to its position, the ones before are sorted
+        int i = size - 1;
+        while (i > 0 && timestamps[(head + i - 1) % values.length] > timestamp) {
+            int to = (head + i) % values.length;
+            int from = (head + i - 1) % values.length;
+            timestamps[to] = timestamps[from];
+            values[to] = values[from];
+            i--;
+        }
+
+        int index = (head + i) % values.length;
+        timestamps[index] = timestamp;
+        values[index] = value;
+    }
+
+    /**
+     * Get the timestamp of the newest element in window order
+     *
+     * @return the newest timestamp, Long.MIN_VALUE if the window is empty
+     */
+    public long getNewestTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[(head + size - 1) % values.length];
+    }
+
+    /**
+     * Removes the oldest element
+     */
+    public void evictOldest() {
+        tree.remove(values[head]);
+
+        head = (head + 1) % values.length;
+        size--;
+    }
+
+    /**
+     * Removes all elements, which are older than the given timestamp. Only exact in timestamp order (see insert).
+     *
+     * @param timestamp the minimum timestamp to keep
+     */
+    public void evictBefore(long timestamp) {
+        while (size > 0 && timestamps[head] < timestamp) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Get the number of values added so far (including evicted ones)
+     *
+     * @return the value count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Selects the kth smallest value of the window
+     *
+     * @param k the rank, counting from 1 on
+     *
+     * @return the kth smallest value
+     */
+    public float select(long k) {
+        return tree.select(k);
+    }
+
+    /**
+     * Calculates the p percentile of the window
+     *
+     * @param p the percentage value
+     *
+     * @return the percentile
+     */
+    public float percentile(int p) {
+        long k = AbstractPercentile.rankOf(size, p);
+
+        return tree.select(Math.max(1, k));
+    }
+
+    /**
+     * Doubles the ring buffer capacity
+     */
+    private void grow() {
+        float[] newValues = new float[values.length * 2];
+        long[] newTimestamps = new long[timestamps.length * 2];
+
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % values.length;
+            newValues[i] = values[index];
+            newTimestamps[i] = timestamps[index];
+        }
+
+        values = newValues;
+        timestamps = newTimestamps;
+        head = 0;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output) {
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % values.length;
+            output.writeLong(timestamps[index]);
+            output.writeFloat(values[index]);
+        }
+        output.writeLong(count);
+    }
+
+    @Override
+    public void read(Kryo kryo, Input input) {
+        int length = input.readInt();
+
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < length) {
+            capacity *= 2;
+        }
+
+        values = new float[capacity];
+        timestamps = new long[capacity];
+        head = 0;
+        size = 0;
+        tree = new OrderStatisticTree();
+
+        // Written in window order, so appending restores it
+        for (int i = 0; i < length; i++) {
+            long timestamp = input.readLong();
+            add(timestamp, input.readFloat());
+        }
+        count = input.readLong();
+    }
+
+}
@@ -0,0 +1,203 @@
+package de.lwerner.flink.percentiles.model;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class SuperstepStatistics
+ *
+ * Defines the statistics of one superstep of a selection: the remaining values, the chosen pivot (weighted median),
+ * the number of less, equal and greater values, the decision and the wall time of each phase.
+ *
+ * @author Lukas Werner
+ */
+public class SuperstepStatistics implements Serializable {
+
+    /**
+     * Decision, if the pivot is the result
+     */
+    public static final String DECISION_FOUND = "found";
+    /**
+     * Decision, if the less values are kept
+     */
+    public static final String DECISION_KEEP_LESS = "keep less";
+    /**
+     * Decision, if the greater values are kept
+     */
+    public static final String DECISION_KEEP_GREATER = "keep greater";
+
+    /**
+     * The superstep number, starting with 1
+     */
+    private int superstep;
+
+    /**
+     * The number of remaining values at the beginning of the superstep
+     */
+    private long n;
+
+    /**
+     * The rank searched in the remaining values
+     */
+    private long k;
+
+    /**
+     * The pivot (weighted median)
+     */
+    private float pivot;
+
+    /**
+     * Number of values less than the pivot
+     */
+    private long less;
+
+    /**
+     * Number of values equal to the pivot
+     */
+    private long equal;
+
+    /**
+     * Number of values greater than the pivot
+     */
+    private long greater;
+
+    /**
+     * The decision
+     */
+    private String decision;
+
+    /**
+     * Wall time of the phases in nanoseconds, populated on the driver
+     */
+    private LinkedHashMap<String, Long> phaseNanos;
+
+    /**
+     * Default constructor
+     */
+    public SuperstepStatistics() {
+        phaseNanos = new LinkedHashMap<>();
+    }
+
+    /**
+     * Constructor, sets the values of a decision
+     *
+     * @param superstep the superstep number
+     * @param k the rank searched in the remaining values
+     * @param pivot the pivot
+     * @param less number of values less than the pivot
+     * @param equal number of values equal to the pivot
+     * @param greater number of values greater than the pivot
+     */
+    public SuperstepStatistics(int superstep, long k, float pivot, long less, long equal, long greater) {
+        this();
+
+        this.superstep = superstep;
+        this.n = less + equal + greater;
+        this.k = k;
+        this.pivot = pivot;
+        this.less = less;
+        this.equal = equal;
+        this.greater = greater;
+
+        if (less < k && k <= less + equal) {
+            decision = DECISION_FOUND;
+        } else if (k <= less) {
+            decision = DECISION_KEEP_LESS;
+        } else {
+            decision = DECISION_KEEP_GREATER;
+        }
+    }
+
+    /**
+     * Get the superstep number
+     *
+     * @return the superstep number
+     */
+    public int getSuperstep() {
+        return superstep;
+    }
+
+    /**
+     * Get the number of remaining values
+     *
+     * @return the number of remaining values
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Get the rank searched in the remaining values
+     *
+     * @return the rank
+     */
+    public long getK() {
+        return k;
+    }
+
+    /**
+     * Get the pivot
+     *
+     * @return the pivot
+     */
+    public float getPivot() {
+        return pivot;
+    }
+
+    /**
+     * Get the number of values less than the pivot
+     *
+     * @return the number of less values
+     */
+    public long getLess() {
+        return less;
+    }
+
+    /**
+     * Get the number of values equal to the pivot
+     *
+     * @return the number of equal values
+     */
+    public long getEqual() {
+        return equal;
+    }
+
+    /**
+     * Get the number of values greater than the pivot
+     *
+     * @return the number of greater values
+     */
+    public long getGreater() {
+        return greater;
+    }
+
+    /**
+     * Get the decision
+     *
+     * @return the decision (found, keep less or keep greater)
+     */
+    public String getDecision() {
+        return decision;
+    }
+
+     * Get the time of the phases, the work of the slowest subtask (see PhaseTimer)
+     * Get the wall time of the phases
+     *
+     * @return nanoseconds by phase name
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+
+    /**
+     * Set the wall time of a phase
+     *
+     * @param phase the phase name
+     * @param nanos the wall time in nanoseconds
+     */
+    public void setPhaseNanos(String phase, long nanos) {
+        phaseNanos.put(phase, nanos);
+    }
+
+}
@@ -0,0 +1,312 @@
+package de.lwerner.flink.percentiles.model;
+
+/**
+ * Class ValueBlock
+ *
+ * Describes a block of a block file by its zone map: the values of the block, which lie in [min, max], are still
+ * part of the selection, count says how many these are. The block is only read from the file, if the pivot lies
+ * inside of [min, max]. The less, equal and greater counts are the result of the last comparison with the pivot.
+ *
+ * @author Lukas Werner
+ */
+public class ValueBlock {
+
+    /**
+     * The file path
+     */
+    private String path;
+    /**
+     * The file offset of the block
+     */
+    private long offset;
+    /**
+     * The number of values stored in the block
+     */
+    private int size;
+    /**
+     * The minimum of the remaining values
+     */
+    private float min;
+    /**
+     * The maximum of the remaining values
+     */
+    private float max;
+    /**
+     * The number of remaining values (values in [min, max])
+     */
+    private int count;
+    /**
+     * The rank within all remaining values
+     */
+    private long k;
+    /**
+     * The number of remaining values less than the pivot
+     */
+    private int less;
+    /**
+     * The number of remaining values equal to the pivot
+     */
+    private int equal;
+    /**
+     * The number of remaining values greater than the pivot
+     */
+    private int greater;
+    /**
+     * The biggest value less than the pivot
+     */
+    private float lessMax;
+    /**
+     * The smallest value greater than the pivot
+     */
+    private float greaterMin;
+
+    /**
+     * Default constructor
+     */
+    public ValueBlock() {
+    }
+
+    /**
+     * Constructor, sets the zone map of a block as read from the file
+     *
+     * @param path the file path
+     * @param offset the file offset of the block
+     * @param size the number of values stored in the block
+     * @param min the minimum of the values
+     * @param max the maximum of the values
+     */
+    public ValueBlock(String path, long offset, int size, float min, float max) {
+        this.path = path;
+        this.offset = offset;
+        this.size = size;
+        this.min = min;
+        this.max = max;
+        this.count = size;
+    }
+
+    /**
+     * Check if all remaining values are equal, so the block never has to be read
+     *
+     * @return true, if min equals max
+     */
+    public boolean isConstant() {
+        return min == max;
+    }
+
+    /**
+     * Get the file path
+     *
+     * @return the file path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Set the file path
+     *
+     * @param path the file path
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Get the file offset of the block
+     *
+     * @return the file offset of the block
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Set the file offset of the block
+     *
+     * @param offset the file offset of the block
+     */
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * Get the number of values stored in the block
+     *
+     * @return the number of values stored in the block
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Set the number of values stored in the block
+     *
+     * @param size the number of values stored in the block
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Get the minimum of the remaining values
+     *
+     * @return the minimum of the remaining values
+     */
+    public float getMin() {
+        return min;
+    }
+
+    /**
+     * Set the minimum of the remaining values
+     *
+     * @param min the minimum of the remaining values
+     */
+    public void setMin(float min) {
+        this.min = min;
+    }
+
+    /**
+     * Get the maximum of the remaining values
+     *
+     * @return the maximum of the remaining values
+     */
+    public float getMax() {
+        return max;
+    }
+
+    /**
+     * Set the maximum of the remaining values
+     *
+     * @param max the maximum of the remaining values
+     */
+    public void setMax(float max) {
+        this.max = max;
+    }
+
+    /**
+     * Get the number of remaining values (values in [min, max])
+     *
+     * @return the number of remaining values (values in [min, max])
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Set the number of remaining values (values in [min, max])
+     *
+     * @param count the number of remaining values (values in [min, max])
+     */
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * Get the rank within all remaining values
+     *
+     * @return the rank within all remaining values
+     */
+    public long getK() {
+        return k;
+    }
+
+    /**
+     * Set the rank within all remaining values
+     *
+     * @param k the rank within all remaining values
+     */
+    public void setK(long k) {
+        this.k = k;
+    }
+
+    /**
+     * Get the number of remaining values less than the pivot
+     *
+     * @return the number of remaining values less than the pivot
+     */
+    public int getLess() {
+        return less;
+    }
+
+    /**
+     * Set the number of remaining values less than the pivot
+     *
+     * @param less the number of remaining values less than the pivot
+     */
+    public void setLess(int less) {
+        this.less = less;
+    }
+
+    /**
+     * Get the number of remaining values equal to the pivot
+     *
+     * @return the number of remaining values equal to the pivot
+     */
+    public int getEqual() {
+        return equal;
+    }
+
+    /**
+     * Set the number of remaining values equal to the pivot
+     *
+     * @param equal the number of remaining values equal to the pivot
+     */
+    public void setEqual(int equal) {
+        this.equal = equal;
+    }
+
+    /**
+     * Get the number of remaining values greater than the pivot
+     *
+     * @return the number of remaining values greater than the pivot
+     */
+    public int getGreater() {
+        return greater;
+    }
+
+    /**
+     * Set the number of remaining values greater than the pivot
+     *
+     * @param greater the number of remaining values greater than the pivot
+     */
+    public void setGreater(int greater) {
+        this.greater = greater;
+    }
+
+    /**
+     * Get the biggest value less than the pivot
+     *
+     * @return the biggest value less than the pivot
+     */
+    public float getLessMax() {
+        return lessMax;
+    }
+
+    /**
+     * Set the biggest value less than the pivot
+     *
+     * @param lessMax the biggest value less than the pivot
+     */
+    public void setLessMax(float lessMax) {
+        this.lessMax = lessMax;
+    }
+
+    /**
+     * Get the smallest value greater than the pivot
+     *
+     * @return the smallest value greater than the pivot
+     */
+    public float getGreaterMin() {
+        return greaterMin;
+    }
+
+    /**
+     * Set the smallest value greater than the pivot
+     *
+     * @param greaterMin the smallest value greater than the pivot
+     */
+    public void setGreaterMin(float greaterMin) {
+        this.greaterMin = greaterMin;
+    }
+
+}
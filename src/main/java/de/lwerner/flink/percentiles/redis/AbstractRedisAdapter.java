@@ -1,6 +1,8 @@
 package de.lwerner.flink.percentiles.redis;
 
 import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
+import org.apache.flink.api.common.functions.RuntimeContext;
 
 import java.io.Serializable;
 
@@ -16,11 +18,19 @@ public abstract class AbstractRedisAdapter implements Serializable {
     /**
      * The Jedis adapter name
      */
-    private static final String REDIS_ADAPTER_JEDIS = "jedis";
+    public static final String REDIS_ADAPTER_JEDIS = "jedis";
     /**
      * The adapter name for a redis simulation
      */
-    private static final String REDIS_ADAPTER_FAKE = "fake";
+    public static final String REDIS_ADAPTER_FAKE = "fake";
+    /**
+     * The adapter name for the in-process redis stand-in, the client resolves it to jedis on the embedded server
+     */
+    public static final String REDIS_ADAPTER_EMBEDDED = "embedded";
+    /**
+     * The adapter name for flink iteration aggregators (no external service)
+     */
+    public static final String REDIS_ADAPTER_AGGREGATOR = "aggregator";
 
     /**
      * Gets the N value (holds the current amount of elements, remaining in algorithm)
@@ -106,6 +116,20 @@ public abstract class AbstractRedisAdapter implements Serializable {
      */
     public abstract void setNumberOfIterations(int iterationCount);
 
+    /**
+     * Gets all values in one round trip
+     *
+     * @return the current state
+     */
+    public abstract RedisState getState();
+
+    /**
+     * Sets all values in one round trip
+     *
+     * @param state the new state
+     */
+    public abstract void setState(RedisState state);
+
     /**
      * Closes this adapter and all dependencies
      */
@@ -124,19 +148,28 @@ public abstract class AbstractRedisAdapter implements Serializable {
      * @return the adapter or fake adapter if not found
      */
     public static AbstractRedisAdapter factory(RedisCredentials redisCredentials) {
+        return factory(redisCredentials, null);
+    }
+
+    /**
+     * Factory method, initiates adapter by given properties, which hold the adapter name. Functions pass their runtime
+     * context, so backends without an external service can use iteration aggregators.
+     *
+     * @param redisCredentials the redis connection info
+     * @param context the runtime context of the calling function, null on the client
+     *
+     * @return the adapter or fake adapter if not found
+     */
+    public static AbstractRedisAdapter factory(RedisCredentials redisCredentials, RuntimeContext context) {
         switch (redisCredentials.getAdapter()) {
             case REDIS_ADAPTER_JEDIS:
-                JedisRedisAdapter adapter = new JedisRedisAdapter(redisCredentials.getHost(), redisCredentials.getPort());
-
-                if (redisCredentials.getPassword() != null) {
-                    adapter.auth(redisCredentials.getPassword());
-                }
-
-                return adapter;
+                return new JedisRedisAdapter(redisCredentials);
+            case REDIS_ADAPTER_AGGREGATOR:
+                return new AggregatorRedisAdapter(redisCredentials, context);
             case REDIS_ADAPTER_FAKE:
-                return FakeRedisAdapter.getInstance();
+                return new FakeRedisAdapter(redisCredentials.getNamespace());
             default:
-                return FakeRedisAdapter.getInstance();
+                return new FakeRedisAdapter(redisCredentials.getNamespace());
         }
     }
 
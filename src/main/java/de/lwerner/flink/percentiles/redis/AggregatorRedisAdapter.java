@@ -0,0 +1,168 @@
+package de.lwerner.flink.percentiles.redis;
+
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
+import org.apache.flink.api.common.functions.IterationRuntimeContext;
+import org.apache.flink.api.common.functions.RuntimeContext;
+
+/**
+ * Coordination adapter without an external service. Inside of an iteration, the state of the previous superstep is
+ * read from the iteration aggregate and writes go to the aggregator of the current superstep, so flink ships the state
+ * once per superstep with its own synchronization. The state of the first superstep comes from the credentials, where
+ * the client side adapter (without runtime context) stores it.
+ *
+ * @author Lukas Werner
+ */
+public class AggregatorRedisAdapter extends AbstractRedisAdapter {
+
+    /**
+     * Name of the state aggregator
+     */
+    public static final String AGGREGATOR_NAME = "flink-percentiles-state";
+
+    /**
+     * The connection info, holds the initial state
+     */
+    private RedisCredentials redisCredentials;
+
+    /**
+     * The iteration context, null on the client
+     */
+    private transient IterationRuntimeContext context;
+
+    /**
+     * Constructor, sets credentials and context
+     *
+     * @param redisCredentials the connection info
+     * @param context the runtime context, null on the client
+     */
+    public AggregatorRedisAdapter(RedisCredentials redisCredentials, RuntimeContext context) {
+        this.redisCredentials = redisCredentials;
+
+        if (context != null) {
+            if (!(context instanceof IterationRuntimeContext)) {
+                throw new IllegalStateException("The aggregator adapter can only be used inside of an iteration");
+            }
+
+            this.context = (IterationRuntimeContext)context;
+        }
+    }
+
+    @Override
+    public RedisState getState() {
+        RedisState state = null;
+        if (context != null) {
+            state = context.getPreviousIterationAggregate(AGGREGATOR_NAME);
+        }
+
+        if (state == null || state.getNumberOfIterations() == 0) {
+            state = redisCredentials.getInitialState();
+        }
+        if (state == null) {
+            throw new IllegalStateException("There is no initial state, please set it on the client first");
+        }
+
+        return state;
+    }
+
+    @Override
+    public void setState(RedisState state) {
+        if (context == null) {
+            redisCredentials.setInitialState(state);
+        } else {
+            context.<RedisStateAggregator>getIterationAggregator(AGGREGATOR_NAME).aggregate(state);
+        }
+    }
+
+    @Override
+    public long getN() {
+        return getState().getN();
+    }
+
+    @Override
+    public void setN(long n) {
+        RedisState state = copyState();
+        state.setN(n);
+        setState(state);
+    }
+
+    @Override
+    public void setK(long k) {
+        RedisState state = copyState();
+        state.setK(k);
+        setState(state);
+    }
+
+    @Override
+    public long getK() {
+        return getState().getK();
+    }
+
+    @Override
+    public long getT() {
+        return getState().getT();
+    }
+
+    @Override
+    public void setT(long t) {
+        RedisState state = copyState();
+        state.setT(t);
+        setState(state);
+    }
+
+    @Override
+    public boolean getResultFound() {
+        return getState().isResultFound();
+    }
+
+    @Override
+    public void setResultFound(boolean resultFound) {
+        RedisState state = copyState();
+        state.setResultFound(resultFound);
+        setState(state);
+    }
+
+    @Override
+    public float getResult() {
+        return getState().getResult();
+    }
+
+    @Override
+    public void setResult(float result) {
+        RedisState state = copyState();
+        state.setResult(result);
+        setState(state);
+    }
+
+    @Override
+    public int getNumberOfIterations() {
+        return getState().getNumberOfIterations();
+    }
+
+    @Override
+    public void setNumberOfIterations(int iterationCount) {
+        RedisState state = copyState();
+        state.setNumberOfIterations(iterationCount);
+        setState(state);
+    }
+
+    @Override
+    public void close() {
+        // Do nothing
+    }
+
+    @Override
+    public void reset() {
+        redisCredentials.setInitialState(null);
+    }
+
+    /**
+     * Copies the current state for a single value update
+     *
+     * @return the copy
+     */
+    private RedisState copyState() {
+        return context == null && redisCredentials.getInitialState() == null ? new RedisState() : new RedisState(getState());
+    }
+
+}
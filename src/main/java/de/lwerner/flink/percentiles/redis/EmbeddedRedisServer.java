@@ -0,0 +1,586 @@
+package de.lwerner.flink.percentiles.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class EmbeddedRedisServer
+ *
+ * An in-process stand-in for redis on a loopback port, which speaks the subset of the redis protocol (RESP) used by
+ * this application: PING, AUTH, SELECT, QUIT, GET, SET, DEL, EXISTS, EXPIRE, FLUSHDB, FLUSHALL, HGET, HSET, HMGET,
+ * HMSET, HDEL and HGETALL. Like redis, commands are executed one at a time. So local runs and benchmarks pay the real
+ * network coordination cost without an installed redis.
+ *
+ * @author Lukas Werner
+ */
+public class EmbeddedRedisServer implements Closeable {
+
+    /**
+     * The application logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedRedisServer.class);
+
+    /**
+     * The minimal number of arguments by command, as checked by redis
+     */
+    private static final Map<String, Integer> MIN_ARGUMENTS = new HashMap<>();
+
+    static {
+        for (String name: new String[] {"GET", "DEL", "EXISTS", "HGETALL"}) {
+            MIN_ARGUMENTS.put(name, 1);
+        }
+        for (String name: new String[] {"SET", "EXPIRE", "HGET", "HMGET", "HDEL"}) {
+            MIN_ARGUMENTS.put(name, 2);
+        }
+        for (String name: new String[] {"HSET", "HMSET"}) {
+            MIN_ARGUMENTS.put(name, 3);
+        }
+    }
+
+    /**
+     * The shared instance for local runs
+     */
+    private static EmbeddedRedisServer instance;
+
+    /**
+     * The server socket
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Connection threads
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The password, null if no auth is required
+     */
+    private final String password;
+
+    /**
+     * The keys, binary safe (latin 1)
+     */
+    private final Map<String, Entry> store = new HashMap<>();
+
+    /**
+     * Starts a server on a free loopback port
+     *
+     * @param password the password, null if no auth is required
+     *
+     * @throws IOException if the port couldn't be opened
+     */
+    public EmbeddedRedisServer(String password) throws IOException {
+        this(0, password);
+    }
+
+    /**
+     * Starts a server on a loopback port
+     *
+     * @param port the port, 0 for a free one
+     * @param password the password, null if no auth is required
+     *
+     * @throws IOException if the port couldn't be opened
+     */
+    public EmbeddedRedisServer(int port, String password) throws IOException {
+        this.password = password;
+
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "embedded-redis");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.execute(this::accept);
+
+        LOGGER.info("Embedded redis listens on port {}", getPort());
+    }
+
+    /**
+     * Get the shared instance for local runs, starts it on first access
+     *
+     * @return the shared instance
+     *
+     * @throws IOException if the port couldn't be opened
+     */
+    public static synchronized EmbeddedRedisServer getInstance() throws IOException {
+        if (instance == null) {
+            instance = new EmbeddedRedisServer(null);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Get the host
+     *
+     * @return the loopback host
+     */
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    /**
+     * Get the port
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Accepts connections, until the server is closed
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.warn("Couldn't accept a connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves one connection
+     *
+     * @param socket the client socket
+     */
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream());
+             OutputStream out = new BufferedOutputStream(s.getOutputStream())) {
+            boolean authenticated = password == null;
+
+            List<byte[]> command;
+            while ((command = readCommand(in)) != null) {
+                if (command.isEmpty()) {
+                    continue;
+                }
+
+                String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase();
+                if (name.equals("QUIT")) {
+                    writeSimple(out, "OK");
+                    out.flush();
+                    break;
+                }
+
+                if (name.equals("AUTH")) {
+                    authenticated = password == null || (command.size() == 2 && password.equals(string(command.get(1))));
+                    if (authenticated) {
+                        writeSimple(out, "OK");
+                    } else {
+                        writeError(out, "ERR invalid password");
+                    }
+                } else if (!authenticated) {
+                    writeError(out, "NOAUTH Authentication required.");
+                } else {
+                    synchronized (store) {
+                        execute(name, command, out);
+                    }
+                }
+
+                // Flush, when the client waits for the replies (pipelines are answered at once)
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (SocketException e) {
+            // Connection closed by the client
+        } catch (IOException e) {
+            LOGGER.warn("Connection failed", e);
+        }
+    }
+
+    /**
+     * Executes one command
+     *
+     * @param name the upper case command name
+     * @param command the command and its arguments
+     * @param out the reply stream
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private void execute(String name, List<byte[]> command, OutputStream out) throws IOException {
+        int arguments = command.size() - 1;
+        if (arguments < MIN_ARGUMENTS.getOrDefault(name, 0)) {
+            writeError(out, "ERR wrong number of arguments for '" + name.toLowerCase() + "' command");
+            return;
+        }
+
+        Entry entry = arguments > 0 ? get(string(command.get(1))) : null;
+
+        switch (name) {
+            case "PING":
+                writeSimple(out, "PONG");
+                break;
+            case "SELECT":
+                writeSimple(out, "OK");
+                break;
+            case "FLUSHDB":
+            case "FLUSHALL":
+                store.clear();
+                writeSimple(out, "OK");
+                break;
+            case "GET":
+                if (entry != null && entry.hash != null) {
+                    writeError(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+                } else {
+                    writeBulk(out, entry == null ? null : entry.value);
+                }
+                break;
+            case "SET":
+                store.put(string(command.get(1)), new Entry(command.get(2)));
+                writeSimple(out, "OK");
+                break;
+            case "DEL":
+                long deleted = 0;
+                for (int i = 1; i <= arguments; i++) {
+                    if (get(string(command.get(i))) != null) {
+                        store.remove(string(command.get(i)));
+                        deleted++;
+                    }
+                }
+                writeInteger(out, deleted);
+                break;
+            case "EXISTS":
+                writeInteger(out, entry == null ? 0 : 1);
+                break;
+            case "EXPIRE":
+                long seconds;
+                try {
+                    seconds = Long.parseLong(string(command.get(2)));
+                } catch (NumberFormatException e) {
+                    writeError(out, "ERR value is not an integer or out of range");
+                    break;
+                }
+                if (entry != null) {
+                    entry.expiresAt = System.currentTimeMillis() + seconds * 1000;
+                }
+                writeInteger(out, entry == null ? 0 : 1);
+                break;
+            case "HGET":
+                Map<String, byte[]> hash = hash(entry, out);
+                if (hash != null || entry == null) {
+                    writeBulk(out, hash == null ? null : hash.get(string(command.get(2))));
+                }
+                break;
+            case "HMGET":
+                hash = hash(entry, out);
+                if (hash != null || entry == null) {
+                    writeArrayHeader(out, arguments - 1);
+                    for (int i = 2; i <= arguments; i++) {
+                        writeBulk(out, hash == null ? null : hash.get(string(command.get(i))));
+                    }
+                }
+                break;
+            case "HSET":
+            case "HMSET":
+                if (arguments % 2 == 0) {
+                    writeError(out, "ERR wrong number of arguments for '" + name.toLowerCase() + "' command");
+                    break;
+                }
+                if (entry == null) {
+                    entry = new Entry(new HashMap<>());
+                    store.put(string(command.get(1)), entry);
+                }
+                hash = hash(entry, out);
+                if (hash != null) {
+                    long added = 0;
+                    for (int i = 2; i < arguments; i += 2) {
+                        if (hash.put(string(command.get(i)), command.get(i + 1)) == null) {
+                            added++;
+                        }
+                    }
+                    if (name.equals("HSET")) {
+                        writeInteger(out, added);
+                    } else {
+                        writeSimple(out, "OK");
+                    }
+                }
+                break;
+            case "HDEL":
+                hash = hash(entry, out);
+                if (hash != null || entry == null) {
+                    long removed = 0;
+                    for (int i = 2; hash != null && i <= arguments; i++) {
+                        if (hash.remove(string(command.get(i))) != null) {
+                            removed++;
+                        }
+                    }
+                    writeInteger(out, removed);
+                }
+                break;
+            case "HGETALL":
+                hash = hash(entry, out);
+                if (hash != null || entry == null) {
+                    writeArrayHeader(out, hash == null ? 0 : hash.size() * 2);
+                    if (hash != null) {
+                        for (Map.Entry<String, byte[]> field: hash.entrySet()) {
+                            writeBulk(out, field.getKey().getBytes(StandardCharsets.ISO_8859_1));
+                            writeBulk(out, field.getValue());
+                        }
+                    }
+                }
+                break;
+            default:
+                writeError(out, "ERR unknown command '" + name.toLowerCase() + "'");
+        }
+    }
+
+    /**
+     * Get a key, removes it, if it is expired
+     *
+     * @param key the key
+     *
+     * @return the entry or null
+     */
+    private Entry get(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && entry.expiresAt > 0 && entry.expiresAt <= System.currentTimeMillis()) {
+            store.remove(key);
+            entry = null;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Get the hash of an entry, writes a type error, if the entry isn't a hash
+     *
+     * @param entry the entry, may be null
+     * @param out the reply stream
+     *
+     * @return the hash or null
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static Map<String, byte[]> hash(Entry entry, OutputStream out) throws IOException {
+        if (entry == null) {
+            return null;
+        }
+        if (entry.hash == null) {
+            writeError(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+        }
+
+        return entry.hash;
+    }
+
+    /**
+     * Reads one command (RESP array of bulk strings or an inline command)
+     *
+     * @param in the request stream
+     *
+     * @return the command parts or null at the end of the stream
+     *
+     * @throws IOException if the stream couldn't be read
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+
+        List<byte[]> command = new ArrayList<>();
+        if (first != '*') {
+            String line = (char)first + readLine(in);
+            for (String part: line.trim().split(" +")) {
+                if (!part.isEmpty()) {
+                    command.add(part.getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+
+            return command;
+        }
+
+        int count = Integer.parseInt(readLine(in));
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Protocol error, expected a bulk string");
+            }
+
+            byte[] bytes = new byte[Integer.parseInt(readLine(in))];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n == -1) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            // CRLF
+            in.read();
+            in.read();
+
+            command.add(bytes);
+        }
+
+        return command;
+    }
+
+    /**
+     * Reads a line without CRLF
+     *
+     * @param in the request stream
+     *
+     * @return the line
+     *
+     * @throws IOException if the stream couldn't be read
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                throw new EOFException();
+            }
+            if (c != '\r') {
+                line.append((char)c);
+            }
+        }
+
+        return line.toString();
+    }
+
+    /**
+     * Binary safe string of bytes
+     *
+     * @param bytes the bytes
+     *
+     * @return the string
+     */
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Writes a simple string reply
+     *
+     * @param out the reply stream
+     * @param value the value
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes an error reply
+     *
+     * @param out the reply stream
+     * @param message the error message
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes an integer reply
+     *
+     * @param out the reply stream
+     * @param value the value
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes an array header
+     *
+     * @param out the reply stream
+     * @param size the number of elements
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static void writeArrayHeader(OutputStream out, int size) throws IOException {
+        out.write(("*" + size + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes a bulk string reply, null is the nil reply
+     *
+     * @param out the reply stream
+     * @param value the value or null
+     *
+     * @throws IOException if the reply couldn't be written
+     */
+    private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+        } else {
+            out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(value);
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * A key, holds either a value or a hash
+     *
+     * @author Lukas Werner
+     */
+    private static final class Entry {
+
+        /**
+         * The string value
+         */
+        private byte[] value;
+        /**
+         * The hash
+         */
+        private Map<String, byte[]> hash;
+        /**
+         * Expiry time (epoch millis), 0 if it doesn't expire
+         */
+        private long expiresAt;
+
+        /**
+         * Constructor for a string value
+         *
+         * @param value the value
+         */
+        private Entry(byte[] value) {
+            this.value = value;
+        }
+
+        /**
+         * Constructor for a hash
+         *
+         * @param hash the hash
+         */
+        private Entry(Map<String, byte[]> hash) {
+            this.hash = hash;
+        }
+    }
+
+}
@@ -1,100 +1,116 @@
 package de.lwerner.flink.percentiles.redis;
 
+import de.lwerner.flink.percentiles.model.RedisState;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
 /**
- * A fake redis adapter, which simulates the behaviour on single node environments
+ * A fake redis adapter, which simulates the behaviour on single node environments. Each job namespace has its own
+ * state, held as an immutable snapshot in an atomic reference, so all parallel subtasks of a local environment share
+ * it without locks: reads are a volatile read, writes are a compare and set of a new snapshot. Resetting removes the
+ * state of the namespace, so the driver resets after the job to release it.
  *
  * @author Lukas Werner
  */
 public class FakeRedisAdapter extends AbstractRedisAdapter {
 
     /**
-     * Singleton instance
+     * The states by job namespace
      */
-    private static FakeRedisAdapter instance;
+    private static final ConcurrentMap<String, AtomicReference<RedisState>> STATES = new ConcurrentHashMap<>();
 
     /**
-     * Easy holding of n
-     */
-    private long n;
-    /**
-     * k
-     */
-    private long k;
-    /**
-     * t
-     */
-    private long t;
-    /**
-     * resultFound
+     * The job namespace
      */
-    private boolean resultFound;
+    private final String namespace;
+
     /**
-     * result
+     * The state of this adapter's namespace, null after a reset
      */
-    private float result;
+    private AtomicReference<RedisState> state;
+
     /**
-     * iteration count
+     * Constructor, binds the adapter to the state of a namespace
+     *
+     * @param namespace the job namespace
      */
-    private int iterationCount;
+    public FakeRedisAdapter(String namespace) {
+        this.namespace = namespace;
+        state = bind();
+    }
 
     @Override
     public long getN() {
-        return n;
+        return state().get().getN();
     }
 
     @Override
     public void setN(long n) {
-        this.n = n;
+        update(s -> s.setN(n));
     }
 
     @Override
     public void setK(long k) {
-        this.k = k;
+        update(s -> s.setK(k));
     }
 
     @Override
     public long getK() {
-        return k;
+        return state().get().getK();
     }
 
     @Override
     public long getT() {
-        return t;
+        return state().get().getT();
     }
 
     @Override
     public void setT(long t) {
-        this.t = t;
+        update(s -> s.setT(t));
     }
 
     @Override
     public boolean getResultFound() {
-        return resultFound;
+        return state().get().isResultFound();
     }
 
     @Override
     public void setResultFound(boolean resultFound) {
-        this.resultFound = resultFound;
+        update(s -> s.setResultFound(resultFound));
     }
 
     @Override
     public float getResult() {
-        return result;
+        return state().get().getResult();
     }
 
     @Override
     public void setResult(float result) {
-        this.result = result;
+        update(s -> s.setResult(result));
     }
 
     @Override
     public int getNumberOfIterations() {
-        return iterationCount;
+        return state().get().getNumberOfIterations();
     }
 
     @Override
     public void setNumberOfIterations(int iterationCount) {
-        this.iterationCount = iterationCount;
+        update(s -> s.setNumberOfIterations(iterationCount));
+    }
+
+    @Override
+    public RedisState getState() {
+        // Snapshots are never changed after publishing
+        return new RedisState(state().get());
+    }
+
+    @Override
+    public void setState(RedisState state) {
+        state().set(new RedisState(state));
     }
 
     @Override
@@ -104,23 +120,44 @@ public class FakeRedisAdapter extends AbstractRedisAdapter {
 
     @Override
     public void reset() {
-        setN(0);
-        setResult(0);
-        setResultFound(false);
-        setT(0);
+        STATES.remove(namespace);
+        state = null;
     }
 
     /**
-     * Singleton access method
+     * Get the state of the namespace, binds it again after a reset
      *
-     * @return the instance
+     * @return the state
      */
-    public static FakeRedisAdapter getInstance() {
-        if (instance == null) {
-            instance = new FakeRedisAdapter();
+    private AtomicReference<RedisState> state() {
+        if (state == null) {
+            state = bind();
         }
 
-        return instance;
+        return state;
+    }
+
+    /**
+     * Binds the state of the namespace, creates it if absent
+     *
+     * @return the state
+     */
+    private AtomicReference<RedisState> bind() {
+        return STATES.computeIfAbsent(namespace, key -> new AtomicReference<>(new RedisState()));
+    }
+
+    /**
+     * Changes one value, by replacing the snapshot (compare and set, retried on contention)
+     *
+     * @param change the change to apply on a copy
+     */
+    private void update(Consumer<RedisState> change) {
+        state().updateAndGet(current -> {
+            RedisState next = new RedisState(current);
+            change.accept(next);
+
+            return next;
+        });
     }
 
 }
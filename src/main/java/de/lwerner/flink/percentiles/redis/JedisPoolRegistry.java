@@ -0,0 +1,90 @@
+package de.lwerner.flink.percentiles.redis;
+
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Protocol;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class JedisPoolRegistry
+ *
+ * Holds one bounded connection pool per redis credentials for the whole JVM, so all slots of a task manager share
+ * their connections and functions, which are opened again in each superstep, don't connect and authenticate again.
+ * Idle connections are validated in the background, borrowing doesn't cost an extra round trip.
+ *
+ * @author Lukas Werner
+ */
+public final class JedisPoolRegistry {
+
+    /**
+     * Idle connections are checked this often (milliseconds)
+     */
+    private static final long EVICTION_INTERVAL = 30000;
+
+    /**
+     * The pools by credentials
+     */
+    private static final ConcurrentMap<RedisCredentials, JedisPool> POOLS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(JedisPoolRegistry::closeAll));
+    }
+
+    /**
+     * No instances
+     */
+    private JedisPoolRegistry() {
+    }
+
+    /**
+     * Borrows a connection from the pool of the given credentials, creates the pool on first access. Closing the
+     * connection returns it to the pool.
+     *
+     * @param redisCredentials the redis connection info
+     *
+     * @return a pooled connection
+     */
+    public static Jedis getResource(RedisCredentials redisCredentials) {
+        return POOLS.computeIfAbsent(redisCredentials, JedisPoolRegistry::createPool).getResource();
+    }
+
+    /**
+     * Closes all pools
+     */
+    public static void closeAll() {
+        for (RedisCredentials redisCredentials: POOLS.keySet()) {
+            JedisPool pool = POOLS.remove(redisCredentials);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a pool
+     *
+     * @param redisCredentials the redis connection info
+     *
+     * @return the new pool
+     */
+    private static JedisPool createPool(RedisCredentials redisCredentials) {
+        if (redisCredentials.getPoolSize() < 1) {
+            throw new IllegalArgumentException("Please provide a redis pool size of at least 1");
+        }
+
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(redisCredentials.getPoolSize());
+        config.setMaxIdle(redisCredentials.getPoolSize());
+        config.setMinIdle(0);
+        config.setTestWhileIdle(true);
+        config.setTimeBetweenEvictionRunsMillis(EVICTION_INTERVAL);
+
+        return new JedisPool(config, redisCredentials.getHost(), redisCredentials.getPort(), Protocol.DEFAULT_TIMEOUT,
+                redisCredentials.getPassword());
+    }
+
+}
@@ -1,10 +1,13 @@
 package de.lwerner.flink.percentiles.redis;
 
+import de.lwerner.flink.percentiles.model.RedisCredentials;
+import de.lwerner.flink.percentiles.model.RedisState;
 import de.lwerner.flink.percentiles.util.JedisHelper;
 import redis.clients.jedis.Jedis;
 
 /**
- * Concrete Jedis access adapter class, uses JedisHelper to get and set values
+ * Concrete Jedis access adapter class, uses JedisHelper to get and set values. The connection is borrowed from the
+ * JVM wide pool of the credentials and returned on close.
  *
  * @author Lukas Werner
  */
@@ -16,82 +19,94 @@ public class JedisRedisAdapter extends AbstractRedisAdapter {
     private Jedis jedis;
 
     /**
-     * Constructor, connects to Redis by using JedisHelper and Jedis itself
-     *
-     * @param host the redis host
-     * @param port the redis port
+     * The state hash key of the job
      */
-    public JedisRedisAdapter(String host, int port) {
-        jedis = JedisHelper.getJedis(host, port);
-    }
+    private byte[] key;
+
+    /**
+     * Seconds until the state expires
+     */
+    private int ttl;
 
     /**
-     * Authenticate
+     * Constructor, borrows a (authenticated) connection from the pool
      *
-     * @param password the password to send
+     * @param redisCredentials the redis connection info
      */
-    public void auth(String password) {
-        jedis.auth(password);
+    public JedisRedisAdapter(RedisCredentials redisCredentials) {
+        jedis = JedisPoolRegistry.getResource(redisCredentials);
+        key = JedisHelper.getKey(redisCredentials.getNamespace());
+        ttl = redisCredentials.getTtl();
     }
 
     @Override
     public long getN() {
-        return JedisHelper.getN(jedis);
+        return JedisHelper.getN(jedis, key);
     }
 
     @Override
     public void setN(long n) {
-        JedisHelper.setN(jedis, n);
+        JedisHelper.setN(jedis, key, ttl, n);
     }
 
     @Override
     public void setK(long k) {
-        JedisHelper.setK(jedis, k);
+        JedisHelper.setK(jedis, key, ttl, k);
     }
 
     @Override
     public long getK() {
-        return JedisHelper.getK(jedis);
+        return JedisHelper.getK(jedis, key);
     }
 
     @Override
     public long getT() {
-        return JedisHelper.getT(jedis);
+        return JedisHelper.getT(jedis, key);
     }
 
     @Override
     public void setT(long t) {
-        JedisHelper.setT(jedis, t);
+        JedisHelper.setT(jedis, key, ttl, t);
     }
 
     @Override
     public boolean getResultFound() {
-        return JedisHelper.getResultFound(jedis);
+        return JedisHelper.getResultFound(jedis, key);
     }
 
     @Override
     public void setResultFound(boolean resultFound) {
-        JedisHelper.setResultFound(jedis, resultFound);
+        JedisHelper.setResultFound(jedis, key, ttl, resultFound);
     }
 
     @Override
     public float getResult() {
-        return JedisHelper.getResult(jedis);
+        return JedisHelper.getResult(jedis, key);
     }
 
     @Override
     public void setResult(float result) {
-        JedisHelper.setResult(jedis, result);
+        JedisHelper.setResult(jedis, key, ttl, result);
     }
 
     @Override
     public int getNumberOfIterations() {
-        return JedisHelper.getNumberOfIterations(jedis);
+        return JedisHelper.getNumberOfIterations(jedis, key);
     }
 
     @Override
     public void setNumberOfIterations(int iterationCount) {
-        JedisHelper.setNumberOfIterations(jedis, iterationCount);
+        JedisHelper.setNumberOfIterations(jedis, key, ttl, iterationCount);
+    }
+
+    @Override
+    public RedisState getState() {
+        return JedisHelper.getState(jedis, key);
+    }
+
+    @Override
+    public void setState(RedisState state) {
+        JedisHelper.setState(jedis, key, ttl, state);
     }
 
     @Override
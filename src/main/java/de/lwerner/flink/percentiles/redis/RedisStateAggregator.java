@@ -0,0 +1,36 @@
+package de.lwerner.flink.percentiles.redis;
+
+import de.lwerner.flink.percentiles.model.RedisState;
+import org.apache.flink.api.common.aggregators.Aggregator;
+
+/**
+ * Iteration aggregator, which carries the coordination state from one superstep to the next. There is a single writer
+ * per superstep, subtasks without a write contribute an empty state (no iteration count), which is ignored.
+ *
+ * @author Lukas Werner
+ */
+public class RedisStateAggregator implements Aggregator<RedisState> {
+
+    /**
+     * The aggregated state
+     */
+    private RedisState state = new RedisState();
+
+    @Override
+    public RedisState getAggregate() {
+        return state;
+    }
+
+    @Override
+    public void aggregate(RedisState element) {
+        if (element.getNumberOfIterations() > 0) {
+            state = new RedisState(element);
+        }
+    }
+
+    @Override
+    public void reset() {
+        state = new RedisState();
+    }
+
+}
@@ -0,0 +1,18 @@
+package de.lwerner.flink.percentiles.redis;
+
+import de.lwerner.flink.percentiles.model.RedisState;
+import org.apache.flink.api.common.aggregators.ConvergenceCriterion;
+
+/**
+ * Stops the iteration, as soon as the aggregated state says, that the result was found
+ *
+ * @author Lukas Werner
+ */
+public class ResultFoundConvergenceCriterion implements ConvergenceCriterion<RedisState> {
+
+    @Override
+    public boolean isConverged(int iteration, RedisState value) {
+        return value.isResultFound();
+    }
+
+}
@@ -0,0 +1,144 @@
+package de.lwerner.flink.percentiles.timeMeasurement;
+
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.ListAccumulator;
+import org.apache.flink.api.common.functions.IterationRuntimeContext;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Class PhaseTimer
+ *
+ * Measures the time of one phase of a job inside of a function: the sum of the timed sections (start to stop) of all
+ * calls of a subtask. Functions time only their own work, so the time a task waits for its inputs and broadcast sets
+ * and the work of chained functions behind the collector aren't part of the phase. Per record functions pay two clock
+ * reads per record. In close(), each subtask adds a (superstep, phase, nanoseconds) record to the phase time
+ * accumulator, superstep 0 for phases outside of an iteration. The driver takes the slowest subtask as the time of the
+ * phase (see ResultCollector). Functions hold the timer as a field, so it is serializable.
+ *
+ * @author Lukas Werner
+ */
+public class PhaseTimer implements Serializable {
+
+    /**
+     * Name of the accumulator, which holds the (superstep, phase, nanoseconds) records
+     */
+    public static final String ACCUMULATOR = "phaseTimes";
+
+    /**
+     * Phase, which calculates the medians of the partitions
+     */
+    public static final String PARTITION_MEDIANS = "partition medians";
+    /**
+     * Phase, which counts the values less, equal and greater than the pivot
+     */
+    public static final String COUNTING = "counting";
+    /**
+     * Phase, which discards the values not needed anymore
+     */
+    public static final String DISCARD = "discard";
+    /**
+     * Phase, which solves the remaining values serially
+     */
+    public static final String FINAL_SOLVE = "final solve";
+
+    /**
+     * All phases in order
+     */
+    public static final String[] PHASES = {PARTITION_MEDIANS, COUNTING, DISCARD, FINAL_SOLVE};
+
+    /**
+     * The phase name
+     */
+    private final String phase;
+
+    /**
+     * The runtime context of the function
+     */
+    private transient RuntimeContext context;
+
+    /**
+     * The phase time accumulator, which lives for the whole job
+     */
+    private transient Accumulator<Tuple3<Integer, String, Long>, ArrayList<Tuple3<Integer, String, Long>>> phaseTimes;
+
+    /**
+     * Start time of the current section in nanoseconds
+     */
+    private transient long start;
+
+    /**
+     * Sum of the timed sections in nanoseconds
+     */
+    private transient long nanos;
+
+    /**
+     * Was a section timed since open?
+     */
+    private transient boolean timed;
+
+    /**
+     * Constructor, sets the phase name
+     *
+     * @param phase the phase name
+     */
+    public PhaseTimer(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Opens the timer for a task (and superstep), call it in open(). Inside of an iteration, accumulators are only
+     * added in the first superstep, so every subtask adds it here.
+     *
+     * @param context the runtime context of the function
+     */
+    public void open(RuntimeContext context) {
+        this.context = context;
+
+        phaseTimes = context.getAccumulator(ACCUMULATOR);
+        if (phaseTimes == null) {
+            phaseTimes = new ListAccumulator<>();
+            context.addAccumulator(ACCUMULATOR, phaseTimes);
+        }
+
+        nanos = 0;
+        timed = false;
+    }
+
+    /**
+     * Starts a timed section, usually at the beginning of a call
+     */
+    public void start() {
+        start = System.nanoTime();
+    }
+
+    /**
+     * Stops the timed section and adds it to the sum, usually before the result is collected
+     */
+    public void stop() {
+        nanos += System.nanoTime() - start;
+        timed = true;
+    }
+
+    /**
+     * Adds the sum of the timed sections to the accumulator, call it in close(). Nothing is added, if no section was
+     * timed (no records).
+     */
+    public void close() {
+        if (!timed) {
+            return;
+        }
+
+        int superstep = context instanceof IterationRuntimeContext
+                ? ((IterationRuntimeContext)context).getSuperstepNumber()
+                : 0;
+
+        phaseTimes.add(new Tuple3<>(superstep, phase, nanos));
+        nanos = 0;
+        timed = false;
+    }
+
+}
@@ -1,11 +1,16 @@
 package de.lwerner.flink.percentiles.timeMeasurement;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * Class Timer
  *
- * Handles multiple timer by string identifiers.
+ * Handles multiple timer by string identifiers. Timers are measured with System.nanoTime and can be nested: a timer
+ * started while others run is stored under the path of the running timers ("job/execute"), so it has to be stopped
+ * before its parents.
  *
  * @author Lukas Werner
  */
@@ -17,11 +22,20 @@ public class Timer {
     public static final String DEFAULT_TIMER_NAME = "default";
 
     /**
-     * The actual timers (start times)
+     * Separates the names of nested timers
+     */
+    public static final String PATH_SEPARATOR = "/";
+
+    /**
+     * The running timers, innermost first
+     */
+    private Deque<String> running;
+    /**
+     * The actual timers (start times by path)
      */
     private HashMap<String, Long> timers;
     /**
-     * The timer results (running times)
+     * The timer results (running times in nanoseconds by path, in start order)
      */
     private HashMap<String, Long> timerResults;
 
@@ -29,14 +43,15 @@ public class Timer {
      * Initializes collections
      */
     public Timer() {
+        running = new ArrayDeque<>();
         timers = new HashMap<>();
-        timerResults = new HashMap<>();
+        timerResults = new LinkedHashMap<>();
     }
 
     /**
      * Get all the timer results
      *
-     * @return all timer results
+     * @return all timer results, running times in nanoseconds by path
      */
     public HashMap<String, Long> getTimerResults() {
         return timerResults;
@@ -45,89 +60,113 @@ public class Timer {
     /**
      * Start the default timer
      *
-     * @throws Exception if timer already runs
+     * @throws IllegalStateException if timer already runs
      */
-    public void startTimer() throws Exception {
+    public void startTimer() {
         startTimer(DEFAULT_TIMER_NAME);
     }
 
     /**
-     * Start custom timer by name
+     * Start custom timer by name, nested into the running timers
      *
      * @param timerName timer name
      *
-     * @throws Exception if timer already runs
+     * @throws IllegalStateException if timer already runs
      */
-    public void startTimer(String timerName) throws Exception {
-        Long time = timers.get(timerName);
+    public void startTimer(String timerName) {
+        String path = pathOf(timerName);
 
-        if (time != null) {
-            throw new Exception(String.format("Timer %s already runs!", timerName));
+        if (timers.containsKey(path)) {
+            throw new IllegalStateException(String.format("Timer %s already runs!", path));
         }
 
-        timers.put(timerName, System.currentTimeMillis());
+        // Reserve the position of the result, so results are in start order
+        timerResults.put(path, 0L);
+        running.push(path);
+        timers.put(path, System.nanoTime());
     }
 
     /**
      * Stop default timer
      *
-     * @throws Exception if timer doesn't run yet
+     * @throws IllegalStateException if timer doesn't run yet
      */
-    public void stopTimer() throws Exception {
+    public void stopTimer() {
         stopTimer(DEFAULT_TIMER_NAME);
     }
 
     /**
-     * Stop custom timer by name
+     * Stop custom timer by name, it has to be the innermost running timer
      *
      * @param timerName timer name
      *
-     * @throws Exception if timer doesn't run yet
+     * @throws IllegalStateException if timer isn't the innermost running timer
      */
-    public void stopTimer(String timerName) throws Exception {
-        long now = System.currentTimeMillis();
+    public void stopTimer(String timerName) {
+        long now = System.nanoTime();
 
-        Long startTime = timers.get(timerName);
-
-        if (startTime == null) {
-            throw new Exception(String.format("Timer %s isn't running yet!", timerName));
+        String path = running.peek();
+        if (path == null || !(path.equals(timerName) || path.endsWith(PATH_SEPARATOR + timerName))) {
+            throw new IllegalStateException(String.format("Timer %s isn't the innermost running timer!", timerName));
         }
 
-        timers.remove(timerName);
+        running.pop();
+        long startTime = timers.remove(path);
 
-        long runningTime = now - startTime;
+        timerResults.put(path, now - startTime);
+    }
 
-        timerResults.put(timerName, runningTime);
+    /**
+     * Adds a running time, which was measured elsewhere (e.g. inside of a job), nested into the running timers
+     *
+     * @param timerName timer name
+     * @param nanos the running time in nanoseconds
+     */
+    public void addTimerResult(String timerName, long nanos) {
+        timerResults.put(pathOf(timerName), nanos);
     }
 
     /**
      * Get the result for the default timer
      *
-     * @return the running time in ms
+     * @return the running time in nanoseconds
      *
-     * @throws Exception if there is no result for the default timer present
+     * @throws IllegalStateException if there is no result for the default timer present
      */
-    public long getTimerResult() throws Exception {
+    public long getTimerResult() {
         return getTimerResult(DEFAULT_TIMER_NAME);
     }
 
     /**
-     * Get the result for a custom timer by name
+     * Get the result for a custom timer by path
      *
-     * @param timerName timer name
+     * @param timerName timer path ("job/execute" for nested timers)
      *
-     * @return the running time in ms
+     * @return the running time in nanoseconds
      *
-     * @throws Exception if there is no result for this timer present
+     * @throws IllegalStateException if there is no result for this timer present
      */
-    public long getTimerResult(String timerName) throws Exception {
+    public long getTimerResult(String timerName) {
         Long timerResult = timerResults.get(timerName);
 
-        if (timerResult == null) {
-            throw new Exception(String.format("No timer result for timer %s!", timerName));
+        if (timerResult == null || timers.containsKey(timerName)) {
+            throw new IllegalStateException(String.format("No timer result for timer %s!", timerName));
         }
 
         return timerResult;
     }
 
-}
\ No newline at end of file
+    /**
+     * Get the path of a timer, nested into the innermost running timer
+     *
+     * @param timerName timer name
+     *
+     * @return the timer path
+     */
+    private String pathOf(String timerName) {
+        String parent = running.peek();
+
+        return parent == null ? timerName : parent + PATH_SEPARATOR + timerName;
+    }
+
+}
@@ -1,175 +1,355 @@
 package de.lwerner.flink.percentiles.util;
 
+import de.lwerner.flink.percentiles.model.RedisState;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Helper class for comfortably working with Jedis, a Redis client library
+ * Helper class for comfortably working with Jedis, a Redis client library. All values of a job live in one redis hash
+ * with binary fields (big endian longs and ints, float bits, one byte booleans), so the whole state is read with one
+ * HMGET and written with one HMSET. The hash key contains the job namespace, each write refreshes its expiry in the
+ * same round trip (pipeline).
  *
  * @author Lukas Werner
  */
 public class JedisHelper {
 
     /**
-     * Redis key for the k value
+     * Prefix of the state hash keys
+     */
+    private static final String REDIS_KEY_PREFIX = "flink-percentiles:";
+    /**
+     * Hash field for the k value
      */
-    private static final String REDIS_KEY_K = "flink-percentiles-k";
+    private static final byte[] FIELD_K = {'k'};
     /**
-     * Redis key for the n value
+     * Hash field for the n value
      */
-    private static final String REDIS_KEY_N = "flink-percentiles-n";
+    private static final byte[] FIELD_N = {'n'};
     /**
-     * Redis key for the t value
+     * Hash field for the t value
      */
-    private static final String REDIS_KEY_T = "flink-percentiles-t";
+    private static final byte[] FIELD_T = {'t'};
     /**
-     * Redis key for the resultFound value
+     * Hash field for the resultFound value
      */
-    private static final String REDIS_KEY_RESULT_FOUND = "flink-percentiles-result-found";
+    private static final byte[] FIELD_RESULT_FOUND = {'f'};
     /**
-     * Redis key for the result value
+     * Hash field for the result value
      */
-    private static final String REDIS_KEY_RESULT = "flink-percentiles-result";
+    private static final byte[] FIELD_RESULT = {'r'};
     /**
-     * Redis key for the number of iterations
+     * Hash field for the number of iterations
      */
-    private static final String REDIS_KEY_NUMBER_OF_ITERATIONS = "flink-percentiles-number-of-iterations";
+    private static final byte[] FIELD_NUMBER_OF_ITERATIONS = {'i'};
+
+    /**
+     * Builds the state hash key of a namespace
+     *
+     * @param namespace the job namespace
+     *
+     * @return the key
+     */
+    public static byte[] getKey(String namespace) {
+        return (REDIS_KEY_PREFIX + namespace).getBytes(StandardCharsets.UTF_8);
+    }
 
     /**
-     * Build a Jedis object
+     * Reads the whole state with one HMGET
      *
-     * @param host the redis host
-     * @param port the redis port
+     * @param jedis the Jedis object
+     * @param key the state hash key
      *
-     * @return the built Jedis object
+     * @return the current state
      */
-    public static Jedis getJedis(String host, int port) {
-        return new Jedis(host, port);
+    public static RedisState getState(Jedis jedis, byte[] key) {
+        List<byte[]> values = jedis.hmget(key, FIELD_K, FIELD_N, FIELD_T, FIELD_RESULT_FOUND, FIELD_RESULT, FIELD_NUMBER_OF_ITERATIONS);
+
+        return new RedisState(
+                decodeLong(values.get(0)),
+                decodeLong(values.get(1)),
+                decodeLong(values.get(2)),
+                decodeBoolean(values.get(3)),
+                decodeFloat(values.get(4)),
+                decodeInt(values.get(5))
+        );
+    }
+
+    /**
+     * Writes the whole state with one HMSET
+     *
+     * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
+     * @param state the new state
+     */
+    public static void setState(Jedis jedis, byte[] key, int ttl, RedisState state) {
+        Map<byte[], byte[]> fields = new HashMap<>();
+        fields.put(FIELD_K, encodeLong(state.getK()));
+        fields.put(FIELD_N, encodeLong(state.getN()));
+        fields.put(FIELD_T, encodeLong(state.getT()));
+        fields.put(FIELD_RESULT_FOUND, encodeBoolean(state.isResultFound()));
+        fields.put(FIELD_RESULT, encodeFloat(state.getResult()));
+        fields.put(FIELD_NUMBER_OF_ITERATIONS, encodeInt(state.getNumberOfIterations()));
+
+        Pipeline pipeline = jedis.pipelined();
+        pipeline.hmset(key, fields);
+        pipeline.expire(key, ttl);
+        pipeline.sync();
     }
 
     /**
      * Set a new value for nth k
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param k the new k value
      */
-    public static void setK(Jedis jedis, long k) {
-        jedis.set(REDIS_KEY_K, "" + k);
+    public static void setK(Jedis jedis, byte[] key, int ttl, long k) {
+        set(jedis, key, ttl, FIELD_K, encodeLong(k));
     }
 
     /**
      * Set a new value for n
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param n the new n value
      */
-    public static void setN(Jedis jedis, long n) {
-        jedis.set(REDIS_KEY_N, "" + n);
+    public static void setN(Jedis jedis, byte[] key, int ttl, long n) {
+        set(jedis, key, ttl, FIELD_N, encodeLong(n));
     }
 
     /**
      * Set a new value for t
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param t the new t value
      */
-    public static void setT(Jedis jedis, long t) {
-        jedis.set(REDIS_KEY_T, "" + t);
+    public static void setT(Jedis jedis, byte[] key, int ttl, long t) {
+        set(jedis, key, ttl, FIELD_T, encodeLong(t));
     }
 
     /**
      * Set a new value for resultFound
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param resultFound the new resultFound value
      */
-    public static void setResultFound(Jedis jedis, boolean resultFound) {
-        jedis.set(REDIS_KEY_RESULT_FOUND, "" + resultFound);
+    public static void setResultFound(Jedis jedis, byte[] key, int ttl, boolean resultFound) {
+        set(jedis, key, ttl, FIELD_RESULT_FOUND, encodeBoolean(resultFound));
     }
 
     /**
      * Set a new value for result
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param result the new result value
      */
-    public static void setResult(Jedis jedis, float result) {
-        jedis.set(REDIS_KEY_RESULT, "" + result);
+    public static void setResult(Jedis jedis, byte[] key, int ttl, float result) {
+        set(jedis, key, ttl, FIELD_RESULT, encodeFloat(result));
     }
 
     /**
      * Set number of iterations
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
      * @param iterationCount new number of iterations
      */
-    public static void setNumberOfIterations(Jedis jedis, int iterationCount) {
-        jedis.set(REDIS_KEY_NUMBER_OF_ITERATIONS, "" + iterationCount);
+    public static void setNumberOfIterations(Jedis jedis, byte[] key, int ttl, int iterationCount) {
+        set(jedis, key, ttl, FIELD_NUMBER_OF_ITERATIONS, encodeInt(iterationCount));
     }
 
     /**
      * Get the current value for k
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the current value for k
      */
-    public static long getK(Jedis jedis) {
-        return Long.valueOf(jedis.get(REDIS_KEY_K));
+    public static long getK(Jedis jedis, byte[] key) {
+        return decodeLong(jedis.hget(key, FIELD_K));
     }
 
     /**
      * Get the current value for n
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the current value for n
      */
-    public static long getN(Jedis jedis) {
-        return Long.valueOf(jedis.get(REDIS_KEY_N));
+    public static long getN(Jedis jedis, byte[] key) {
+        return decodeLong(jedis.hget(key, FIELD_N));
     }
 
     /**
      * Get the current value for t
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the current value for t
      */
-    public static long getT(Jedis jedis) {
-        return Long.valueOf(jedis.get(REDIS_KEY_T));
+    public static long getT(Jedis jedis, byte[] key) {
+        return decodeLong(jedis.hget(key, FIELD_T));
     }
 
     /**
      * Get the current value for resultFound
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the current value for resultFound
      */
-    public static boolean getResultFound(Jedis jedis) {
-        return Boolean.valueOf(jedis.get(REDIS_KEY_RESULT_FOUND));
+    public static boolean getResultFound(Jedis jedis, byte[] key) {
+        return decodeBoolean(jedis.hget(key, FIELD_RESULT_FOUND));
     }
 
     /**
      * Get the current value for result
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the current value for result
      */
-    public static float getResult(Jedis jedis) {
-        return Float.valueOf(jedis.get(REDIS_KEY_RESULT));
+    public static float getResult(Jedis jedis, byte[] key) {
+        return decodeFloat(jedis.hget(key, FIELD_RESULT));
     }
 
     /**
      * Get the number of iterations
      *
      * @param jedis the Jedis object
+     * @param key the state hash key
      *
      * @return the number of iterations
      */
-    public static int getNumberOfIterations(Jedis jedis) {
-        return Integer.valueOf(jedis.get(REDIS_KEY_NUMBER_OF_ITERATIONS));
+    public static int getNumberOfIterations(Jedis jedis, byte[] key) {
+        return decodeInt(jedis.hget(key, FIELD_NUMBER_OF_ITERATIONS));
+    }
+
+    /**
+     * Sets one field and refreshes the expiry in one round trip
+     *
+     * @param jedis the Jedis object
+     * @param key the state hash key
+     * @param ttl seconds until the state expires
+     * @param field the field
+     * @param value the encoded value
+     */
+    private static void set(Jedis jedis, byte[] key, int ttl, byte[] field, byte[] value) {
+        Pipeline pipeline = jedis.pipelined();
+        pipeline.hset(key, field, value);
+        pipeline.expire(key, ttl);
+        pipeline.sync();
+    }
+
+    /**
+     * Encodes a long as 8 bytes
+     *
+     * @param value the value
+     *
+     * @return the bytes
+     */
+    private static byte[] encodeLong(long value) {
+        return ByteBuffer.allocate(8).putLong(value).array();
+    }
+
+    /**
+     * Encodes an int as 4 bytes
+     *
+     * @param value the value
+     *
+     * @return the bytes
+     */
+    private static byte[] encodeInt(int value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    /**
+     * Encodes a float as its 4 bit pattern bytes
+     *
+     * @param value the value
+     *
+     * @return the bytes
+     */
+    private static byte[] encodeFloat(float value) {
+        return encodeInt(Float.floatToIntBits(value));
+    }
+
+    /**
+     * Encodes a boolean as one byte
+     *
+     * @param value the value
+     *
+     * @return the bytes
+     */
+    private static byte[] encodeBoolean(boolean value) {
+        return new byte[] {(byte)(value ? 1 : 0)};
+    }
+
+    /**
+     * Decodes a long, missing fields are 0
+     *
+     * @param bytes the bytes
+     *
+     * @return the value
+     */
+    private static long decodeLong(byte[] bytes) {
+        return bytes == null ? 0 : ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Decodes an int, missing fields are 0
+     *
+     * @param bytes the bytes
+     *
+     * @return the value
+     */
+    private static int decodeInt(byte[] bytes) {
+        return bytes == null ? 0 : ByteBuffer.wrap(bytes).getInt();
+    }
+
+    /**
+     * Decodes a float, missing fields are 0
+     *
+     * @param bytes the bytes
+     *
+     * @return the value
+     */
+    private static float decodeFloat(byte[] bytes) {
+        return Float.intBitsToFloat(decodeInt(bytes));
+    }
+
+    /**
+     * Decodes a boolean, missing fields are false
+     *
+     * @param bytes the bytes
+     *
+     * @return the value
+     */
+    private static boolean decodeBoolean(byte[] bytes) {
+        return bytes != null && bytes[0] == 1;
     }
 
-}
\ No newline at end of file
+}
@@ -3,6 +3,10 @@ package de.lwerner.flink.percentiles.util;
 import de.lwerner.flink.percentiles.data.*;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Class ParamHelper provides methods for simplifying param handling.
@@ -28,12 +32,29 @@ public class ParamHelper {
         env.setParallelism(parallelism);
     }
 
+    /**
+     * Set parallelism to stream execution environment defined by params, default is 8
+     *
+     * @param params the parameter tool from flink api
+     * @param env the stream execution environment from flink
+     */
+    public static void extractParallelismFromParams(ParameterTool params, StreamExecutionEnvironment env) {
+        String parallelismString = params.get("parallelism", "8");
+        int parallelism = Integer.valueOf(parallelismString);
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Please provide parallelism greater than 0!");
+        }
+
+        env.setParallelism(parallelism);
+    }
+
     /**
      * Get the data source from parameters
      *
      * @param params the flink parameter tool
      * @param env    the flink execution environment
-     * @param n      number of values to read
+     * @param n      number of values to read or UNKNOWN_COUNT, file sources take it from the metadata, if possible
      *
      * @return the concrete data source
      */
@@ -44,52 +65,73 @@ public class ParamHelper {
 
         switch (dataSource) {
             case "random":
-                source = new RandomSource(env, n);
-                break;
             case "exponential":
-                source = new ExponentialSource(env, n);
-                break;
             case "allequal":
-                source = new AllEqualGeneratorSource(env, n);
-                break;
             case "asc":
-                source = new SortedAscGeneratorSource(env, n);
-                break;
             case "desc":
-                source = new SortedDescGeneratorSource(env, n);
-                break;
-            case "hdfs":
-                String path = params.getRequired("input-path");
-                if (!path.startsWith("hdfs://")) {
-                    throw new IllegalArgumentException("Path must start with hdfs://");
+                if (n < 1) {
+                    throw new IllegalArgumentException("If you're using the generator data source, please provide a value count: --count <num>");
                 }
 
-                source = new HdfsSource(env, path, n);
+                source = new GeneratorSource(env, dataSource, Long.valueOf(params.get("seed", "" + System.currentTimeMillis())), n);
+                break;
+            // Paths are resolved by FilePaths: hdfs:// or file://, comma separated, directories and glob patterns
+            case "hdfs":
+            case "file":
+                source = new HdfsSource(env, params.getRequired("input-path"), n);
+                break;
+            case "binary":
+                source = new BinarySource(env, params.getRequired("input-path"), params.get("binary-type", BinaryFloatInputFormat.TYPE_FLOAT), n);
+                break;
+            case "blocks":
+                source = new BlockSource(env, params.getRequired("input-path"), n);
                 break;
             default:
-                throw new IllegalArgumentException("You must provide a source: --source <generator|hdfs>");
+                throw new IllegalArgumentException("You must provide a source: --source <generator|hdfs|file|binary|blocks>");
         }
 
         return source;
     }
 
     /**
-     * Get the data sink from parameters
+     * Get the data sink from parameters, a comma separated list ("print,hdfs") is served by one job execution
      *
      * @param params the flink parameter tool
      *
      * @return the concrete data sink
      */
     public static SinkInterface getSinkFromParams(ParameterTool params) {
-        SinkInterface sink;
+        String[] dataSinks = params.get("sink", "print").split(",");
+        if (dataSinks.length == 1) {
+            return getSink(params, dataSinks[0].trim());
+        }
 
-        String dataSink = params.get("sink", "print");
+        List<SinkInterface> sinks = new ArrayList<>();
+        for (String dataSink: dataSinks) {
+            sinks.add(getSink(params, dataSink.trim()));
+        }
+
+        return new CompositeSink(sinks);
+    }
+
+    /**
+     * Get a single data sink by name
+     *
+     * @param params the flink parameter tool
+     * @param dataSink the sink name
+     *
+     * @return the concrete data sink
+     */
+    private static SinkInterface getSink(ParameterTool params, String dataSink) {
+        SinkInterface sink;
 
         switch (dataSink) {
             case "print":
                 sink = new PrintSink();
                 break;
+            // The hdfs sink writes a collected summary sorted by quantile, summary is an alias
             case "hdfs":
+            case "summary":
                 String path = params.getRequired("output-path");
                 if (!path.startsWith("hdfs://")) {
                     throw new IllegalArgumentException("Path must start with hdfs://");
@@ -98,10 +140,74 @@ public class ParamHelper {
                 sink = new HdfsSink(path);
                 break;
             default:
-                throw new IllegalArgumentException("You must provide an processResult: --processResult <print|hdfs>");
+                throw new IllegalArgumentException("You must provide a sink: --sink <print|hdfs|summary>[,...]");
+        }
+
+        return sink;
+    }
+
+    /**
+     * Get the streaming data source from parameters
+     *
+     * @param params the flink parameter tool
+     * @param env    the flink stream execution environment
+     *
+     * @return the concrete streaming data source
+     */
+    public static StreamSourceInterface getStreamSourceFromParams(ParameterTool params, StreamExecutionEnvironment env) {
+        StreamSourceInterface source;
+
+        String dataSource = params.get("source", "socket");
+
+        switch (dataSource) {
+            case "socket":
+                source = new TextStreamSource(env, params.get("host", "localhost"), Integer.valueOf(params.getRequired("port")));
+                break;
+            case "file":
+                source = new TextStreamSource(env, params.getRequired("input-path"));
+                break;
+            case "random":
+            case "exponential":
+            case "allequal":
+            case "asc":
+            case "desc":
+                source = new GeneratorStreamSource(env, dataSource,
+                        Long.valueOf(params.get("seed", "" + System.currentTimeMillis())),
+                        Long.valueOf(params.get("rate", "0")),
+                        Integer.valueOf(params.get("keys", "1")),
+                        Long.valueOf(params.get("count", "0")));
+                break;
+            default:
+                throw new IllegalArgumentException("You must provide a source: --source <socket|file|random|exponential|allequal|asc|desc>");
+        }
+
+        return source;
+    }
+
+    /**
+     * Get the streaming data sink from parameters
+     *
+     * @param params the flink parameter tool
+     *
+     * @return the concrete streaming data sink
+     */
+    public static StreamSinkInterface getStreamSinkFromParams(ParameterTool params) {
+        StreamSinkInterface sink;
+
+        String dataSink = params.get("sink", "print");
+
+        switch (dataSink) {
+            case "print":
+                sink = new PrintStreamSink();
+                break;
+            case "file":
+                sink = new FileStreamSink(params.getRequired("output-path"));
+                break;
+            default:
+                throw new IllegalArgumentException("You must provide a sink: --sink <print|file>");
         }
 
         return sink;
     }
 
-}
\ No newline at end of file
+}
@@ -24,7 +24,35 @@ public enum PropertyName {
     /**
      * Redis password for auth
      */
-    REDIS_PASSWORD("redis.password");
+    REDIS_PASSWORD("redis.password"),
+    /**
+     * Maximum number of pooled redis connections per task manager
+     */
+    REDIS_POOL_SIZE("redis.pool.size"),
+    /**
+     * Seconds until the redis state of a job expires
+     */
+    REDIS_TTL("redis.ttl"),
+    /**
+     * Fixed redis key namespace, a random one per job if not set
+     */
+    REDIS_NAMESPACE("redis.namespace"),
+    /**
+     * Result cache type (none, disk or redis)
+     */
+    CACHE_TYPE("cache.type"),
+    /**
+     * Directory of the disk result cache
+     */
+    CACHE_PATH("cache.path"),
+    /**
+     * Maximum number of results in the disk result cache
+     */
+    CACHE_MAX_ENTRIES("cache.max.entries"),
+    /**
+     * Seconds until a result in the redis result cache expires
+     */
+    CACHE_TTL("cache.ttl");
 
     /**
      * The actual property key
@@ -0,0 +1,214 @@
+package de.lwerner.flink.percentiles.util;
+
+import de.lwerner.flink.percentiles.data.AccumulatorOutputFormat;
+import de.lwerner.flink.percentiles.model.Result;
+import de.lwerner.flink.percentiles.model.SuperstepStatistics;
+import de.lwerner.flink.percentiles.timeMeasurement.PhaseTimer;
+import de.lwerner.flink.percentiles.timeMeasurement.Timer;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.ListAccumulator;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class ResultCollector
+ *
+ * Runs the job of a result exactly once and populates the result on the driver: the solution value, the summary and
+ * the iteration statistics are returned through accumulators. So the sinks only write the populated result, and
+ * several sinks are served without running the job again. The driver times the job with a nested timer, the
+ * statistics of each superstep and the phase times measured inside of the job are attached to the result.
+ *
+ * @author Lukas Werner
+ */
+public final class ResultCollector {
+
+    /**
+     * Name of the accumulator, which holds the solution
+     */
+    public static final String SOLUTION_ACCUMULATOR = "solution";
+
+    /**
+     * Name of the accumulator, which holds the summary
+     */
+    public static final String SUMMARY_ACCUMULATOR = "summary";
+
+    /**
+     * Name of the accumulator, which holds the number of supersteps
+     */
+    public static final String SUPERSTEPS_ACCUMULATOR = "supersteps";
+
+    /**
+     * Name of the accumulator, which holds the rank resolved in the job (unknown count)
+     */
+    public static final String RANK_ACCUMULATOR = "rank";
+
+    /**
+     * Name of the accumulator, which holds the statistics of each superstep
+     */
+    public static final String STATISTICS_ACCUMULATOR = "superstepStatistics";
+
+    /**
+     * Timer name of the whole job on the driver
+     */
+    public static final String JOB_TIMER = "job";
+
+    /**
+     * Timer name of the job execution, nested into the job timer
+     */
+    public static final String EXECUTE_TIMER = "execute";
+
+    /**
+     * No instances
+     */
+    private ResultCollector() {
+    }
+
+    /**
+     * Executes the job of the result and populates value, summary, supersteps, a resolved rank, the net runtime and
+     * the instrumentation. A result without solution and summary (e.g. cached) is left untouched.
+     *
+     * @param env the execution environment of the result data sets
+     * @param result the result model
+     * @param jobName the job name
+     *
+     * @throws Exception if the job fails
+     */
+    public static void collect(ExecutionEnvironment env, Result result, String jobName) throws Exception {
+        collect(env, result, jobName, new Timer());
+    }
+
+    /**
+     * Executes the job of the result and populates value, summary, supersteps, a resolved rank, the net runtime and
+     * the instrumentation. A result without solution and summary (e.g. cached) is left untouched.
+     *
+     * @param env the execution environment of the result data sets
+     * @param result the result model
+     * @param jobName the job name
+     * @param timer the timer of the algorithm, the job is timed nested into its running timers
+     *
+     * @throws Exception if the job fails
+     */
+    public static void collect(ExecutionEnvironment env, Result result, String jobName, Timer timer) throws Exception {
+        if (result.getSolution() == null && result.getSummary() == null) {
+            return;
+        }
+
+        timer.startTimer(JOB_TIMER);
+
+        if (result.getSolution() != null) {
+            result.getSolution().output(new AccumulatorOutputFormat<>(SOLUTION_ACCUMULATOR));
+        }
+        if (result.getSummary() != null) {
+            result.getSummary().output(new AccumulatorOutputFormat<>(SUMMARY_ACCUMULATOR));
+        }
+
+        timer.startTimer(EXECUTE_TIMER);
+        JobExecutionResult jobExecutionResult = env.execute(jobName);
+
+        Map<Integer, Map<String, Long>> phaseNanos = collectPhaseNanos(jobExecutionResult);
+        Map<String, Long> finalPhaseNanos = phaseNanos.remove(0);
+        if (finalPhaseNanos != null) {
+            for (Map.Entry<String, Long> phase: finalPhaseNanos.entrySet()) {
+                timer.addTimerResult(phase.getKey(), phase.getValue());
+            }
+        }
+        timer.stopTimer(EXECUTE_TIMER);
+
+        if (result.getSolution() != null) {
+            List<Tuple1<Float>> solution = jobExecutionResult.getAccumulatorResult(SOLUTION_ACCUMULATOR);
+            if (solution == null || solution.isEmpty()) {
+                throw new IllegalStateException("The job returned no solution! Please check the code!");
+            }
+            result.setValue(solution.get(0).f0);
+        }
+
+        if (result.getSummary() != null) {
+            List<Tuple3<Integer, Long, Float>> summary = jobExecutionResult.getAccumulatorResult(SUMMARY_ACCUMULATOR);
+            List<Tuple3<Integer, Long, Float>> summaryValues = summary == null ? new ArrayList<>() : new ArrayList<>(summary);
+            summaryValues.sort((a, b) -> Integer.compare(a.f0, b.f0));
+            result.setSummaryValues(summaryValues);
+        }
+
+        Integer supersteps = jobExecutionResult.getAccumulatorResult(SUPERSTEPS_ACCUMULATOR);
+        result.setSupersteps(supersteps == null ? 0 : supersteps);
+
+        Long rank = jobExecutionResult.getAccumulatorResult(RANK_ACCUMULATOR);
+        if (rank != null) {
+            result.setK(rank);
+        }
+
+        List<SuperstepStatistics> statistics = jobExecutionResult.getAccumulatorResult(STATISTICS_ACCUMULATOR);
+        List<SuperstepStatistics> superstepStatistics = statistics == null ? new ArrayList<>() : new ArrayList<>(statistics);
+        superstepStatistics.sort((a, b) -> Integer.compare(a.getSuperstep(), b.getSuperstep()));
+        for (SuperstepStatistics superstep: superstepStatistics) {
+            Map<String, Long> phases = phaseNanos.get(superstep.getSuperstep());
+            if (phases != null) {
+                for (Map.Entry<String, Long> phase: phases.entrySet()) {
+                    superstep.setPhaseNanos(phase.getKey(), phase.getValue());
+                }
+            }
+        }
+        result.setSuperstepStatistics(superstepStatistics);
+
+        result.setNetRuntime(jobExecutionResult.getNetRuntime());
+
+        timer.stopTimer(JOB_TIMER);
+        result.setTimerResults(timer.getTimerResults());
+    }
+
+    /**
+     * Get the accumulator of the superstep statistics inside of the job, call it in open(): inside of an iteration,
+     * accumulators are only added in the first superstep, so every subtask has to add it there
+     *
+     * @param context the runtime context of the deciding function
+     *
+     * @return the accumulator, which lives for the whole job
+     */
+    public static Accumulator<SuperstepStatistics, ArrayList<SuperstepStatistics>> getSuperstepStatisticsAccumulator(RuntimeContext context) {
+        Accumulator<SuperstepStatistics, ArrayList<SuperstepStatistics>> accumulator = context.getAccumulator(STATISTICS_ACCUMULATOR);
+        if (accumulator == null) {
+            accumulator = new ListAccumulator<>();
+            context.addAccumulator(STATISTICS_ACCUMULATOR, accumulator);
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * Collects the phase times measured inside of the job, the slowest subtask is the wall time of a phase
+     *
+     * @param jobExecutionResult the job execution result
+     *
+     * @return nanoseconds by phase by superstep (0 for phases outside of the iteration)
+     */
+    private static Map<Integer, Map<String, Long>> collectPhaseNanos(JobExecutionResult jobExecutionResult) {
+        Map<Integer, Map<String, Long>> phaseNanos = new TreeMap<>();
+
+        List<Tuple3<Integer, String, Long>> phaseTimes = jobExecutionResult.getAccumulatorResult(PhaseTimer.ACCUMULATOR);
+        if (phaseTimes != null) {
+            // In the order of the phases, unknown phases last
+            List<String> order = Arrays.asList(PhaseTimer.PHASES);
+            phaseTimes = new ArrayList<>(phaseTimes);
+            phaseTimes.sort((a, b) -> Integer.compare(Math.floorMod(order.indexOf(a.f1), order.size() + 1),
+                    Math.floorMod(order.indexOf(b.f1), order.size() + 1)));
+
+            for (Tuple3<Integer, String, Long> phaseTime: phaseTimes) {
+                phaseNanos.computeIfAbsent(phaseTime.f0, superstep -> new LinkedHashMap<>())
+                        .merge(phaseTime.f1, phaseTime.f2, Math::max);
+            }
+        }
+
+        return phaseNanos;
+    }
+
+}
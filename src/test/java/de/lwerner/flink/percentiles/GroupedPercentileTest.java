@@ -0,0 +1,97 @@
+package de.lwerner.flink.percentiles;
+
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the grouped percentiles on the local and the distributed path
+ *
+ * @author Lukas Werner
+ */
+public class GroupedPercentileTest {
+
+    /**
+     * The group sizes, 7 and 14 hit the rounding of ceil(n / 100.0 * p)
+     */
+    private static final int[] GROUP_SIZES = {1, 7, 14, 100, 1000};
+
+    /**
+     * The percentage values
+     */
+    private static final int[] PERCENTILES = {1, 50, 99, 100};
+
+    /**
+     * All groups are solved inside one reducer
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void smallGroups() throws Exception {
+        assertGroupedPercentiles(Long.MAX_VALUE);
+    }
+
+    /**
+     * All groups are solved in the distributed selection
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void largeGroups() throws Exception {
+        assertGroupedPercentiles(0);
+    }
+
+    /**
+     * Groups up to 100 values are solved locally, the others distributed
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void mixedGroups() throws Exception {
+        assertGroupedPercentiles(100);
+    }
+
+    /**
+     * Runs the grouped percentiles on a collection environment and compares each result to the sorted group
+     *
+     * @param groupThreshold groups with more values are solved distributed
+     *
+     * @throws Exception if the job fails
+     */
+    private void assertGroupedPercentiles(long groupThreshold) throws Exception {
+        Random random = new Random(42);
+        Map<String, float[]> groups = new HashMap<>();
+        List<Tuple2<String, Float>> tuples = new ArrayList<>();
+        for (int size: GROUP_SIZES) {
+            String group = "g" + size;
+            float[] values = new float[size];
+            for (int i = 0; i < size; i++) {
+                // Duplicates included
+                values[i] = random.nextInt(size / 2 + 1);
+                tuples.add(new Tuple2<>(group, values[i]));
+            }
+            Arrays.sort(values);
+            groups.put(group, values);
+        }
+        Collections.shuffle(tuples, random);
+
+        ExecutionEnvironment env = ExecutionEnvironment.createCollectionsEnvironment();
+        GroupedPercentile algorithm = new GroupedPercentile(null, null, PERCENTILES, groupThreshold);
+
+        List<Tuple3<String, Integer, Float>> results = algorithm.apply(env.fromCollection(tuples)).collect();
+
+        assertEquals(GROUP_SIZES.length * PERCENTILES.length, results.size());
+        for (Tuple3<String, Integer, Float> result: results) {
+            float[] values = groups.get(result.f0);
+            int k = Math.max(1, (values.length * result.f1 + 99) / 100);
+
+            assertEquals(result.f0 + ", p: " + result.f1, values[k - 1], result.f2, 0f);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.functions.summary.Buckets;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the exact quantile summary with heavy duplicates
+ *
+ * @author Lukas Werner
+ */
+public class QuantileSummaryTest {
+
+    /**
+     * Values equal to a splitter go to the splitter bucket of the first equal splitter, others between the splitters
+     */
+    @Test
+    public void bucketOfSplitterValues() {
+        float[] splitters = {1f, 2f, 2f, 2f, 3f};
+
+        assertEquals(0, Buckets.bucketOf(splitters, 0.5f));
+        assertEquals(1, Buckets.bucketOf(splitters, 1f));
+        assertEquals(2, Buckets.bucketOf(splitters, 1.5f));
+        assertEquals(3, Buckets.bucketOf(splitters, 2f));
+        assertEquals(8, Buckets.bucketOf(splitters, 2.5f));
+        assertEquals(9, Buckets.bucketOf(splitters, 3f));
+        assertEquals(10, Buckets.bucketOf(splitters, 4f));
+        assertEquals(11, Buckets.bucketCount(splitters));
+        assertTrue(Buckets.isSplitterBucket(3));
+        assertEquals(2f, Buckets.splitterOf(splitters, 3), 0f);
+    }
+
+    /**
+     * All boundaries of all-equal values are that value
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void allEqualValues() throws Exception {
+        List<Float> values = new ArrayList<>(Collections.nCopies(100000, 0.5f));
+
+        assertSummary(values, 100);
+    }
+
+    /**
+     * A summary of 90% duplicates matches the sorted values, with random values below and above the duplicate
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void mostlyDuplicateValues() throws Exception {
+        Random random = new Random(42);
+        List<Float> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(i % 10 == 0 ? random.nextFloat() : 0.25f);
+        }
+        Collections.shuffle(values, random);
+
+        assertSummary(values, 100);
+    }
+
+    /**
+     * Runs the exact summary on a collection environment and compares each boundary to the sorted values
+     *
+     * @param values the values
+     * @param buckets the number of equi-depth buckets
+     *
+     * @throws Exception if the job fails
+     */
+    private void assertSummary(List<Float> values, int buckets) throws Exception {
+        ExecutionEnvironment env = ExecutionEnvironment.createCollectionsEnvironment();
+        List<Tuple1<Float>> tuples = new ArrayList<>();
+        for (Float value: values) {
+            tuples.add(new Tuple1<>(value));
+        }
+
+        List<Tuple3<Integer, Long, Float>> summary = new ArrayList<>(QuantileSummary
+                .exactSummary(env.fromCollection(tuples), buckets, 1)
+                .collect());
+        summary.sort((a, b) -> Integer.compare(a.f0, b.f0));
+
+        float[] sorted = new float[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+
+        assertEquals(buckets - 1, summary.size());
+        for (int i = 0; i < summary.size(); i++) {
+            Tuple3<Integer, Long, Float> boundary = summary.get(i);
+            long rank = (long)Math.ceil((double)sorted.length * (i + 1) / buckets);
+
+            assertEquals(i + 1, (int)boundary.f0);
+            assertEquals(rank, (long)boundary.f1);
+            assertEquals(sorted[(int)(rank - 1)], boundary.f2, 0f);
+        }
+    }
+
+}
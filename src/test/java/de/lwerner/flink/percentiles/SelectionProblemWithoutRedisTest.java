@@ -0,0 +1,118 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.cache.DiskResultCache;
+import de.lwerner.flink.percentiles.data.GeneratorSource;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A unit test for the result cache of the selection without redis: a repeated query is answered without a job
+ *
+ * @author Lukas Werner
+ */
+public class SelectionProblemWithoutRedisTest {
+
+    /**
+     * The value count
+     */
+    private static final long COUNT = 1000;
+
+    /**
+     * The searched rank
+     */
+    private static final long K = 333;
+
+    /**
+     * Folder for the cache directory
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The first solve runs the job and caches the value, the second one reads it from the cache and never touches the
+     * data set of its source
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void cacheHitRunsNoJob() throws Exception {
+        DiskResultCache cache = new DiskResultCache(folder.newFolder().getAbsolutePath(), 10);
+
+        ExecutionEnvironment env = ExecutionEnvironment.createCollectionsEnvironment();
+        GeneratorSource source = new GeneratorSource(env, "random", 42, COUNT);
+
+        SelectionProblemWithoutRedis selectionProblem = new SelectionProblemWithoutRedis(source, null, K, 10, false);
+        selectionProblem.setResultCache(cache);
+        selectionProblem.solve();
+
+        List<Float> sorted = new ArrayList<>(source.getValues());
+        Collections.sort(sorted);
+        float value = selectionProblem.getResult().getValue();
+        assertEquals(sorted.get((int)K - 1), value, 0f);
+
+        SelectionProblemWithoutRedis cachedProblem = new SelectionProblemWithoutRedis(new UnreadableSource(source), null, K, 10, false);
+        cachedProblem.setResultCache(cache);
+        cachedProblem.solve();
+
+        assertEquals(value, cachedProblem.getResult().getValue(), 0f);
+        assertNull(cachedProblem.getResult().getSolution());
+    }
+
+    /**
+     * A source with the fingerprint of another source, which fails if a job is built from it
+     */
+    private static class UnreadableSource implements SourceInterface {
+
+        /**
+         * The source, which provides count, environment and fingerprint
+         */
+        private final SourceInterface source;
+
+        /**
+         * Constructor, sets the source
+         *
+         * @param source the source, which provides count, environment and fingerprint
+         */
+        UnreadableSource(SourceInterface source) {
+            this.source = source;
+        }
+
+        @Override
+        public long getCount() {
+            return source.getCount();
+        }
+
+        @Override
+        public DataSet<Tuple1<Float>> getDataSet() {
+            throw new AssertionError("A cache hit mustn't read the source");
+        }
+
+        @Override
+        public List<Float> getValues() {
+            throw new AssertionError("A cache hit mustn't read the source");
+        }
+
+        @Override
+        public ExecutionEnvironment getEnv() {
+            return source.getEnv();
+        }
+
+        @Override
+        public String getFingerprint() throws Exception {
+            return source.getFingerprint();
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.algorithm.AbstractPercentile;
+import de.lwerner.flink.percentiles.algorithm.AbstractSelectionProblem;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the weighted percentile: the exact and the approximate mode are checked against the exploded
+ * and sorted values, by rank and by percentile
+ *
+ * @author Lukas Werner
+ */
+public class WeightedPercentileTest {
+
+    /**
+     * Maximum allowed rank error of the approximate mode, relative to the total weight
+     */
+    private static final double ALLOWED_ERROR = 0.02;
+
+    /**
+     * Few distinct values with many duplicate records, including zero weights
+     *
+     * @throws Exception if a job fails
+     */
+    @Test
+    public void manyDuplicates() throws Exception {
+        Random random = new Random(42);
+        List<Tuple2<Float, Long>> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            records.add(new Tuple2<>((float)random.nextInt(20), (long)random.nextInt(6)));
+        }
+
+        assertWeightedPercentiles(records);
+    }
+
+    /**
+     * Distinct values with mostly zero weights, a few records carry all of the weight
+     *
+     * @throws Exception if a job fails
+     */
+    @Test
+    public void mostlyZeroWeights() throws Exception {
+        Random random = new Random(7);
+        List<Tuple2<Float, Long>> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            records.add(new Tuple2<>(random.nextFloat() * 1000 - 500, i % 10 == 0 ? 1L + random.nextInt(50) : 0L));
+        }
+
+        assertWeightedPercentiles(records);
+    }
+
+    /**
+     * Runs the exact and the approximate mode for several ranks (including 1 and the total weight) and percentiles
+     * (including 1 and 100) and compares the results with the exploded, sorted values
+     *
+     * @param records the (value, weight) records
+     *
+     * @throws Exception if a job fails
+     */
+    private void assertWeightedPercentiles(List<Tuple2<Float, Long>> records) throws Exception {
+        List<Float> explodedList = new ArrayList<>();
+        for (Tuple2<Float, Long> record: records) {
+            for (long i = 0; i < record.f1; i++) {
+                explodedList.add(record.f0);
+            }
+        }
+        float[] sorted = new float[explodedList.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = explodedList.get(i);
+        }
+        Arrays.sort(sorted);
+        long total = sorted.length;
+
+        for (long k: new long[] {1, 2, total / 3, total / 2, total - 1, total}) {
+            assertEquals("k: " + k, sorted[(int)k - 1], run(records, k, 0, WeightedPercentile.MODE_EXACT), 0f);
+            assertApproximate(sorted, k, run(records, k, 0, WeightedPercentile.MODE_APPROXIMATE));
+        }
+
+        for (int p: new int[] {1, 25, 50, 99, 100}) {
+            long k = AbstractPercentile.rankOf(total, p);
+
+            assertEquals("p: " + p, sorted[(int)k - 1], run(records, AbstractSelectionProblem.UNKNOWN_RANK, p, WeightedPercentile.MODE_EXACT), 0f);
+            assertApproximate(sorted, k, run(records, AbstractSelectionProblem.UNKNOWN_RANK, p, WeightedPercentile.MODE_APPROXIMATE));
+        }
+    }
+
+    /**
+     * Asserts, that the ranks of an approximate result are close to k
+     *
+     * @param sorted the exploded, sorted values
+     * @param k the searched rank
+     * @param value the approximate result
+     */
+    private static void assertApproximate(float[] sorted, long k, float value) {
+        long less = 0;
+        long lessOrEqual = 0;
+        for (float v: sorted) {
+            if (v < value) {
+                less++;
+            }
+            if (v <= value) {
+                lessOrEqual++;
+            }
+        }
+
+        double allowed = ALLOWED_ERROR * sorted.length;
+        assertTrue("k: " + k + ", value: " + value + ", ranks: " + (less + 1) + " to " + lessOrEqual,
+                k >= less + 1 - allowed && k <= lessOrEqual + allowed);
+    }
+
+    /**
+     * Runs one weighted selection on a collection environment
+     *
+     * @param records the (value, weight) records
+     * @param k the searched rank, UNKNOWN_RANK for the percentile
+     * @param percentile the percentile, if k is UNKNOWN_RANK
+     * @param mode exact or approximate
+     *
+     * @return the selected value
+     *
+     * @throws Exception if the job fails
+     */
+    private static float run(List<Tuple2<Float, Long>> records, long k, int percentile, String mode) throws Exception {
+        ExecutionEnvironment env = ExecutionEnvironment.createCollectionsEnvironment();
+        WeightedPercentile algorithm = new WeightedPercentile(null, null, k, percentile, 0, mode);
+
+        List<Tuple1<Float>> solution = WeightedPercentile.MODE_EXACT.equals(mode)
+                ? algorithm.exact(env.fromCollection(records)).collect()
+                : algorithm.approximate(env.fromCollection(records)).collect();
+
+        assertEquals(1, solution.size());
+
+        return solution.get(0).f0;
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.lwerner.flink.percentiles;
+
+import de.lwerner.flink.percentiles.data.BlockFileWriter;
+import de.lwerner.flink.percentiles.data.BlockSource;
+import de.lwerner.flink.percentiles.data.SourceInterface;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the zone map selection: pivot estimation, block counting, narrowing of the zone maps and the
+ * final solve are checked against the sorted values
+ *
+ * @author Lukas Werner
+ */
+public class ZoneMapSelectionProblemTest {
+
+    /**
+     * The value count, not a multiple of the block capacity, so the last block is partial
+     */
+    private static final int COUNT = 1000;
+
+    /**
+     * Values per block
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Folder for the written files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Ascending values, the pivot lies next to the result
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void sortedValues() throws Exception {
+        float[] values = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = i;
+        }
+
+        assertSelection(values);
+    }
+
+    /**
+     * Descending values
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void reverseSortedValues() throws Exception {
+        float[] values = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = COUNT - i;
+        }
+
+        assertSelection(values);
+    }
+
+    /**
+     * All values equal, each block is constant and never read
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void allEqualValues() throws Exception {
+        float[] values = new float[COUNT];
+        Arrays.fill(values, 0.5f);
+
+        assertSelection(values);
+    }
+
+    /**
+     * Random values with duplicates and negative values
+     *
+     * @throws Exception if the job fails
+     */
+    @Test
+    public void randomValues() throws Exception {
+        Random random = new Random(42);
+        float[] values = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = random.nextInt(300) - 100;
+        }
+
+        assertSelection(values);
+    }
+
+    /**
+     * Writes the values to a block file and compares the selection of several ranks (including 1 and n) with the
+     * sorted values, once with the whole selection inside of the iteration and once with a serial threshold
+     *
+     * @param values the values
+     *
+     * @throws Exception if a job fails
+     */
+    private void assertSelection(float[] values) throws Exception {
+        File file = folder.newFile();
+        try (BlockFileWriter writer = new BlockFileWriter(file, CAPACITY)) {
+            writer.write(values, values.length);
+        }
+
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (long t: new long[] {0, 100}) {
+            for (long k: new long[] {1, 2, COUNT / 3, COUNT / 2, COUNT - 1, COUNT}) {
+                ExecutionEnvironment env = ExecutionEnvironment.createCollectionsEnvironment();
+                SourceInterface source = new BlockSource(env, "file://" + file.getAbsolutePath(), COUNT);
+
+                ZoneMapSelectionProblem selectionProblem = new ZoneMapSelectionProblem(source, null, k, t, false);
+                selectionProblem.setResultCache(null);
+                selectionProblem.solve();
+
+                assertEquals("k: " + k + ", t: " + t, sorted[(int)k - 1], selectionProblem.getResult().getValue(), 0f);
+            }
+        }
+    }
+
+}
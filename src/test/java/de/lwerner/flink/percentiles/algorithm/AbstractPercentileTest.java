@@ -0,0 +1,65 @@
+package de.lwerner.flink.percentiles.algorithm;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the percentile rank
+ *
+ * @author Lukas Werner
+ */
+public class AbstractPercentileTest {
+
+    /**
+     * Small counts, including the boundaries 0 and 100 percent
+     */
+    @Test
+    public void rankOfSmallCounts() {
+        assertEquals(0, AbstractPercentile.rankOf(0, 50));
+        assertEquals(1, AbstractPercentile.rankOf(1, 1));
+        assertEquals(0, AbstractPercentile.rankOf(10, 0));
+        assertEquals(5, AbstractPercentile.rankOf(10, 50));
+        assertEquals(6, AbstractPercentile.rankOf(11, 50));
+        assertEquals(10, AbstractPercentile.rankOf(10, 100));
+        assertEquals(111000, AbstractPercentile.rankOf(300000, 37));
+    }
+
+    /**
+     * Counts beyond the float precision (and beyond int) match ceil(n * p / 100) exactly
+     */
+    @Test
+    public void rankOfLargeCounts() {
+        long[] counts = {16777217L, 2147483649L, 1099511627777L, 123456789012345679L, Long.MAX_VALUE};
+        for (long n: counts) {
+            for (int p = 0; p <= 100; p++) {
+                BigInteger[] division = BigInteger.valueOf(n).multiply(BigInteger.valueOf(p))
+                        .divideAndRemainder(BigInteger.valueOf(100));
+                long expected = division[0].longValueExact() + (division[1].signum() > 0 ? 1 : 0);
+
+                assertEquals("n = " + n + ", p = " + p, expected, AbstractPercentile.rankOf(n, p));
+            }
+        }
+    }
+
+    /**
+     * Every count up to 1000 matches ceil(n * p / 100) in integer arithmetic and never exceeds n, where the double
+     * expression ceil(n / 100.0 * p) overshoots (e.g. n = 7, p = 100)
+     */
+    @Test
+    public void rankOfEveryCountUpTo1000() {
+        for (long n = 0; n <= 1000; n++) {
+            for (int p = 0; p <= 100; p++) {
+                long k = AbstractPercentile.rankOf(n, p);
+
+                assertEquals("n = " + n + ", p = " + p, (n * p + 99) / 100, k);
+                assertTrue(k <= n);
+            }
+        }
+        assertEquals(7, AbstractPercentile.rankOf(7, 100));
+        assertEquals(7, AbstractPercentile.rankOf(14, 50));
+    }
+
+}
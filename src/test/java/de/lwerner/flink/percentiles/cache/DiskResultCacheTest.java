@@ -0,0 +1,112 @@
+package de.lwerner.flink.percentiles.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the disk result cache: hits, misses, overwrites and the eviction of the least recently used
+ * entries
+ *
+ * @author Lukas Werner
+ */
+public class DiskResultCacheTest {
+
+    /**
+     * Folder for the cache directory
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A put value is read again, an unknown key is a miss
+     *
+     * @throws Exception if the folder couldn't be created
+     */
+    @Test
+    public void hitAndMiss() throws Exception {
+        DiskResultCache cache = new DiskResultCache(folder.newFolder().getAbsolutePath(), 10);
+        cache.put("a", 1.5f);
+        cache.put("b", -2f);
+
+        assertEquals(1.5f, cache.get("a"), 0f);
+        assertEquals(-2f, cache.get("b"), 0f);
+        assertNull(cache.get("c"));
+    }
+
+    /**
+     * A second put of a key replaces the value and doesn't add an entry
+     *
+     * @throws Exception if the folder couldn't be created
+     */
+    @Test
+    public void overwrite() throws Exception {
+        File directory = folder.newFolder();
+        DiskResultCache cache = new DiskResultCache(directory.getAbsolutePath(), 10);
+        cache.put("a", 1f);
+        cache.put("a", 2f);
+
+        assertEquals(2f, cache.get("a"), 0f);
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    /**
+     * Beyond (maxEntries), the oldest entry is evicted
+     *
+     * @throws Exception if the folder couldn't be created
+     */
+    @Test
+    public void evictOldest() throws Exception {
+        File directory = folder.newFolder();
+        DiskResultCache cache = new DiskResultCache(directory.getAbsolutePath(), 2);
+        cache.put("a", 1f);
+        cache.put("b", 2f);
+        age(directory, "a", 20000);
+        age(directory, "b", 10000);
+
+        cache.put("c", 3f);
+
+        assertNull(cache.get("a"));
+        assertEquals(2f, cache.get("b"), 0f);
+        assertEquals(3f, cache.get("c"), 0f);
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    /**
+     * A hit touches the entry, so the least recently used entry is evicted instead of the oldest one
+     *
+     * @throws Exception if the folder couldn't be created
+     */
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        File directory = folder.newFolder();
+        DiskResultCache cache = new DiskResultCache(directory.getAbsolutePath(), 2);
+        cache.put("a", 1f);
+        cache.put("b", 2f);
+        age(directory, "a", 20000);
+        age(directory, "b", 10000);
+
+        assertEquals(1f, cache.get("a"), 0f);
+        cache.put("c", 3f);
+
+        assertEquals(1f, cache.get("a"), 0f);
+        assertNull(cache.get("b"));
+        assertEquals(3f, cache.get("c"), 0f);
+    }
+
+    /**
+     * Sets the modification time of an entry into the past, the file system resolution may be a second or coarser
+     *
+     * @param directory the cache directory
+     * @param key the cache key
+     * @param millis the age in milliseconds
+     */
+    private static void age(File directory, String key, long millis) {
+        assertTrue(new File(directory, key).setLastModified(System.currentTimeMillis() - millis));
+    }
+
+}
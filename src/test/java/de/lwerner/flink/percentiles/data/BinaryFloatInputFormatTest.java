@@ -0,0 +1,143 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the split alignment of the binary float input format
+ *
+ * @author Lukas Werner
+ */
+public class BinaryFloatInputFormatTest {
+
+    /**
+     * The value count
+     */
+    private static final int COUNT = 1001;
+
+    /**
+     * Folder for the written files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Floats, read memory-mapped
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    @Test
+    public void mappedFloats() throws Exception {
+        assertEveryValueReadOnce(BinaryFloatInputFormat.TYPE_FLOAT, true);
+    }
+
+    /**
+     * Floats, read as a stream
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    @Test
+    public void streamedFloats() throws Exception {
+        assertEveryValueReadOnce(BinaryFloatInputFormat.TYPE_FLOAT, false);
+    }
+
+    /**
+     * Doubles, read memory-mapped
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    @Test
+    public void mappedDoubles() throws Exception {
+        assertEveryValueReadOnce(BinaryFloatInputFormat.TYPE_DOUBLE, true);
+    }
+
+    /**
+     * Doubles, read as a stream
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    @Test
+    public void streamedDoubles() throws Exception {
+        assertEveryValueReadOnce(BinaryFloatInputFormat.TYPE_DOUBLE, false);
+    }
+
+    /**
+     * Compressed files can't be split at value boundaries
+     *
+     * @throws Exception if the file couldn't be written
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectCompressedFiles() throws Exception {
+        File file = folder.newFile("values.gz");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[8]);
+        }
+
+        BinaryFloatInputFormat format = new BinaryFloatInputFormat(BinaryFloatInputFormat.TYPE_FLOAT, new Path(file.toURI()));
+        format.configure(new Configuration());
+        format.createInputSplits(2);
+    }
+
+    /**
+     * Writes the values 0 to COUNT - 1 and an incomplete trailing value, then reads the file with several split
+     * counts, whose boundaries aren't multiples of the value width, and checks, that each value is read exactly once
+     *
+     * @param type the value type (float or double)
+     * @param memoryMapped true to map the file
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    private void assertEveryValueReadOnce(String type, boolean memoryMapped) throws Exception {
+        File file = folder.newFile();
+        float[] values = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = i;
+        }
+        try (BinaryFileWriter writer = new BinaryFileWriter(file, type)) {
+            writer.write(values, COUNT);
+        }
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+
+        for (int numSplits: new int[] {1, 2, 3, 7, 13, 64}) {
+            BinaryFloatInputFormat format = new BinaryFloatInputFormat(type, new Path(file.toURI()));
+            format.setMemoryMapped(memoryMapped);
+            format.configure(new Configuration());
+
+            List<Float> read = new ArrayList<>();
+            for (FileInputSplit split: format.createInputSplits(numSplits)) {
+                format.open(split);
+                Tuple1<Float> reuse = new Tuple1<>();
+                while (!format.reachedEnd()) {
+                    Tuple1<Float> record = format.nextRecord(reuse);
+                    if (record == null) {
+                        break;
+                    }
+                    read.add(record.f0);
+                }
+                format.close();
+            }
+
+            Collections.sort(read);
+            assertEquals("splits: " + numSplits, COUNT, read.size());
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals("splits: " + numSplits, values[i], read.get(i), 0f);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the block file writer
+ *
+ * @author Lukas Werner
+ */
+public class BlockFileWriterTest {
+
+    /**
+     * Folder for the written files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Each block header holds min, max and count of its values, including infinite values
+     *
+     * @throws Exception if the file couldn't be written
+     */
+    @Test
+    public void blockHeaders() throws Exception {
+        File file = folder.newFile();
+        try (BlockFileWriter writer = new BlockFileWriter(file, 3)) {
+            writer.write(new float[] {2f, -1f, 5f, Float.POSITIVE_INFINITY, 0.5f}, 5);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BlockFile.FILE_HEADER_SIZE + 2 * BlockFile.blockSize(3), buffer.limit());
+        assertEquals(BlockFile.MAGIC, buffer.getInt(0));
+
+        int first = BlockFile.FILE_HEADER_SIZE;
+        assertEquals(-1f, buffer.getFloat(first), 0f);
+        assertEquals(5f, buffer.getFloat(first + 4), 0f);
+        assertEquals(3, buffer.getInt(first + 8));
+
+        int second = first + BlockFile.blockSize(3);
+        assertEquals(0.5f, buffer.getFloat(second), 0f);
+        assertEquals(Float.POSITIVE_INFINITY, buffer.getFloat(second + 4), 0f);
+        assertEquals(2, buffer.getInt(second + 8));
+    }
+
+    /**
+     * NaN is rejected, instead of spreading into the zone map
+     *
+     * @throws Exception if the file couldn't be written
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectNaN() throws Exception {
+        try (BlockFileWriter writer = new BlockFileWriter(folder.newFile(), 3)) {
+            writer.add(1f);
+            writer.add(Float.NaN);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the resolution of path specifications and the splits of several paths
+ *
+ * @author Lukas Werner
+ */
+public class FilePathsTest {
+
+    /**
+     * Folder for the written files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The root of the written files
+     */
+    private String root;
+
+    /**
+     * Writes a.csv, b.csv, c.csv, the hidden files _SUCCESS and .a.csv.crc and a directory with d.csv and a hidden
+     * _temporary directory
+     *
+     * @throws IOException if a file couldn't be written
+     */
+    @Before
+    public void writeFiles() throws IOException {
+        File directory = folder.getRoot();
+        for (String name: new String[] {"a.csv", "b.csv", "c.csv", "_SUCCESS", ".a.csv.crc", "d/d.csv", "d/_temporary/e.csv"}) {
+            File file = new File(directory, name);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), "1\n2\n3\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        root = "file://" + directory.getAbsolutePath();
+    }
+
+    /**
+     * Commas separate paths, spaces around them are ignored
+     */
+    @Test
+    public void commaSeparatedPaths() {
+        assertNames(FilePaths.resolve(root + "/a.csv, " + root + "/c.csv"), "a.csv", "c.csv");
+    }
+
+    /**
+     * Commas inside of braces belong to the glob pattern
+     */
+    @Test
+    public void braceGlob() {
+        assertNames(FilePaths.resolve(root + "/{a,b}.csv"), "a.csv", "b.csv");
+        assertNames(FilePaths.resolve(root + "/{a,c}.csv," + root + "/d"), "a.csv", "c.csv", "d");
+    }
+
+    /**
+     * Glob matches skip hidden files like the directory listing, an explicit path doesn't
+     *
+     * @throws IOException if the files couldn't be listed
+     */
+    @Test
+    public void hiddenFiles() throws IOException {
+        assertNames(FilePaths.resolve(root + "/*"), "a.csv", "b.csv", "c.csv", "d");
+        assertNames(FilePaths.resolve(root + "/_SUCCESS"), "_SUCCESS");
+
+        assertEquals(4, FilePaths.listFiles(FilePaths.resolve(root)).size());
+    }
+
+    /**
+     * A path without a match is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void noMatch() {
+        FilePaths.resolve(root + "/x*.csv");
+    }
+
+    /**
+     * A glob, which only matches hidden files, matches nothing
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyHiddenMatches() {
+        FilePaths.resolve(root + "/*.crc");
+    }
+
+    /**
+     * A path without scheme is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void noScheme() {
+        FilePaths.resolve(folder.getRoot().getAbsolutePath());
+    }
+
+    /**
+     * The splits of several paths are numbered consecutively and cover each visible file once
+     *
+     * @throws IOException if the files couldn't be listed
+     */
+    @Test
+    public void splitsAreRenumbered() throws IOException {
+        Path[] paths = FilePaths.resolve(root + "/{a,b}.csv," + root + "/d");
+        FloatTextInputFormat format = new FloatTextInputFormat(paths);
+
+        FileInputSplit[] splits = format.createInputSplits(6);
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < splits.length; i++) {
+            assertEquals(i, splits[i].getSplitNumber());
+            names.add(splits[i].getPath().getName());
+        }
+        assertTrue(splits.length >= 3);
+        assertEquals(new HashSet<>(Arrays.asList("a.csv", "b.csv", "d.csv")), names);
+    }
+
+    /**
+     * Compares the names of the resolved paths
+     *
+     * @param paths the resolved paths
+     * @param names the expected names
+     */
+    private static void assertNames(Path[] paths, String... names) {
+        assertEquals(names.length, paths.length);
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], paths[i].getName());
+        }
+    }
+
+}
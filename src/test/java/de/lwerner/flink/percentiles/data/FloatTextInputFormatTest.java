@@ -0,0 +1,99 @@
+package de.lwerner.flink.percentiles.data;
+
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the float text input format
+ *
+ * @author Lukas Werner
+ */
+public class FloatTextInputFormatTest {
+
+    /**
+     * Folder for the written files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Windows line endings, surrounding whitespace and blank lines
+     *
+     * @throws Exception if the file couldn't be written or read
+     */
+    @Test
+    public void whitespaceAndBlankLines() throws Exception {
+        List<Float> values = read("1.5\r\n\n  -2\t\n\r\n3e2 \n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, values.size());
+        assertEquals(1.5f, values.get(0), 0f);
+        assertEquals(-2f, values.get(1), 0f);
+        assertEquals(300f, values.get(2), 0f);
+    }
+
+    /**
+     * Trailing non-ASCII bytes aren't whitespace, so the line is rejected like Float.parseFloat does
+     *
+     * @throws Exception if the file couldn't be written
+     */
+    @Test(expected = NumberFormatException.class)
+    public void rejectTrailingNonAscii() throws Exception {
+        read("1\n1.5é\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A line of only non-ASCII bytes is no blank line
+     *
+     * @throws Exception if the file couldn't be written
+     */
+    @Test(expected = NumberFormatException.class)
+    public void rejectNonAsciiLine() throws Exception {
+        read("1\néé\n2\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the bytes to a file and reads all of its values through the input format
+     *
+     * @param content the file content
+     *
+     * @return the read values
+     *
+     * @throws IOException if the file couldn't be written or read
+     */
+    private List<Float> read(byte[] content) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content);
+
+        FloatTextInputFormat format = new FloatTextInputFormat(new Path(file.toURI()));
+        format.configure(new Configuration());
+
+        List<Float> values = new ArrayList<>();
+        for (FileInputSplit split: format.createInputSplits(1)) {
+            format.open(split);
+            while (!format.reachedEnd()) {
+                Tuple1<Float> record = format.nextRecord(new Tuple1<>());
+                if (record != null) {
+                    values.add(record.f0);
+                }
+            }
+            format.close();
+        }
+
+        return values;
+    }
+
+}
@@ -0,0 +1,129 @@
+package de.lwerner.flink.percentiles.functions.streaming;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.api.common.functions.util.RuntimeUDFContext;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the parallel generator source
+ *
+ * @author Lukas Werner
+ */
+public class GeneratorSourceFunctionTest {
+
+    /**
+     * The subtasks of an ascending source emit 1 to count (scaled) exactly once, in order over the subtasks
+     *
+     * @throws Exception if the source fails
+     */
+    @Test
+    public void ascendingSlices() throws Exception {
+        List<Float> values = runAllSubtasks("asc", 1003, 4);
+
+        assertEquals(1003, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals((i + 1) * 0.00001f, values.get(i), 0f);
+        }
+    }
+
+    /**
+     * The subtasks of a descending source emit count to 1 (scaled) exactly once, all values are positive
+     *
+     * @throws Exception if the source fails
+     */
+    @Test
+    public void descendingSlices() throws Exception {
+        List<Float> values = runAllSubtasks("desc", 1003, 4);
+
+        assertEquals(1003, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals((1003 - i) * 0.00001f, values.get(i), 0f);
+        }
+    }
+
+    /**
+     * Runs all subtasks of a bounded source one after another
+     *
+     * @param type the generator name
+     * @param count number of values over all subtasks
+     * @param parallelism number of subtasks
+     *
+     * @return the values of all subtasks, in subtask order
+     *
+     * @throws Exception if the source fails
+     */
+    private static List<Float> runAllSubtasks(String type, long count, int parallelism) throws Exception {
+        List<Float> values = new ArrayList<>();
+        for (int subtask = 0; subtask < parallelism; subtask++) {
+            GeneratorSourceFunction source = new GeneratorSourceFunction(type, 42, 0, 3, count);
+            source.setRuntimeContext(new RuntimeUDFContext(new TaskInfo("generator", parallelism, subtask, parallelism, 0),
+                    GeneratorSourceFunctionTest.class.getClassLoader(), new ExecutionConfig(), new HashMap<>(),
+                    new HashMap<>(), new UnregisteredMetricsGroup()));
+            source.run(new CollectingSourceContext(values));
+        }
+
+        return values;
+    }
+
+    /**
+     * Source context, which collects the values into a list
+     *
+     * @author Lukas Werner
+     */
+    private static class CollectingSourceContext implements SourceFunction.SourceContext<Tuple3<String, Long, Float>> {
+
+        /**
+         * The collected values
+         */
+        private final List<Float> values;
+
+        /**
+         * Constructor, sets the list
+         *
+         * @param values the collected values
+         */
+        private CollectingSourceContext(List<Float> values) {
+            this.values = values;
+        }
+
+        @Override
+        public void collect(Tuple3<String, Long, Float> element) {
+            values.add(element.f2);
+        }
+
+        @Override
+        public void collectWithTimestamp(Tuple3<String, Long, Float> element, long timestamp) {
+            collect(element);
+        }
+
+        @Override
+        public void emitWatermark(Watermark mark) {
+        }
+
+        @Override
+        public void markAsTemporarilyIdle() {
+        }
+
+        @Override
+        public Object getCheckpointLock() {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
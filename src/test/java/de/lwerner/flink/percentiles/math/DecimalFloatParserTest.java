@@ -0,0 +1,104 @@
+package de.lwerner.flink.percentiles.math;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the decimal float parser
+ *
+ * @author Lukas Werner
+ */
+public class DecimalFloatParserTest {
+
+    /**
+     * Checks the parser against Float.parseFloat for random floats and doubles and their string forms
+     */
+    @Test
+    public void parseRandom() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            check(Float.toString(Float.intBitsToFloat(random.nextInt())));
+            check(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+            check(random.nextInt(2000000) / 1000.0 + "");
+            check((random.nextInt(100000) - 50000) + "e" + (random.nextInt(30) - 15));
+        }
+    }
+
+    /**
+     * Decimals next to the midpoint of two floats are rounded like Float.parseFloat does
+     */
+    @Test
+    public void parseNearMidpoints() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            float value = random.nextFloat() * (float)Math.pow(10, random.nextInt(20) - 10);
+            BigDecimal midpoint = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).divide(BigDecimal.valueOf(2));
+            for (int digits = 8; digits <= 17; digits++) {
+                check(midpoint.round(new MathContext(digits)).toString());
+            }
+        }
+
+        check("16777217");
+        check("16777219");
+    }
+
+    /**
+     * Special forms and whitespace
+     */
+    @Test
+    public void parseSpecial() {
+        for (String value: new String[] {"0", "-0", "+1", ".5", "5.", "0.000001", " 42.5 ", "1.5\r", "1E3", "1e+3",
+                "-1.25e-3", "3.4028235e38", "1e39", "1e-46", "NaN", "-Infinity", "1.5f", "0x1.8p1",
+                "123456789012345678901234567890"}) {
+            check(value);
+        }
+
+        for (String value: new String[] {"", "-", ".", "1e", "abc", "1.2.3", "1.5\u00e9", "\u00a01.5"}) {
+            try {
+                parse(value);
+                fail("Expected a NumberFormatException for: " + value);
+            } catch (NumberFormatException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Non-ASCII bytes (e.g. UTF-8 encoded characters) are no whitespace, so they aren't trimmed away
+     */
+    @Test(expected = NumberFormatException.class)
+    public void rejectTrailingUtf8() {
+        byte[] bytes = "1.5\u00e9".getBytes(StandardCharsets.UTF_8);
+
+        DecimalFloatParser.parse(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Asserts, that the parser gives the same bits as Float.parseFloat
+     *
+     * @param value the string to parse
+     */
+    private static void check(String value) {
+        assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(parse(value)));
+    }
+
+    /**
+     * Parses a string with an offset, like inside of a line buffer
+     *
+     * @param value the string to parse
+     *
+     * @return the parsed float
+     */
+    private static float parse(String value) {
+        byte[] bytes = ("xx" + value + "yy").getBytes(StandardCharsets.ISO_8859_1);
+
+        return DecimalFloatParser.parse(bytes, 2, bytes.length - 4);
+    }
+
+}
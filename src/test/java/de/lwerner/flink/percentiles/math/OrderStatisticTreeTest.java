@@ -0,0 +1,92 @@
+package de.lwerner.flink.percentiles.math;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the order statistic tree
+ *
+ * @author Lukas Werner
+ */
+public class OrderStatisticTreeTest {
+
+    /**
+     * Checks select and rank against a sorted list, while inserting and removing values (with duplicates)
+     */
+    @Test
+    public void selectAndRank() {
+        Random random = new Random(42);
+        OrderStatisticTree tree = new OrderStatisticTree();
+        List<Float> values = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            float value = random.nextInt(500) / 4f;
+            tree.insert(value);
+            values.add(value);
+
+            if (i % 3 == 0) {
+                Float removed = values.remove(random.nextInt(values.size()));
+                assertTrue(tree.remove(removed));
+            }
+        }
+
+        Collections.sort(values);
+
+        assertEquals(values.size(), tree.size());
+        for (int k = 1; k <= values.size(); k++) {
+            assertEquals(values.get(k - 1), tree.select(k), 0f);
+        }
+
+        for (float value: new float[] {-1f, 0f, 10.25f, 62.5f, 200f}) {
+            long less = values.stream().filter(v -> v < value).count();
+            assertEquals(less, tree.rank(value));
+        }
+    }
+
+    /**
+     * Removing a value, which isn't present, doesn't change the tree
+     */
+    @Test
+    public void removeMissing() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        tree.insert(1f);
+        tree.insert(1f);
+
+        assertFalse(tree.remove(2f));
+        assertTrue(tree.remove(1f));
+        assertEquals(1, tree.size());
+        assertEquals(1f, tree.select(1), 0f);
+    }
+
+    /**
+     * NaN is ordered after all other values, so removing it or other values keeps the tree consistent
+     */
+    @Test
+    public void nanIsOrderedLast() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        tree.insert(2f);
+        tree.insert(Float.NaN);
+        tree.insert(1f);
+        tree.insert(3f);
+
+        assertEquals(Float.NaN, tree.select(4), 0f);
+        assertEquals(3, tree.rank(Float.NaN));
+
+        assertTrue(tree.remove(2f));
+        assertEquals(1f, tree.select(1), 0f);
+        assertEquals(3f, tree.select(2), 0f);
+
+        assertTrue(tree.remove(Float.NaN));
+        assertEquals(2, tree.size());
+        assertEquals(1f, tree.select(1), 0f);
+        assertEquals(3f, tree.select(2), 0f);
+        assertFalse(tree.remove(Float.NaN));
+    }
+
+}
@@ -2,6 +2,8 @@ package de.lwerner.flink.percentiles.math;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -40,6 +42,57 @@ public class QuickSelectTest {
         checkSelectGeneralized(true);
     }
 
+    /**
+     * The unit test for checking if the primitive array select method works properly
+     */
+    @Test
+    public void selectPrimitive() {
+        QuickSelect quickSelect = new QuickSelect();
+
+        List<Float> shuffled = new LinkedList<>();
+        for (int i = 1; i <= 100; i++) {
+            shuffled.add(i * FACTOR);
+        }
+        Collections.shuffle(shuffled);
+
+        float[] values = new float[shuffled.size() + 10];
+        for (int i = 0; i < shuffled.size(); i++) {
+            values[i] = shuffled.get(i);
+        }
+
+        assertEquals(1 * FACTOR, quickSelect.select(values, 100, 0), ALLOWED_ERROR);
+        assertEquals(50 * FACTOR, quickSelect.select(values, 100, 49), ALLOWED_ERROR);
+        assertEquals(100 * FACTOR, quickSelect.select(values, 100, 99), ALLOWED_ERROR);
+    }
+
+    /**
+     * All-equal and mostly equal values are selected with a three-way partition, so they are neither quadratic nor
+     * deep in the recursion
+     */
+    @Test
+    public void selectEqualValues() {
+        QuickSelect quickSelect = new QuickSelect();
+
+        float[] values = new float[1000000];
+        Arrays.fill(values, 0.5f);
+        assertEquals(0.5f, quickSelect.select(values, values.length, 0), 0f);
+        assertEquals(0.5f, quickSelect.select(values, values.length, 499999), 0f);
+        assertEquals(0.5f, quickSelect.select(values, values.length, 999999), 0f);
+
+        List<Float> list = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            list.add(i % 10 == 0 ? i * FACTOR : 0.5f);
+        }
+        Collections.shuffle(list);
+        List<Float> sorted = new ArrayList<>(list);
+        Collections.sort(sorted);
+
+        for (int k: new int[] {0, 4, 50000, 89999, 99999}) {
+            assertEquals(sorted.get(k), quickSelect.select(new ArrayList<>(list), k, false), 0f);
+            assertEquals(sorted.get(k), quickSelect.select(new ArrayList<>(list), k, true), 0f);
+        }
+    }
+
     private void checkSelectGeneralized(boolean recursive) {
         QuickSelect quickSelect = new QuickSelect();
 
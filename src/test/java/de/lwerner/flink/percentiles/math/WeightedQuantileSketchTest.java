@@ -0,0 +1,55 @@
+package de.lwerner.flink.percentiles.math;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the weighted quantile sketch
+ *
+ * @author Lukas Werner
+ */
+public class WeightedQuantileSketchTest {
+
+    /**
+     * Maximum allowed rank error
+     */
+    private static final double ALLOWED_ERROR = 0.02;
+
+    /**
+     * Uniform values in [0, 1) should give quantiles close to q after many compactions
+     */
+    @Test
+    public void quantile() {
+        Random random = new Random(42);
+        WeightedQuantileSketch sketch = new WeightedQuantileSketch(100);
+
+        for (int i = 0; i < 100000; i++) {
+            sketch.add(random.nextFloat(), 1);
+        }
+
+        assertTrue(sketch.size() <= 200);
+        for (double q: new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            assertEquals(q, sketch.quantile(q), ALLOWED_ERROR);
+        }
+    }
+
+    /**
+     * Weights are respected: a value with the weight of all others together is the median
+     */
+    @Test
+    public void weightedQuantile() {
+        WeightedQuantileSketch sketch = new WeightedQuantileSketch();
+
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i, 1);
+        }
+        sketch.add(1000, 100);
+
+        assertEquals(100f, sketch.quantile(0.5), 0f);
+        assertEquals(1000f, sketch.quantile(0.51), 0f);
+    }
+
+}
@@ -0,0 +1,63 @@
+package de.lwerner.flink.percentiles.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * A few unit tests for the sliding window state
+ *
+ * @author Lukas Werner
+ */
+public class SlidingWindowStateTest {
+
+    /**
+     * Checks the percentiles of windows of every size up to 1000 against the exact rank ceil(size * p / 100)
+     */
+    @Test
+    public void percentileRank() {
+        SlidingWindowState state = new SlidingWindowState();
+
+        for (int size = 1; size <= 1000; size++) {
+            state.add(size, size);
+
+            for (int p: new int[] {1, 25, 50, 75, 99, 100}) {
+                long k = Math.max(1, (size * p + 99) / 100);
+                assertEquals("size: " + size + ", p: " + p, k, state.percentile(p), 0f);
+            }
+        }
+    }
+
+    /**
+     * Out-of-order values are inserted at their timestamp, so eviction by time removes exactly the older values, also
+     * after the ring buffer grew and wrapped around
+     */
+    @Test
+    public void outOfOrderEviction() {
+        SlidingWindowState state = new SlidingWindowState();
+
+        // Timestamps 0 to 99, each pair swapped, value = timestamp
+        for (int i = 0; i < 100; i += 2) {
+            state.insert(i + 1, i + 1);
+            state.insert(i, i);
+            state.evictBefore(i - 20);
+        }
+
+        assertEquals(99, state.getNewestTimestamp());
+        state.evictBefore(90);
+
+        assertEquals(10, state.size());
+        for (int k = 1; k <= 10; k++) {
+            assertEquals(89 + k, state.select(k), 0f);
+        }
+
+        // A late value inside of the window
+        state.insert(95, -1f);
+        assertEquals(99, state.getNewestTimestamp());
+        state.evictBefore(96);
+
+        assertEquals(4, state.size());
+        assertEquals(96f, state.select(1), 0f);
+    }
+
+}